@@ -15,11 +15,10 @@
  */
 package org.drools.workbench.jcr2vfsmigration.jcrExport;
 
-import java.io.FileNotFoundException;
+import java.io.IOException;
 import java.io.PrintWriter;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collection;
 import java.util.Comparator;
 import java.util.List;
 import javax.inject.Inject;
@@ -49,13 +48,13 @@ import org.drools.workbench.jcr2vfsmigration.jcrExport.asset.GuidedEditorExporte
 import org.drools.workbench.jcr2vfsmigration.jcrExport.asset.PlainTextAssetExporter;
 import org.drools.workbench.jcr2vfsmigration.jcrExport.asset.PlainTextAssetWithPackagePropertyExporter;
 import org.drools.workbench.jcr2vfsmigration.util.ExportUtils;
+import org.drools.workbench.jcr2vfsmigration.xml.format.ModuleXmlFormat;
 import org.drools.workbench.jcr2vfsmigration.xml.format.ModulesXmlFormat;
-import org.drools.workbench.jcr2vfsmigration.xml.format.XmlAssetsFormat;
+import org.drools.workbench.jcr2vfsmigration.xml.format.XmlAssetsWriter;
+import org.drools.workbench.jcr2vfsmigration.xml.format.XmlFormat;
 import org.drools.workbench.jcr2vfsmigration.xml.model.ModuleType;
-import org.drools.workbench.jcr2vfsmigration.xml.model.Modules;
 import org.drools.workbench.jcr2vfsmigration.xml.model.asset.IgnoredAsset;
 import org.drools.workbench.jcr2vfsmigration.xml.model.asset.XmlAsset;
-import org.drools.workbench.jcr2vfsmigration.xml.model.asset.XmlAssets;
 
 public class ModuleAssetExporter {
 
@@ -96,8 +95,7 @@ public class ModuleAssetExporter {
     @Inject
     private AttachmentAssetExporter attachmentAssetExporter;
 
-    ModulesXmlFormat modulesXmlFormat = new ModulesXmlFormat();
-    XmlAssetsFormat xmlAssetsFormat = new XmlAssetsFormat();
+    ModuleXmlFormat moduleXmlFormat = new ModuleXmlFormat();
 
     public void exportAll() {
 
@@ -110,20 +108,21 @@ public class ModuleAssetExporter {
             return;
         }
 
-        Collection<org.drools.workbench.jcr2vfsmigration.xml.model.Module> normalModules = new ArrayList<org.drools.workbench.jcr2vfsmigration.xml.model.Module>( 5 );
+        // Modules are written as they are exported; the global module may be read back from any position
+        PrintWriter pw = fileManager.createModuleExportFileWriter();
+        StringBuilder xml = new StringBuilder();
+        pw.print( XmlFormat.LT + ModulesXmlFormat.MODULES + XmlFormat.GT );
         for ( Module jcrModule : jcrModules ) {
-            normalModules.add( export( ModuleType.NORMAL, jcrModule ) );
+            xml.setLength( 0 );
+            moduleXmlFormat.format( xml, export( ModuleType.NORMAL, jcrModule ) );
+            pw.print( xml.toString() );
+            pw.flush();
         }
 
-        org.drools.workbench.jcr2vfsmigration.xml.model.Module globalModule = export( ModuleType.GLOBAL, jcrGlobalModule );
-
-        Modules modules = new Modules( globalModule, normalModules );
-
-        StringBuilder xml = new StringBuilder();
-        modulesXmlFormat.format( xml, modules );
-
-        PrintWriter pw = fileManager.createModuleExportFileWriter();
+        xml.setLength( 0 );
+        moduleXmlFormat.format( xml, export( ModuleType.GLOBAL, jcrGlobalModule ) );
         pw.print( xml.toString() );
+        pw.print( XmlFormat.LT_SLASH + ModulesXmlFormat.MODULES + XmlFormat.GT );
         pw.close();
 
         System.out.println( "  Module export ended" );
@@ -199,13 +198,11 @@ public class ModuleAssetExporter {
     private boolean exportModuleAssets( Module jcrModule, String assetFileName ) {
         System.out.println( "  Asset export started for module " + jcrModule.getUuid() );
 
-        Collection<XmlAsset> assets = new ArrayList<XmlAsset>( 10 );
-
-        StringBuilder xml = new StringBuilder();
-        PrintWriter pw = null;
+        // Assets are written as they are exported, so that a module's assets and their history are never all held in memory
+        XmlAssetsWriter xmlAssetsWriter = null;
         try {
-            pw = fileManager.createAssetExportFileWriter( assetFileName );
-        } catch ( FileNotFoundException e ) {
+            xmlAssetsWriter = new XmlAssetsWriter( fileManager.createAssetExportFileWriter( assetFileName ) );
+        } catch ( IOException e ) {
             System.out.println( e.getMessage() );
             return false;
         }
@@ -214,55 +211,73 @@ public class ModuleAssetExporter {
         int startRowIndex = 0;
         final int pageSize = 100;
         PageResponse<AssetPageRow> response;
-        while (hasMorePages) {
-            AssetPageRequest request = new AssetPageRequest(jcrModule.getUuid(),
-                    null, // get all formats
-                    null,
-                    startRowIndex,
-                    pageSize);
-            String assetName="";
-            try {
-                response = jcrRepositoryAssetService.findAssetPage(request);
-                for (AssetPageRow row : response.getPageRowList()) {
-                    AssetItem assetItemJCR = rulesRepository.loadAssetByUUID( row.getUuid() );
-                    assetName = assetItemJCR.getName();
-                    boolean isDisabled = assetItemJCR.getDisabled();
-                    if ( isDisabled ) {
-                        System.out.format("    Asset [%s] with format [%s] is disabled and will be skipped... %n",
-                                assetItemJCR.getName(), assetItemJCR.getFormat());
-                    } else {
-                        System.out.format("    Asset [%s] with format [%s] is being migrated... %n",
-                                assetItemJCR.getName(), assetItemJCR.getFormat());
-                        //TODO: Git wont check in a version if the file is not changed in this version. Eg, the version 3 of "testFunction.function"
-                        //We need to find a way to force a git check in. Otherwise migrated version history is not consistent with the version history in old Guvnor.
-
-                        //Still need to migrate the "current version" even though in most cases the "current version" (actually it is not a version in version
-                        //control, its just the current content on jcr node) is equal to the latest version that had been checked in.
-                        //Eg, when we import mortgage example, we just dump the mortgage package to a jcr node, no version check in.
-                        XmlAsset xmlAsset = export( ExportContext.getInstance( jcrModule, assetItemJCR, assetFileName ) );
-                        xmlAsset.setAssetHistory( exportAssetHistory( ExportContext.getInstance( jcrModule, row.getUuid(), assetFileName ) ) );
-                        assets.add( xmlAsset );
-
-                        System.out.format("    Done.%n");
+        boolean exported = false;
+        try {
+            while (hasMorePages) {
+                AssetPageRequest request = new AssetPageRequest(jcrModule.getUuid(),
+                        null, // get all formats
+                        null,
+                        startRowIndex,
+                        pageSize);
+                String assetName="";
+                try {
+                    response = jcrRepositoryAssetService.findAssetPage(request);
+                    for (AssetPageRow row : response.getPageRowList()) {
+                        AssetItem assetItemJCR = rulesRepository.loadAssetByUUID( row.getUuid() );
+                        assetName = assetItemJCR.getName();
+                        boolean isDisabled = assetItemJCR.getDisabled();
+                        if ( isDisabled ) {
+                            System.out.format("    Asset [%s] with format [%s] is disabled and will be skipped... %n",
+                                    assetItemJCR.getName(), assetItemJCR.getFormat());
+                        } else {
+                            System.out.format("    Asset [%s] with format [%s] is being migrated... %n",
+                                    assetItemJCR.getName(), assetItemJCR.getFormat());
+                            //TODO: Git wont check in a version if the file is not changed in this version. Eg, the version 3 of "testFunction.function"
+                            //We need to find a way to force a git check in. Otherwise migrated version history is not consistent with the version history in old Guvnor.
+
+                            //Still need to migrate the "current version" even though in most cases the "current version" (actually it is not a version in version
+                            //control, its just the current content on jcr node) is equal to the latest version that had been checked in.
+                            //Eg, when we import mortgage example, we just dump the mortgage package to a jcr node, no version check in.
+                            XmlAsset xmlAsset = export( ExportContext.getInstance( jcrModule, assetItemJCR, assetFileName ) );
+                            xmlAssetsWriter.startAsset( xmlAsset );
+                            exportAssetHistory( ExportContext.getInstance( jcrModule, row.getUuid(), assetFileName ), xmlAssetsWriter );
+                            xmlAssetsWriter.endAsset();
+
+                            System.out.format("    Done.%n");
+                        }
                     }
+                    // Flush each page of assets, rather than the whole module at the end
+                    xmlAssetsWriter.flush();
+                } catch (SerializationException e) {
+                    System.out.println("SerializationException exporting asset: " + assetName +" from module: " + jcrModule.getName());
+                    return false;
+                } catch (Exception e) {
+                    System.out.println("Exception migrating exporting: " + assetName +" from module: " + jcrModule.getName());
+                    return false;
                 }
-            } catch (SerializationException e) {
-                System.out.println("SerializationException exporting asset: " + assetName +" from module: " + jcrModule.getName());
-                return false;
-            } catch (Exception e) {
-                System.out.println("Exception migrating exporting: " + assetName +" from module: " + jcrModule.getName());
-                return false;
-            }
 
-            if (response.isLastPage()) {
-                hasMorePages = false;
-            } else {
-                startRowIndex += pageSize;
+                if (response.isLastPage()) {
+                    hasMorePages = false;
+                } else {
+                    startRowIndex += pageSize;
+                }
+            }
+            xmlAssetsWriter.close();
+            exported = true;
+        } catch ( IOException e ) {
+            System.out.println( "Exception completing asset export for module: " + jcrModule.getName() + "; " + e.getMessage() );
+            return false;
+        } finally {
+            // A failed export is discarded, rather than closed into a well-formed but truncated file that would be imported
+            if ( !exported ) {
+                try {
+                    xmlAssetsWriter.abort();
+                } catch ( IOException e ) {
+                    System.out.println( e.getMessage() );
+                }
+                fileManager.deleteAssetExportFile( assetFileName );
             }
         }
-        xmlAssetsFormat.format( xml, new XmlAssets( assets ) );
-        pw.print( xml.toString() );
-        pw.close();
         return true;
     }
 
@@ -331,9 +346,7 @@ public class ModuleAssetExporter {
         return new IgnoredAsset();
     }
 
-    private XmlAssets exportAssetHistory( ExportContext historyContext ) throws SerializationException {
-        XmlAssets xmlAssets = new XmlAssets();
-
+    private void exportAssetHistory( ExportContext historyContext, XmlAssetsWriter xmlAssetsWriter ) throws SerializationException, IOException {
         //loadItemHistory wont return the current version
         String currentVersionAssetName="";
         try {
@@ -358,7 +371,7 @@ public class ModuleAssetExporter {
                 ExportContext historicalAssetExportContext = ExportContext.getInstance( historyContext.getJcrModule(),
                                                                                         historicalAssetJCR,
                                                                                         historicalAssetExportFileName );
-                xmlAssets.addAsset( export( historicalAssetExportContext ) );
+                xmlAssetsWriter.writeHistoryAsset( export( historicalAssetExportContext ) );
 
                 System.out.format( "    Asset (%s) with format (%s) migrated: version [%s], comment[%s], lastModified[%s] %n",
                         historicalAssetJCR.getName(), historicalAssetJCR.getFormat(), historicalAssetJCR.getVersionNumber(), historicalAssetJCR.getCheckinComment(), historicalAssetJCR.getLastModified().getTime() );
@@ -367,7 +380,6 @@ public class ModuleAssetExporter {
             System.out.println( "Exception migrating assetHistory at version: " + currentVersionAssetName +
                     " from module: " + historyContext.getJcrModule().getName() );
         }
-        return  xmlAssets;
     }
 
     // Attempt creation of the asset export file firstly with the module's uuid. If this were null or the file could not
@@ -21,10 +21,11 @@ import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
 
 import org.drools.workbench.jcr2vfsmigration.config.VfsImportConfig;
+import org.drools.workbench.jcr2vfsmigration.util.MigrationCheckpoint;
 import org.drools.workbench.jcr2vfsmigration.util.MigrationPathManager;
 import org.drools.workbench.jcr2vfsmigration.common.FileManager;
 import org.drools.workbench.jcr2vfsmigration.vfsImport.CategoryImporter;
-import org.drools.workbench.jcr2vfsmigration.vfsImport.ModuleAssetImporter;
+import org.drools.workbench.jcr2vfsmigration.vfsImport.ModuleImportScheduler;
 import org.jboss.weld.context.bound.BoundRequestContext;
 import org.jboss.weld.context.bound.BoundSessionContext;
 
@@ -44,7 +45,10 @@ public class VfsImporter {
     protected MigrationPathManager migrationPathManager;
 
     @Inject
-    protected ModuleAssetImporter moduleAssetImporter;
+    protected ModuleImportScheduler moduleImportScheduler;
+
+    @Inject
+    protected MigrationCheckpoint checkpoint;
 
     @Inject
     protected BoundSessionContext sessionContext;
@@ -67,6 +71,7 @@ public class VfsImporter {
         try {
             migrationPathManager.setRepoName( vfsImportConfig.getOutputRepoName(), vfsImportConfig.getOutputVfsRepository().getCanonicalPath() );
             startContexts();
+            checkpoint.open( vfsImportConfig.isResume() );
 
             //TO-DO-LIST:
             //1. Migrate globalArea: handle asset imported from globalArea. assetServiceJCR.findAssetPage will return assets imported from globalArea
@@ -77,13 +82,15 @@ public class VfsImporter {
             //(and dont forget to migrate category based permission, ie, analyst/analyst.readonly)
 
             categoryImporter.importAll();
-            moduleAssetImporter.importAll();
+            moduleImportScheduler.importAll();
 
-            // TODO Refresh the index at the end, similar as in https://github.com/droolsjbpm/kie-commons/blob/master/kieora/kieora-commons-io/src/test/java/org/kie/kieora/io/BatchIndexTest.java
+            // Each asset's versions are written in a batch, and indexed once that batch ends (see ModuleAssetImporter)
             endContexts();
         } catch ( Throwable t ) {
             //We print out whatever unexpected exceptions we got here
             t.printStackTrace();
+        } finally {
+            checkpoint.close();
         }
 
     }
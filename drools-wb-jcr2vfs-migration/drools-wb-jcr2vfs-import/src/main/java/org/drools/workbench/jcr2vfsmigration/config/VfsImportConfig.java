@@ -38,6 +38,9 @@ public class VfsImportConfig {
 
     private String outputRepoName;
 
+    private int moduleImportThreads;
+    private boolean resume;
+
     public File getImportTempDir() {
         return importTempDir;
     }
@@ -50,6 +53,20 @@ public class VfsImportConfig {
         return outputRepoName;
     }
 
+    /**
+     * The number of modules imported concurrently
+     */
+    public int getModuleImportThreads() {
+        return moduleImportThreads;
+    }
+
+    /**
+     * Whether to continue a previous, interrupted import into the existing outputVfsRepository
+     */
+    public boolean isResume() {
+        return resume;
+    }
+
     // ************************************************************************
     // Configuration methods
     // ************************************************************************
@@ -61,6 +78,8 @@ public class VfsImportConfig {
         options.addOption( "o", "outputVfsRepository", true, "The Guvnor 6 VFS repository" );
         options.addOption( "r", "repoName", true, "The Guvnor 6 VFS Repository name" );
         options.addOption( "f", "forceOverwriteOutputVfsRepository", false, "Force overwriting the Guvnor 6 VFS repository" );
+        options.addOption( "c", "resume", false, "Resume a previous import into the Guvnor 6 VFS repository, skipping the modules and assets it completed" );
+        options.addOption( "t", "threads", true, "The number of modules imported concurrently (default 1)" );
 
         CommandLine commandLine;
         HelpFormatter formatter = new HelpFormatter();
@@ -76,7 +95,7 @@ public class VfsImportConfig {
             return false;
         }
 
-        return ( parseArgInputTempDir( commandLine ) && parseArgOutputVfsRepository( commandLine ) );
+        return ( parseArgInputTempDir( commandLine ) && parseArgOutputVfsRepository( commandLine ) && parseArgThreads( commandLine ) );
     }
 
     private boolean parseArgInputTempDir( CommandLine commandLine ) {
@@ -97,7 +116,12 @@ public class VfsImportConfig {
         outputRepoName = commandLine.getOptionValue( "r", DEFAULT_MIGRATION_FILE_SYSTEM );
         outputVfsRepository = new File( commandLine.getOptionValue( "o", "outputVfs" ) );
         boolean forceOverwriteOutputVfsRepository = commandLine.hasOption( "f" );
-        if ( outputVfsRepository.exists() ) {
+        resume = commandLine.hasOption( "c" );
+        if ( resume && forceOverwriteOutputVfsRepository ) {
+            System.out.println( "The options resume and forceOverwriteOutputVfsRepository cannot be combined." );
+            return false;
+        }
+        if ( outputVfsRepository.exists() && !resume ) {
             if ( forceOverwriteOutputVfsRepository ) {
                 try {
                     FileUtils.deleteDirectory( outputVfsRepository );
@@ -120,4 +144,18 @@ public class VfsImportConfig {
         return true;
     }
 
+    private boolean parseArgThreads( CommandLine commandLine ) {
+        String threads = commandLine.getOptionValue( "t", "1" );
+        try {
+            moduleImportThreads = Integer.parseInt( threads );
+        } catch ( NumberFormatException e ) {
+            moduleImportThreads = 0;
+        }
+        if ( moduleImportThreads < 1 ) {
+            System.out.println( "The number of threads (" + threads + ") must be a positive number." );
+            return false;
+        }
+        return true;
+    }
+
 }
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2015 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.drools.workbench.jcr2vfsmigration.util;
+
+import java.io.PrintWriter;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+
+import org.drools.workbench.jcr2vfsmigration.common.FileManager;
+import org.drools.workbench.jcr2vfsmigration.xml.model.Module;
+import org.drools.workbench.jcr2vfsmigration.xml.model.asset.XmlAsset;
+
+/**
+ * Records the progress of an import in the checkpoint file of the import directory, so that an interrupted import can
+ * be resumed without importing its completed modules and assets again. Each entry is written, and flushed, as soon as
+ * the work it records has been committed to the VFS repository. Entries are keyed by the module's uuid.
+ */
+@ApplicationScoped
+public class MigrationCheckpoint {
+
+    private static final String SEPARATOR = "\t";
+    private static final String PROJECT = "project";
+    private static final String ASSET = "asset";
+    private static final String MODULE = "module";
+
+    @Inject
+    private FileManager fileManager;
+
+    private final Set<String> entries = Collections.newSetFromMap( new ConcurrentHashMap<String, Boolean>() );
+
+    private PrintWriter writer;
+
+    /**
+     * @param resume Whether to keep the entries recorded by a previous import, or to start afresh
+     */
+    public void open( boolean resume ) {
+        entries.clear();
+        if ( resume ) {
+            entries.addAll( new HashSet<String>( fileManager.readCheckpointFile() ) );
+            System.out.println( "  Resuming import, " + entries.size() + " checkpoint entries found" );
+        }
+        writer = fileManager.createCheckpointFileWriter( resume );
+    }
+
+    public void close() {
+        if ( writer != null ) writer.close();
+        writer = null;
+    }
+
+    public boolean isProjectCreated( Module module ) {
+        return entries.contains( key( PROJECT, module.getUuid() ) );
+    }
+
+    public void projectCreated( Module module ) {
+        record( key( PROJECT, module.getUuid() ) );
+    }
+
+    public boolean isAssetImported( Module module, XmlAsset xmlAsset ) {
+        return entries.contains( assetKey( module, xmlAsset ) );
+    }
+
+    public void assetImported( Module module, XmlAsset xmlAsset ) {
+        record( assetKey( module, xmlAsset ) );
+    }
+
+    public boolean isModuleImported( Module module ) {
+        return entries.contains( key( MODULE, module.getUuid() ) );
+    }
+
+    public void moduleImported( Module module ) {
+        record( key( MODULE, module.getUuid() ) );
+    }
+
+    private synchronized void record( String entry ) {
+        if ( !entries.add( entry ) || writer == null ) return;
+        writer.println( entry );
+        writer.flush();
+    }
+
+    private String assetKey( Module module, XmlAsset xmlAsset ) {
+        return key( ASSET, module.getUuid() ) + SEPARATOR + xmlAsset.getAssetType() + SEPARATOR + xmlAsset.getName();
+    }
+
+    private String key( String kind, String moduleUuid ) {
+        return kind + SEPARATOR + moduleUuid;
+    }
+}
@@ -15,8 +15,9 @@
  */
 package org.drools.workbench.jcr2vfsmigration.vfsImport;
 
+import java.io.BufferedInputStream;
 import java.io.File;
-import java.util.Iterator;
+import java.io.FileInputStream;
 import java.util.Map;
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
@@ -24,8 +25,10 @@ import javax.inject.Named;
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 
+import org.apache.commons.io.IOUtils;
 import org.drools.workbench.jcr2vfsmigration.util.PackageImportHelper;
 import org.drools.workbench.jcr2vfsmigration.common.FileManager;
+import org.drools.workbench.jcr2vfsmigration.util.MigrationCheckpoint;
 import org.drools.workbench.jcr2vfsmigration.util.MigrationPathManager;
 import org.drools.workbench.jcr2vfsmigration.vfsImport.asset.AttachmentAssetImporter;
 import org.drools.workbench.jcr2vfsmigration.vfsImport.asset.FactModelImporter;
@@ -36,7 +39,7 @@ import org.drools.workbench.jcr2vfsmigration.vfsImport.asset.PlainTextAssetImpor
 import org.drools.workbench.jcr2vfsmigration.vfsImport.asset.PlainTextAssetWithPackagePropertyImporter;
 import org.drools.workbench.jcr2vfsmigration.vfsImport.asset.TestScenarioImporter;
 import org.drools.workbench.jcr2vfsmigration.xml.format.ModulesXmlFormat;
-import org.drools.workbench.jcr2vfsmigration.xml.format.XmlAssetsFormat;
+import org.drools.workbench.jcr2vfsmigration.xml.format.XmlAssetsStreamReader;
 import org.drools.workbench.jcr2vfsmigration.xml.model.Module;
 import org.drools.workbench.jcr2vfsmigration.xml.model.Modules;
 import org.drools.workbench.jcr2vfsmigration.xml.model.asset.AttachmentAsset;
@@ -55,7 +58,6 @@ import org.uberfire.backend.vfs.Path;
 import org.uberfire.io.IOService;
 import org.uberfire.java.nio.base.options.CommentedOption;
 import org.w3c.dom.Document;
-import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
 
 @ApplicationScoped
@@ -73,6 +75,9 @@ public class ModuleAssetImporter {
     @Inject
     private PackageImportHelper packageImportHelper;
 
+    @Inject
+    private MigrationCheckpoint checkpoint;
+
     @Inject
     @Named("ioStrategy")
     private IOService ioService;
@@ -105,37 +110,28 @@ public class ModuleAssetImporter {
     private AttachmentAssetImporter attachmentAssetImporter;
 
     private ModulesXmlFormat modulesXmlFormat = new ModulesXmlFormat();
-    private XmlAssetsFormat xmlAssetsFormat = new XmlAssetsFormat();
-
-    public void importAll() {
-        System.out.println( "  Module import started" );
-        Document xml = null;
-        try {
-            File modulesXmlFile = fileManager.getModulesExportFile();
-
-            DocumentBuilderFactory dbf = DocumentBuilderFactory.newInstance();
-            DocumentBuilder db = dbf.newDocumentBuilder();
-            xml = db.parse( modulesXmlFile );
-            NodeList children = xml.getChildNodes();
-            if ( children.getLength() > 1 ) throw new Exception( "Wrong modules.xml format" );
 
-            Modules modules = modulesXmlFormat.parse( children.item( 0 ) );
+    /**
+     * Reads the modules exported to modules.xml
+     */
+    public Modules loadModules() throws Exception {
+        File modulesXmlFile = fileManager.getModulesExportFile();
 
-            // import 'normal' modules
-            for ( Iterator<Module> moduleIterator = modules.getModules().iterator(); moduleIterator.hasNext(); ) {
-                importModule( moduleIterator.next() );
-            }
+        DocumentBuilderFactory dbf = DocumentBuilderFactory.newInstance();
+        DocumentBuilder db = dbf.newDocumentBuilder();
+        Document xml = db.parse( modulesXmlFile );
+        NodeList children = xml.getChildNodes();
+        if ( children.getLength() > 1 ) throw new Exception( "Wrong modules.xml format" );
 
-            // import 'global' module
-            importModule( modules.getGlobalModule() );
-        } catch ( Exception e ) {
-            e.printStackTrace();
-        }
-
-        System.out.println( "  Module import ended" );
+        return modulesXmlFormat.parse( children.item( 0 ) );
     }
 
-    private void importModule( Module module ) {
+    /**
+     * Imports the module's project, assets and globals, skipping whatever the checkpoint records as already imported.
+     * Modules can be imported concurrently.
+     * @return Whether every asset of the module was imported
+     */
+    public boolean importModule( Module module ) {
 
         //Set up project structure:
         String normalizedModuleName = module.getNormalizedPackageName();
@@ -155,15 +151,21 @@ public class ModuleAssetImporter {
                            "0.0.1" );
         POM pom = new POM( gav );
 
-        Path modulePath = migrationPathManager.generateRootPath();
-        projectService.newProject( makeRepository( modulePath ),
-                                   normalizedModuleName,
-                                   pom,
-                                   "http://localhost" );
+        if ( !checkpoint.isProjectCreated( module ) ) {
+            Path modulePath = migrationPathManager.generateRootPath();
+            projectService.newProject( makeRepository( modulePath ),
+                                       normalizedModuleName,
+                                       pom,
+                                       "http://localhost" );
+            checkpoint.projectCreated( module );
+        }
 
-        importAssets( module );
+        boolean assetsImported = importAssets( module );
+        importGlobals( module );
+        return assetsImported;
+    }
 
-        // Import globals
+    private void importGlobals( Module module ) {
         String globals = module.getGlobalsString();
         if( globals == null || "".equals( globals ) ) return;
 
@@ -173,46 +175,83 @@ public class ModuleAssetImporter {
         String contentWithImport = packageImportHelper.assertPackageImportDRL( globals, module.getPackageHeaderInfo(), path );
         String contentWithPackage = packageImportHelper.assertPackageName( contentWithImport, null );
 
-        ioService.write( nioPath,
-                         contentWithPackage,
-                         ( Map ) null,    // cast is for disambiguation
-                         new CommentedOption( module.getLastContributor(),
-                                              null,
-                                              module.getCheckinComment(),
-                                              module.getLastModified() )
-        );
+        ioService.startBatch( migrationPathManager.getFileSystem() );
+        try {
+            ioService.write( nioPath,
+                             contentWithPackage,
+                             ( Map ) null,    // cast is for disambiguation
+                             new CommentedOption( module.getLastContributor(),
+                                                  null,
+                                                  module.getCheckinComment(),
+                                                  module.getLastModified() )
+            );
+        } finally {
+            ioService.endBatch();
+        }
     }
 
-    private void importAssets( Module module ) {
+    private boolean importAssets( Module module ) {
         System.out.println( "  Assert import for module " + module.getName() + " started" );
-        Document xml = null;
+        XmlAssetsStreamReader xmlAssets = null;
+        boolean imported = true;
+        int commits = 0;
+        long start = System.currentTimeMillis();
         try {
             File assetsXmlFile = fileManager.getAssetExportFile( module.getAssetExportFileName() );
 
-            DocumentBuilderFactory dbf = DocumentBuilderFactory.newInstance();
-            DocumentBuilder db = dbf.newDocumentBuilder();
-            xml = db.parse( assetsXmlFile );
-            NodeList rootNodeList = xml.getChildNodes();
-            if ( rootNodeList.getLength() > 1 ) throw new Exception( "Wrong asset file xml format" );
-            Node assetsNode = rootNodeList.item( 0 );
+            // Stream the assets, the file holds every asset's full history and content and can exceed the heap as a DOM
+            xmlAssets = new XmlAssetsStreamReader( new BufferedInputStream( new FileInputStream( assetsXmlFile ) ) );
 
-            XmlAssets xmlAssets = xmlAssetsFormat.parse( assetsNode );
-
-            for ( XmlAsset xmlAsset : xmlAssets.getAssets() ) {
+            while ( xmlAssets.hasNext() ) {
+                XmlAsset xmlAsset = xmlAssets.next();
                 if ( xmlAsset == null ) {
                     System.out.println( "    WARNING: skipping null asset in import" );
                     continue;
                 }
+                if ( checkpoint.isAssetImported( module, xmlAsset ) ) {
+                    System.out.printf( "    Asset '%s.%s' already imported, skipping.\n", xmlAsset.getName(), xmlAsset.getAssetType() );
+                    continue;
+                }
                 System.out.printf( "    Importing asset '%s.%s'.\n", xmlAsset.getName(), xmlAsset.getAssetType() );
-                importAssetHistory( module, xmlAsset );
-                importAsset( module, xmlAsset, null );
+                // One failing asset should not prevent the rest of the module from being imported
+                try {
+                    commits += writeAsset( module, xmlAsset );
+                    // Only recorded once the batch has ended, and so the asset's writes have been committed
+                    checkpoint.assetImported( module, xmlAsset );
+                } catch ( Exception e ) {
+                    System.out.printf( "    Error while importing asset '%s.%s'; %s\n", xmlAsset.getName(), xmlAsset.getAssetType(), e.getMessage() );
+                    e.printStackTrace();
+                    imported = false;
+                }
             }
 
         } catch ( Exception e ) {
             e.printStackTrace();
+            imported = false;
+        } finally {
+            IOUtils.closeQuietly( xmlAssets );
         }
 
-        System.out.println( "  Assert import for module " + module.getName() + " ended" );
+        long duration = System.currentTimeMillis() - start;
+        System.out.printf( "  Assert import for module %s ended; %d commits in %d ms (%.1f commits/s)\n",
+                           module.getName(), commits, duration, duration == 0 ? 0d : commits * 1000d / duration );
+        return imported;
+    }
+
+    // Every version of the asset is still committed separately, keeping its author, comment and date, but the batch
+    // defers the resulting events, and so their indexing, until all of the asset's versions are written. Only the
+    // writes are batched, as the batch holds the file system for its duration; reading the next asset from the
+    // export file is done outside of it, so that other modules can be written meanwhile.
+    // Returns the number of versions written
+    private int writeAsset( Module module, XmlAsset xmlAsset ) {
+        ioService.startBatch( migrationPathManager.getFileSystem() );
+        try {
+            int commits = importAssetHistory( module, xmlAsset );
+            importAsset( module, xmlAsset, null );
+            return commits + 1;
+        } finally {
+            ioService.endBatch();
+        }
     }
 
     private Path importAsset( Module module, XmlAsset xmlAsset, Path previousVersionPath ) {
@@ -261,13 +300,15 @@ public class ModuleAssetImporter {
         }
     }
 
-    private void importAssetHistory( Module module, XmlAsset xmlAsset ) {
+    // Returns the number of versions written
+    private int importAssetHistory( Module module, XmlAsset xmlAsset ) {
         Path previousVersionPath = null;
         XmlAssets history = xmlAsset.getAssetHistory();
-        if ( history == null || history.getAssets().size() == 0 ) return;
+        if ( history == null || history.getAssets().size() == 0 ) return 0;
         for ( XmlAsset hAsset : history.getAssets() ) {
             previousVersionPath = importAsset( module, hAsset, previousVersionPath );
         }
+        return history.getAssets().size();
     }
 
     private org.guvnor.structure.repositories.Repository makeRepository( final Path repositoryRoot ) {
@@ -0,0 +1,140 @@
+/*
+ * Copyright 2015 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.drools.workbench.jcr2vfsmigration.vfsImport;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+
+import org.drools.workbench.jcr2vfsmigration.config.VfsImportConfig;
+import org.drools.workbench.jcr2vfsmigration.util.MigrationCheckpoint;
+import org.drools.workbench.jcr2vfsmigration.xml.model.Module;
+import org.drools.workbench.jcr2vfsmigration.xml.model.Modules;
+import org.jboss.weld.context.bound.BoundRequestContext;
+import org.jboss.weld.context.bound.BoundSessionContext;
+
+/**
+ * Imports the exported modules on a bounded pool of threads, as configured by {@link VfsImportConfig#getModuleImportThreads()}.
+ * Modules recorded as imported by the {@link MigrationCheckpoint} are skipped. A module is only recorded as imported
+ * once all of its assets have been imported, so that a module that failed part way is resumed on the next run.
+ * The global module is imported last, once all of the other modules have been imported.
+ */
+@ApplicationScoped
+public class ModuleImportScheduler {
+
+    @Inject
+    private VfsImportConfig vfsImportConfig;
+
+    @Inject
+    private ModuleAssetImporter moduleAssetImporter;
+
+    @Inject
+    private MigrationCheckpoint checkpoint;
+
+    @Inject
+    private BoundSessionContext sessionContext;
+
+    @Inject
+    private BoundRequestContext requestContext;
+
+    public void importAll() {
+        System.out.println( "  Module import started" );
+        ExecutorService executor = null;
+        try {
+            Modules modules = moduleAssetImporter.loadModules();
+
+            executor = Executors.newFixedThreadPool( vfsImportConfig.getModuleImportThreads() );
+
+            // import 'normal' modules
+            List<Future<?>> futures = new ArrayList<Future<?>>();
+            for ( Module module : modules.getModules() ) {
+                submit( executor, module, futures );
+            }
+            for ( Future<?> future : futures ) {
+                future.get();
+            }
+
+            // import 'global' module, once all of the others are done
+            futures.clear();
+            submit( executor, modules.getGlobalModule(), futures );
+            for ( Future<?> future : futures ) {
+                future.get();
+            }
+        } catch ( Exception e ) {
+            e.printStackTrace();
+        } finally {
+            if ( executor != null ) executor.shutdownNow();
+        }
+
+        System.out.println( "  Module import ended" );
+    }
+
+    private void submit( ExecutorService executor, final Module module, List<Future<?>> futures ) {
+        if ( checkpoint.isModuleImported( module ) ) {
+            System.out.println( "  Module " + module.getName() + " already imported, skipping" );
+            return;
+        }
+        futures.add( executor.submit( new Runnable() {
+            @Override
+            public void run() {
+                importModule( module );
+            }
+        } ) );
+    }
+
+    private void importModule( Module module ) {
+        // The request and session contexts are bound to a thread, so each module import needs its own
+        Map<String, Object> sessionDataStore = new HashMap<String, Object>();
+        sessionContext.associate( sessionDataStore );
+        sessionContext.activate();
+        Map<String, Object> requestDataStore = new HashMap<String, Object>();
+        requestContext.associate( requestDataStore );
+        requestContext.activate();
+        try {
+            if ( moduleAssetImporter.importModule( module ) ) {
+                checkpoint.moduleImported( module );
+            } else {
+                System.out.println( "  Module " + module.getName() + " was not completely imported, it will be resumed on the next run" );
+            }
+        } catch ( Exception e ) {
+            System.out.println( "  Error while importing module " + module.getName() + "; " + e.getMessage() );
+            e.printStackTrace();
+        } finally {
+            endContexts( sessionDataStore, requestDataStore );
+        }
+    }
+
+    private void endContexts( Map<String, Object> sessionDataStore, Map<String, Object> requestDataStore ) {
+        try {
+            requestContext.invalidate();
+            requestContext.deactivate();
+        } finally {
+            requestContext.dissociate( requestDataStore );
+        }
+        try {
+            sessionContext.invalidate();
+            sessionContext.deactivate();
+        } finally {
+            sessionContext.dissociate( sessionDataStore );
+        }
+    }
+}
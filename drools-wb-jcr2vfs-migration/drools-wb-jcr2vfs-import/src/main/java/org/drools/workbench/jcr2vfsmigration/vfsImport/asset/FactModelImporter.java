@@ -18,7 +18,7 @@ package org.drools.workbench.jcr2vfsmigration.vfsImport.asset;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.TreeMap;
+import java.util.concurrent.ConcurrentSkipListMap;
 import javax.inject.Inject;
 import javax.inject.Named;
 
@@ -59,7 +59,8 @@ public class FactModelImporter implements AssetImporter<DataModelAsset> {
     @Inject
     private DataModelerService modelerService;
 
-    private Map<String, String> orderedBaseTypes = new TreeMap<String, String>();
+    // Modules can be imported concurrently, so this is shared between threads
+    private Map<String, String> orderedBaseTypes = new ConcurrentSkipListMap<String, String>();
     private Map<String, AnnotationDefinition> annotationDefinitions;
 
     @Override
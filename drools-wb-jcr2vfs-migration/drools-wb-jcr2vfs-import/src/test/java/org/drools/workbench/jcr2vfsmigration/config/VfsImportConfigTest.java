@@ -0,0 +1,106 @@
+/*
+ * Copyright 2015 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.drools.workbench.jcr2vfsmigration.config;
+
+import java.io.File;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class VfsImportConfigTest {
+
+    private File tempDir;
+    private File outputVfsRepository;
+    private File existingFile;
+
+    @Before
+    public void setup() throws Exception {
+        tempDir = File.createTempFile( "vfsImportConfig", "" );
+        tempDir.delete();
+        tempDir.mkdirs();
+        outputVfsRepository = new File( tempDir, "outputVfs" );
+        outputVfsRepository.mkdirs();
+        existingFile = new File( outputVfsRepository, "existing" );
+        FileUtils.writeStringToFile( existingFile, "existing" );
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        FileUtils.deleteDirectory( tempDir );
+    }
+
+    @Test
+    public void testResumeKeepsOutputVfsRepository() {
+        VfsImportConfig config = new VfsImportConfig();
+        assertTrue( config.parseArgs( args( "-c" ) ) );
+        assertTrue( config.isResume() );
+        assertTrue( existingFile.exists() );
+
+        config = new VfsImportConfig();
+        assertTrue( config.parseArgs( args( "--resume" ) ) );
+        assertTrue( config.isResume() );
+    }
+
+    @Test
+    public void testExistingOutputVfsRepositoryIsRejected() {
+        VfsImportConfig config = new VfsImportConfig();
+        assertFalse( config.parseArgs( args() ) );
+        assertTrue( existingFile.exists() );
+    }
+
+    @Test
+    public void testForceOverwriteDeletesOutputVfsRepository() {
+        VfsImportConfig config = new VfsImportConfig();
+        assertTrue( config.parseArgs( args( "-f" ) ) );
+        assertFalse( config.isResume() );
+        assertFalse( existingFile.exists() );
+    }
+
+    @Test
+    public void testResumeAndForceOverwriteAreRejected() {
+        VfsImportConfig config = new VfsImportConfig();
+        assertFalse( config.parseArgs( args( "-c", "-f" ) ) );
+        assertTrue( existingFile.exists() );
+    }
+
+    @Test
+    public void testThreads() {
+        VfsImportConfig config = new VfsImportConfig();
+        assertTrue( config.parseArgs( args( "-c" ) ) );
+        assertEquals( 1, config.getModuleImportThreads() );
+
+        config = new VfsImportConfig();
+        assertTrue( config.parseArgs( args( "-c", "-t", "4" ) ) );
+        assertEquals( 4, config.getModuleImportThreads() );
+
+        config = new VfsImportConfig();
+        assertFalse( config.parseArgs( args( "-c", "-t", "0" ) ) );
+    }
+
+    private String[] args( String... options ) {
+        String[] args = new String[ options.length + 4 ];
+        args[ 0 ] = "-i";
+        args[ 1 ] = tempDir.getAbsolutePath();
+        args[ 2 ] = "-o";
+        args[ 3 ] = outputVfsRepository.getAbsolutePath();
+        System.arraycopy( options, 0, args, 4, options.length );
+        return args;
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2015 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.drools.workbench.jcr2vfsmigration.util;
+
+import java.io.File;
+import java.util.Date;
+
+import org.apache.commons.io.FileUtils;
+import org.drools.workbench.jcr2vfsmigration.common.FileManager;
+import org.drools.workbench.jcr2vfsmigration.xml.model.Module;
+import org.drools.workbench.jcr2vfsmigration.xml.model.ModuleType;
+import org.drools.workbench.jcr2vfsmigration.xml.model.asset.PlainTextAsset;
+import org.drools.workbench.jcr2vfsmigration.xml.model.asset.XmlAsset;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Spy;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import static org.junit.Assert.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class MigrationCheckpointTest {
+
+    @Spy
+    private FileManager fileManager = new FileManager();
+
+    @InjectMocks
+    private MigrationCheckpoint checkpoint;
+
+    private File importTempDir;
+
+    @Before
+    public void setup() throws Exception {
+        importTempDir = File.createTempFile( "jcrExport", "" );
+        importTempDir.delete();
+        importTempDir.mkdirs();
+        fileManager.setExportTempDir( importTempDir );
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        checkpoint.close();
+        FileUtils.deleteDirectory( importTempDir );
+    }
+
+    @Test
+    public void testResumeKeepsRecordedEntries() {
+        Module imported = makeModule( "uuid1", "imported" );
+        Module partlyImported = makeModule( "uuid2", "partlyImported" );
+        XmlAsset asset = makeAsset( "rule" );
+
+        checkpoint.open( false );
+        checkpoint.projectCreated( imported );
+        checkpoint.assetImported( imported, asset );
+        checkpoint.moduleImported( imported );
+        checkpoint.projectCreated( partlyImported );
+        checkpoint.assetImported( partlyImported, asset );
+        checkpoint.close();
+
+        checkpoint.open( true );
+        assertTrue( checkpoint.isModuleImported( imported ) );
+        assertFalse( checkpoint.isModuleImported( partlyImported ) );
+        assertTrue( checkpoint.isProjectCreated( partlyImported ) );
+        assertTrue( checkpoint.isAssetImported( partlyImported, asset ) );
+        assertFalse( checkpoint.isAssetImported( partlyImported, makeAsset( "otherRule" ) ) );
+
+        //Entries recorded after resuming are added to those of the previous run
+        checkpoint.moduleImported( partlyImported );
+        checkpoint.close();
+        checkpoint.open( true );
+        assertTrue( checkpoint.isModuleImported( imported ) );
+        assertTrue( checkpoint.isModuleImported( partlyImported ) );
+    }
+
+    @Test
+    public void testNewImportDiscardsRecordedEntries() {
+        Module module = makeModule( "uuid1", "module" );
+
+        checkpoint.open( false );
+        checkpoint.moduleImported( module );
+        checkpoint.close();
+
+        checkpoint.open( false );
+        assertFalse( checkpoint.isModuleImported( module ) );
+        checkpoint.close();
+        assertTrue( fileManager.readCheckpointFile().isEmpty() );
+    }
+
+    @Test
+    public void testEntriesAreRecordedOnce() {
+        Module module = makeModule( "uuid1", "module" );
+
+        checkpoint.open( false );
+        checkpoint.moduleImported( module );
+        checkpoint.moduleImported( module );
+
+        //Each entry is flushed as soon as it is recorded
+        assertEquals( 1, fileManager.readCheckpointFile().size() );
+    }
+
+    static Module makeModule( String uuid, String name ) {
+        return new Module( ModuleType.NORMAL, uuid, name, "admin", "", new Date(), name, "", "", null, uuid );
+    }
+
+    private XmlAsset makeAsset( String name ) {
+        return new PlainTextAsset( name, "drl", "admin", "", new Date(), "rule \"" + name + "\" end" );
+    }
+}
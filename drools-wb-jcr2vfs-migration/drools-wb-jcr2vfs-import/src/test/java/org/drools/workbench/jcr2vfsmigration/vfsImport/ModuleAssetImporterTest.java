@@ -0,0 +1,156 @@
+/*
+ * Copyright 2015 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.drools.workbench.jcr2vfsmigration.vfsImport;
+
+import java.io.File;
+import java.util.Date;
+
+import org.apache.commons.io.FileUtils;
+import org.drools.workbench.jcr2vfsmigration.common.FileManager;
+import org.drools.workbench.jcr2vfsmigration.util.MigrationCheckpoint;
+import org.drools.workbench.jcr2vfsmigration.util.MigrationPathManager;
+import org.drools.workbench.jcr2vfsmigration.vfsImport.asset.PlainTextAssetImporter;
+import org.drools.workbench.jcr2vfsmigration.vfsImport.asset.PlainTextAssetWithPackagePropertyImporter;
+import org.drools.workbench.jcr2vfsmigration.xml.format.XmlAssetsWriter;
+import org.drools.workbench.jcr2vfsmigration.xml.model.Module;
+import org.drools.workbench.jcr2vfsmigration.xml.model.ModuleType;
+import org.drools.workbench.jcr2vfsmigration.xml.model.asset.PlainTextAsset;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.uberfire.backend.vfs.Path;
+import org.uberfire.io.IOService;
+import org.uberfire.java.nio.file.FileSystem;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ModuleAssetImporterTest {
+
+    @Spy
+    private FileManager fileManager = new FileManager();
+
+    @Mock
+    private MigrationPathManager migrationPathManager;
+
+    @Mock
+    private MigrationCheckpoint checkpoint;
+
+    @Mock
+    private IOService ioService;
+
+    @Mock
+    private PlainTextAssetImporter plainTextAssetImporter;
+
+    @Mock
+    private PlainTextAssetWithPackagePropertyImporter plainTextAssetWithPackagePropertyImporter;
+
+    @Mock
+    private FileSystem fileSystem;
+
+    @InjectMocks
+    private ModuleAssetImporter moduleAssetImporter;
+
+    private File importTempDir;
+
+    private Module module = new Module( ModuleType.NORMAL, "moduleUuid", "module", "admin", "", new Date(), "org.module", "", "", null, "moduleUuid" );
+
+    private PlainTextAsset rule = new PlainTextAsset( "rule1", "drl", "admin", "current", new Date( 2000 ), "v2" );
+    private PlainTextAsset ruleHistory = new PlainTextAsset( "rule1", "drl", "admin", "v1", new Date( 1000 ), "v1" );
+    private PlainTextAsset enumeration = new PlainTextAsset( "enum1", "enumeration", "admin", "", new Date( 3000 ), "'Person.age' : ['1']" );
+
+    @Before
+    public void setup() throws Exception {
+        importTempDir = File.createTempFile( "jcrExport", "" );
+        importTempDir.delete();
+        importTempDir.mkdirs();
+        fileManager.setExportTempDir( importTempDir );
+
+        XmlAssetsWriter writer = new XmlAssetsWriter( fileManager.createAssetExportFileWriter( module.getAssetExportFileName() ) );
+        writer.startAsset( rule );
+        writer.writeHistoryAsset( ruleHistory );
+        writer.endAsset();
+        writer.startAsset( enumeration );
+        writer.endAsset();
+        writer.close();
+
+        when( migrationPathManager.getFileSystem() ).thenReturn( fileSystem );
+        when( checkpoint.isProjectCreated( module ) ).thenReturn( true );
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        FileUtils.deleteDirectory( importTempDir );
+    }
+
+    @Test
+    public void testEachAssetIsWrittenInItsOwnBatch() {
+        assertTrue( moduleAssetImporter.importModule( module ) );
+
+        InOrder inOrder = inOrder( ioService, plainTextAssetWithPackagePropertyImporter, plainTextAssetImporter, checkpoint );
+        inOrder.verify( ioService ).startBatch( fileSystem );
+        //The asset's history, then its current version
+        inOrder.verify( plainTextAssetWithPackagePropertyImporter, times( 2 ) ).importAsset( eq( module ), any( PlainTextAsset.class ), isNull( Path.class ) );
+        inOrder.verify( ioService ).endBatch();
+        inOrder.verify( checkpoint ).assetImported( eq( module ), any( PlainTextAsset.class ) );
+
+        inOrder.verify( ioService ).startBatch( fileSystem );
+        inOrder.verify( plainTextAssetImporter ).importAsset( eq( module ), any( PlainTextAsset.class ), isNull( Path.class ) );
+        inOrder.verify( ioService ).endBatch();
+        inOrder.verify( checkpoint ).assetImported( eq( module ), any( PlainTextAsset.class ) );
+
+        verify( ioService, times( 2 ) ).startBatch( fileSystem );
+        verify( ioService, times( 2 ) ).endBatch();
+    }
+
+    @Test
+    public void testBatchEndsWhenWriteFails() {
+        when( plainTextAssetWithPackagePropertyImporter.importAsset( eq( module ), any( PlainTextAsset.class ), any( Path.class ) ) ).thenThrow( new RuntimeException( "write failed" ) );
+
+        assertFalse( moduleAssetImporter.importModule( module ) );
+
+        //The failed asset's batch is ended, and the next asset is still imported in its own batch
+        InOrder inOrder = inOrder( ioService, plainTextAssetWithPackagePropertyImporter, plainTextAssetImporter );
+        inOrder.verify( ioService ).startBatch( fileSystem );
+        inOrder.verify( plainTextAssetWithPackagePropertyImporter ).importAsset( eq( module ), any( PlainTextAsset.class ), isNull( Path.class ) );
+        inOrder.verify( ioService ).endBatch();
+        inOrder.verify( ioService ).startBatch( fileSystem );
+        inOrder.verify( plainTextAssetImporter ).importAsset( eq( module ), any( PlainTextAsset.class ), isNull( Path.class ) );
+        inOrder.verify( ioService ).endBatch();
+
+        //Only the asset that was written is recorded, so that the failed asset is imported again on resuming
+        verify( checkpoint, times( 1 ) ).assetImported( eq( module ), any( PlainTextAsset.class ) );
+        verify( plainTextAssetImporter ).importAsset( eq( module ), any( PlainTextAsset.class ), isNull( Path.class ) );
+    }
+
+    @Test
+    public void testImportedAssetsAreSkipped() {
+        when( checkpoint.isAssetImported( eq( module ), any( PlainTextAsset.class ) ) ).thenReturn( true );
+
+        assertTrue( moduleAssetImporter.importModule( module ) );
+
+        verify( ioService, never() ).startBatch( fileSystem );
+        verifyZeroInteractions( plainTextAssetImporter, plainTextAssetWithPackagePropertyImporter );
+    }
+
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright 2015 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.drools.workbench.jcr2vfsmigration.vfsImport;
+
+import java.io.File;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import org.apache.commons.io.FileUtils;
+import org.drools.workbench.jcr2vfsmigration.common.FileManager;
+import org.drools.workbench.jcr2vfsmigration.config.VfsImportConfig;
+import org.drools.workbench.jcr2vfsmigration.util.MigrationCheckpoint;
+import org.drools.workbench.jcr2vfsmigration.xml.model.Module;
+import org.drools.workbench.jcr2vfsmigration.xml.model.ModuleType;
+import org.drools.workbench.jcr2vfsmigration.xml.model.Modules;
+import org.jboss.weld.context.bound.BoundRequestContext;
+import org.jboss.weld.context.bound.BoundSessionContext;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.mockito.stubbing.Answer;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ModuleImportSchedulerTest {
+
+    @Mock
+    private VfsImportConfig vfsImportConfig;
+
+    @Mock
+    private ModuleAssetImporter moduleAssetImporter;
+
+    @Mock
+    private BoundSessionContext sessionContext;
+
+    @Mock
+    private BoundRequestContext requestContext;
+
+    @Spy
+    private MigrationCheckpoint checkpoint = new MigrationCheckpoint();
+
+    @InjectMocks
+    private ModuleImportScheduler scheduler;
+
+    private FileManager fileManager = new FileManager();
+    private File importTempDir;
+
+    private Module globalModule = makeModule( ModuleType.GLOBAL, "globalArea" );
+    private Module imported = makeModule( ModuleType.NORMAL, "imported" );
+    private Module notImported = makeModule( ModuleType.NORMAL, "notImported" );
+    private Module failing = makeModule( ModuleType.NORMAL, "failing" );
+    private Module throwing = makeModule( ModuleType.NORMAL, "throwing" );
+
+    //Modules passed to the ModuleAssetImporter, in the order in which their import started
+    private final List<Module> importStarted = Collections.synchronizedList( new ArrayList<Module>() );
+
+    @Before
+    public void setup() throws Exception {
+        importTempDir = File.createTempFile( "jcrExport", "" );
+        importTempDir.delete();
+        importTempDir.mkdirs();
+        fileManager.setExportTempDir( importTempDir );
+
+        //MigrationCheckpoint's FileManager is injected by the container, which these tests do not have
+        final Field field = MigrationCheckpoint.class.getDeclaredField( "fileManager" );
+        field.setAccessible( true );
+        field.set( checkpoint, fileManager );
+
+        when( vfsImportConfig.getModuleImportThreads() ).thenReturn( 2 );
+        when( moduleAssetImporter.loadModules() ).thenReturn( new Modules( globalModule,
+                                                                           Arrays.asList( imported, notImported, failing, throwing ) ) );
+        when( moduleAssetImporter.importModule( any( Module.class ) ) ).thenAnswer( new Answer<Boolean>() {
+            @Override
+            public Boolean answer( InvocationOnMock invocation ) {
+                Module module = (Module) invocation.getArguments()[ 0 ];
+                importStarted.add( module );
+                if ( module == throwing ) {
+                    throw new RuntimeException( "Module " + module.getName() + " failed" );
+                }
+                return module != failing;
+            }
+        } );
+
+        //A previous run imported one module
+        checkpoint.open( false );
+        checkpoint.moduleImported( imported );
+        checkpoint.close();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        checkpoint.close();
+        FileUtils.deleteDirectory( importTempDir );
+    }
+
+    @Test
+    public void testResumedImportSkipsImportedModules() {
+        checkpoint.open( true );
+        scheduler.importAll();
+
+        verify( moduleAssetImporter, never() ).importModule( imported );
+        verify( moduleAssetImporter ).importModule( notImported );
+        verify( moduleAssetImporter ).importModule( failing );
+        verify( moduleAssetImporter ).importModule( throwing );
+        verify( moduleAssetImporter ).importModule( globalModule );
+
+        //The global module is imported once all of the others are done
+        assertEquals( 4, importStarted.size() );
+        assertSame( globalModule, importStarted.get( 3 ) );
+
+        //Each module's contexts are started and ended on the thread that imports it
+        verify( requestContext, times( 4 ) ).activate();
+        verify( requestContext, times( 4 ) ).deactivate();
+    }
+
+    @Test
+    public void testModulesFailingPartwayAreNotRecorded() {
+        checkpoint.open( true );
+        scheduler.importAll();
+        checkpoint.close();
+
+        checkpoint.open( true );
+        assertTrue( checkpoint.isModuleImported( imported ) );
+        assertTrue( checkpoint.isModuleImported( notImported ) );
+        assertTrue( checkpoint.isModuleImported( globalModule ) );
+        assertFalse( checkpoint.isModuleImported( failing ) );
+        assertFalse( checkpoint.isModuleImported( throwing ) );
+
+        //The next run imports only the modules that failed
+        importStarted.clear();
+        scheduler.importAll();
+        assertEquals( 2, importStarted.size() );
+        assertTrue( importStarted.containsAll( Arrays.asList( failing, throwing ) ) );
+    }
+
+    @Test
+    public void testNewImportImportsAllModules() {
+        checkpoint.open( false );
+        scheduler.importAll();
+
+        verify( moduleAssetImporter ).importModule( imported );
+        assertEquals( 5, importStarted.size() );
+        assertSame( globalModule, importStarted.get( 4 ) );
+    }
+
+    private static Module makeModule( ModuleType type, String name ) {
+        return new Module( type, name + "Uuid", name, "admin", "", new Date(), "org." + name, "", "", null, name + "Uuid" );
+    }
+}
@@ -17,12 +17,18 @@ package org.drools.workbench.jcr2vfsmigration.common;
 
 import java.io.BufferedInputStream;
 import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.List;
 import javax.enterprise.context.ApplicationScoped;
 
 @ApplicationScoped
@@ -33,6 +39,7 @@ public class FileManager {
 
     private static final String MODULES_FILE = "modules" + XML_EXTENSION;
     private static final String CATEGORIES_FILE = "categories" + XML_EXTENSION;
+    private static final String CHECKPOINT_FILE = "checkpoint.txt";
 
     private File tempDir;
     private File binDir;
@@ -78,6 +85,53 @@ public class FileManager {
         return getFile( fileName + XML_EXTENSION );
     }
 
+    /**
+     * Delete an incomplete asset export file, so that the module's assets are reported missing on import
+     */
+    public boolean deleteAssetExportFile( String fileName ) {
+        return new File( tempDir, fileName + XML_EXTENSION ).delete();
+    }
+
+    /**
+     * Writer for the import checkpoint file, which records the work completed by a migration
+     * @param append Whether to keep the entries of a previous migration, or start a new file
+     */
+    public PrintWriter createCheckpointFileWriter( boolean append ) {
+        File f = new File( tempDir, CHECKPOINT_FILE );
+        try {
+            return new PrintWriter( new BufferedWriter( new OutputStreamWriter( new FileOutputStream( f, append ), "UTF-8" ) ) );
+        } catch ( IOException ioe ) {
+            System.out.println( "Error creating file writer for: " + f.getName() + "; " + ioe.getMessage() );
+        }
+        return null;
+    }
+
+    /**
+     * The entries of the import checkpoint file, if a previous migration created one
+     */
+    public List<String> readCheckpointFile() {
+        List<String> entries = new ArrayList<String>();
+        File f = new File( tempDir, CHECKPOINT_FILE );
+        if ( !f.exists() ) return entries;
+        BufferedReader br = null;
+        try {
+            br = new BufferedReader( new InputStreamReader( new FileInputStream( f ), "UTF-8" ) );
+            String entry;
+            while ( ( entry = br.readLine() ) != null ) {
+                entries.add( entry );
+            }
+        } catch ( IOException ioe ) {
+            System.out.println( "Error while reading file " + f.getName() + "; " + ioe.getMessage() );
+        } finally {
+            try {
+                if ( br != null ) br.close();
+            } catch ( IOException e ) {
+                e.printStackTrace();
+            }
+        }
+        return entries;
+    }
+
     public boolean writeBinaryContent( String fileName, byte[] bytes ) {
         if ( fileName == null ) return false;
         File bFile = new File( binDir, fileName );
@@ -89,7 +89,7 @@ public abstract class AbstractXmlAssetFormat implements XmlFormat<XmlAsset> {
         return new XmlAssets();
     }
 
-    private void formatAssetStart( StringBuilder sb, XmlAsset xmlAsset) {
+    void formatAssetStart( StringBuilder sb, XmlAsset xmlAsset) {
         String lastContributor = StringUtils.isNotBlank( xmlAsset.getLastContributor() ) ? xmlAsset.getLastContributor() : "--";
         Date lastModified = xmlAsset.getLastModified() != null ? xmlAsset.getLastModified() : new Date();
         sb.append( LT ).append( ASSET )
@@ -0,0 +1,150 @@
+/*
+ * Copyright 2015 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.drools.workbench.jcr2vfsmigration.xml.format;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.drools.workbench.jcr2vfsmigration.xml.model.asset.XmlAsset;
+import org.w3c.dom.CharacterData;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+
+/**
+ * Streaming alternative to {@link XmlAssetsFormat#parse(Node)}. An assets file holds the full history and content of
+ * every asset in a module, so it is read with StAX and only one asset, together with its history, is held in memory
+ * at a time. Each asset element is read into its own small DOM and parsed with {@link XmlAssetFormat}.
+ */
+public class XmlAssetsStreamReader implements Iterator<XmlAsset>, Closeable {
+
+    // Needed by the JDK's StAX implementation to report CData sections, which the asset formats rely upon
+    private static final String REPORT_CDATA_EVENT = "http://java.sun.com/xml/stream/properties/report-cdata-event";
+
+    private final InputStream inputStream;
+    private final XMLStreamReader reader;
+    private final DocumentBuilder documentBuilder;
+    private final XmlAssetFormat xmlAssetFormat = new XmlAssetFormat();
+
+    private XmlAsset next;
+    private boolean finished;
+
+    public XmlAssetsStreamReader( InputStream inputStream ) throws XMLStreamException, ParserConfigurationException {
+        if ( inputStream == null ) throw new IllegalArgumentException( "No input assets stream specified for parsing" );
+
+        XMLInputFactory xmlInputFactory = XMLInputFactory.newInstance();
+        xmlInputFactory.setProperty( XMLInputFactory.IS_COALESCING, Boolean.FALSE );
+        if ( xmlInputFactory.isPropertySupported( REPORT_CDATA_EVENT ) ) {
+            xmlInputFactory.setProperty( REPORT_CDATA_EVENT, Boolean.TRUE );
+        }
+
+        this.inputStream = inputStream;
+        this.reader = xmlInputFactory.createXMLStreamReader( inputStream );
+        this.documentBuilder = DocumentBuilderFactory.newInstance().newDocumentBuilder();
+
+        reader.nextTag();
+        if ( !XmlAssetsFormat.ASSETS.equals( reader.getLocalName() ) ) throw new IllegalArgumentException( "Wrong asset file xml format" );
+    }
+
+    @Override
+    public boolean hasNext() {
+        if ( next == null && !finished ) {
+            next = readNextAsset();
+            finished = next == null;
+        }
+        return next != null;
+    }
+
+    @Override
+    public XmlAsset next() {
+        if ( !hasNext() ) throw new NoSuchElementException();
+        XmlAsset xmlAsset = next;
+        next = null;
+        return xmlAsset;
+    }
+
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            reader.close();
+        } catch ( XMLStreamException e ) {
+            throw new IOException( e );
+        } finally {
+            inputStream.close();
+        }
+    }
+
+    private XmlAsset readNextAsset() {
+        try {
+            while ( reader.hasNext() ) {
+                switch ( reader.next() ) {
+                    // Each asset gets its own document, so that previously read assets can be garbage collected
+                    case XMLStreamConstants.START_ELEMENT: return xmlAssetFormat.parse( readElement( documentBuilder.newDocument() ) );
+                    case XMLStreamConstants.END_ELEMENT: return null;
+                }
+            }
+            return null;
+        } catch ( XMLStreamException e ) {
+            throw new IllegalStateException( "Unable to read asset file", e );
+        }
+    }
+
+    // Reads the element the reader is positioned on, leaving the reader on its end tag
+    private Element readElement( Document document ) throws XMLStreamException {
+        Element element = document.createElement( reader.getLocalName() );
+        for ( int i = 0; i < reader.getAttributeCount(); i++ ) {
+            element.setAttribute( reader.getAttributeLocalName( i ), reader.getAttributeValue( i ) );
+        }
+        while ( reader.hasNext() ) {
+            switch ( reader.next() ) {
+                case XMLStreamConstants.START_ELEMENT: element.appendChild( readElement( document ) ); break;
+                case XMLStreamConstants.CDATA: appendText( element, Node.CDATA_SECTION_NODE, document ); break;
+                case XMLStreamConstants.SPACE:
+                case XMLStreamConstants.CHARACTERS: appendText( element, Node.TEXT_NODE, document ); break;
+                case XMLStreamConstants.END_ELEMENT: return element;
+            }
+        }
+        return element;
+    }
+
+    // The reader can split long text into several events; join them as a DOM parser would
+    private void appendText( Element element, short nodeType, Document document ) {
+        String text = reader.getText();
+        Node lastChild = element.getLastChild();
+        if ( lastChild != null && lastChild.getNodeType() == nodeType ) {
+            ( (CharacterData) lastChild ).appendData( text );
+        } else if ( nodeType == Node.CDATA_SECTION_NODE ) {
+            element.appendChild( document.createCDATASection( text ) );
+        } else {
+            element.appendChild( document.createTextNode( text ) );
+        }
+    }
+}
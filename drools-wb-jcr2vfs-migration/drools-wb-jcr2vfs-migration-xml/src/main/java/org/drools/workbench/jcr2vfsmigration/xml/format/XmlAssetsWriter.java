@@ -0,0 +1,134 @@
+/*
+ * Copyright 2015 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.drools.workbench.jcr2vfsmigration.xml.format;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+
+import org.drools.workbench.jcr2vfsmigration.xml.model.asset.AssetType;
+import org.drools.workbench.jcr2vfsmigration.xml.model.asset.XmlAsset;
+
+import static org.drools.workbench.jcr2vfsmigration.xml.format.XmlFormat.*;
+
+/**
+ * Incremental alternative to {@link XmlAssetsFormat#format(StringBuilder, org.drools.workbench.jcr2vfsmigration.xml.model.asset.XmlAssets)}.
+ * Assets, and each entry of their history, are formatted and written one at a time, so a module's assets never need
+ * to be held in memory together. The output has the same structure as that of {@link XmlAssetsFormat}, and can be
+ * read back with either it or {@link XmlAssetsStreamReader}.
+ */
+public class XmlAssetsWriter implements Closeable, Flushable {
+
+    private final Writer writer;
+    private final XmlAssetFormat xmlAssetFormat = new XmlAssetFormat();
+    private final StringBuilder sb = new StringBuilder();
+
+    private boolean assetStarted;
+    private boolean assetIgnored;
+    private boolean aborted;
+
+    public XmlAssetsWriter( Writer writer ) throws IOException {
+        if ( writer == null ) throw new IllegalArgumentException( "No output specified" );
+        this.writer = writer;
+        writer.write( LT + XmlAssetsFormat.ASSETS + GT );
+    }
+
+    /**
+     * Writes the asset and opens its history; history entries can then be added with {@link #writeHistoryAsset(XmlAsset)}
+     * until the asset is closed with {@link #endAsset()}. Any history already held by the asset is not written.
+     */
+    public void startAsset( XmlAsset xmlAsset ) throws IOException {
+        if ( xmlAsset == null ) throw new IllegalArgumentException( "No asset specified" );
+        if ( assetStarted ) throw new IllegalStateException( "Previous asset has not been ended" );
+
+        assetStarted = true;
+        assetIgnored = AssetType.IGNORED.equals( xmlAsset.getAssetType() );
+        if ( assetIgnored ) return;
+
+        sb.setLength( 0 );
+        xmlAssetFormat.formatAssetStart( sb, xmlAsset );
+        sb.append( xmlAssetFormat.formatAssetAsString( xmlAsset ) );
+        sb.append( LT ).append( AbstractXmlAssetFormat.ASSET_HISTORY ).append( GT );
+        sb.append( LT ).append( XmlAssetsFormat.ASSETS ).append( GT );
+        write();
+    }
+
+    public void writeHistoryAsset( XmlAsset historyAsset ) throws IOException {
+        if ( !assetStarted ) throw new IllegalStateException( "No asset has been started" );
+        if ( assetIgnored || historyAsset == null ) return;
+
+        sb.setLength( 0 );
+        xmlAssetFormat.format( sb, historyAsset );
+        write();
+    }
+
+    public void endAsset() throws IOException {
+        if ( !assetStarted ) throw new IllegalStateException( "No asset has been started" );
+
+        assetStarted = false;
+        if ( assetIgnored ) return;
+
+        sb.setLength( 0 );
+        sb.append( LT_SLASH ).append( XmlAssetsFormat.ASSETS ).append( GT );
+        sb.append( LT_SLASH ).append( AbstractXmlAssetFormat.ASSET_HISTORY ).append( GT );
+        sb.append( LT_SLASH ).append( AbstractXmlAssetFormat.ASSET ).append( GT );
+        write();
+    }
+
+    @Override
+    public void flush() throws IOException {
+        writer.flush();
+        checkError();
+    }
+
+    /**
+     * Closes the underlying writer without closing the open elements, for an export that has failed. The output is
+     * left malformed, so that it cannot be read back as a complete, but truncated, export.
+     */
+    public void abort() throws IOException {
+        aborted = true;
+        writer.close();
+    }
+
+    /**
+     * Closes the assets element and the underlying writer
+     * @throws IOException If anything could not be written, including by a {@link PrintWriter}, which does not throw
+     */
+    @Override
+    public void close() throws IOException {
+        if ( aborted ) return;
+        try {
+            if ( assetStarted ) endAsset();
+            writer.write( LT_SLASH + XmlAssetsFormat.ASSETS + GT );
+        } finally {
+            writer.close();
+        }
+        checkError();
+    }
+
+    private void write() throws IOException {
+        writer.write( sb.toString() );
+    }
+
+    // A PrintWriter, as created by the FileManager, swallows IOExceptions and only records that one occurred
+    private void checkError() throws IOException {
+        if ( writer instanceof PrintWriter && ( ( PrintWriter ) writer ).checkError() ) {
+            throw new IOException( "Error while writing the assets" );
+        }
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2015 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.drools.workbench.jcr2vfsmigration.xml;
+
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+
+import org.drools.workbench.jcr2vfsmigration.xml.format.XmlAssetsFormat;
+import org.drools.workbench.jcr2vfsmigration.xml.format.XmlAssetsStreamReader;
+import org.drools.workbench.jcr2vfsmigration.xml.model.asset.PlainTextAsset;
+import org.drools.workbench.jcr2vfsmigration.xml.model.asset.XmlAsset;
+import org.drools.workbench.jcr2vfsmigration.xml.model.asset.XmlAssets;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class XmlAssetsStreamReaderTest {
+
+    private String nestedCdataText = "rule \"r1\" when then /* <![CDATA[ nested ]]> */ end";
+
+    @Test
+    public void testStreamedAssetsMatchFormattedAssets() throws Exception {
+        PlainTextAsset v1 = new PlainTextAsset( "rule1", "drl", "admin", "first", new Date( 1000 ), "rule \"r1\" when then end" );
+        v1.setAssetHistory( null );
+        PlainTextAsset rule1 = new PlainTextAsset( "rule1", "drl", "admin", "second & <last>", new Date( 2000 ), nestedCdataText );
+        XmlAssets history = new XmlAssets();
+        history.addAsset( v1 );
+        rule1.setAssetHistory( history );
+
+        PlainTextAsset enum1 = new PlainTextAsset( "enum1", "enumeration", "mary", "", new Date( 3000 ), "'Person.age' : ['1', '2']" );
+        enum1.setAssetHistory( new XmlAssets() );
+
+        XmlAssets xmlAssets = new XmlAssets();
+        xmlAssets.addAsset( rule1 );
+        xmlAssets.addAsset( enum1 );
+
+        StringBuilder sb = new StringBuilder();
+        new XmlAssetsFormat().format( sb, xmlAssets );
+
+        List<XmlAsset> streamed = new ArrayList<XmlAsset>();
+        XmlAssetsStreamReader reader = new XmlAssetsStreamReader( new ByteArrayInputStream( sb.toString().getBytes( "UTF-8" ) ) );
+        try {
+            while ( reader.hasNext() ) {
+                streamed.add( reader.next() );
+            }
+        } finally {
+            reader.close();
+        }
+
+        assertEquals( 2, streamed.size() );
+
+        PlainTextAsset streamedRule1 = ( PlainTextAsset ) streamed.get( 0 );
+        assertEquals( "rule1", streamedRule1.getName() );
+        assertEquals( "second & <last>", streamedRule1.getCheckinComment() );
+        assertEquals( 2000, streamedRule1.getLastModified().getTime() );
+        assertEquals( nestedCdataText, streamedRule1.getContent() );
+        assertEquals( 1, streamedRule1.getAssetHistory().getAssets().size() );
+
+        PlainTextAsset streamedV1 = ( PlainTextAsset ) streamedRule1.getAssetHistory().getAssets().iterator().next();
+        assertEquals( "first", streamedV1.getCheckinComment() );
+        assertEquals( "rule \"r1\" when then end", streamedV1.getContent() );
+
+        PlainTextAsset streamedEnum1 = ( PlainTextAsset ) streamed.get( 1 );
+        assertEquals( "enum1", streamedEnum1.getName() );
+        assertEquals( "mary", streamedEnum1.getLastContributor() );
+        assertEquals( 0, streamedEnum1.getAssetHistory().getAssets().size() );
+    }
+
+    @Test
+    public void testEmptyAssets() throws Exception {
+        Iterator<XmlAsset> reader = new XmlAssetsStreamReader( new ByteArrayInputStream( "<assets></assets>".getBytes( "UTF-8" ) ) );
+        assertFalse( reader.hasNext() );
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testWrongRootElement() throws Exception {
+        new XmlAssetsStreamReader( new ByteArrayInputStream( "<modules></modules>".getBytes( "UTF-8" ) ) );
+    }
+}
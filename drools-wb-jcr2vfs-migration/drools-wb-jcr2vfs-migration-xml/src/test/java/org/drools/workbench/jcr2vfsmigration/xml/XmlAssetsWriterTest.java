@@ -0,0 +1,140 @@
+/*
+ * Copyright 2015 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.drools.workbench.jcr2vfsmigration.xml;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.Date;
+import java.util.Iterator;
+import javax.xml.parsers.DocumentBuilderFactory;
+
+import org.drools.workbench.jcr2vfsmigration.xml.format.XmlAssetsFormat;
+import org.drools.workbench.jcr2vfsmigration.xml.format.XmlAssetsStreamReader;
+import org.drools.workbench.jcr2vfsmigration.xml.format.XmlAssetsWriter;
+import org.drools.workbench.jcr2vfsmigration.xml.model.asset.IgnoredAsset;
+import org.drools.workbench.jcr2vfsmigration.xml.model.asset.PlainTextAsset;
+import org.drools.workbench.jcr2vfsmigration.xml.model.asset.XmlAsset;
+import org.drools.workbench.jcr2vfsmigration.xml.model.asset.XmlAssets;
+import org.junit.Test;
+import org.w3c.dom.Document;
+import org.xml.sax.SAXParseException;
+
+import static org.junit.Assert.*;
+
+public class XmlAssetsWriterTest {
+
+    @Test
+    public void testWrittenAssetsCanBeParsed() throws Exception {
+        StringWriter sw = new StringWriter();
+        XmlAssetsWriter writer = new XmlAssetsWriter( sw );
+
+        writer.startAsset( new PlainTextAsset( "rule1", "drl", "admin", "current", new Date( 3000 ), "v3 <![CDATA[ x ]]>" ) );
+        writer.writeHistoryAsset( new PlainTextAsset( "rule1", "drl", "admin", "v1", new Date( 1000 ), "v1" ) );
+        writer.writeHistoryAsset( new IgnoredAsset() );
+        writer.writeHistoryAsset( new PlainTextAsset( "rule1", "drl", "admin", "v2", new Date( 2000 ), "v2" ) );
+        writer.endAsset();
+
+        writer.startAsset( new IgnoredAsset() );
+        writer.writeHistoryAsset( new PlainTextAsset( "ignored", "drl", "admin", "", new Date( 1000 ), "" ) );
+        writer.endAsset();
+
+        writer.startAsset( new PlainTextAsset( "enum1", "enumeration", "mary", "", new Date( 4000 ), "'Person.age' : ['1']" ) );
+        writer.endAsset();
+        writer.close();
+
+        String xml = sw.toString();
+
+        // Parse with DOM, as a whole
+        Document document = DocumentBuilderFactory.newInstance().newDocumentBuilder().parse( new ByteArrayInputStream( xml.getBytes( "UTF-8" ) ) );
+        XmlAssets parsed = new XmlAssetsFormat().parse( document.getFirstChild() );
+        assertEquals( 2, parsed.getAssets().size() );
+        assertAssets( parsed.getAssets().iterator() );
+
+        // Parse with StAX, an asset at a time
+        assertAssets( new XmlAssetsStreamReader( new ByteArrayInputStream( xml.getBytes( "UTF-8" ) ) ) );
+    }
+
+    @Test
+    public void testAbortedAssetsAreNotClosed() throws Exception {
+        StringWriter sw = new StringWriter();
+        XmlAssetsWriter writer = new XmlAssetsWriter( sw );
+
+        writer.startAsset( new PlainTextAsset( "rule1", "drl", "admin", "current", new Date( 3000 ), "v3" ) );
+        writer.abort();
+        writer.close();
+
+        // The open asset and assets elements are left open, so the export cannot be read as complete
+        assertFalse( sw.toString().endsWith( "</" + XmlAssetsFormat.ASSETS + ">" ) );
+        try {
+            DocumentBuilderFactory.newInstance().newDocumentBuilder().parse( new ByteArrayInputStream( sw.toString().getBytes( "UTF-8" ) ) );
+            fail( "An aborted export should not be well-formed" );
+        } catch ( SAXParseException e ) {
+            // Expected
+        }
+    }
+
+    @Test
+    public void testWriteErrorsOfPrintWriterAreReported() throws Exception {
+        // PrintWriter, as returned by the FileManager, swallows the IOExceptions of the output it wraps
+        XmlAssetsWriter writer = new XmlAssetsWriter( new PrintWriter( new Writer() {
+            @Override
+            public void write( char[] cbuf, int off, int len ) throws IOException {
+                throw new IOException( "No space left on device" );
+            }
+
+            @Override
+            public void flush() {
+            }
+
+            @Override
+            public void close() {
+            }
+        } ) );
+        writer.startAsset( new PlainTextAsset( "rule1", "drl", "admin", "current", new Date( 3000 ), "v3" ) );
+
+        try {
+            writer.flush();
+            fail( "The failed write should be reported on flushing" );
+        } catch ( IOException e ) {
+            // Expected
+        }
+        try {
+            writer.close();
+            fail( "The failed write should be reported on closing" );
+        } catch ( IOException e ) {
+            // Expected
+        }
+    }
+
+    private void assertAssets( Iterator<XmlAsset> assets ) {
+        PlainTextAsset rule1 = ( PlainTextAsset ) assets.next();
+        assertEquals( "rule1", rule1.getName() );
+        assertEquals( "v3 <![CDATA[ x ]]>", rule1.getContent() );
+        assertEquals( 2, rule1.getAssetHistory().getAssets().size() );
+        Iterator<XmlAsset> history = rule1.getAssetHistory().getAssets().iterator();
+        assertEquals( "v1", ( ( PlainTextAsset ) history.next() ).getContent() );
+        assertEquals( "v2", ( ( PlainTextAsset ) history.next() ).getContent() );
+
+        PlainTextAsset enum1 = ( PlainTextAsset ) assets.next();
+        assertEquals( "enum1", enum1.getName() );
+        assertEquals( 0, enum1.getAssetHistory().getAssets().size() );
+
+        assertFalse( assets.hasNext() );
+    }
+}
@@ -34,6 +34,7 @@ import org.drools.workbench.screens.drltext.model.DrlModelContent;
 import org.drools.workbench.screens.drltext.service.DRLTextEditorService;
 import org.drools.workbench.screens.drltext.type.DRLResourceTypeDefinition;
 import org.drools.workbench.screens.drltext.type.DSLRResourceTypeDefinition;
+import org.drools.workbench.screens.guided.rule.backend.server.EditorOpenTimer;
 import org.guvnor.common.services.backend.exceptions.ExceptionUtilities;
 import org.guvnor.common.services.backend.file.JavaFileFilter;
 import org.guvnor.common.services.backend.validation.GenericValidator;
@@ -53,6 +54,8 @@ import org.kie.workbench.common.services.backend.service.KieService;
 import org.kie.workbench.common.services.datamodel.backend.server.DataModelOracleUtilities;
 import org.kie.workbench.common.services.datamodel.backend.server.service.DataModelService;
 import org.kie.workbench.common.services.shared.project.KieProjectService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.uberfire.backend.server.util.Paths;
 import org.uberfire.backend.vfs.Path;
 import org.uberfire.ext.editor.commons.service.CopyService;
@@ -68,6 +71,8 @@ public class DRLTextEditorServiceImpl
         extends KieService<DrlModelContent>
         implements DRLTextEditorService {
 
+    private static final Logger log = LoggerFactory.getLogger( DRLTextEditorServiceImpl.class );
+
     //Filters to include *all* applicable resources
     private static final JavaFileFilter FILTER_JAVA = new JavaFileFilter();
     private static final DRLFileFilter FILTER_DRL = new DRLFileFilter();
@@ -151,7 +156,12 @@ public class DRLTextEditorServiceImpl
 
     @Override
     protected DrlModelContent constructContent(Path path, Overview overview) {
+        final EditorOpenTimer timer = new EditorOpenTimer(log,
+                                                          "DRL",
+                                                          path);
         final PackageDataModelOracle oracle = dataModelService.getDataModel(path);
+        timer.oracleResolved();
+        final String drl = load(path);
         final String[] fullyQualifiedClassNames = DataModelOracleUtilities.getFactTypes(oracle);
         final List<DSLSentence> dslConditions = oracle.getPackageDslConditionSentences();
         final List<DSLSentence> dslActions = oracle.getPackageDslActionSentences();
@@ -160,7 +170,9 @@ public class DRLTextEditorServiceImpl
         resourceOpenedEvent.fire(new ResourceOpenedEvent(path,
                                                          sessionInfo));
 
-        return new DrlModelContent(load(path),
+        timer.opened();
+
+        return new DrlModelContent(drl,
                                    overview,
                                    Arrays.asList(fullyQualifiedClassNames),
                                    dslConditions,
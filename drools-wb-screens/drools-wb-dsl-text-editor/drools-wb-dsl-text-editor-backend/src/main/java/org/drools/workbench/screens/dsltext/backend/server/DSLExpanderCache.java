@@ -0,0 +1,215 @@
+/*
+ * Copyright 2015 JBoss, by Red Hat, Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.drools.workbench.screens.dsltext.backend.server;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
+import javax.inject.Inject;
+import javax.inject.Named;
+
+import org.drools.compiler.lang.Expander;
+import org.drools.compiler.lang.dsl.DSLMapping;
+import org.drools.compiler.lang.dsl.DSLTokenizedMappingFile;
+import org.drools.compiler.lang.dsl.DefaultExpander;
+import org.drools.workbench.screens.dsltext.type.DSLResourceTypeDefinition;
+import org.guvnor.common.services.backend.file.FileDiscoveryService;
+import org.kie.workbench.common.services.backend.file.DSLFileFilter;
+import org.kie.workbench.common.services.shared.project.KieProjectService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.uberfire.backend.server.util.Paths;
+import org.uberfire.backend.vfs.Path;
+import org.uberfire.io.IOService;
+import org.uberfire.workbench.events.ResourceAddedEvent;
+import org.uberfire.workbench.events.ResourceBatchChangesEvent;
+import org.uberfire.workbench.events.ResourceCopiedEvent;
+import org.uberfire.workbench.events.ResourceDeletedEvent;
+import org.uberfire.workbench.events.ResourceRenamedEvent;
+import org.uberfire.workbench.events.ResourceUpdatedEvent;
+
+/**
+ * Cache of the DSL definitions held in each Package. Source services and indexers of DSLR resources
+ * previously discovered, read and parsed every DSL in the Package each time a resource was expanded;
+ * this cache holds the parsed definitions per Package until a DSL in the Package is changed.
+ */
+@ApplicationScoped
+public class DSLExpanderCache {
+
+    private static final Logger logger = LoggerFactory.getLogger( DSLExpanderCache.class );
+
+    private static final DSLFileFilter FILTER_DSLS = new DSLFileFilter();
+
+    //Keyed by the Package's main resources path, the folder holding the DSL files
+    private final Map<org.uberfire.java.nio.file.Path, PackageDSLs> cache = new ConcurrentHashMap<org.uberfire.java.nio.file.Path, PackageDSLs>();
+
+    //Incremented on each invalidation so that entries loaded concurrently with an invalidation are not cached
+    private final AtomicLong invalidations = new AtomicLong();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    @Inject
+    @Named("ioStrategy")
+    private IOService ioService;
+
+    @Inject
+    private FileDiscoveryService fileDiscoveryService;
+
+    @Inject
+    private KieProjectService projectService;
+
+    @Inject
+    private DSLResourceTypeDefinition dslType;
+
+    /**
+     * Returns an expander for the DSLs in the Package containing the given Path. DefaultExpander records
+     * errors of each expansion so a new instance is returned on each call; the DSL mappings it holds are
+     * pre-parsed and shared.
+     * @param path Path of a resource in the Package
+     * @return An expander; if there are no DSLs in the Package it leaves content unchanged
+     */
+    public Expander getExpander( final Path path ) {
+        final Expander expander = new DefaultExpander();
+        for ( DSLMapping mapping : getPackageDSLs( path ).mappings ) {
+            expander.addDSLMapping( mapping );
+        }
+        return expander;
+    }
+
+    /**
+     * Returns the content of the DSLs in the Package containing the given Path
+     * @param path Path of a resource in the Package
+     * @return The DSL definitions; the list cannot be modified
+     */
+    public List<String> getDSLDefinitions( final Path path ) {
+        return getPackageDSLs( path ).definitions;
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    public void invalidateCache() {
+        invalidations.incrementAndGet();
+        cache.clear();
+    }
+
+    public void onResourceAdded( @Observes final ResourceAddedEvent event ) {
+        invalidateCache( event.getPath() );
+    }
+
+    public void onResourceUpdated( @Observes final ResourceUpdatedEvent event ) {
+        invalidateCache( event.getPath() );
+    }
+
+    public void onResourceDeleted( @Observes final ResourceDeletedEvent event ) {
+        invalidateCache( event.getPath() );
+    }
+
+    public void onResourceCopied( @Observes final ResourceCopiedEvent event ) {
+        invalidateCache( event.getDestinationPath() );
+    }
+
+    public void onResourceRenamed( @Observes final ResourceRenamedEvent event ) {
+        invalidateCache( event.getPath() );
+        invalidateCache( event.getDestinationPath() );
+    }
+
+    public void onBatchResourceChanges( @Observes final ResourceBatchChangesEvent event ) {
+        for ( Path path : event.getBatch().keySet() ) {
+            invalidateCache( path );
+        }
+    }
+
+    private void invalidateCache( final Path path ) {
+        if ( path == null || !dslType.accept( path ) ) {
+            return;
+        }
+        invalidations.incrementAndGet();
+        final org.uberfire.java.nio.file.Path packagePath = Paths.convert( path ).getParent();
+        if ( packagePath != null ) {
+            cache.remove( packagePath );
+        }
+    }
+
+    private PackageDSLs getPackageDSLs( final Path path ) {
+        final Path packagePath = projectService.resolvePackage( path ).getPackageMainResourcesPath();
+        final org.uberfire.java.nio.file.Path nioPackagePath = Paths.convert( packagePath );
+        PackageDSLs packageDSLs = cache.get( nioPackagePath );
+        if ( packageDSLs != null ) {
+            hits.incrementAndGet();
+            return packageDSLs;
+        }
+        misses.incrementAndGet();
+        final long invalidationsBeforeLoad = invalidations.get();
+        packageDSLs = loadPackageDSLs( nioPackagePath );
+        if ( invalidations.get() == invalidationsBeforeLoad ) {
+            cache.put( nioPackagePath,
+                       packageDSLs );
+        }
+        return packageDSLs;
+    }
+
+    private PackageDSLs loadPackageDSLs( final org.uberfire.java.nio.file.Path nioPackagePath ) {
+        final List<String> definitions = new ArrayList<String>();
+        final List<DSLMapping> mappings = new ArrayList<DSLMapping>();
+        final Collection<org.uberfire.java.nio.file.Path> dslPaths = fileDiscoveryService.discoverFiles( nioPackagePath,
+                                                                                                         FILTER_DSLS );
+        for ( final org.uberfire.java.nio.file.Path dslPath : dslPaths ) {
+            final String dslDefinition = ioService.readAllString( dslPath );
+            definitions.add( dslDefinition );
+            final DSLTokenizedMappingFile dslFile = new DSLTokenizedMappingFile();
+            try {
+                if ( dslFile.parseAndLoad( new StringReader( dslDefinition ) ) ) {
+                    mappings.add( dslFile.getMapping() );
+                } else {
+                    logger.error( "Unable to parse DSL definition: " + dslDefinition );
+                }
+            } catch ( IOException ioe ) {
+                logger.error( ioe.getMessage() );
+            }
+        }
+        return new PackageDSLs( definitions,
+                                mappings );
+    }
+
+    private static class PackageDSLs {
+
+        private final List<String> definitions;
+        private final List<DSLMapping> mappings;
+
+        private PackageDSLs( final List<String> definitions,
+                             final List<DSLMapping> mappings ) {
+            this.definitions = Collections.unmodifiableList( definitions );
+            this.mappings = Collections.unmodifiableList( mappings );
+        }
+
+    }
+
+}
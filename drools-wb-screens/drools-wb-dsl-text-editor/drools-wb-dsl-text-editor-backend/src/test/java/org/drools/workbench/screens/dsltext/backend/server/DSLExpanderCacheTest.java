@@ -0,0 +1,208 @@
+/*
+ * Copyright 2015 JBoss, by Red Hat, Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.drools.workbench.screens.dsltext.backend.server;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.apache.commons.io.FileUtils;
+import org.drools.workbench.screens.dsltext.type.DSLResourceTypeDefinition;
+import org.guvnor.common.services.backend.file.FileDiscoveryService;
+import org.guvnor.common.services.project.model.Package;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.kie.workbench.common.services.backend.file.DSLFileFilter;
+import org.kie.workbench.common.services.shared.project.KieProjectService;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.uberfire.backend.server.util.Paths;
+import org.uberfire.backend.vfs.Path;
+import org.uberfire.io.IOService;
+import org.uberfire.rpc.SessionInfo;
+import org.uberfire.workbench.events.ResourceDeletedEvent;
+import org.uberfire.workbench.events.ResourceUpdatedEvent;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class DSLExpanderCacheTest {
+
+    private static final String DSL1 = "[when]There is a Person=Person()";
+    private static final String DSL2 = "[when]There is an Applicant=Applicant()";
+
+    @Mock
+    private IOService ioService;
+
+    @Mock
+    private FileDiscoveryService fileDiscoveryService;
+
+    @Mock
+    private KieProjectService projectService;
+
+    @Mock
+    private SessionInfo sessionInfo;
+
+    @Spy
+    private DSLResourceTypeDefinition dslType = new DSLResourceTypeDefinition();
+
+    @InjectMocks
+    private DSLExpanderCache cache;
+
+    private File folder;
+
+    private Path dslrPath1;
+    private Path dslPath1;
+    private Path dslrPath2;
+    private Path dslPath2;
+
+    @Before
+    public void setup() throws Exception {
+        folder = File.createTempFile( "dslExpanderCache",
+                                      "" );
+        folder.delete();
+        folder.mkdir();
+
+        dslrPath1 = makePackageResource( "package1",
+                                         "rule.dslr" );
+        dslPath1 = makePackageResource( "package1",
+                                        "definitions.dsl" );
+        dslrPath2 = makePackageResource( "package2",
+                                         "rule.dslr" );
+        dslPath2 = makePackageResource( "package2",
+                                        "definitions.dsl" );
+
+        setDSLs( dslPath1,
+                 DSL1 );
+        setDSLs( dslPath2,
+                 DSL2 );
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        FileUtils.deleteDirectory( folder );
+    }
+
+    @Test
+    public void testSecondLookupHitsCache() {
+        assertNotNull( cache.getExpander( dslrPath1 ) );
+        assertEquals( 0,
+                      cache.getHitCount() );
+        assertEquals( 1,
+                      cache.getMissCount() );
+
+        assertNotNull( cache.getExpander( dslrPath1 ) );
+        assertEquals( Arrays.asList( DSL1 ),
+                      cache.getDSLDefinitions( dslrPath1 ) );
+        assertEquals( 2,
+                      cache.getHitCount() );
+        assertEquals( 1,
+                      cache.getMissCount() );
+
+        verify( ioService,
+                times( 1 ) ).readAllString( Paths.convert( dslPath1 ) );
+    }
+
+    @Test
+    public void testChangedDSLEvictsPackage() {
+        assertEquals( Arrays.asList( DSL1 ),
+                      cache.getDSLDefinitions( dslrPath1 ) );
+        assertEquals( Arrays.asList( DSL2 ),
+                      cache.getDSLDefinitions( dslrPath2 ) );
+
+        final String changedDSL = "[when]There is a Person aged {age}=Person( age == {age} )";
+        setDSLs( dslPath1,
+                 changedDSL );
+        cache.onResourceUpdated( new ResourceUpdatedEvent( dslPath1,
+                                                           "changed",
+                                                           sessionInfo ) );
+
+        assertEquals( Arrays.asList( changedDSL ),
+                      cache.getDSLDefinitions( dslrPath1 ) );
+        assertEquals( 3,
+                      cache.getMissCount() );
+
+        //The other Package's DSLs are still cached
+        assertEquals( Arrays.asList( DSL2 ),
+                      cache.getDSLDefinitions( dslrPath2 ) );
+        assertEquals( 1,
+                      cache.getHitCount() );
+    }
+
+    @Test
+    public void testDeletedDSLEvictsPackage() {
+        assertEquals( Arrays.asList( DSL1 ),
+                      cache.getDSLDefinitions( dslrPath1 ) );
+
+        when( fileDiscoveryService.discoverFiles( eq( Paths.convert( dslPath1 ).getParent() ),
+                                                  any( DSLFileFilter.class ) ) ).thenReturn( Collections.<org.uberfire.java.nio.file.Path>emptyList() );
+        cache.onResourceDeleted( new ResourceDeletedEvent( dslPath1,
+                                                           "deleted",
+                                                           sessionInfo ) );
+
+        assertTrue( cache.getDSLDefinitions( dslrPath1 ).isEmpty() );
+        assertEquals( 0,
+                      cache.getHitCount() );
+        assertEquals( 2,
+                      cache.getMissCount() );
+    }
+
+    @Test
+    public void testChangedRuleDoesNotEvictPackage() {
+        cache.getExpander( dslrPath1 );
+        cache.onResourceUpdated( new ResourceUpdatedEvent( dslrPath1,
+                                                           "changed",
+                                                           sessionInfo ) );
+        cache.getExpander( dslrPath1 );
+
+        assertEquals( 1,
+                      cache.getHitCount() );
+        assertEquals( 1,
+                      cache.getMissCount() );
+    }
+
+    private Path makePackageResource( final String packageName,
+                                      final String fileName ) throws Exception {
+        final File packageFolder = new File( folder,
+                                             packageName );
+        packageFolder.mkdirs();
+        final File file = new File( packageFolder,
+                                    fileName );
+        file.createNewFile();
+
+        final org.uberfire.java.nio.file.Path nioPath = org.uberfire.java.nio.file.Paths.get( file.toURI() );
+        final Path path = Paths.convert( nioPath );
+        final Path packagePath = Paths.convert( nioPath.getParent() );
+        final Package pkg = mock( Package.class );
+        when( pkg.getPackageMainResourcesPath() ).thenReturn( packagePath );
+        when( projectService.resolvePackage( path ) ).thenReturn( pkg );
+        return path;
+    }
+
+    private void setDSLs( final Path dslPath,
+                          final String content ) {
+        final org.uberfire.java.nio.file.Path nioDslPath = Paths.convert( dslPath );
+        when( fileDiscoveryService.discoverFiles( eq( nioDslPath.getParent() ),
+                                                  any( DSLFileFilter.class ) ) ).thenReturn( Arrays.asList( nioDslPath ) );
+        when( ioService.readAllString( nioDslPath ) ).thenReturn( content );
+    }
+
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright 2015 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.workbench.screens.dtablexls.backend.server;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigInteger;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.enterprise.context.ApplicationScoped;
+
+import org.drools.compiler.compiler.DroolsParserException;
+import org.drools.compiler.compiler.DrlParser;
+import org.drools.compiler.lang.descr.PackageDescr;
+import org.drools.decisiontable.InputType;
+import org.drools.decisiontable.SpreadsheetCompiler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Cache of the DRL, and its parsed PackageDescr, generated from XLS Decision Tables. Compiling a large spreadsheet
+ * takes seconds and the source service and indexer each compiled it afresh. Entries are keyed by the
+ * hash of the spreadsheet's content, so each version of a spreadsheet is compiled once whatever its path, and a
+ * changed spreadsheet is never served stale DRL. The least recently used entries are evicted once the cache is full;
+ * its size can be set with the system property {@value #CACHE_SIZE_PROPERTY}.
+ */
+@ApplicationScoped
+public class DecisionTableXLSCompilationCache {
+
+    public static final String CACHE_SIZE_PROPERTY = "org.drools.workbench.dtablexls.compilationCacheSize";
+
+    private static final int DEFAULT_CACHE_SIZE = 50;
+
+    private static final Logger logger = LoggerFactory.getLogger( DecisionTableXLSCompilationCache.class );
+
+    private final Map<String, CompiledDecisionTable> cache;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public DecisionTableXLSCompilationCache() {
+        this( Integer.getInteger( CACHE_SIZE_PROPERTY,
+                                  DEFAULT_CACHE_SIZE ) );
+    }
+
+    DecisionTableXLSCompilationCache( final int maximumSize ) {
+        this.cache = new LinkedHashMap<String, CompiledDecisionTable>( 16,
+                                                                       0.75f,
+                                                                       true ) {
+            @Override
+            protected boolean removeEldestEntry( final Map.Entry<String, CompiledDecisionTable> eldest ) {
+                return size() > maximumSize;
+            }
+        };
+    }
+
+    /**
+     * Returns the DRL generated from an XLS Decision Table
+     * @param content Content of the XLS Decision Table
+     * @return DRL
+     * @throws org.drools.template.parser.DecisionTableParseException if the spreadsheet cannot be compiled
+     */
+    public String getDrl( final byte[] content ) {
+        return getCompiledDecisionTable( content ).getDrl();
+    }
+
+    /**
+     * Returns the PackageDescr parsed from the DRL generated from an XLS Decision Table
+     * @param content Content of the XLS Decision Table
+     * @return PackageDescr, or null if the generated DRL could not be parsed
+     * @throws org.drools.template.parser.DecisionTableParseException if the spreadsheet cannot be compiled
+     */
+    public PackageDescr getPackageDescr( final byte[] content ) throws DroolsParserException {
+        return getCompiledDecisionTable( content ).getPackageDescr();
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    public void invalidateCache() {
+        synchronized ( cache ) {
+            cache.clear();
+        }
+    }
+
+    private CompiledDecisionTable getCompiledDecisionTable( final byte[] content ) {
+        final String key = hash( content );
+        CompiledDecisionTable compiled;
+        synchronized ( cache ) {
+            compiled = cache.get( key );
+        }
+        if ( compiled != null ) {
+            hits.incrementAndGet();
+            return compiled;
+        }
+        misses.incrementAndGet();
+
+        //Compile outside of the lock; at worst a spreadsheet requested concurrently is compiled twice
+        final long start = System.currentTimeMillis();
+        final SpreadsheetCompiler compiler = new SpreadsheetCompiler();
+        compiled = new CompiledDecisionTable( compiler.compile( new ByteArrayInputStream( content ),
+                                                                InputType.XLS ) );
+        if ( logger.isDebugEnabled() ) {
+            logger.debug( "XLS Decision Table compiled in " + ( System.currentTimeMillis() - start ) + "ms. Cache hits " + hits.get() + ", misses " + misses.get() + "." );
+        }
+        synchronized ( cache ) {
+            cache.put( key,
+                       compiled );
+        }
+        return compiled;
+    }
+
+    private String hash( final byte[] content ) {
+        try {
+            final MessageDigest digest = MessageDigest.getInstance( "SHA-1" );
+            return new BigInteger( 1,
+                                   digest.digest( content ) ).toString( 16 );
+        } catch ( NoSuchAlgorithmException e ) {
+            //Every Java platform is required to support SHA-1
+            throw new IllegalStateException( e );
+        }
+    }
+
+    private static class CompiledDecisionTable {
+
+        private final String drl;
+        private PackageDescr packageDescr;
+        private boolean parsed;
+
+        private CompiledDecisionTable( final String drl ) {
+            this.drl = drl;
+        }
+
+        private String getDrl() {
+            return drl;
+        }
+
+        //Not every caller needs the PackageDescr, so the DRL is only parsed on demand
+        private synchronized PackageDescr getPackageDescr() throws DroolsParserException {
+            if ( !parsed ) {
+                final DrlParser drlParser = new DrlParser();
+                packageDescr = drlParser.parse( true,
+                                                drl );
+                parsed = true;
+            }
+            return packageDescr;
+        }
+
+    }
+
+}
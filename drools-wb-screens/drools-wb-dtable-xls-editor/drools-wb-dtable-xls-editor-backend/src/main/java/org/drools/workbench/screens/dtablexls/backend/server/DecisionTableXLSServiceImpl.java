@@ -16,6 +16,7 @@
 
 package org.drools.workbench.screens.dtablexls.backend.server;
 
+import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
@@ -31,10 +32,6 @@ import javax.inject.Named;
 
 import org.apache.commons.io.IOUtils;
 import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
-import org.apache.poi.ss.usermodel.Workbook;
-import org.apache.poi.ss.usermodel.WorkbookFactory;
-import org.drools.decisiontable.InputType;
-import org.drools.decisiontable.SpreadsheetCompiler;
 import org.drools.template.parser.DecisionTableParseException;
 import org.drools.workbench.models.guided.dtable.shared.conversion.ConversionResult;
 import org.drools.workbench.screens.dtablexls.service.DecisionTableXLSContent;
@@ -103,6 +100,9 @@ public class DecisionTableXLSServiceImpl
     @Inject
     private GenericValidator genericValidator;
 
+    @Inject
+    private DecisionTableXLSCompilationCache compilationCache;
+
     @Override
     public DecisionTableXLSContent loadContent( final Path path ) {
         return super.loadContent(path);
@@ -152,17 +152,21 @@ public class DecisionTableXLSServiceImpl
                         final String comment ) {
         log.info( "USER:" + identity.getIdentifier() + " CREATING asset [" + resource.getFileName() + "]" );
 
+        File tempFile = null;
         try {
+            //The upload is spooled to disk once, as it must be validated before being committed
+            tempFile = File.createTempFile( "testxls", null );
+            final OutputStream tempOS = new BufferedOutputStream( new FileOutputStream( tempFile ) );
+            try {
+                IOUtils.copy( content,
+                              tempOS );
+            } finally {
+                tempOS.close();
+            }
 
-            File tempFile = File.createTempFile( "testxls", null );
-            FileOutputStream tempFOS = new FileOutputStream( tempFile );
-            IOUtils.copy( content, tempFOS );
-            tempFOS.flush();
-            tempFOS.close();
-
-            //Validate the xls
+            //Validate the xls, without loading the whole workbook into memory
             try {
-                Workbook workbook = WorkbookFactory.create( new FileInputStream( tempFile ) );
+                XLSStreamingValidator.validate( tempFile );
             } catch ( InvalidFormatException e ) {
                 throw new DecisionTableParseException( "DecisionTableParseException: An error occurred opening the workbook. It is possible that the encoding of the document did not match the encoding of the reader.",
                                                        e );
@@ -179,8 +183,13 @@ public class DecisionTableXLSServiceImpl
             final OutputStream outputStream = ioService.newOutputStream( nioPath,
                                                                          makeCommentedOption( sessionId,
                                                                                               comment ) );
-            IOUtils.copy( new FileInputStream( tempFile ),
-                          outputStream );
+            final InputStream tempIS = new FileInputStream( tempFile );
+            try {
+                IOUtils.copy( tempIS,
+                              outputStream );
+            } finally {
+                tempIS.close();
+            }
             outputStream.flush();
             outputStream.close();
 
@@ -195,6 +204,9 @@ public class DecisionTableXLSServiceImpl
             throw ExceptionUtilities.handleException( e );
 
         } finally {
+            if ( tempFile != null ) {
+                tempFile.delete();
+            }
             try {
                 content.close();
             } catch ( IOException e ) {
@@ -241,25 +253,11 @@ public class DecisionTableXLSServiceImpl
 
     @Override
     public String getSource( final Path path ) {
-        InputStream inputStream = null;
         try {
-            final SpreadsheetCompiler compiler = new SpreadsheetCompiler();
-            inputStream = ioService.newInputStream( Paths.convert( path ),
-                                                    StandardOpenOption.READ );
-            final String drl = compiler.compile( inputStream,
-                                                 InputType.XLS );
-            return drl;
+            return compilationCache.getDrl( ioService.readAllBytes( Paths.convert( path ) ) );
 
         } catch (Exception e) {
             throw new SourceGenerationFailedException(e.getMessage());
-        } finally {
-            if ( inputStream != null ) {
-                try {
-                    inputStream.close();
-                } catch ( IOException ioe ) {
-                    //Swallow
-                }
-            }
         }
     }
 
@@ -325,6 +323,7 @@ public class DecisionTableXLSServiceImpl
     public List<ValidationMessage> validate( final Path path,
                                              final Path resource ) {
         try {
+            //The project build compiles the spreadsheet, so it is not compiled through the cache beforehand
             final InputStream inputStream = ioService.newInputStream( Paths.convert( path ),
                                                                       StandardOpenOption.READ );
             return genericValidator.validate( path,
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2015 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.workbench.screens.dtablexls.backend.server;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.apache.poi.POIXMLDocument;
+import org.apache.poi.hssf.eventusermodel.HSSFEventFactory;
+import org.apache.poi.hssf.eventusermodel.HSSFListener;
+import org.apache.poi.hssf.eventusermodel.HSSFRequest;
+import org.apache.poi.hssf.record.BoundSheetRecord;
+import org.apache.poi.hssf.record.Record;
+import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.poifs.filesystem.NPOIFSFileSystem;
+import org.apache.poi.poifs.filesystem.POIFSFileSystem;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+
+/**
+ * Checks that a file holds an Excel workbook with at least one sheet, without building the workbook in memory as
+ * {@link org.apache.poi.ss.usermodel.WorkbookFactory} does. XLS workbooks are read record by record with the HSSF
+ * event model; XLSX workbooks are opened with {@link XSSFReader}, which only parses the workbook part of the package.
+ * Also used to validate uploaded XLS scorecards.
+ */
+public class XLSStreamingValidator {
+
+    private XLSStreamingValidator() {
+    }
+
+    /**
+     * Validate a workbook
+     * @param file The workbook. It is read in place.
+     * @throws InvalidFormatException if the file is not an XLS or XLSX workbook, or it has no sheets
+     * @throws IOException if the file cannot be read
+     */
+    public static void validate( final File file ) throws InvalidFormatException, IOException {
+        final InputStream header = new BufferedInputStream( new FileInputStream( file ) );
+        final boolean isXLS;
+        final boolean isXLSX;
+        try {
+            isXLS = POIFSFileSystem.hasPOIFSHeader( header );
+            isXLSX = !isXLS && POIXMLDocument.hasOOXMLHeader( header );
+        } finally {
+            header.close();
+        }
+
+        if ( isXLS ) {
+            validateXLS( file );
+        } else if ( isXLSX ) {
+            validateXLSX( file );
+        } else {
+            throw new InvalidFormatException( "The content is neither an XLS (OLE2) nor an XLSX (OOXML) workbook." );
+        }
+    }
+
+    private static void validateXLS( final File file ) throws InvalidFormatException, IOException {
+        //Read-only file systems are backed by the file, rather than being copied into memory
+        final NPOIFSFileSystem fs = new NPOIFSFileSystem( file,
+                                                          true );
+        try {
+            final SheetCounter sheetCounter = new SheetCounter();
+            final HSSFRequest request = new HSSFRequest();
+            request.addListener( sheetCounter,
+                                 BoundSheetRecord.sid );
+            new HSSFEventFactory().processWorkbookEvents( request,
+                                                          fs.getRoot() );
+            if ( sheetCounter.sheets == 0 ) {
+                throw new InvalidFormatException( "The workbook has no sheets." );
+            }
+        } finally {
+            fs.close();
+        }
+    }
+
+    private static void validateXLSX( final File file ) throws InvalidFormatException, IOException {
+        final OPCPackage pkg = OPCPackage.open( file.getPath(),
+                                                PackageAccess.READ );
+        try {
+            final XSSFReader reader = new XSSFReader( pkg );
+            if ( !reader.getSheetsData().hasNext() ) {
+                throw new InvalidFormatException( "The workbook has no sheets." );
+            }
+        } catch ( InvalidFormatException e ) {
+            throw e;
+        } catch ( OpenXML4JException e ) {
+            throw new InvalidFormatException( e.getMessage() );
+        } finally {
+            //A package opened for reading is released with revert(); close() would try to save it
+            pkg.revert();
+        }
+    }
+
+    private static class SheetCounter implements HSSFListener {
+
+        private int sheets;
+
+        @Override
+        public void processRecord( final Record record ) {
+            sheets++;
+        }
+
+    }
+
+}
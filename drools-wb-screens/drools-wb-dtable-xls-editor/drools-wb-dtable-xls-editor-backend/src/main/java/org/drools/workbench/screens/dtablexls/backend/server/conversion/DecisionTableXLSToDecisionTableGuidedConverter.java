@@ -15,23 +15,35 @@
  */
 package org.drools.workbench.screens.dtablexls.backend.server.conversion;
 
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.Calendar;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.TreeMap;
 import javax.annotation.PostConstruct;
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
 import javax.inject.Named;
 
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.apache.poi.POIXMLDocument;
 import org.drools.core.util.DateUtils;
 import org.drools.decisiontable.parser.xls.ExcelParser;
 import org.drools.template.model.Global;
 import org.drools.template.model.Import;
 import org.drools.template.parser.DataListener;
+import org.drools.workbench.models.guided.dtable.backend.GuidedDTXMLPersistence;
 import org.drools.workbench.models.guided.dtable.shared.conversion.ConversionMessageType;
 import org.drools.workbench.models.guided.dtable.shared.conversion.ConversionResult;
 import org.drools.workbench.models.guided.dtable.shared.model.GuidedDecisionTable52;
@@ -71,6 +83,8 @@ import org.kie.workbench.common.services.shared.project.ProjectImportsService;
 import org.uberfire.backend.server.util.Paths;
 import org.uberfire.backend.vfs.Path;
 import org.uberfire.io.IOService;
+import org.uberfire.java.nio.base.options.CommentedOption;
+import org.uberfire.java.nio.file.FileSystem;
 import org.uberfire.java.nio.file.Files;
 import org.uberfire.workbench.type.ResourceTypeDefinition;
 
@@ -80,6 +94,8 @@ import org.uberfire.workbench.type.ResourceTypeDefinition;
 @ApplicationScoped
 public class DecisionTableXLSToDecisionTableGuidedConverter implements DecisionTableXLSConversionService {
 
+    private static final String CONVERSION_COMMENT = "Converted from XLS Decision Table";
+
     @Inject
     private User identity;
 
@@ -151,53 +167,100 @@ public class DecisionTableXLSToDecisionTableGuidedConverter implements DecisionT
             return result;
         }
 
-        //Perform conversion!
-        final GuidedDecisionTableGeneratorListener listener = parseAssets( path,
-                                                                           result );
-
         //Root path for new resources is the same folder as the XLS file
         final Path context = Paths.convert( Paths.convert( path ).getParent() );
 
-        //Add Ancillary resources
-        createNewImports( context,
-                          listener.getImports(),
-                          result );
-        createNewFunctions( context,
-                            listener.getImports(),
-                            listener.getFunctions(),
-                            result );
-        createNewQueries( context,
-                          listener.getImports(),
-                          listener.getQueries(),
-                          result );
-        makeNewJavaTypes( context,
-                          listener.getTypeDeclarations(),
-                          result );
-        createNewGlobals( context,
-                          listener.getGlobals(),
-                          result );
-
-        //Add Web Guided Decision Tables
-        createNewDecisionTables( context,
-                                 listener.getImports(),
-                                 listener.getGuidedDecisionTables(),
-                                 result );
+        //Names of the new resources. Asset names only differ by the second in which they are made, so same-named
+        //Decision Tables would otherwise be written to the same resource.
+        final Set<String> assetNames = new HashSet<String>();
+
+        //Perform conversion! Web Guided Decision Tables are spooled to temporary files as each is converted, so that
+        //only one is held in memory at a time, and are written once the whole workbook has been parsed
+        final DecisionTableSpooler spooler = new DecisionTableSpooler( assetNames,
+                                                                       result );
+        try {
+            final GuidedDecisionTableGeneratorListener listener = parseAssets( path,
+                                                                               spooler,
+                                                                               result );
+
+            //Build Ancillary resources before any are written
+            final Map<String, String> functions = makeNewDRLAssets( "Function",
+                                                                    listener.getImports(),
+                                                                    listener.getFunctions(),
+                                                                    assetNames );
+            final Map<String, String> queries = makeNewDRLAssets( "Query",
+                                                                  listener.getImports(),
+                                                                  listener.getQueries(),
+                                                                  assetNames );
+            final List<DataModel> dataModels = makeNewJavaTypes( listener.getTypeDeclarations(),
+                                                                 result );
+            final Map<String, GlobalsModel> globals = makeNewGlobals( listener.getGlobals(),
+                                                                      assetNames );
+
+            //Write all new resources in a single batch. The VFS commits them together, and indexing and resource
+            //change events are deferred until the batch ends, rather than following each new resource.
+            startBatch( context );
+            try {
+                createNewDecisionTables( context,
+                                         spooler,
+                                         result );
+                createNewImports( context,
+                                  listener.getImports(),
+                                  result );
+                createNewDRLAssets( context,
+                                    "Function",
+                                    functions,
+                                    result );
+                createNewDRLAssets( context,
+                                    "Query",
+                                    queries,
+                                    result );
+                createNewJavaTypes( context,
+                                    dataModels );
+                createNewGlobals( context,
+                                  globals,
+                                  result );
+            } finally {
+                ioService.endBatch();
+            }
+        } finally {
+            spooler.dispose();
+        }
 
         return result;
     }
 
+    private void startBatch( final Path context ) {
+        ioService.startBatch( new FileSystem[]{ Paths.convert( context ).getFileSystem() },
+                              new CommentedOption( identity.getIdentifier(),
+                                                   null,
+                                                   CONVERSION_COMMENT,
+                                                   new Date() ) );
+    }
+
     private GuidedDecisionTableGeneratorListener parseAssets( final Path path,
+                                                              final DecisionTableSpooler spooler,
                                                               final ConversionResult result ) {
 
         final List<DataListener> listeners = new ArrayList<DataListener>();
-        final GuidedDecisionTableGeneratorListener listener = new GuidedDecisionTableGeneratorListener( result );
+        final GuidedDecisionTableGeneratorListener listener = new GuidedDecisionTableGeneratorListener( result,
+                                                                                                        spooler );
         listeners.add( listener );
 
-        final ExcelParser parser = new ExcelParser( listeners );
-        final InputStream stream = ioService.newInputStream( Paths.convert( path ) );
+        final InputStream stream = new BufferedInputStream( ioService.newInputStream( Paths.convert( path ) ) );
 
         try {
-            parser.parseFile( stream );
+            //XLSX workbooks are read a row at a time. XLS workbooks are limited to 65,536 rows, so are still read by ExcelParser.
+            if ( POIXMLDocument.hasOOXMLHeader( stream ) ) {
+                parseXLSX( stream,
+                           listeners );
+            } else {
+                final ExcelParser parser = new ExcelParser( listeners );
+                parser.parseFile( stream );
+            }
+        } catch ( IOException ioe ) {
+            result.addMessage( ioe.getMessage(),
+                               ConversionMessageType.ERROR );
         } finally {
             try {
                 stream.close();
@@ -209,65 +272,72 @@ public class DecisionTableXLSToDecisionTableGuidedConverter implements DecisionT
         return listener;
     }
 
-    private void createNewFunctions( final Path context,
-                                     final List<Import> imports,
-                                     final List<String> functions,
-                                     final ConversionResult result ) {
-        if ( functions == null || functions.isEmpty() ) {
-            return;
-        }
-
-        //Create new assets for Functions
-        for ( int iCounter = 0; iCounter < functions.size(); iCounter++ ) {
-
-            final String assetName = makeNewAssetName( "Function " + ( iCounter + 1 ),
-                                                       drlType );
-            final String drl = makeDRL( imports,
-                                        functions.get( iCounter ) );
-            drlService.create( context,
-                               assetName,
-                               drl,
-                               "Converted from XLS Decision Table" );
+    private void parseXLSX( final InputStream stream,
+                            final List<DataListener> listeners ) throws IOException {
+        //An XLSX workbook is a zip file, whose parts can only be found from the directory at its end. It is spooled
+        //to a temporary file so that they can be read from there, rather than from a copy of the workbook in memory.
+        final File file = File.createTempFile( "dtable",
+                                               ".xlsx" );
+        try {
+            final OutputStream os = new FileOutputStream( file );
+            try {
+                IOUtils.copy( stream,
+                              os );
+            } finally {
+                os.close();
+            }
 
-            result.addMessage( "Created Function '" + assetName + "'",
-                               ConversionMessageType.INFO );
+            final XLSXStreamingParser parser = new XLSXStreamingParser( listeners );
+            parser.parseFile( file );
+        } finally {
+            file.delete();
         }
     }
 
-    private void createNewQueries( final Path context,
-                                   final List<Import> imports,
-                                   final List<String> queries,
-                                   final ConversionResult result ) {
-        if ( queries == null || queries.isEmpty() ) {
-            return;
+    private Map<String, String> makeNewDRLAssets( final String baseName,
+                                                  final List<Import> imports,
+                                                  final List<String> drls,
+                                                  final Set<String> assetNames ) {
+        final Map<String, String> assets = new LinkedHashMap<String, String>();
+        if ( drls == null || drls.isEmpty() ) {
+            return assets;
         }
 
-        //Create new assets for Queries
-        for ( int iCounter = 0; iCounter < queries.size(); iCounter++ ) {
-
-            final String assetName = makeNewAssetName( "Query " + ( iCounter + 1 ),
-                                                       drlType );
+        //Create new assets for Functions or Queries
+        for ( int iCounter = 0; iCounter < drls.size(); iCounter++ ) {
+            final String assetName = makeNewAssetName( baseName + " " + ( iCounter + 1 ),
+                                                       drlType,
+                                                       assetNames );
             final String drl = makeDRL( imports,
-                                        queries.get( iCounter ) );
+                                        drls.get( iCounter ) );
+            assets.put( assetName,
+                        drl );
+        }
+        return assets;
+    }
+
+    private void createNewDRLAssets( final Path context,
+                                     final String description,
+                                     final Map<String, String> assets,
+                                     final ConversionResult result ) {
+        for ( Map.Entry<String, String> asset : assets.entrySet() ) {
             drlService.create( context,
-                               assetName,
-                               drl,
-                               "Converted from XLS Decision Table" );
+                               asset.getKey(),
+                               asset.getValue(),
+                               CONVERSION_COMMENT );
 
-            result.addMessage( "Created Query '" + assetName + "'",
+            result.addMessage( "Created " + description + " '" + asset.getKey() + "'",
                                ConversionMessageType.INFO );
         }
     }
 
-    private void makeNewJavaTypes( final Path context,
-                                   final List<String> declaredTypes,
-                                   final ConversionResult result ) {
+    private List<DataModel> makeNewJavaTypes( final List<String> declaredTypes,
+                                              final ConversionResult result ) {
+        final List<DataModel> dataModels = new ArrayList<DataModel>();
         if ( declaredTypes == null || declaredTypes.isEmpty() ) {
-            return;
+            return dataModels;
         }
 
-        final KieProject project = projectService.resolveProject( context );
-
         for ( String declaredType : declaredTypes ) {
             final FactModels factModels = FactModelPersistence.unmarshal( declaredType );
             final String packageName = factModels.getPackageName();
@@ -304,6 +374,19 @@ public class DecisionTableXLSToDecisionTableGuidedConverter implements DecisionT
                 dataModel.getDataObjects().add( dataObject );
             }
 
+            dataModels.add( dataModel );
+        }
+        return dataModels;
+    }
+
+    private void createNewJavaTypes( final Path context,
+                                     final List<DataModel> dataModels ) {
+        if ( dataModels.isEmpty() ) {
+            return;
+        }
+
+        final KieProject project = projectService.resolveProject( context );
+        for ( DataModel dataModel : dataModels ) {
             modellerService.saveModel( dataModel,
                                        project );
         }
@@ -362,24 +445,34 @@ public class DecisionTableXLSToDecisionTableGuidedConverter implements DecisionT
         return sb.toString();
     }
 
-    private void createNewGlobals( final Path context,
-                                   final List<Global> globals,
-                                   final ConversionResult result ) {
+    private Map<String, GlobalsModel> makeNewGlobals( final List<Global> globals,
+                                                      final Set<String> assetNames ) {
+        final Map<String, GlobalsModel> assets = new LinkedHashMap<String, GlobalsModel>();
         if ( globals == null || globals.isEmpty() ) {
-            return;
+            return assets;
         }
 
         //Create new asset for Globals. All Globals can be in one file.
         final String assetName = makeNewAssetName( "Global",
-                                                   globalsType );
-        final GlobalsModel model = makeGlobalsModel( globals );
-        globalsService.create( context,
-                               assetName,
-                               model,
-                               "Converted from XLS Decision Table" );
-
-        result.addMessage( "Created Globals '" + assetName + "'",
-                           ConversionMessageType.INFO );
+                                                   globalsType,
+                                                   assetNames );
+        assets.put( assetName,
+                    makeGlobalsModel( globals ) );
+        return assets;
+    }
+
+    private void createNewGlobals( final Path context,
+                                   final Map<String, GlobalsModel> globals,
+                                   final ConversionResult result ) {
+        for ( Map.Entry<String, GlobalsModel> asset : globals.entrySet() ) {
+            globalsService.create( context,
+                                   asset.getKey(),
+                                   asset.getValue(),
+                                   CONVERSION_COMMENT );
+
+            result.addMessage( "Created Globals '" + asset.getKey() + "'",
+                               ConversionMessageType.INFO );
+        }
     }
 
     private GlobalsModel makeGlobalsModel( final List<Global> globals ) {
@@ -435,39 +528,29 @@ public class DecisionTableXLSToDecisionTableGuidedConverter implements DecisionT
     }
 
     private void createNewDecisionTables( final Path context,
-                                          final List<Import> imports,
-                                          final List<GuidedDecisionTable52> dtables,
+                                          final DecisionTableSpooler spooler,
                                           final ConversionResult result ) {
-        if ( dtables == null || dtables.isEmpty() ) {
-            return;
-        }
-
-        //Create new assets for Guided Decision Tables
-        for ( int iCounter = 0; iCounter < dtables.size(); iCounter++ ) {
-
-            //Add imports
-            final GuidedDecisionTable52 dtable = dtables.get( iCounter );
-            for ( Import item : imports ) {
-                dtable.getImports().addImport( new org.drools.workbench.models.datamodel.imports.Import( item.getClassName() ) );
+        for ( SpooledDecisionTable spooled : spooler.getDecisionTables() ) {
+            final GuidedDecisionTable52 dtable = spooler.load( spooled );
+            if ( dtable == null ) {
+                continue;
             }
-
-            //Make new resource
-            final String assetName = makeNewAssetName( dtable.getTableName(),
-                                                       guidedDTableType );
             guidedDecisionTableService.create( context,
-                                               assetName,
+                                               spooled.assetName,
                                                dtable,
-                                               "Converted from XLS Decision Table" );
+                                               CONVERSION_COMMENT );
 
-            result.addMessage( "Created Guided Decision Table '" + assetName + "'",
+            result.addMessage( "Created Guided Decision Table '" + spooled.assetName + "' (" + spooled.rows + " rows)",
                                ConversionMessageType.INFO );
         }
     }
 
+    //A name already used by the conversion is made unique by numbering it, e.g. "Table (2) (converted on ...)"
     private String makeNewAssetName( final String baseName,
-                                     final ResourceTypeDefinition type ) {
+                                     final ResourceTypeDefinition type,
+                                     final Set<String> assetNames ) {
         Calendar now = Calendar.getInstance();
-        StringBuilder sb = new StringBuilder( baseName );
+        StringBuilder sb = new StringBuilder();
         sb.append( " (converted on " );
         sb.append( DateUtils.format( now.getTime() ) );
         sb.append( " " );
@@ -478,7 +561,96 @@ public class DecisionTableXLSToDecisionTableGuidedConverter implements DecisionT
         sb.append( now.get( Calendar.SECOND ) );
         sb.append( ")" );
         sb.append( "." ).append( type.getSuffix() );
-        return sb.toString();
+        final String suffix = sb.toString();
+
+        String assetName = baseName + suffix;
+        for ( int iCounter = 2; !assetNames.add( assetName ); iCounter++ ) {
+            assetName = baseName + " (" + iCounter + ")" + suffix;
+        }
+        return assetName;
+    }
+
+    /**
+     * Receives each Guided Decision Table as it is converted, naming it and writing it to a temporary file until all
+     * of the workbook's new resources are written together
+     */
+    private class DecisionTableSpooler implements GuidedDecisionTableGeneratorListener.DecisionTableHandler {
+
+        private final Set<String> assetNames;
+        private final ConversionResult result;
+        private final List<SpooledDecisionTable> dtables = new ArrayList<SpooledDecisionTable>();
+
+        private DecisionTableSpooler( final Set<String> assetNames,
+                                      final ConversionResult result ) {
+            this.assetNames = assetNames;
+            this.result = result;
+        }
+
+        @Override
+        public void handle( final GuidedDecisionTable52 dtable,
+                            final List<Import> imports ) {
+            //Add imports
+            for ( Import item : imports ) {
+                dtable.getImports().addImport( new org.drools.workbench.models.datamodel.imports.Import( item.getClassName() ) );
+            }
+
+            //Name the new resource now, so that names follow the order of the tables in the workbook
+            final String assetName = makeNewAssetName( dtable.getTableName(),
+                                                       guidedDTableType,
+                                                       assetNames );
+            try {
+                final File file = File.createTempFile( "dtable",
+                                                       ".gdst" );
+                dtables.add( new SpooledDecisionTable( assetName,
+                                                       dtable.getData().size(),
+                                                       file ) );
+                FileUtils.writeStringToFile( file,
+                                             GuidedDTXMLPersistence.getInstance().marshal( dtable ),
+                                             "UTF-8" );
+            } catch ( IOException ioe ) {
+                result.addMessage( "Unable to convert Guided Decision Table '" + assetName + "': " + ioe.getMessage(),
+                                   ConversionMessageType.ERROR );
+            }
+        }
+
+        private List<SpooledDecisionTable> getDecisionTables() {
+            return dtables;
+        }
+
+        private GuidedDecisionTable52 load( final SpooledDecisionTable spooled ) {
+            try {
+                return GuidedDTXMLPersistence.getInstance().unmarshal( FileUtils.readFileToString( spooled.file,
+                                                                                                   "UTF-8" ) );
+            } catch ( IOException ioe ) {
+                result.addMessage( "Unable to convert Guided Decision Table '" + spooled.assetName + "': " + ioe.getMessage(),
+                                   ConversionMessageType.ERROR );
+                return null;
+            }
+        }
+
+        private void dispose() {
+            for ( SpooledDecisionTable spooled : dtables ) {
+                spooled.file.delete();
+            }
+            dtables.clear();
+        }
+
+    }
+
+    private static class SpooledDecisionTable {
+
+        private final String assetName;
+        private final int rows;
+        private final File file;
+
+        private SpooledDecisionTable( final String assetName,
+                                      final int rows,
+                                      final File file ) {
+            this.assetName = assetName;
+            this.rows = rows;
+            this.file = file;
+        }
+
     }
 
 }
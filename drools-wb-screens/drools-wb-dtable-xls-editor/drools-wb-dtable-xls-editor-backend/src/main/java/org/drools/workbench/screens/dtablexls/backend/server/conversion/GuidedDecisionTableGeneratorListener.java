@@ -97,12 +97,25 @@ public class GuidedDecisionTableGeneratorListener
     //Results of conversion
     private ConversionResult _conversionResult;
 
+    //Receives each Guided Decision Table as soon as it is complete, if set
+    private DecisionTableHandler _handler;
+
     private ParameterUtilities _parameterUtilities;
 
     public GuidedDecisionTableGeneratorListener( ConversionResult conversionResult ) {
         this._conversionResult = conversionResult;
     }
 
+    /**
+     * Guided Decision Tables are passed to the handler as each is completed, rather than being collected
+     * for {@link #getGuidedDecisionTables()}, so that only one is held in memory at a time.
+     */
+    public GuidedDecisionTableGeneratorListener( ConversionResult conversionResult,
+                                                 DecisionTableHandler handler ) {
+        this._conversionResult = conversionResult;
+        this._handler = handler;
+    }
+
     public CaseInsensitiveMap getProperties() {
         return this._propertiesListener.getProperties();
     }
@@ -131,6 +144,9 @@ public class GuidedDecisionTableGeneratorListener
         return getProperties().getProperty( DefaultRuleSheetListener.DECLARES_TAG );
     }
 
+    /**
+     * @return The Guided Decision Tables; empty if a {@link DecisionTableHandler} received them instead
+     */
     public List<GuidedDecisionTable52> getGuidedDecisionTables() {
         return _dtables;
     }
@@ -219,7 +235,14 @@ public class GuidedDecisionTableGeneratorListener
     private void finishRuleTable() {
         if ( this._isInRuleTable ) {
             populateDecisionTable();
-            this._dtables.add( this._dtable );
+            if ( this._handler == null ) {
+                this._dtables.add( this._dtable );
+            } else {
+                this._handler.handle( this._dtable,
+                                      getImports() );
+            }
+            this._dtable = null;
+            this._sourceBuilders = null;
             this._currentSequentialFlag = false;
             this._isInRuleTable = false;
             this._haveColumnsBeenIdentified = false;
@@ -630,4 +653,18 @@ public class GuidedDecisionTableGeneratorListener
         return actionType;
     }
 
+    /**
+     * Receives each Guided Decision Table as soon as the rule table from which it was generated is complete
+     */
+    public interface DecisionTableHandler {
+
+        /**
+         * @param dtable The Guided Decision Table
+         * @param imports The imports declared in the sheet so far
+         */
+        void handle( GuidedDecisionTable52 dtable,
+                     List<Import> imports );
+
+    }
+
 }
@@ -0,0 +1,339 @@
+/*
+ * Copyright 2015 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.workbench.screens.dtablexls.backend.server.conversion;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import javax.xml.XMLConstants;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.parsers.SAXParserFactory;
+
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.util.CellRangeAddress;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFCellStyle;
+import org.drools.template.parser.DataListener;
+import org.drools.template.parser.DecisionTableParseException;
+import org.xml.sax.Attributes;
+import org.xml.sax.SAXException;
+import org.xml.sax.helpers.DefaultHandler;
+
+/**
+ * Streaming alternative to {@link org.drools.decisiontable.parser.xls.ExcelParser} for XLSX workbooks. ExcelParser
+ * builds the whole workbook with POI's user model; this reads the sheet's XML with SAX and passes each row to the
+ * listeners as soon as it has been read, so memory use does not grow with the number of rows.
+ * <p/>
+ * As with ExcelParser, only the first sheet is parsed, a cell within a merged region has the value of the region's
+ * first cell and numbers are formatted as Excel displays them. The sheet's merged regions follow its cells in the
+ * XML, so they are read by a first pass over the sheet. Formulae are not evaluated; the value Excel cached is used.
+ */
+public class XLSXStreamingParser {
+
+    private static final String SPREADSHEETML_NS = "http://schemas.openxmlformats.org/spreadsheetml/2006/main";
+
+    private final List<? extends DataListener> listeners;
+
+    public XLSXStreamingParser( final List<? extends DataListener> listeners ) {
+        this.listeners = listeners;
+    }
+
+    /**
+     * Parse the first sheet of the XLSX workbook
+     * @param file The workbook. It is read in place.
+     * @throws DecisionTableParseException if the workbook cannot be read
+     */
+    public void parseFile( final File file ) {
+        OPCPackage pkg = null;
+        try {
+            pkg = OPCPackage.open( file.getPath(),
+                                   PackageAccess.READ );
+            final XSSFReader reader = new XSSFReader( pkg );
+
+            final List<CellRangeAddress> mergedRegions = new ArrayList<CellRangeAddress>();
+            if ( !parseFirstSheet( reader,
+                                   new MergedRegionsHandler( mergedRegions ) ) ) {
+                return;
+            }
+            parseFirstSheet( reader,
+                             new SheetHandler( new ReadOnlySharedStringsTable( pkg ),
+                                               reader.getStylesTable(),
+                                               mergedRegions ) );
+
+            for ( DataListener listener : listeners ) {
+                listener.finishSheet();
+            }
+
+        } catch ( IOException e ) {
+            throw new DecisionTableParseException( "Failed to open Excel stream, please check that the content is xlsx format.",
+                                                   e );
+        } catch ( OpenXML4JException e ) {
+            throw new DecisionTableParseException( "An error occurred opening the workbook. " + e.getMessage(),
+                                                   e );
+        } catch ( SAXException e ) {
+            throw new DecisionTableParseException( "An error occurred reading the workbook. " + e.getMessage(),
+                                                   e );
+        } catch ( ParserConfigurationException e ) {
+            throw new DecisionTableParseException( e.getMessage(),
+                                                   e );
+        } finally {
+            if ( pkg != null ) {
+                //A package opened for reading is released with revert(); close() would try to save it
+                pkg.revert();
+            }
+        }
+    }
+
+    private boolean parseFirstSheet( final XSSFReader reader,
+                                     final DefaultHandler handler ) throws IOException, OpenXML4JException, SAXException, ParserConfigurationException {
+        final Iterator<InputStream> sheets = reader.getSheetsData();
+        if ( !sheets.hasNext() ) {
+            return false;
+        }
+        final InputStream sheet = sheets.next();
+        try {
+            newSAXParserFactory().newSAXParser().parse( sheet,
+                                                        handler );
+        } finally {
+            sheet.close();
+        }
+        return true;
+    }
+
+    //The sheet is uploaded content, so DOCTYPEs, and with them external entities, are refused
+    static SAXParserFactory newSAXParserFactory() throws ParserConfigurationException, SAXException {
+        final SAXParserFactory factory = SAXParserFactory.newInstance();
+        factory.setNamespaceAware( true );
+        factory.setFeature( XMLConstants.FEATURE_SECURE_PROCESSING,
+                            true );
+        factory.setFeature( "http://apache.org/xml/features/disallow-doctype-decl",
+                            true );
+        factory.setFeature( "http://xml.org/sax/features/external-general-entities",
+                            false );
+        factory.setFeature( "http://xml.org/sax/features/external-parameter-entities",
+                            false );
+        return factory;
+    }
+
+    /**
+     * First pass, collecting the sheet's merged regions
+     */
+    private static class MergedRegionsHandler extends DefaultHandler {
+
+        private final List<CellRangeAddress> mergedRegions;
+
+        private MergedRegionsHandler( final List<CellRangeAddress> mergedRegions ) {
+            this.mergedRegions = mergedRegions;
+        }
+
+        @Override
+        public void startElement( final String uri,
+                                  final String localName,
+                                  final String qName,
+                                  final Attributes attributes ) {
+            if ( SPREADSHEETML_NS.equals( uri ) && "mergeCell".equals( localName ) ) {
+                mergedRegions.add( CellRangeAddress.valueOf( attributes.getValue( "ref" ) ) );
+            }
+        }
+
+    }
+
+    /**
+     * Second pass, passing each row's cells to the listeners. Cells are buffered only until the end of their row, as
+     * the listeners are told the number of columns in a row before its cells.
+     */
+    private class SheetHandler extends DefaultHandler {
+
+        private final ReadOnlySharedStringsTable strings;
+        private final StylesTable styles;
+        private final List<CellRangeAddress> mergedRegions;
+        private final DataFormatter formatter = new DataFormatter( Locale.ENGLISH );
+
+        //Values of the first cell of each merged region, keyed by the region's index
+        private final Map<Integer, String> mergedValues = new HashMap<Integer, String>();
+
+        private final List<int[]> rowCells = new ArrayList<int[]>();
+        private final List<String> rowValues = new ArrayList<String>();
+        private final StringBuilder value = new StringBuilder();
+
+        private int lastRow = -1;
+        private int row;
+        private int column;
+        private String cellType;
+        private String cellStyle;
+        private boolean isValue;
+
+        private SheetHandler( final ReadOnlySharedStringsTable strings,
+                              final StylesTable styles,
+                              final List<CellRangeAddress> mergedRegions ) {
+            this.strings = strings;
+            this.styles = styles;
+            this.mergedRegions = mergedRegions;
+        }
+
+        @Override
+        public void startElement( final String uri,
+                                  final String localName,
+                                  final String qName,
+                                  final Attributes attributes ) {
+            if ( !SPREADSHEETML_NS.equals( uri ) ) {
+                return;
+            }
+            if ( "row".equals( localName ) ) {
+                final String r = attributes.getValue( "r" );
+                row = ( r == null ? lastRow + 1 : Integer.parseInt( r ) - 1 );
+                rowCells.clear();
+                rowValues.clear();
+
+            } else if ( "c".equals( localName ) ) {
+                final String r = attributes.getValue( "r" );
+                column = ( r == null ? nextColumn() : new CellReference( r ).getCol() );
+                cellType = attributes.getValue( "t" );
+                cellStyle = attributes.getValue( "s" );
+                value.setLength( 0 );
+
+            } else if ( "v".equals( localName ) || "t".equals( localName ) ) {
+                //<v> holds a cell's value; <t> the text of an inline string
+                isValue = true;
+            }
+        }
+
+        @Override
+        public void characters( final char[] ch,
+                                final int start,
+                                final int length ) {
+            if ( isValue ) {
+                value.append( ch,
+                              start,
+                              length );
+            }
+        }
+
+        @Override
+        public void endElement( final String uri,
+                                final String localName,
+                                final String qName ) {
+            if ( !SPREADSHEETML_NS.equals( uri ) ) {
+                return;
+            }
+            if ( "v".equals( localName ) || "t".equals( localName ) ) {
+                isValue = false;
+
+            } else if ( "c".equals( localName ) ) {
+                endCell();
+
+            } else if ( "row".equals( localName ) ) {
+                endRow();
+            }
+        }
+
+        private int nextColumn() {
+            return rowCells.isEmpty() ? 0 : rowCells.get( rowCells.size() - 1 )[ 0 ] + 1;
+        }
+
+        private void endCell() {
+            String cellValue = formatValue();
+            int mergedColStart = DataListener.NON_MERGED;
+
+            for ( int i = 0; i < mergedRegions.size(); i++ ) {
+                final CellRangeAddress region = mergedRegions.get( i );
+                if ( region.isInRange( row,
+                                       column ) ) {
+                    if ( row == region.getFirstRow() && column == region.getFirstColumn() ) {
+                        mergedValues.put( i,
+                                          cellValue );
+                    } else {
+                        cellValue = mergedValues.containsKey( i ) ? mergedValues.get( i ) : "";
+                    }
+                    mergedColStart = region.getFirstColumn();
+                    break;
+                }
+            }
+
+            rowCells.add( new int[]{ column, mergedColStart } );
+            rowValues.add( cellValue );
+        }
+
+        private void endRow() {
+            //Rows without cells are not held in the XML, but the listeners are told of every row
+            for ( int emptyRow = lastRow + 1; emptyRow < row; emptyRow++ ) {
+                for ( DataListener listener : listeners ) {
+                    listener.newRow( emptyRow,
+                                     0 );
+                }
+            }
+            lastRow = row;
+
+            final int columns = rowCells.isEmpty() ? 0 : rowCells.get( rowCells.size() - 1 )[ 0 ] + 1;
+            for ( DataListener listener : listeners ) {
+                listener.newRow( row,
+                                 columns );
+            }
+            for ( int i = 0; i < rowCells.size(); i++ ) {
+                final int[] cell = rowCells.get( i );
+                for ( DataListener listener : listeners ) {
+                    listener.newCell( row,
+                                      cell[ 0 ],
+                                      rowValues.get( i ),
+                                      cell[ 1 ] );
+                }
+            }
+        }
+
+        private String formatValue() {
+            final String raw = value.toString();
+            if ( "s".equals( cellType ) ) {
+                return strings.getEntryAt( Integer.parseInt( raw ) );
+            } else if ( "inlineStr".equals( cellType ) || "str".equals( cellType ) || "e".equals( cellType ) ) {
+                return raw;
+            } else if ( "b".equals( cellType ) ) {
+                return "1".equals( raw ) ? "true" : "false";
+            } else if ( raw.length() == 0 ) {
+                return "";
+            }
+
+            //Numbers are formatted as ExcelParser does
+            final double num = Double.parseDouble( raw );
+            if ( num - Math.round( num ) != 0 ) {
+                return String.valueOf( num );
+            }
+            final XSSFCellStyle style = ( cellStyle == null ? null : styles.getStyleAt( Integer.parseInt( cellStyle ) ) );
+            if ( style == null ) {
+                return formatter.formatRawCellContents( num,
+                                                        0,
+                                                        "General" );
+            }
+            return formatter.formatRawCellContents( num,
+                                                    style.getDataFormat(),
+                                                    style.getDataFormatString() );
+        }
+
+    }
+
+}
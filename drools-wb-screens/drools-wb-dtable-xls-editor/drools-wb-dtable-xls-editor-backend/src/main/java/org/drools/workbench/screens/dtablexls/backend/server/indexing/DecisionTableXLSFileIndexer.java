@@ -15,16 +15,13 @@
  */
 package org.drools.workbench.screens.dtablexls.backend.server.indexing;
 
-import java.io.IOException;
-import java.io.InputStream;
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
 import javax.inject.Named;
 
-import org.drools.compiler.compiler.DecisionTableFactory;
-import org.drools.compiler.compiler.DrlParser;
 import org.drools.compiler.lang.descr.PackageDescr;
 import org.drools.workbench.models.datamodel.oracle.ProjectDataModelOracle;
+import org.drools.workbench.screens.dtablexls.backend.server.DecisionTableXLSCompilationCache;
 import org.drools.workbench.screens.dtablexls.type.DecisionTableXLSResourceTypeDefinition;
 import org.guvnor.common.services.project.model.Package;
 import org.guvnor.common.services.project.model.Project;
@@ -41,7 +38,6 @@ import org.uberfire.ext.metadata.model.KObject;
 import org.uberfire.ext.metadata.model.KObjectKey;
 import org.uberfire.io.IOService;
 import org.uberfire.java.nio.file.Path;
-import org.uberfire.java.nio.file.StandardOpenOption;
 
 @ApplicationScoped
 public class DecisionTableXLSFileIndexer implements Indexer {
@@ -61,6 +57,9 @@ public class DecisionTableXLSFileIndexer implements Indexer {
     @Inject
     protected DecisionTableXLSResourceTypeDefinition type;
 
+    @Inject
+    protected DecisionTableXLSCompilationCache compilationCache;
+
     @Override
     public boolean supportsPath( final Path path ) {
         return type.accept( Paths.convert( path ) );
@@ -69,16 +68,9 @@ public class DecisionTableXLSFileIndexer implements Indexer {
     @Override
     public KObject toKObject( final Path path ) {
         KObject index = null;
-        InputStream inputStream = null;
 
         try {
-            inputStream = ioService.newInputStream( path,
-                                                    StandardOpenOption.READ );
-            final String drl = DecisionTableFactory.loadFromInputStream( inputStream,
-                                                                         null );
-            final DrlParser drlParser = new DrlParser();
-            final PackageDescr packageDescr = drlParser.parse( true,
-                                                               drl );
+            final PackageDescr packageDescr = compilationCache.getPackageDescr( ioService.readAllBytes( path ) );
             if ( packageDescr == null ) {
                 logger.error( "Unable to parse DRL for '" + path.toUri().toString() + "'." );
                 return index;
@@ -101,13 +93,6 @@ public class DecisionTableXLSFileIndexer implements Indexer {
         } catch ( Exception e ) {
             logger.error( "Unable to index '" + path.toUri().toString() + "'.",
                           e.getMessage() );
-        } finally {
-            if ( inputStream != null ) {
-                try {
-                    inputStream.close();
-                } catch ( IOException e ) {
-                }
-            }
         }
 
         return index;
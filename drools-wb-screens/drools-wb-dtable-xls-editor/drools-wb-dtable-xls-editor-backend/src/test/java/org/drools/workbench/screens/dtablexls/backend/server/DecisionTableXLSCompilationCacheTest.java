@@ -0,0 +1,82 @@
+/*
+ * Copyright 2015 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.workbench.screens.dtablexls.backend.server;
+
+import java.io.InputStream;
+
+import org.apache.commons.io.IOUtils;
+import org.drools.compiler.lang.descr.PackageDescr;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class DecisionTableXLSCompilationCacheTest {
+
+    @Test
+    public void testSameContentIsCompiledOnce() throws Exception {
+        final DecisionTableXLSCompilationCache cache = new DecisionTableXLSCompilationCache( 10 );
+        final byte[] content = load( "conversion/Attributes.xls" );
+
+        final String drl = cache.getDrl( content );
+        assertNotNull( drl );
+        assertSame( drl,
+                    cache.getDrl( content.clone() ) );
+
+        final PackageDescr packageDescr = cache.getPackageDescr( content );
+        assertNotNull( packageDescr );
+        assertSame( packageDescr,
+                    cache.getPackageDescr( content ) );
+
+        assertEquals( 1,
+                      cache.getMissCount() );
+        assertEquals( 3,
+                      cache.getHitCount() );
+    }
+
+    @Test
+    public void testLeastRecentlyUsedIsEvicted() throws Exception {
+        final DecisionTableXLSCompilationCache cache = new DecisionTableXLSCompilationCache( 2 );
+        final byte[] attributes = load( "conversion/Attributes.xls" );
+        final byte[] conditions = load( "conversion/Conditions.xls" );
+        final byte[] actions = load( "conversion/Actions.xls" );
+
+        cache.getDrl( attributes );
+        cache.getDrl( conditions );
+        cache.getDrl( attributes );
+        cache.getDrl( actions );
+        assertEquals( 3,
+                      cache.getMissCount() );
+
+        //Attributes was used more recently than Conditions, so Conditions was evicted
+        cache.getDrl( attributes );
+        assertEquals( 3,
+                      cache.getMissCount() );
+        cache.getDrl( conditions );
+        assertEquals( 4,
+                      cache.getMissCount() );
+    }
+
+    private byte[] load( final String resource ) throws Exception {
+        final InputStream is = this.getClass().getResourceAsStream( resource );
+        try {
+            return IOUtils.toByteArray( is );
+        } finally {
+            is.close();
+        }
+    }
+
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2015 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.workbench.screens.dtablexls.backend.server;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.Test;
+
+public class XLSStreamingValidatorTest {
+
+    @Test
+    public void testValidXLS() throws Exception {
+        final File file = File.createTempFile( "valid",
+                                               ".xls" );
+        try {
+            final InputStream is = this.getClass().getResourceAsStream( "conversion/Attributes.xls" );
+            final OutputStream os = new FileOutputStream( file );
+            try {
+                IOUtils.copy( is,
+                              os );
+            } finally {
+                is.close();
+                os.close();
+            }
+
+            XLSStreamingValidator.validate( file );
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void testValidXLSX() throws Exception {
+        final File file = File.createTempFile( "valid",
+                                               ".xlsx" );
+        try {
+            final XSSFWorkbook workbook = new XSSFWorkbook();
+            workbook.createSheet( "Tables" ).createRow( 0 ).createCell( 0 ).setCellValue( "RuleSet" );
+            final OutputStream os = new FileOutputStream( file );
+            try {
+                workbook.write( os );
+            } finally {
+                os.close();
+            }
+
+            XLSStreamingValidator.validate( file );
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test(expected = InvalidFormatException.class)
+    public void testInvalidContent() throws Exception {
+        final File file = File.createTempFile( "invalid",
+                                               ".xls" );
+        try {
+            final OutputStream os = new FileOutputStream( file );
+            try {
+                os.write( "This is not a workbook".getBytes( "UTF-8" ) );
+            } finally {
+                os.close();
+            }
+
+            XLSStreamingValidator.validate( file );
+        } finally {
+            file.delete();
+        }
+    }
+
+}
@@ -0,0 +1,234 @@
+/*
+ * Copyright 2015 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.drools.workbench.screens.dtablexls.backend.server.conversion;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.InputStream;
+import java.util.List;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.Row;
+import org.drools.workbench.models.guided.dtable.shared.model.GuidedDecisionTable52;
+import org.drools.workbench.screens.drltext.service.DRLTextEditorService;
+import org.drools.workbench.screens.drltext.type.DRLResourceTypeDefinition;
+import org.drools.workbench.screens.dtablexls.type.DecisionTableXLSResourceTypeDefinition;
+import org.drools.workbench.screens.globals.service.GlobalsEditorService;
+import org.drools.workbench.screens.globals.type.GlobalResourceTypeDefinition;
+import org.drools.workbench.screens.guided.dtable.service.GuidedDecisionTableEditorService;
+import org.drools.workbench.screens.guided.dtable.type.GuidedDTableResourceTypeDefinition;
+import org.guvnor.common.services.shared.metadata.MetadataService;
+import org.jboss.errai.security.shared.api.identity.User;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.kie.workbench.common.screens.datamodeller.service.DataModelerService;
+import org.kie.workbench.common.services.shared.project.KieProjectService;
+import org.kie.workbench.common.services.shared.project.ProjectImportsService;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.mockito.stubbing.Answer;
+import org.uberfire.backend.server.util.Paths;
+import org.uberfire.backend.vfs.Path;
+import org.uberfire.io.IOService;
+import org.uberfire.java.nio.base.options.CommentedOption;
+import org.uberfire.java.nio.file.FileSystem;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for the writing of the resources converted from XLS Decision Tables
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class DecisionTableXLSToDecisionTableGuidedConverterBatchTest {
+
+    @Mock
+    private User identity;
+
+    @Mock
+    private IOService ioService;
+
+    @Mock
+    private DRLTextEditorService drlService;
+
+    @Mock
+    private GuidedDecisionTableEditorService guidedDecisionTableService;
+
+    @Mock
+    private GlobalsEditorService globalsService;
+
+    @Mock
+    private KieProjectService projectService;
+
+    @Mock
+    private ProjectImportsService importsService;
+
+    @Mock
+    private MetadataService metadataService;
+
+    @Mock
+    private DataModelerService modellerService;
+
+    @Mock
+    private DecisionTableXLSResourceTypeDefinition xlsDTableType;
+
+    @Spy
+    private GuidedDTableResourceTypeDefinition guidedDTableType = new GuidedDTableResourceTypeDefinition();
+
+    @Spy
+    private DRLResourceTypeDefinition drlType = new DRLResourceTypeDefinition();
+
+    @Spy
+    private GlobalResourceTypeDefinition globalsType = new GlobalResourceTypeDefinition();
+
+    @InjectMocks
+    private DecisionTableXLSToDecisionTableGuidedConverter converter;
+
+    private File folder;
+    private Path path;
+
+    @Before
+    public void setup() throws Exception {
+        folder = File.createTempFile( "conversion",
+                                      "" );
+        folder.delete();
+        folder.mkdir();
+        final File file = new File( folder,
+                                    "MultipleRuleTables.xls" );
+        FileUtils.writeByteArrayToFile( file,
+                                        load( "MultipleRuleTables.xls" ) );
+        path = Paths.convert( org.uberfire.java.nio.file.Paths.get( file.toURI() ) );
+
+        when( xlsDTableType.accept( path ) ).thenReturn( true );
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        FileUtils.deleteDirectory( folder );
+    }
+
+    @Test
+    public void testAllWritesAreInOneBatch() throws Exception {
+        setContent( load( "MultipleRuleTables.xls" ) );
+
+        converter.convert( path );
+
+        //The whole workbook is parsed before anything is written, then every new resource is written in one batch
+        final InOrder inOrder = inOrder( ioService,
+                                         guidedDecisionTableService );
+        inOrder.verify( ioService ).newInputStream( any( org.uberfire.java.nio.file.Path.class ) );
+        inOrder.verify( ioService ).startBatch( any( FileSystem[].class ),
+                                                any( CommentedOption.class ) );
+        inOrder.verify( guidedDecisionTableService,
+                        times( 2 ) ).create( any( Path.class ),
+                                             anyString(),
+                                             any( GuidedDecisionTable52.class ),
+                                             anyString() );
+        inOrder.verify( ioService ).endBatch();
+
+        verify( ioService,
+                times( 1 ) ).startBatch( any( FileSystem[].class ),
+                                         any( CommentedOption.class ) );
+        verify( ioService,
+                times( 1 ) ).endBatch();
+    }
+
+    @Test
+    public void testBatchEndsWhenWriteFails() throws Exception {
+        setContent( load( "MultipleRuleTables.xls" ) );
+        doThrow( new RuntimeException( "write failed" ) ).when( guidedDecisionTableService ).create( any( Path.class ),
+                                                                                                  anyString(),
+                                                                                                  any( GuidedDecisionTable52.class ),
+                                                                                                  anyString() );
+
+        try {
+            converter.convert( path );
+            fail( "The failed write should be reported" );
+        } catch ( RuntimeException e ) {
+            //Expected
+        }
+
+        verify( ioService ).startBatch( any( FileSystem[].class ),
+                                        any( CommentedOption.class ) );
+        verify( ioService ).endBatch();
+    }
+
+    @Test
+    public void testSameNamedTablesHaveDistinctPaths() throws Exception {
+        setContent( renameRuleTable( load( "MultipleRuleTables.xls" ),
+                                     "RuleTable Table2",
+                                     "RuleTable Table1" ) );
+
+        converter.convert( path );
+
+        final ArgumentCaptor<String> assetNames = ArgumentCaptor.forClass( String.class );
+        verify( guidedDecisionTableService,
+                times( 2 ) ).create( any( Path.class ),
+                                     assetNames.capture(),
+                                     any( GuidedDecisionTable52.class ),
+                                     anyString() );
+        final List<String> names = assetNames.getAllValues();
+        assertTrue( names.get( 0 ).startsWith( "Table1 (converted on " ) );
+        assertTrue( names.get( 1 ).startsWith( "Table1 (2) (converted on " ) );
+        assertFalse( names.get( 0 ).equals( names.get( 1 ) ) );
+    }
+
+    private void setContent( final byte[] content ) {
+        when( ioService.newInputStream( any( org.uberfire.java.nio.file.Path.class ) ) ).thenAnswer( new Answer<InputStream>() {
+            @Override
+            public InputStream answer( final InvocationOnMock invocation ) {
+                return new ByteArrayInputStream( content );
+            }
+        } );
+    }
+
+    private byte[] renameRuleTable( final byte[] content,
+                                    final String name,
+                                    final String newName ) throws Exception {
+        final HSSFWorkbook workbook = new HSSFWorkbook( new ByteArrayInputStream( content ) );
+        for ( Row row : workbook.getSheetAt( 0 ) ) {
+            for ( Cell cell : row ) {
+                if ( cell.getCellType() == Cell.CELL_TYPE_STRING && name.equals( cell.getStringCellValue() ) ) {
+                    cell.setCellValue( newName );
+                }
+            }
+        }
+        final ByteArrayOutputStream os = new ByteArrayOutputStream();
+        workbook.write( os );
+        return os.toByteArray();
+    }
+
+    private byte[] load( final String resource ) throws Exception {
+        final InputStream is = this.getClass().getResourceAsStream( resource );
+        try {
+            return IOUtils.toByteArray( is );
+        } finally {
+            is.close();
+        }
+    }
+
+}
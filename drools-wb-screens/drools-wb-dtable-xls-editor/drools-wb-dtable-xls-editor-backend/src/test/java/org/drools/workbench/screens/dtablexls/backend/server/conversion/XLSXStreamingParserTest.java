@@ -0,0 +1,182 @@
+/*
+ * Copyright 2015 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.workbench.screens.dtablexls.backend.server.conversion;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.drools.template.model.Import;
+import org.drools.template.parser.DataListener;
+import org.drools.workbench.models.guided.dtable.shared.conversion.ConversionResult;
+import org.drools.workbench.models.guided.dtable.shared.model.GuidedDecisionTable52;
+import org.junit.Test;
+import org.xml.sax.SAXParseException;
+import org.xml.sax.helpers.DefaultHandler;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the streaming conversion of XLSX Decision Tables to Guided Decision Tables
+ */
+public class XLSXStreamingParserTest {
+
+    @Test
+    public void testMultipleRuleTables() throws Exception {
+        final File file = copyToXLSX( "MultipleRuleTables.xls" );
+        try {
+            final ConversionResult result = new ConversionResult();
+            final List<GuidedDecisionTable52> handled = new ArrayList<GuidedDecisionTable52>();
+            final List<DataListener> listeners = new ArrayList<DataListener>();
+            final GuidedDecisionTableGeneratorListener listener = new GuidedDecisionTableGeneratorListener( result,
+                                                                                                            new GuidedDecisionTableGeneratorListener.DecisionTableHandler() {
+                                                                                                                @Override
+                                                                                                                public void handle( final GuidedDecisionTable52 dtable,
+                                                                                                                                    final List<Import> imports ) {
+                                                                                                                    handled.add( dtable );
+                                                                                                                }
+                                                                                                            } );
+            listeners.add( listener );
+
+            //Convert
+            final XLSXStreamingParser parser = new XLSXStreamingParser( listeners );
+            parser.parseFile( file );
+
+            //Check conversion results
+            assertEquals( 0,
+                          result.getMessages().size() );
+
+            //Tables are passed to the handler rather than being collected
+            assertTrue( listener.getGuidedDecisionTables().isEmpty() );
+            assertEquals( 2,
+                          handled.size() );
+            assertEquals( "Table1",
+                          handled.get( 0 ).getTableName() );
+            assertEquals( "Table2",
+                          handled.get( 1 ).getTableName() );
+            assertEquals( 6,
+                          handled.get( 0 ).getExpandedColumns().size() );
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void testSequentialSalience() throws Exception {
+        final File file = copyToXLSX( "SequentialSalience.xls" );
+        try {
+            final ConversionResult result = new ConversionResult();
+            final List<DataListener> listeners = new ArrayList<DataListener>();
+            final GuidedDecisionTableGeneratorListener listener = new GuidedDecisionTableGeneratorListener( result );
+            listeners.add( listener );
+
+            //Convert
+            final XLSXStreamingParser parser = new XLSXStreamingParser( listeners );
+            parser.parseFile( file );
+
+            //Check conversion results
+            assertEquals( 0,
+                          result.getMessages().size() );
+
+            final List<GuidedDecisionTable52> dtables = listener.getGuidedDecisionTables();
+            assertEquals( 1,
+                          dtables.size() );
+
+            //Row numbers in the descriptions depend upon empty rows being reported
+            final GuidedDecisionTable52 dtable = dtables.get( 0 );
+            assertEquals( "SequentialSalienceTest",
+                          dtable.getTableName() );
+            assertEquals( 2,
+                          dtable.getData().size() );
+            assertEquals( "Created from row 8",
+                          dtable.getData().get( 0 ).get( 1 ).getStringValue() );
+            assertEquals( "Created from row 9",
+                          dtable.getData().get( 1 ).get( 1 ).getStringValue() );
+        } finally {
+            file.delete();
+        }
+    }
+
+    //Copy the first sheet of one of the XLS test resources to an XLSX workbook
+    @Test
+    public void testExternalEntitiesAreRefused() throws Exception {
+        final String xml = "<?xml version=\"1.0\"?>\n"
+                + "<!DOCTYPE worksheet [<!ENTITY xxe SYSTEM \"file:///etc/passwd\">]>\n"
+                + "<worksheet>&xxe;</worksheet>";
+        try {
+            XLSXStreamingParser.newSAXParserFactory().newSAXParser().parse( new ByteArrayInputStream( xml.getBytes( "UTF-8" ) ),
+                                                                            new DefaultHandler() );
+            fail( "A sheet with a DOCTYPE should be refused" );
+        } catch ( SAXParseException e ) {
+            //Expected
+        }
+    }
+
+    private File copyToXLSX( final String resource ) throws Exception {
+        final InputStream is = this.getClass().getResourceAsStream( resource );
+        final HSSFWorkbook xls;
+        try {
+            xls = new HSSFWorkbook( is );
+        } finally {
+            is.close();
+        }
+
+        final XSSFWorkbook xlsx = new XSSFWorkbook();
+        final Sheet source = xls.getSheetAt( 0 );
+        final Sheet target = xlsx.createSheet( source.getSheetName() );
+        for ( Row sourceRow : source ) {
+            final Row targetRow = target.createRow( sourceRow.getRowNum() );
+            for ( Cell sourceCell : sourceRow ) {
+                final Cell targetCell = targetRow.createCell( sourceCell.getColumnIndex() );
+                switch ( sourceCell.getCellType() ) {
+                    case Cell.CELL_TYPE_NUMERIC:
+                        targetCell.setCellValue( sourceCell.getNumericCellValue() );
+                        break;
+                    case Cell.CELL_TYPE_BOOLEAN:
+                        targetCell.setCellValue( sourceCell.getBooleanCellValue() );
+                        break;
+                    case Cell.CELL_TYPE_STRING:
+                        targetCell.setCellValue( sourceCell.getStringCellValue() );
+                        break;
+                }
+            }
+        }
+        for ( int i = 0; i < source.getNumMergedRegions(); i++ ) {
+            target.addMergedRegion( source.getMergedRegion( i ) );
+        }
+
+        final File file = File.createTempFile( resource,
+                                               ".xlsx" );
+        final OutputStream os = new FileOutputStream( file );
+        try {
+            xlsx.write( os );
+        } finally {
+            os.close();
+        }
+        return file;
+    }
+
+}
@@ -19,9 +19,8 @@ import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 
-import org.drools.workbench.models.datamodel.oracle.DataType;
-import org.drools.workbench.models.datamodel.oracle.ModelField;
 import org.drools.workbench.models.datamodel.oracle.ProjectDataModelOracle;
+import org.drools.workbench.screens.guided.rule.backend.server.indexing.IndexTypeResolver;
 import org.kie.workbench.common.services.datamodel.backend.server.builder.util.DataEnumLoader;
 import org.kie.workbench.common.services.refactoring.backend.server.indexing.DefaultIndexBuilder;
 import org.kie.workbench.common.services.refactoring.model.index.Type;
@@ -36,24 +35,24 @@ import org.uberfire.commons.validation.PortablePreconditions;
  */
 public class EnumIndexVisitor {
 
-    private final ProjectDataModelOracle dmo;
     private final DefaultIndexBuilder builder;
     private final DataEnumLoader enumLoader;
-    private final String packageName;
+    private final IndexTypeResolver typeResolver;
     private final Set<Pair<String, String>> results = new HashSet<Pair<String, String>>();
 
     public EnumIndexVisitor( final ProjectDataModelOracle dmo,
                              final DefaultIndexBuilder builder,
                              final DataEnumLoader enumLoader,
                              final String packageName ) {
-        this.dmo = PortablePreconditions.checkNotNull( "dmo",
-                                                       dmo );
         this.builder = PortablePreconditions.checkNotNull( "builder",
                                                            builder );
         this.enumLoader = PortablePreconditions.checkNotNull( "enumLoader",
                                                               enumLoader );
-        this.packageName = PortablePreconditions.checkNotNull( "packageName",
-                                                               packageName );
+        this.typeResolver = new IndexTypeResolver( PortablePreconditions.checkNotNull( "dmo",
+                                                                                       dmo ),
+                                                   null,
+                                                   PortablePreconditions.checkNotNull( "packageName",
+                                                                                       packageName ) );
     }
 
     public Set<Pair<String, String>> visit() {
@@ -63,13 +62,13 @@ public class EnumIndexVisitor {
         for ( Map.Entry<String, String[]> e : enumLoader.getData().entrySet() ) {
             //Add type
             final String typeName = getTypeName( e.getKey() );
-            final String fullyQualifiedClassName = getFullyQualifiedClassName( typeName );
+            final String fullyQualifiedClassName = typeResolver.getFullyQualifiedClassName( typeName );
             builder.addGenerator( new Type( new ValueTypeIndexTerm( fullyQualifiedClassName ) ) );
 
             //Add field
             final String fieldName = getFieldName( e.getKey() );
-            final String fieldFullyQualifiedClassName = getFieldFullyQualifiedClassName( fullyQualifiedClassName,
-                                                                                         fieldName );
+            final String fieldFullyQualifiedClassName = typeResolver.getFieldFullyQualifiedClassName( fullyQualifiedClassName,
+                                                                                                      fieldName );
             builder.addGenerator( new TypeField( new ValueFieldIndexTerm( fieldName ),
                                                  new ValueTypeIndexTerm( fieldFullyQualifiedClassName ),
                                                  new ValueTypeIndexTerm( fullyQualifiedClassName ) ) );
@@ -90,22 +89,4 @@ public class EnumIndexVisitor {
         return key.substring( hashIndex + 1 );
     }
 
-    private String getFullyQualifiedClassName( final String typeName ) {
-        if ( typeName.contains( "." ) ) {
-            return typeName;
-        }
-        return ( !( packageName == null || packageName.isEmpty() ) ? packageName + "." + typeName : typeName );
-    }
-
-    private String getFieldFullyQualifiedClassName( final String fullyQualifiedClassName,
-                                                    final String fieldName ) {
-        final ModelField[] mfs = dmo.getProjectModelFields().get( fullyQualifiedClassName );
-        for ( ModelField mf : mfs ) {
-            if ( mf.getName().equals( fieldName ) ) {
-                return mf.getClassName();
-            }
-        }
-        return DataType.TYPE_OBJECT;
-    }
-
 }
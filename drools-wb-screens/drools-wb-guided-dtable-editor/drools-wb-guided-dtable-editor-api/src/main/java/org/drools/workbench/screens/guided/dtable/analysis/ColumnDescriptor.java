@@ -0,0 +1,117 @@
+/*
+ * Copyright 2015 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.workbench.screens.guided.dtable.analysis;
+
+import org.drools.workbench.models.datamodel.oracle.DataType;
+import org.drools.workbench.models.datamodel.oracle.OperatorsOracle;
+import org.drools.workbench.models.guided.dtable.shared.model.BaseColumn;
+import org.drools.workbench.models.guided.dtable.shared.model.ConditionCol52;
+
+/**
+ * The resolved data-type, value list and operator of a column. These depend only upon the column's definition
+ * and the DataModelOracle, not upon the cells, so can be resolved once per column rather than once per cell.
+ */
+public class ColumnDescriptor {
+
+    private final String type;
+    private final DataType.DataTypes typeSafeType;
+    private final String[] valueList;
+    private final String operator;
+
+    public ColumnDescriptor( final ColumnUtilities utils,
+                             final BaseColumn column ) {
+        this.type = utils.getType( column );
+        this.typeSafeType = toTypeSafeType( type );
+        this.valueList = utils.getValueList( column );
+        this.operator = ( column instanceof ConditionCol52 ) ? ( (ConditionCol52) column ).getOperator() : null;
+    }
+
+    /**
+     * The data-type of the column
+     * @return One of the DataType.TYPE_ constants, or null if the type is unknown
+     */
+    public String getType() {
+        return type;
+    }
+
+    /**
+     * The data-type of the column; unknown types are STRING
+     * @return The data-type
+     */
+    public DataType.DataTypes getTypeSafeType() {
+        return typeSafeType;
+    }
+
+    /**
+     * The values the column is restricted to. The array is shared and must not be modified.
+     * @return The values, or an empty array if the column is not restricted
+     */
+    public String[] getValueList() {
+        return valueList;
+    }
+
+    public boolean hasValueList() {
+        return valueList.length > 0;
+    }
+
+    /**
+     * The operator of a Condition column
+     * @return The operator, or null for other columns
+     */
+    public String getOperator() {
+        return operator;
+    }
+
+    public boolean isOperatorRequiresList() {
+        return OperatorsOracle.operatorRequiresList( operator );
+    }
+
+    /**
+     * Convert one of the DataType.TYPE_ constants to the corresponding DataTypes value
+     * @param type The data-type
+     * @return The DataTypes value; STRING if the data-type is null or unknown
+     */
+    public static DataType.DataTypes toTypeSafeType( final String type ) {
+        if ( type == null ) {
+            return DataType.DataTypes.STRING;
+        } else if ( type.equals( DataType.TYPE_NUMERIC ) ) {
+            return DataType.DataTypes.NUMERIC;
+        } else if ( type.equals( DataType.TYPE_NUMERIC_BIGDECIMAL ) ) {
+            return DataType.DataTypes.NUMERIC_BIGDECIMAL;
+        } else if ( type.equals( DataType.TYPE_NUMERIC_BIGINTEGER ) ) {
+            return DataType.DataTypes.NUMERIC_BIGINTEGER;
+        } else if ( type.equals( DataType.TYPE_NUMERIC_BYTE ) ) {
+            return DataType.DataTypes.NUMERIC_BYTE;
+        } else if ( type.equals( DataType.TYPE_NUMERIC_DOUBLE ) ) {
+            return DataType.DataTypes.NUMERIC_DOUBLE;
+        } else if ( type.equals( DataType.TYPE_NUMERIC_FLOAT ) ) {
+            return DataType.DataTypes.NUMERIC_FLOAT;
+        } else if ( type.equals( DataType.TYPE_NUMERIC_INTEGER ) ) {
+            return DataType.DataTypes.NUMERIC_INTEGER;
+        } else if ( type.equals( DataType.TYPE_NUMERIC_LONG ) ) {
+            return DataType.DataTypes.NUMERIC_LONG;
+        } else if ( type.equals( DataType.TYPE_NUMERIC_SHORT ) ) {
+            return DataType.DataTypes.NUMERIC_SHORT;
+        } else if ( type.equals( DataType.TYPE_BOOLEAN ) ) {
+            return DataType.DataTypes.BOOLEAN;
+        } else if ( type.equals( DataType.TYPE_DATE ) ) {
+            return DataType.DataTypes.DATE;
+        }
+        return DataType.DataTypes.STRING;
+    }
+
+}
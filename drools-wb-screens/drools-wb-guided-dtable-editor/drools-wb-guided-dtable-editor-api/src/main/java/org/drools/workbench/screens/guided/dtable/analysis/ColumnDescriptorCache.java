@@ -0,0 +1,99 @@
+/*
+ * Copyright 2015 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.workbench.screens.guided.dtable.analysis;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import org.drools.workbench.models.guided.dtable.shared.model.BaseColumn;
+import org.uberfire.commons.validation.PortablePreconditions;
+
+/**
+ * Cache of the {@link ColumnDescriptor} of each column. Resolving a column's data-type consults the
+ * DataModelOracle and resolving its value list splits a String, both of which were previously repeated
+ * for every cell. Columns are held by identity; the cache must be invalidated whenever the definition
+ * of a column (or of its Pattern) changes, as well as when columns are added, removed or moved.
+ * Descriptors are resolved on first use, so the cache is not thread-safe.
+ */
+public class ColumnDescriptorCache implements ColumnUtilities {
+
+    private final ColumnUtilities utils;
+    private final Map<BaseColumn, ColumnDescriptor> descriptors = new IdentityHashMap<BaseColumn, ColumnDescriptor>();
+    private final boolean enabled;
+
+    public ColumnDescriptorCache( final ColumnUtilities utils ) {
+        this( utils,
+              true );
+    }
+
+    private ColumnDescriptorCache( final ColumnUtilities utils,
+                                   final boolean enabled ) {
+        this.utils = PortablePreconditions.checkNotNull( "utils",
+                                                         utils );
+        this.enabled = enabled;
+    }
+
+    /**
+     * A "cache" that resolves descriptors on every call, for use where columns are edited in place
+     * without the cache being invalidated (e.g. the column definition pop-ups)
+     * @param utils Column information to resolve descriptors
+     * @return A cache that does not retain descriptors
+     */
+    public static ColumnDescriptorCache uncached( final ColumnUtilities utils ) {
+        return new ColumnDescriptorCache( utils,
+                                          false );
+    }
+
+    public ColumnDescriptor getDescriptor( final BaseColumn column ) {
+        if ( !enabled ) {
+            return new ColumnDescriptor( utils,
+                                         column );
+        }
+        ColumnDescriptor descriptor = descriptors.get( column );
+        if ( descriptor == null ) {
+            descriptor = new ColumnDescriptor( utils,
+                                               column );
+            descriptors.put( column,
+                             descriptor );
+        }
+        return descriptor;
+    }
+
+    @Override
+    public String getType( final BaseColumn col ) {
+        return getDescriptor( col ).getType();
+    }
+
+    /**
+     * The values a column is restricted to. The array is shared and must not be modified.
+     * @param col The column
+     * @return The values, or an empty array if the column is not restricted
+     */
+    @Override
+    public String[] getValueList( final BaseColumn col ) {
+        return getDescriptor( col ).getValueList();
+    }
+
+    public void invalidate() {
+        descriptors.clear();
+    }
+
+    public void invalidate( final BaseColumn column ) {
+        descriptors.remove( column );
+    }
+
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright 2015 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.workbench.screens.guided.dtable.analysis;
+
+import org.drools.workbench.models.guided.dtable.shared.model.BaseColumn;
+
+/**
+ * Column information needed to analyse a Decision Table. This is resolved from the client-side
+ * DataModelOracle in the editor and from the server-side PackageDataModelOracle in the backend.
+ */
+public interface ColumnUtilities {
+
+    /**
+     * The data-type of a column
+     * @param col The column
+     * @return One of the DataType.TYPE_ constants, or null if the type is unknown
+     */
+    String getType( final BaseColumn col );
+
+    /**
+     * The values a column is restricted to
+     * @param col The column
+     * @return The values, or an empty array if the column is not restricted
+     */
+    String[] getValueList( final BaseColumn col );
+
+}
@@ -0,0 +1,413 @@
+/*
+ * Copyright 2011 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.workbench.screens.guided.dtable.analysis;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.drools.workbench.models.datamodel.oracle.DataType;
+import org.drools.workbench.models.guided.dtable.shared.model.ActionCol52;
+import org.drools.workbench.models.guided.dtable.shared.model.ActionInsertFactCol52;
+import org.drools.workbench.models.guided.dtable.shared.model.ActionSetFieldCol52;
+import org.drools.workbench.models.guided.dtable.shared.model.Analysis;
+import org.drools.workbench.models.guided.dtable.shared.model.BRLActionColumn;
+import org.drools.workbench.models.guided.dtable.shared.model.ConditionCol52;
+import org.drools.workbench.models.guided.dtable.shared.model.DTCellValue52;
+import org.drools.workbench.models.guided.dtable.shared.model.GuidedDecisionTable52;
+import org.drools.workbench.models.guided.dtable.shared.model.LimitedEntryCol;
+import org.drools.workbench.models.guided.dtable.shared.model.Pattern52;
+import org.drools.workbench.screens.guided.dtable.analysis.action.ActionDetector;
+import org.drools.workbench.screens.guided.dtable.analysis.action.ActionDetectorKey;
+import org.drools.workbench.screens.guided.dtable.analysis.action.InsertFactActionDetectorKey;
+import org.drools.workbench.screens.guided.dtable.analysis.action.SetFieldColActionDetectorKey;
+import org.drools.workbench.screens.guided.dtable.analysis.action.UnrecognizedActionDetectorKey;
+import org.drools.workbench.screens.guided.dtable.analysis.condition.BooleanConditionDetector;
+import org.drools.workbench.screens.guided.dtable.analysis.condition.ConditionDetector;
+import org.drools.workbench.screens.guided.dtable.analysis.condition.DateConditionDetector;
+import org.drools.workbench.screens.guided.dtable.analysis.condition.EnumConditionDetector;
+import org.drools.workbench.screens.guided.dtable.analysis.condition.NumericBigDecimalConditionDetector;
+import org.drools.workbench.screens.guided.dtable.analysis.condition.NumericBigIntegerConditionDetector;
+import org.drools.workbench.screens.guided.dtable.analysis.condition.NumericByteConditionDetector;
+import org.drools.workbench.screens.guided.dtable.analysis.condition.NumericConditionDetector;
+import org.drools.workbench.screens.guided.dtable.analysis.condition.NumericDoubleConditionDetector;
+import org.drools.workbench.screens.guided.dtable.analysis.condition.NumericFloatConditionDetector;
+import org.drools.workbench.screens.guided.dtable.analysis.condition.NumericIntegerConditionDetector;
+import org.drools.workbench.screens.guided.dtable.analysis.condition.NumericLongConditionDetector;
+import org.drools.workbench.screens.guided.dtable.analysis.condition.NumericShortConditionDetector;
+import org.drools.workbench.screens.guided.dtable.analysis.condition.StringConditionDetector;
+import org.drools.workbench.screens.guided.dtable.analysis.condition.UnrecognizedConditionDetector;
+import org.drools.workbench.screens.guided.dtable.model.ExpandedColumnIndexMap;
+
+/**
+ * Detects impossible matches, conflicting and duplicated rows in a Decision Table. Rows are held in a
+ * {@link RowDetectorIndex} so that each row is only compared with those rows whose conditions could overlap.
+ * The results of the last analysis are retained so that subsequent changes to individual rows can be
+ * analysed incrementally; changes to the structure of the table (i.e. columns) require a full analysis.
+ */
+public class DecisionTableAnalyzer {
+
+    private final ColumnUtilities utils;
+
+    private final List<RowDetector> rowDetectorList = new ArrayList<RowDetector>();
+    private final List<Analysis> analysisData = new ArrayList<Analysis>();
+    private RowDetectorIndex rowDetectorIndex = new RowDetectorIndex();
+    private ExpandedColumnIndexMap columnIndexes;
+    private ColumnDescriptorCache columnDescriptors;
+
+    public DecisionTableAnalyzer( final ColumnUtilities utils ) {
+        this.utils = utils;
+    }
+
+    public List<Analysis> analyze( final GuidedDecisionTable52 model ) {
+        index( model );
+        analysisData.clear();
+        for ( int iRow = 0; iRow < getRowCount(); iRow++ ) {
+            analysisData.add( analyzeRow( iRow ) );
+        }
+        return getAnalysisData();
+    }
+
+    /**
+     * Build the detectors for every row of the Decision Table without detecting conflicts. Once indexed
+     * {@link #analyzeRow(int)} only reads the index and writes to the analysed row's own detector, so
+     * different rows can be analysed concurrently.
+     * @param model The Decision Table
+     */
+    public void index( final GuidedDecisionTable52 model ) {
+        columnIndexes = new ExpandedColumnIndexMap( model );
+        columnDescriptors = new ColumnDescriptorCache( utils );
+        rowDetectorList.clear();
+        rowDetectorIndex = new RowDetectorIndex();
+
+        for ( List<DTCellValue52> row : model.getData() ) {
+            final Integer rowNumber = ( (Integer) row.get( 0 ).getNumericValue() ) - 1;
+            final RowDetector rowDetector = buildRowDetector( model,
+                                                              row,
+                                                              rowNumber );
+            rowDetector.setPosition( rowDetectorList.size() );
+            rowDetectorList.add( rowDetector );
+            rowDetectorIndex.addRowDetector( rowDetector );
+        }
+    }
+
+    public int getRowCount() {
+        return rowDetectorList.size();
+    }
+
+    /**
+     * Detect conflicts between a single row and all other rows. {@link #index(GuidedDecisionTable52)}
+     * must have been called first.
+     * @param rowIndex Index of the row
+     * @return Analysis of the row
+     */
+    public Analysis analyzeRow( final int rowIndex ) {
+        final RowDetector rowDetector = rowDetectorList.get( rowIndex );
+        for ( RowDetector otherRowDetector : rowDetectorIndex.getCandidates( rowDetector ) ) {
+            rowDetector.putConflict( otherRowDetector,
+                                     rowDetector.detectConflict( otherRowDetector ) );
+        }
+        return rowDetector.buildAnalysis();
+    }
+
+    /**
+     * Re-analyse a single row following a change to its values. Only rows whose conditions overlap
+     * with either the original or updated row are re-checked.
+     * @param model The Decision Table
+     * @param rowIndex Index of the changed row
+     * @return Analysis for all rows
+     */
+    public List<Analysis> updateRow( final GuidedDecisionTable52 model,
+                                     final int rowIndex ) {
+        final Set<RowDetector> affectedRowDetectors = new HashSet<RowDetector>();
+        removeRowDetector( rowDetectorList.get( rowIndex ),
+                           affectedRowDetectors );
+        final RowDetector rowDetector = buildRowDetector( model,
+                                                          rowIndex );
+        rowDetectorList.set( rowIndex,
+                             rowDetector );
+        addRowDetector( rowDetector,
+                        affectedRowDetectors );
+        for ( RowDetector affectedRowDetector : affectedRowDetectors ) {
+            analysisData.set( affectedRowDetector.getPosition(),
+                              affectedRowDetector.buildAnalysis() );
+        }
+        return getAnalysisData();
+    }
+
+    /**
+     * Analyse a row inserted into the Decision Table
+     * @param model The Decision Table
+     * @param rowIndex Index of the new row
+     * @return Analysis for all rows
+     */
+    public List<Analysis> insertRow( final GuidedDecisionTable52 model,
+                                     final int rowIndex ) {
+        final RowDetector rowDetector = buildRowDetector( model,
+                                                          rowIndex );
+        rowDetectorList.add( rowIndex,
+                             rowDetector );
+        renumberRows( rowIndex );
+        addRowDetector( rowDetector,
+                        new HashSet<RowDetector>() );
+        analysisData.add( rowIndex,
+                          null );
+        rebuildAnalysis();
+        return getAnalysisData();
+    }
+
+    /**
+     * Remove the analysis of a row deleted from the Decision Table
+     * @param rowIndex Index of the deleted row
+     * @return Analysis for all rows
+     */
+    public List<Analysis> deleteRow( final int rowIndex ) {
+        removeRowDetector( rowDetectorList.remove( rowIndex ),
+                           new HashSet<RowDetector>() );
+        renumberRows( rowIndex );
+        analysisData.remove( rowIndex );
+        rebuildAnalysis();
+        return getAnalysisData();
+    }
+
+    public List<Analysis> getAnalysisData() {
+        return new ArrayList<Analysis>( analysisData );
+    }
+
+    List<RowDetector> getRowDetectorList() {
+        return rowDetectorList;
+    }
+
+    private void addRowDetector( final RowDetector rowDetector,
+                                 final Set<RowDetector> affectedRowDetectors ) {
+        rowDetectorIndex.addRowDetector( rowDetector );
+        affectedRowDetectors.add( rowDetector );
+        for ( RowDetector otherRowDetector : rowDetectorIndex.getCandidates( rowDetector ) ) {
+            rowDetector.putConflict( otherRowDetector,
+                                     rowDetector.detectConflict( otherRowDetector ) );
+            final RowDetector.Conflict conflict = otherRowDetector.detectConflict( rowDetector );
+            if ( conflict != RowDetector.Conflict.NONE ) {
+                otherRowDetector.putConflict( rowDetector,
+                                              conflict );
+                affectedRowDetectors.add( otherRowDetector );
+            }
+        }
+    }
+
+    private void removeRowDetector( final RowDetector rowDetector,
+                                    final Set<RowDetector> affectedRowDetectors ) {
+        //Any row referencing the removed row overlaps with it and is hence a candidate
+        for ( RowDetector otherRowDetector : rowDetectorIndex.getCandidates( rowDetector ) ) {
+            if ( otherRowDetector.removeConflict( rowDetector ) ) {
+                affectedRowDetectors.add( otherRowDetector );
+            }
+        }
+        rowDetectorIndex.removeRowDetector( rowDetector );
+    }
+
+    private void renumberRows( final int fromRowIndex ) {
+        for ( int iRow = fromRowIndex; iRow < rowDetectorList.size(); iRow++ ) {
+            final RowDetector rowDetector = rowDetectorList.get( iRow );
+            rowDetector.setPosition( iRow );
+            rowDetector.setRowIndex( iRow );
+        }
+    }
+
+    //Row numbers are included in messages so rebuild all; conflicts are not re-detected
+    private void rebuildAnalysis() {
+        for ( RowDetector rowDetector : rowDetectorList ) {
+            analysisData.set( rowDetector.getPosition(),
+                              rowDetector.buildAnalysis() );
+        }
+    }
+
+    private RowDetector buildRowDetector( final GuidedDecisionTable52 model,
+                                          final int rowIndex ) {
+        final RowDetector rowDetector = buildRowDetector( model,
+                                                          model.getData().get( rowIndex ),
+                                                          rowIndex );
+        rowDetector.setPosition( rowIndex );
+        return rowDetector;
+    }
+
+    @SuppressWarnings("rawtypes")
+    private RowDetector buildRowDetector( final GuidedDecisionTable52 model,
+                                          final List<DTCellValue52> row,
+                                          final int rowNumber ) {
+        RowDetector rowDetector = new RowDetector( rowNumber );
+        for ( Pattern52 pattern : model.getPatterns() ) {
+            for ( ConditionCol52 conditionCol : pattern.getChildColumns() ) {
+                int columnIndex = columnIndexes.indexOf( conditionCol );
+                if (columnIndex < 0) continue;
+                DTCellValue52 visibleCellValue = row.get( columnIndex );
+                DTCellValue52 realCellValue;
+                boolean cellIsNotBlank;
+                if ( conditionCol instanceof LimitedEntryCol ) {
+                    realCellValue = ( (LimitedEntryCol) conditionCol ).getValue();
+                    cellIsNotBlank = visibleCellValue.getBooleanValue();
+                } else {
+                    realCellValue = visibleCellValue;
+                    cellIsNotBlank = visibleCellValue.hasValue();
+                }
+                // Blank cells are ignored
+                if ( cellIsNotBlank ) {
+                    ConditionDetector conditionDetector = buildConditionDetector( pattern,
+                                                                                  conditionCol,
+                                                                                  realCellValue );
+                    rowDetector.putOrMergeConditionDetector( conditionDetector );
+                }
+            }
+        }
+        for ( ActionCol52 actionCol : model.getActionCols() ) {
+            //BRLActionColumns cannot be analysed
+            if ( actionCol instanceof BRLActionColumn ) {
+                continue;
+            }
+            int columnIndex = columnIndexes.indexOf( actionCol );
+            if (columnIndex < 0) continue;
+            DTCellValue52 visibleCellValue = row.get( columnIndex );
+            DTCellValue52 realCellValue;
+            boolean cellIsNotBlank;
+            if ( actionCol instanceof LimitedEntryCol ) {
+                realCellValue = ( (LimitedEntryCol) actionCol ).getValue();
+                cellIsNotBlank = visibleCellValue.getBooleanValue();
+            } else {
+                realCellValue = visibleCellValue;
+                cellIsNotBlank = visibleCellValue.hasValue();
+            }
+            // Blank cells are ignored
+            if ( cellIsNotBlank ) {
+                ActionDetector actionDetector = buildActionDetector( model,
+                                                                     actionCol,
+                                                                     realCellValue );
+                rowDetector.putOrMergeActionDetector( actionDetector );
+            }
+        }
+        return rowDetector;
+    }
+
+    @SuppressWarnings("rawtypes")
+    private ConditionDetector buildConditionDetector( Pattern52 pattern,
+                                                      ConditionCol52 conditionCol,
+                                                      DTCellValue52 realCellValue ) {
+        //Type and "Guvnor" enums are resolved once per column rather than for every cell
+        ColumnDescriptor descriptor = columnDescriptors.getDescriptor( conditionCol );
+        String factField = conditionCol.getFactField();
+        String operator = descriptor.getOperator();
+        String type = descriptor.getType();
+        String[] allValueList = descriptor.getValueList();
+        ConditionDetector newDetector;
+        if ( allValueList.length != 0 ) {
+            // Guvnor enum
+            newDetector = new EnumConditionDetector( pattern,
+                                                     factField,
+                                                     Arrays.asList( allValueList ),
+                                                     realCellValue.getStringValue(),
+                                                     operator );
+        } else if ( type == null ) {
+            // type null means the field is free-format
+            newDetector = new UnrecognizedConditionDetector( pattern,
+                                                             factField,
+                                                             operator );
+        } else if ( type.equals( DataType.TYPE_STRING ) ) {
+            newDetector = new StringConditionDetector( pattern,
+                                                       factField,
+                                                       realCellValue.getStringValue(),
+                                                       operator );
+        } else if ( type.equals( DataType.TYPE_NUMERIC ) ) {
+            newDetector = new NumericConditionDetector( pattern,
+                                                        factField,
+                                                        (BigDecimal) realCellValue.getNumericValue(),
+                                                        operator );
+        } else if ( type.equals( DataType.TYPE_NUMERIC_BIGDECIMAL ) ) {
+            newDetector = new NumericBigDecimalConditionDetector( pattern,
+                                                                  factField,
+                                                                  (BigDecimal) realCellValue.getNumericValue(),
+                                                                  operator );
+        } else if ( type.equals( DataType.TYPE_NUMERIC_BIGINTEGER ) ) {
+            newDetector = new NumericBigIntegerConditionDetector( pattern,
+                                                                  factField,
+                                                                  (BigInteger) realCellValue.getNumericValue(),
+                                                                  operator );
+        } else if ( type.equals( DataType.TYPE_NUMERIC_BYTE ) ) {
+            newDetector = new NumericByteConditionDetector( pattern,
+                                                            factField,
+                                                            (Byte) realCellValue.getNumericValue(),
+                                                            operator );
+        } else if ( type.equals( DataType.TYPE_NUMERIC_DOUBLE ) ) {
+            newDetector = new NumericDoubleConditionDetector( pattern,
+                                                              factField,
+                                                              (Double) realCellValue.getNumericValue(),
+                                                              operator );
+        } else if ( type.equals( DataType.TYPE_NUMERIC_FLOAT ) ) {
+            newDetector = new NumericFloatConditionDetector( pattern,
+                                                             factField,
+                                                             (Float) realCellValue.getNumericValue(),
+                                                             operator );
+        } else if ( type.equals( DataType.TYPE_NUMERIC_INTEGER ) ) {
+            newDetector = new NumericIntegerConditionDetector( pattern,
+                                                               factField,
+                                                               (Integer) realCellValue.getNumericValue(),
+                                                               operator );
+        } else if ( type.equals( DataType.TYPE_NUMERIC_LONG ) ) {
+            newDetector = new NumericLongConditionDetector( pattern,
+                                                            factField,
+                                                            (Long) realCellValue.getNumericValue(),
+                                                            operator );
+        } else if ( type.equals( DataType.TYPE_NUMERIC_SHORT ) ) {
+            newDetector = new NumericShortConditionDetector( pattern,
+                                                             factField,
+                                                             (Short) realCellValue.getNumericValue(),
+                                                             operator );
+        } else if ( type.equals( DataType.TYPE_BOOLEAN ) ) {
+            newDetector = new BooleanConditionDetector( pattern,
+                                                        factField,
+                                                        realCellValue.getBooleanValue(),
+                                                        operator );
+        } else if ( type.equals( DataType.TYPE_DATE ) ) {
+            newDetector = new DateConditionDetector( pattern,
+                                                     factField,
+                                                     realCellValue.getDateValue(),
+                                                     operator );
+        } else {
+            newDetector = new UnrecognizedConditionDetector( pattern,
+                                                             factField,
+                                                             operator );
+        }
+        return newDetector;
+    }
+
+    private ActionDetector buildActionDetector( GuidedDecisionTable52 model,
+                                                ActionCol52 actionCol,
+                                                DTCellValue52 realCellValue ) {
+        ActionDetectorKey key;
+        if ( actionCol instanceof ActionSetFieldCol52 ) {
+            key = new SetFieldColActionDetectorKey( (ActionSetFieldCol52) actionCol );
+        } else if ( actionCol instanceof ActionInsertFactCol52 ) {
+            key = new InsertFactActionDetectorKey( (ActionInsertFactCol52) actionCol );
+        } else {
+            key = new UnrecognizedActionDetectorKey( actionCol );
+        }
+        return new ActionDetector( key,
+                                   realCellValue );
+    }
+
+}
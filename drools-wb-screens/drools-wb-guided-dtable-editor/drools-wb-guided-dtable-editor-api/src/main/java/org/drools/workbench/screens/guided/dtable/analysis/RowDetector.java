@@ -0,0 +1,256 @@
+/*
+ * Copyright 2011 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.workbench.screens.guided.dtable.analysis;
+
+import org.drools.workbench.screens.guided.dtable.analysis.action.ActionDetector;
+import org.drools.workbench.screens.guided.dtable.analysis.action.ActionDetectorKey;
+import org.drools.workbench.screens.guided.dtable.analysis.condition.ConditionDetector;
+import org.drools.workbench.screens.guided.dtable.analysis.condition.ConditionDetectorKey;
+import org.drools.workbench.models.guided.dtable.shared.model.Analysis;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class RowDetector {
+
+    /**
+     * Outcome of comparing a row with another row whose conditions overlap
+     */
+    public enum Conflict {
+        NONE,
+        CONFLICTING_MATCH,
+        DUPLICATED_MATCH
+    }
+
+    private static final Comparator<RowDetector> POSITION_COMPARATOR = new Comparator<RowDetector>() {
+        @Override
+        public int compare( final RowDetector o1,
+                            final RowDetector o2 ) {
+            return o1.position - o2.position;
+        }
+    };
+
+    private long rowIndex;
+
+    //Position of the row in the table, used to report conflicts in row order
+    private int position;
+
+    private Map<ConditionDetectorKey, ConditionDetector> conditionDetectorMap = new LinkedHashMap<ConditionDetectorKey, ConditionDetector>();
+
+    private Map<ActionDetectorKey, ActionDetector> actionDetectorMap = new LinkedHashMap<ActionDetectorKey, ActionDetector>();
+
+    //Rows with overlapping conditions that conflict with, or duplicate, this row
+    private Map<RowDetector, Conflict> conflictMap = new HashMap<RowDetector, Conflict>();
+
+    public RowDetector( long rowIndex ) {
+        this.rowIndex = rowIndex;
+    }
+
+    public long getRowIndex() {
+        return rowIndex;
+    }
+
+    public void setRowIndex( long rowIndex ) {
+        this.rowIndex = rowIndex;
+    }
+
+    public int getPosition() {
+        return position;
+    }
+
+    public void setPosition( int position ) {
+        this.position = position;
+    }
+
+    public Collection<ConditionDetector> getConditionDetectors() {
+        return conditionDetectorMap.values();
+    }
+
+    public ConditionDetector getConditionDetector( ConditionDetectorKey key ) {
+        return conditionDetectorMap.get( key );
+    }
+
+    public void putOrMergeConditionDetector( ConditionDetector conditionDetector ) {
+        ConditionDetectorKey key = conditionDetector.getKey();
+        ConditionDetector originalConditionDetector = conditionDetectorMap.get( key );
+        ConditionDetector mergedConditionDetector;
+        if ( originalConditionDetector == null ) {
+            mergedConditionDetector = conditionDetector;
+        } else {
+            mergedConditionDetector = originalConditionDetector.merge( conditionDetector );
+        }
+        conditionDetectorMap.put( key, mergedConditionDetector );
+    }
+
+    public ActionDetector getActionDetector( ActionDetectorKey key ) {
+        return actionDetectorMap.get( key );
+    }
+
+    public void putOrMergeActionDetector( ActionDetector actionDetector ) {
+        ActionDetectorKey key = actionDetector.getKey();
+        ActionDetector originalActionDetector = actionDetectorMap.get( key );
+        ActionDetector mergedActionDetector;
+        if ( originalActionDetector == null ) {
+            mergedActionDetector = actionDetector;
+        } else {
+            mergedActionDetector = originalActionDetector.merge( actionDetector );
+        }
+        actionDetectorMap.put( key, mergedActionDetector );
+    }
+
+    public Analysis buildAnalysis( List<RowDetector> rowDetectorList ) {
+        Analysis analysis = new Analysis();
+        detectImpossibleMatch( analysis );
+        detectMultipleValuesForOneAction( analysis );
+        for ( RowDetector otherRowDetector : rowDetectorList ) {
+            if ( this != otherRowDetector ) {
+                addConflict( analysis,
+                             otherRowDetector,
+                             detectConflict( otherRowDetector ) );
+            }
+        }
+        return analysis;
+    }
+
+    /**
+     * Build the Analysis of this row from the conflicts previously recorded with {@link #putConflict(RowDetector, Conflict)}
+     * @return The Analysis of this row
+     */
+    public Analysis buildAnalysis() {
+        Analysis analysis = new Analysis();
+        detectImpossibleMatch( analysis );
+        detectMultipleValuesForOneAction( analysis );
+        List<RowDetector> otherRowDetectors = new ArrayList<RowDetector>( conflictMap.keySet() );
+        Collections.sort( otherRowDetectors,
+                          POSITION_COMPARATOR );
+        for ( RowDetector otherRowDetector : otherRowDetectors ) {
+            addConflict( analysis,
+                         otherRowDetector,
+                         conflictMap.get( otherRowDetector ) );
+        }
+        return analysis;
+    }
+
+    public Collection<RowDetector> getConflictingRowDetectors() {
+        return conflictMap.keySet();
+    }
+
+    public void putConflict( RowDetector otherRowDetector,
+                             Conflict conflict ) {
+        if ( conflict == Conflict.NONE ) {
+            conflictMap.remove( otherRowDetector );
+        } else {
+            conflictMap.put( otherRowDetector,
+                             conflict );
+        }
+    }
+
+    public boolean removeConflict( RowDetector otherRowDetector ) {
+        return conflictMap.remove( otherRowDetector ) != null;
+    }
+
+    private void detectImpossibleMatch( Analysis analysis ) {
+        for ( Map.Entry<ConditionDetectorKey, ConditionDetector> entry : conditionDetectorMap.entrySet() ) {
+            ConditionDetectorKey key = entry.getKey();
+            ConditionDetector conditionDetector = entry.getValue();
+            if ( conditionDetector.isImpossibleMatch() ) {
+                analysis.addImpossibleMatch( "Impossible match on " + key.getFactField() );
+            }
+        }
+    }
+
+    private void detectMultipleValuesForOneAction( Analysis analysis ) {
+        for ( Map.Entry<ActionDetectorKey, ActionDetector> entry : actionDetectorMap.entrySet() ) {
+            ActionDetectorKey key = entry.getKey();
+            ActionDetector actionDetector = entry.getValue();
+            if ( actionDetector.isMultipleValuesForOneAction() ) {
+                analysis.addMultipleValuesForOneAction( "Multiple values for one action." );
+            }
+        }
+    }
+
+    private void addConflict( Analysis analysis,
+                              RowDetector otherRowDetector,
+                              Conflict conflict ) {
+        switch ( conflict ) {
+            case CONFLICTING_MATCH:
+                analysis.addConflictingMatch( "Conflicting match with row " + ( otherRowDetector.getRowIndex() + 1 ) );
+                break;
+            case DUPLICATED_MATCH:
+                analysis.addDuplicatedMatch( "Duplicated match with row " + ( otherRowDetector.getRowIndex() + 1 ) );
+                break;
+        }
+    }
+
+    public Conflict detectConflict( RowDetector otherRowDetector ) {
+        boolean hasUnrecognizedCondition = false;
+        for ( Map.Entry<ConditionDetectorKey, ConditionDetector> entry : conditionDetectorMap.entrySet() ) {
+            ConditionDetectorKey key = entry.getKey();
+            ConditionDetector conditionDetector = entry.getValue();
+            ConditionDetector otherConditionDetector = otherRowDetector.getConditionDetector( key );
+            // If 1 field is in both
+            if ( otherConditionDetector != null ) {
+                ConditionDetector mergedConditionDetector = conditionDetector.merge( otherConditionDetector );
+                if ( mergedConditionDetector.isImpossibleMatch() ) {
+                    // If 1 field is in both and not overlapping then the entire 2 rows are not overlapping
+                    return Conflict.NONE;
+                }
+                if ( mergedConditionDetector.hasUnrecognizedConstraint() ) {
+                    // If 1 field is in both and unrecognized, then the 2 rows might not be overlapping
+                    hasUnrecognizedCondition = true;
+                }
+            }
+        }
+        boolean multipleValuesForOneAction = false;
+        boolean duplicatedAction = false;
+
+        for ( Map.Entry<ActionDetectorKey, ActionDetector> entry : actionDetectorMap.entrySet() ) {
+            ActionDetectorKey key = entry.getKey();
+            ActionDetector actionDetector = entry.getValue();
+            ActionDetector otherActionDetector = otherRowDetector.getActionDetector( key );
+            // If 1 field is in both
+            if ( otherActionDetector != null ) {
+                ActionDetector mergedActionDetector = actionDetector.merge( otherActionDetector );
+                if ( mergedActionDetector.isMultipleValuesForOneAction() ) {
+                    multipleValuesForOneAction = true;
+                }
+                if ( mergedActionDetector.isDuplicated() ) {
+                    duplicatedAction = true;
+                }
+            }
+        }
+        // Rows with an unrecognized condition might never both match, so are not reported
+        if ( multipleValuesForOneAction ) {
+            if ( !hasUnrecognizedCondition ) {
+                return Conflict.CONFLICTING_MATCH;
+            }
+        } else if ( duplicatedAction ) {
+            if ( !hasUnrecognizedCondition ) {
+                return Conflict.DUPLICATED_MATCH;
+            }
+        }
+        // else they do different actions
+        return Conflict.NONE;
+    }
+
+}
@@ -0,0 +1,209 @@
+/*
+ * Copyright 2015 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.drools.workbench.screens.guided.dtable.analysis;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.drools.workbench.screens.guided.dtable.analysis.condition.ConditionDetector;
+import org.drools.workbench.screens.guided.dtable.analysis.condition.ConditionDetectorKey;
+import org.drools.workbench.screens.guided.dtable.analysis.index.ConditionKeyIndex;
+import org.drools.workbench.screens.guided.dtable.analysis.index.RangeConditionKeyIndex;
+import org.drools.workbench.screens.guided.dtable.analysis.index.UnindexedConditionKeyIndex;
+import org.drools.workbench.screens.guided.dtable.analysis.index.ValueConditionKeyIndex;
+
+/**
+ * Index of RowDetectors by their ConditionDetectors. Rather than comparing every row with every other row
+ * the index returns, for a given row, only those rows whose conditions could overlap. A row can only
+ * overlap another if, for every ConditionDetectorKey they share, their ConditionDetectors overlap; therefore
+ * candidates for a single key are the rows without a ConditionDetector for that key plus those whose
+ * ConditionDetector for the key overlaps. Candidates are collected for the most selective key and then
+ * intersected with those of every other key, so that several low-cardinality keys together still prune
+ * well. Collecting the candidates of the most selective key remains proportional to their number.
+ */
+public class RowDetectorIndex {
+
+    private final Set<RowDetector> rowDetectors = new HashSet<RowDetector>();
+    private final Map<ConditionDetectorKey, KeyEntry> keyEntries = new HashMap<ConditionDetectorKey, KeyEntry>();
+
+    public int size() {
+        return rowDetectors.size();
+    }
+
+    public void addRowDetector( final RowDetector rowDetector ) {
+        for ( Map.Entry<ConditionDetectorKey, KeyEntry> e : keyEntries.entrySet() ) {
+            if ( rowDetector.getConditionDetector( e.getKey() ) == null ) {
+                e.getValue().rowsWithoutKey.add( rowDetector );
+            }
+        }
+        for ( ConditionDetector conditionDetector : rowDetector.getConditionDetectors() ) {
+            KeyEntry keyEntry = keyEntries.get( conditionDetector.getKey() );
+            if ( keyEntry == null ) {
+                keyEntry = new KeyEntry( makeConditionKeyIndex( conditionDetector ) );
+                keyEntry.rowsWithoutKey.addAll( rowDetectors );
+                keyEntries.put( conditionDetector.getKey(),
+                                keyEntry );
+            }
+            keyEntry.add( rowDetector,
+                          conditionDetector );
+        }
+        rowDetectors.add( rowDetector );
+    }
+
+    public void removeRowDetector( final RowDetector rowDetector ) {
+        if ( !rowDetectors.remove( rowDetector ) ) {
+            return;
+        }
+        for ( ConditionDetector conditionDetector : rowDetector.getConditionDetectors() ) {
+            final KeyEntry keyEntry = keyEntries.get( conditionDetector.getKey() );
+            keyEntry.remove( rowDetector,
+                             conditionDetector );
+            if ( keyEntry.rowsWithKey.isEmpty() ) {
+                keyEntries.remove( conditionDetector.getKey() );
+            }
+        }
+        for ( KeyEntry keyEntry : keyEntries.values() ) {
+            keyEntry.rowsWithoutKey.remove( rowDetector );
+        }
+    }
+
+    /**
+     * Find the rows that could have conditions overlapping those of the given row. The given row is not included.
+     * @param rowDetector Row for which to find candidates
+     * @return A superset of the rows whose conditions overlap, in ascending order of position
+     */
+    public List<RowDetector> getCandidates( final RowDetector rowDetector ) {
+        Set<RowDetector> bestCandidates = null;
+        //Try the keys with the fewest rows lacking the key first, as they are likely to be the most selective
+        final List<ConditionDetector> conditionDetectors = new ArrayList<ConditionDetector>( rowDetector.getConditionDetectors() );
+        Collections.sort( conditionDetectors,
+                          new Comparator<ConditionDetector>() {
+                              @Override
+                              public int compare( final ConditionDetector o1,
+                                                  final ConditionDetector o2 ) {
+                                  return getRowsWithoutKeyCount( o1 ) - getRowsWithoutKeyCount( o2 );
+                              }
+                          } );
+        if ( conditionDetectors.isEmpty() ) {
+            bestCandidates = rowDetectors;
+        } else {
+            for ( ConditionDetector conditionDetector : conditionDetectors ) {
+                final KeyEntry keyEntry = keyEntries.get( conditionDetector.getKey() );
+                final int limit = ( bestCandidates == null ? Integer.MAX_VALUE : bestCandidates.size() - 1 );
+                if ( keyEntry.rowsWithoutKey.size() > limit ) {
+                    break;
+                }
+                final Set<RowDetector> candidates = new HashSet<RowDetector>( keyEntry.rowsWithoutKey );
+                if ( keyEntry.index.collectCandidates( conditionDetector,
+                                                       candidates,
+                                                       limit ) ) {
+                    bestCandidates = candidates;
+                }
+            }
+        }
+        //Intersect with the candidates of the other keys by checking each remaining row against them
+        final List<RowDetector> candidates = new ArrayList<RowDetector>();
+        for ( RowDetector candidate : bestCandidates ) {
+            if ( candidate != rowDetector && isCandidate( conditionDetectors,
+                                                          candidate ) ) {
+                candidates.add( candidate );
+            }
+        }
+        //Sort so that conflicts are detected in row order and memory is accessed sequentially
+        Collections.sort( candidates,
+                          new Comparator<RowDetector>() {
+                              @Override
+                              public int compare( final RowDetector o1,
+                                                  final RowDetector o2 ) {
+                                  return o1.getPosition() - o2.getPosition();
+                              }
+                          } );
+        return candidates;
+    }
+
+    private boolean isCandidate( final List<ConditionDetector> conditionDetectors,
+                                 final RowDetector candidate ) {
+        for ( ConditionDetector conditionDetector : conditionDetectors ) {
+            final KeyEntry keyEntry = keyEntries.get( conditionDetector.getKey() );
+            final ConditionDetector candidateConditionDetector = keyEntry.rowsWithKey.get( candidate );
+            if ( candidateConditionDetector != null && !keyEntry.index.isCandidate( conditionDetector,
+                                                                                    candidateConditionDetector ) ) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int getRowsWithoutKeyCount( final ConditionDetector conditionDetector ) {
+        return keyEntries.get( conditionDetector.getKey() ).rowsWithoutKey.size();
+    }
+
+    private ConditionKeyIndex makeConditionKeyIndex( final ConditionDetector conditionDetector ) {
+        final RangeConditionKeyIndex<?> rangeIndex = new RangeConditionKeyIndex();
+        if ( rangeIndex.accepts( conditionDetector ) ) {
+            return rangeIndex;
+        }
+        final ValueConditionKeyIndex valueIndex = new ValueConditionKeyIndex();
+        if ( valueIndex.accepts( conditionDetector ) ) {
+            return valueIndex;
+        }
+        return new UnindexedConditionKeyIndex();
+    }
+
+    private static class KeyEntry {
+
+        private ConditionKeyIndex index;
+        private final Map<RowDetector, ConditionDetector> rowsWithKey = new HashMap<RowDetector, ConditionDetector>();
+        private final Set<RowDetector> rowsWithoutKey = new HashSet<RowDetector>();
+
+        private KeyEntry( final ConditionKeyIndex index ) {
+            this.index = index;
+        }
+
+        private void add( final RowDetector rowDetector,
+                          final ConditionDetector conditionDetector ) {
+            rowsWithKey.put( rowDetector,
+                             conditionDetector );
+            if ( !index.accepts( conditionDetector ) ) {
+                //ConditionDetectors of different kinds for the same key cannot be pruned
+                index = new UnindexedConditionKeyIndex();
+                for ( Map.Entry<RowDetector, ConditionDetector> e : rowsWithKey.entrySet() ) {
+                    index.add( e.getKey(),
+                               e.getValue() );
+                }
+                return;
+            }
+            index.add( rowDetector,
+                       conditionDetector );
+        }
+
+        private void remove( final RowDetector rowDetector,
+                             final ConditionDetector conditionDetector ) {
+            rowsWithKey.remove( rowDetector );
+            index.remove( rowDetector,
+                          conditionDetector );
+        }
+
+    }
+
+}
@@ -14,7 +14,7 @@
  * limitations under the License.
  */
 
-package org.drools.workbench.screens.guided.dtable.client.widget.analysis.action;
+package org.drools.workbench.screens.guided.dtable.analysis.action;
 
 import org.drools.workbench.models.guided.dtable.shared.model.ActionCol52;
 
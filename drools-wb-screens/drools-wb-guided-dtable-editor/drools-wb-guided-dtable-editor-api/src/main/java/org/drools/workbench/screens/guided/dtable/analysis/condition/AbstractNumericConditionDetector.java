@@ -14,7 +14,7 @@
  * limitations under the License.
  */
 
-package org.drools.workbench.screens.guided.dtable.client.widget.analysis.condition;
+package org.drools.workbench.screens.guided.dtable.analysis.condition;
 
 import org.drools.workbench.models.guided.dtable.shared.model.Pattern52;
 
@@ -22,7 +22,7 @@ import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 
-public abstract class AbstractNumericConditionDetector<T extends Comparable<T>> extends ConditionDetector<AbstractNumericConditionDetector<T>> {
+public abstract class AbstractNumericConditionDetector<T extends Comparable<T>> extends ConditionDetector<AbstractNumericConditionDetector<T>> implements RangeConditionDetector<T> {
 
     // TODO support operator "in" and optimize to allowedValueList if not continuous
     // private List<T> allowedValueList = null;
@@ -143,6 +143,16 @@ public abstract class AbstractNumericConditionDetector<T extends Comparable<T>>
         }
     }
 
+    @Override
+    public T getFrom() {
+        return from;
+    }
+
+    @Override
+    public T getTo() {
+        return to;
+    }
+
     public abstract AbstractNumericConditionDetector<T> merge( AbstractNumericConditionDetector<T> other );
 
 }
@@ -14,11 +14,14 @@
  * limitations under the License.
  */
 
-package org.drools.workbench.screens.guided.dtable.client.widget.analysis.condition;
+package org.drools.workbench.screens.guided.dtable.analysis.condition;
 
 import org.drools.workbench.models.guided.dtable.shared.model.Pattern52;
 
-public class BooleanConditionDetector extends ConditionDetector<BooleanConditionDetector> {
+import java.util.Collection;
+import java.util.Collections;
+
+public class BooleanConditionDetector extends ConditionDetector<BooleanConditionDetector> implements ValueConditionDetector {
 
     public Boolean value = null;
 
@@ -51,6 +54,14 @@ public class BooleanConditionDetector extends ConditionDetector<BooleanCondition
         }
     }
 
+    @Override
+    public Collection<Boolean> getAllowedValues() {
+        if ( value == null ) {
+            return null;
+        }
+        return Collections.singletonList( value );
+    }
+
     public BooleanConditionDetector merge( BooleanConditionDetector other ) {
         return new BooleanConditionDetector( this, other );
     }
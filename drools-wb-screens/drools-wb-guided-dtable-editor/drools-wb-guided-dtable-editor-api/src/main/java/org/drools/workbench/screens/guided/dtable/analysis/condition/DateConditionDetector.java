@@ -14,7 +14,7 @@
  * limitations under the License.
  */
 
-package org.drools.workbench.screens.guided.dtable.client.widget.analysis.condition;
+package org.drools.workbench.screens.guided.dtable.analysis.condition;
 
 import org.drools.workbench.models.guided.dtable.shared.model.Pattern52;
 
@@ -23,7 +23,7 @@ import java.util.Date;
 import java.util.Iterator;
 import java.util.List;
 
-public class DateConditionDetector extends ConditionDetector<DateConditionDetector> {
+public class DateConditionDetector extends ConditionDetector<DateConditionDetector> implements RangeConditionDetector<Date> {
 
     // TODO support operator "in" and optimize to allowedValueList if not continuous
     // private List<Date> allowedValueList = null;
@@ -143,6 +143,16 @@ public class DateConditionDetector extends ConditionDetector<DateConditionDetect
         }
     }
 
+    @Override
+    public Date getFrom() {
+        return from;
+    }
+
+    @Override
+    public Date getTo() {
+        return to;
+    }
+
     public DateConditionDetector merge( DateConditionDetector other ) {
         return new DateConditionDetector( this, other );
     }
@@ -14,14 +14,15 @@
  * limitations under the License.
  */
 
-package org.drools.workbench.screens.guided.dtable.client.widget.analysis.condition;
+package org.drools.workbench.screens.guided.dtable.analysis.condition;
 
 import org.drools.workbench.models.guided.dtable.shared.model.Pattern52;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
-public class EnumConditionDetector extends ConditionDetector<EnumConditionDetector> {
+public class EnumConditionDetector extends ConditionDetector<EnumConditionDetector> implements ValueConditionDetector {
 
     private final List<String> allowedValueList = new ArrayList<String>();
 
@@ -31,11 +32,10 @@ public class EnumConditionDetector extends ConditionDetector<EnumConditionDetect
                                   String value,
                                   String operator ) {
         super( pattern, factField );
+        //Values that are not in the enumeration are not allowed, so can never match
         if ( operator.equals( "==" ) ) {
             if ( allValueList.contains( value ) ) {
                 allowedValueList.add( value );
-            } else {
-                System.out.println( "Warning: value (" + value + ") is not a valid enum value (" + allValueList + ")." );
             }
         } else if ( operator.equals( "!=" ) ) {
             allowedValueList.addAll( allValueList );
@@ -45,9 +45,6 @@ public class EnumConditionDetector extends ConditionDetector<EnumConditionDetect
             for ( String token : tokens ) {
                 if ( allValueList.contains( token ) ) {
                     allowedValueList.add( token );
-                } else {
-                    System.out.println( "Warning: value (" + token + ") is not a valid enum value ("
-                                                + allValueList + ")." );
                 }
             }
         } else {
@@ -70,6 +67,11 @@ public class EnumConditionDetector extends ConditionDetector<EnumConditionDetect
         }
     }
 
+    @Override
+    public Collection<String> getAllowedValues() {
+        return allowedValueList;
+    }
+
     public EnumConditionDetector merge( EnumConditionDetector other ) {
         return new EnumConditionDetector( this, other );
     }
@@ -14,7 +14,7 @@
  * limitations under the License.
  */
 
-package org.drools.workbench.screens.guided.dtable.client.widget.analysis.condition;
+package org.drools.workbench.screens.guided.dtable.analysis.condition;
 
 import org.drools.workbench.models.guided.dtable.shared.model.Pattern52;
 
@@ -23,7 +23,7 @@ import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 
-public class NumericBigDecimalConditionDetector extends ConditionDetector<NumericBigDecimalConditionDetector> {
+public class NumericBigDecimalConditionDetector extends ConditionDetector<NumericBigDecimalConditionDetector> implements RangeConditionDetector<BigDecimal> {
 
     // TODO support operator "in" and optimize to allowedValueList if not continuous
     // private List<BigDecimal> allowedValueList = null;
@@ -144,6 +144,16 @@ public class NumericBigDecimalConditionDetector extends ConditionDetector<Numeri
         }
     }
 
+    @Override
+    public BigDecimal getFrom() {
+        return from;
+    }
+
+    @Override
+    public BigDecimal getTo() {
+        return to;
+    }
+
     public NumericBigDecimalConditionDetector merge( NumericBigDecimalConditionDetector other ) {
         return new NumericBigDecimalConditionDetector( this,
                                                        other );
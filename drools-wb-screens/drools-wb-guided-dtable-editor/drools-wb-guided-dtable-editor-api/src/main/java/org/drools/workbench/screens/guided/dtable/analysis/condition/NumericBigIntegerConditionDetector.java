@@ -14,7 +14,7 @@
  * limitations under the License.
  */
 
-package org.drools.workbench.screens.guided.dtable.client.widget.analysis.condition;
+package org.drools.workbench.screens.guided.dtable.analysis.condition;
 
 import org.drools.workbench.models.guided.dtable.shared.model.Pattern52;
 
@@ -23,7 +23,7 @@ import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 
-public class NumericBigIntegerConditionDetector extends ConditionDetector<NumericBigIntegerConditionDetector> {
+public class NumericBigIntegerConditionDetector extends ConditionDetector<NumericBigIntegerConditionDetector> implements RangeConditionDetector<BigInteger> {
 
     // TODO support operator "in" and optimize to allowedValueList if not continuous
     // private List<BigInteger> allowedValueList = null;
@@ -144,6 +144,16 @@ public class NumericBigIntegerConditionDetector extends ConditionDetector<Numeri
         }
     }
 
+    @Override
+    public BigInteger getFrom() {
+        return from;
+    }
+
+    @Override
+    public BigInteger getTo() {
+        return to;
+    }
+
     public NumericBigIntegerConditionDetector merge( NumericBigIntegerConditionDetector other ) {
         return new NumericBigIntegerConditionDetector( this,
                                                        other );
@@ -14,7 +14,7 @@
  * limitations under the License.
  */
 
-package org.drools.workbench.screens.guided.dtable.client.widget.analysis.condition;
+package org.drools.workbench.screens.guided.dtable.analysis.condition;
 
 import org.drools.workbench.models.guided.dtable.shared.model.Pattern52;
 
@@ -22,7 +22,7 @@ import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 
-public class NumericByteConditionDetector extends ConditionDetector<NumericByteConditionDetector> {
+public class NumericByteConditionDetector extends ConditionDetector<NumericByteConditionDetector> implements RangeConditionDetector<Byte> {
 
     // TODO support operator "in" and optimize to allowedValueList if not continuous
     // private List<Byte> allowedValueList = null;
@@ -143,6 +143,16 @@ public class NumericByteConditionDetector extends ConditionDetector<NumericByteC
         }
     }
 
+    @Override
+    public Byte getFrom() {
+        return from;
+    }
+
+    @Override
+    public Byte getTo() {
+        return to;
+    }
+
     public NumericByteConditionDetector merge( NumericByteConditionDetector other ) {
         return new NumericByteConditionDetector( this,
                                                  other );
@@ -14,7 +14,7 @@
  * limitations under the License.
  */
 
-package org.drools.workbench.screens.guided.dtable.client.widget.analysis.condition;
+package org.drools.workbench.screens.guided.dtable.analysis.condition;
 
 import org.drools.workbench.models.guided.dtable.shared.model.Pattern52;
 
@@ -23,7 +23,7 @@ import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 
-public class NumericConditionDetector extends ConditionDetector<NumericConditionDetector> {
+public class NumericConditionDetector extends ConditionDetector<NumericConditionDetector> implements RangeConditionDetector<BigDecimal> {
 
     // TODO support operator "in" and optimize to allowedValueList if not continuous
     // private List<BigDecimal> allowedValueList = null;
@@ -142,6 +142,16 @@ public class NumericConditionDetector extends ConditionDetector<NumericCondition
         }
     }
 
+    @Override
+    public BigDecimal getFrom() {
+        return from;
+    }
+
+    @Override
+    public BigDecimal getTo() {
+        return to;
+    }
+
     public NumericConditionDetector merge( NumericConditionDetector other ) {
         return new NumericConditionDetector( this, other );
     }
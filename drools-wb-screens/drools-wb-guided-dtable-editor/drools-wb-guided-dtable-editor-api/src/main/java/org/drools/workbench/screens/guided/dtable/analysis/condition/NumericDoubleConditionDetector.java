@@ -14,7 +14,7 @@
  * limitations under the License.
  */
 
-package org.drools.workbench.screens.guided.dtable.client.widget.analysis.condition;
+package org.drools.workbench.screens.guided.dtable.analysis.condition;
 
 import org.drools.workbench.models.guided.dtable.shared.model.Pattern52;
 
@@ -22,7 +22,7 @@ import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 
-public class NumericDoubleConditionDetector extends ConditionDetector<NumericDoubleConditionDetector> {
+public class NumericDoubleConditionDetector extends ConditionDetector<NumericDoubleConditionDetector> implements RangeConditionDetector<Double> {
 
     // TODO support operator "in" and optimize to allowedValueList if not continuous
     // private List<Double> allowedValueList = null;
@@ -143,6 +143,16 @@ public class NumericDoubleConditionDetector extends ConditionDetector<NumericDou
         }
     }
 
+    @Override
+    public Double getFrom() {
+        return from;
+    }
+
+    @Override
+    public Double getTo() {
+        return to;
+    }
+
     public NumericDoubleConditionDetector merge( NumericDoubleConditionDetector other ) {
         return new NumericDoubleConditionDetector( this,
                                                    other );
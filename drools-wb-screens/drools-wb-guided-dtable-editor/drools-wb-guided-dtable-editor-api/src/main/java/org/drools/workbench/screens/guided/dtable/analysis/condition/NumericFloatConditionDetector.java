@@ -14,7 +14,7 @@
  * limitations under the License.
  */
 
-package org.drools.workbench.screens.guided.dtable.client.widget.analysis.condition;
+package org.drools.workbench.screens.guided.dtable.analysis.condition;
 
 import org.drools.workbench.models.guided.dtable.shared.model.Pattern52;
 
@@ -22,7 +22,7 @@ import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 
-public class NumericFloatConditionDetector extends ConditionDetector<NumericFloatConditionDetector> {
+public class NumericFloatConditionDetector extends ConditionDetector<NumericFloatConditionDetector> implements RangeConditionDetector<Float> {
 
     // TODO support operator "in" and optimize to allowedValueList if not continuous
     // private List<Float> allowedValueList = null;
@@ -143,6 +143,16 @@ public class NumericFloatConditionDetector extends ConditionDetector<NumericFloa
         }
     }
 
+    @Override
+    public Float getFrom() {
+        return from;
+    }
+
+    @Override
+    public Float getTo() {
+        return to;
+    }
+
     public NumericFloatConditionDetector merge( NumericFloatConditionDetector other ) {
         return new NumericFloatConditionDetector( this,
                                                   other );
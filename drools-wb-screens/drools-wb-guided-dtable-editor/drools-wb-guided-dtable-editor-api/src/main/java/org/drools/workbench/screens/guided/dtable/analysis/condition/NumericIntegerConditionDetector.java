@@ -14,7 +14,7 @@
  * limitations under the License.
  */
 
-package org.drools.workbench.screens.guided.dtable.client.widget.analysis.condition;
+package org.drools.workbench.screens.guided.dtable.analysis.condition;
 
 import org.drools.workbench.models.guided.dtable.shared.model.Pattern52;
 
@@ -22,7 +22,7 @@ import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 
-public class NumericIntegerConditionDetector extends ConditionDetector<NumericIntegerConditionDetector> {
+public class NumericIntegerConditionDetector extends ConditionDetector<NumericIntegerConditionDetector> implements RangeConditionDetector<Integer> {
 
     // TODO support operator "in" and optimize to allowedValueList if not continuous
     // private List<Integer> allowedValueList = null;
@@ -143,6 +143,16 @@ public class NumericIntegerConditionDetector extends ConditionDetector<NumericIn
         }
     }
 
+    @Override
+    public Integer getFrom() {
+        return from;
+    }
+
+    @Override
+    public Integer getTo() {
+        return to;
+    }
+
     public NumericIntegerConditionDetector merge( NumericIntegerConditionDetector other ) {
         return new NumericIntegerConditionDetector( this,
                                                     other );
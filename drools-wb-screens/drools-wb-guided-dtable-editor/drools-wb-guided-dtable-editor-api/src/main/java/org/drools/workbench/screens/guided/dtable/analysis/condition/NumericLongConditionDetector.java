@@ -14,7 +14,7 @@
  * limitations under the License.
  */
 
-package org.drools.workbench.screens.guided.dtable.client.widget.analysis.condition;
+package org.drools.workbench.screens.guided.dtable.analysis.condition;
 
 import org.drools.workbench.models.guided.dtable.shared.model.Pattern52;
 
@@ -22,7 +22,7 @@ import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 
-public class NumericLongConditionDetector extends ConditionDetector<NumericLongConditionDetector> {
+public class NumericLongConditionDetector extends ConditionDetector<NumericLongConditionDetector> implements RangeConditionDetector<Long> {
 
     // TODO support operator "in" and optimize to allowedValueList if not continuous
     // private List<Long> allowedValueList = null;
@@ -143,6 +143,16 @@ public class NumericLongConditionDetector extends ConditionDetector<NumericLongC
         }
     }
 
+    @Override
+    public Long getFrom() {
+        return from;
+    }
+
+    @Override
+    public Long getTo() {
+        return to;
+    }
+
     public NumericLongConditionDetector merge( NumericLongConditionDetector other ) {
         return new NumericLongConditionDetector( this,
                                                  other );
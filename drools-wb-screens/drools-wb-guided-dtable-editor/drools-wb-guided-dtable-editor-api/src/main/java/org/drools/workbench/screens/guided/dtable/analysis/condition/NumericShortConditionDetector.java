@@ -14,7 +14,7 @@
  * limitations under the License.
  */
 
-package org.drools.workbench.screens.guided.dtable.client.widget.analysis.condition;
+package org.drools.workbench.screens.guided.dtable.analysis.condition;
 
 import org.drools.workbench.models.guided.dtable.shared.model.Pattern52;
 
@@ -22,7 +22,7 @@ import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 
-public class NumericShortConditionDetector extends ConditionDetector<NumericShortConditionDetector> {
+public class NumericShortConditionDetector extends ConditionDetector<NumericShortConditionDetector> implements RangeConditionDetector<Short> {
 
     // TODO support operator "in" and optimize to allowedValueList if not continuous
     // private List<Short> allowedValueList = null;
@@ -143,6 +143,16 @@ public class NumericShortConditionDetector extends ConditionDetector<NumericShor
         }
     }
 
+    @Override
+    public Short getFrom() {
+        return from;
+    }
+
+    @Override
+    public Short getTo() {
+        return to;
+    }
+
     public NumericShortConditionDetector merge( NumericShortConditionDetector other ) {
         return new NumericShortConditionDetector( this,
                                                   other );
@@ -0,0 +1,34 @@
+/*
+ * Copyright 2015 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.drools.workbench.screens.guided.dtable.analysis.condition;
+
+/**
+ * A ConditionDetector whose allowed values form a (possibly unbounded) range. Two such detectors
+ * for the same key can only overlap if their closed ranges intersect.
+ */
+public interface RangeConditionDetector<T extends Comparable<T>> {
+
+    /**
+     * @return the lower bound of the range, or null if the range has no lower bound
+     */
+    T getFrom();
+
+    /**
+     * @return the upper bound of the range, or null if the range has no upper bound
+     */
+    T getTo();
+
+}
@@ -14,15 +14,16 @@
  * limitations under the License.
  */
 
-package org.drools.workbench.screens.guided.dtable.client.widget.analysis.condition;
+package org.drools.workbench.screens.guided.dtable.analysis.condition;
 
 import org.drools.workbench.models.guided.dtable.shared.model.Pattern52;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 
-public class StringConditionDetector extends ConditionDetector<StringConditionDetector> {
+public class StringConditionDetector extends ConditionDetector<StringConditionDetector> implements ValueConditionDetector {
 
     private List<String> allowedValueList = null;
     private List<String> disallowedList = new ArrayList<String>( 1 );
@@ -49,10 +50,11 @@ public class StringConditionDetector extends ConditionDetector<StringConditionDe
     public StringConditionDetector( StringConditionDetector a,
                                     StringConditionDetector b ) {
         super( a, b );
+        // Copy the lists, as they are modified below and a and b must remain unchanged
         if ( b.allowedValueList == null ) {
-            allowedValueList = a.allowedValueList;
+            allowedValueList = ( a.allowedValueList == null ? null : new ArrayList<String>( a.allowedValueList ) );
         } else if ( a.allowedValueList == null ) {
-            allowedValueList = b.allowedValueList;
+            allowedValueList = new ArrayList<String>( b.allowedValueList );
         } else {
             allowedValueList = new ArrayList<String>( a.allowedValueList );
             allowedValueList.retainAll( b.allowedValueList );
@@ -76,6 +78,11 @@ public class StringConditionDetector extends ConditionDetector<StringConditionDe
         }
     }
 
+    @Override
+    public Collection<String> getAllowedValues() {
+        return allowedValueList;
+    }
+
     public StringConditionDetector merge( StringConditionDetector other ) {
         return new StringConditionDetector( this, other );
     }
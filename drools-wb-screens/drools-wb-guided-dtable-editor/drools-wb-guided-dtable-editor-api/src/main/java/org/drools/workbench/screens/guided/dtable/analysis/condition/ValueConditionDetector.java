@@ -0,0 +1,31 @@
+/*
+ * Copyright 2015 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.drools.workbench.screens.guided.dtable.analysis.condition;
+
+import java.util.Collection;
+
+/**
+ * A ConditionDetector whose allowed values form a discrete set. Two such detectors
+ * for the same key can only overlap if their sets of allowed values intersect.
+ */
+public interface ValueConditionDetector {
+
+    /**
+     * @return the allowed values, or null if any value could be allowed
+     */
+    Collection<?> getAllowedValues();
+
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2015 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.drools.workbench.screens.guided.dtable.analysis.index;
+
+import java.util.Collection;
+
+import org.drools.workbench.screens.guided.dtable.analysis.RowDetector;
+import org.drools.workbench.screens.guided.dtable.analysis.condition.ConditionDetector;
+
+/**
+ * Index of the ConditionDetectors of all rows for a single ConditionDetectorKey. Implementations return a
+ * superset of the rows whose ConditionDetector could be merged with a given ConditionDetector without
+ * resulting in an impossible match; rows that are definitely disjoint are pruned.
+ */
+public interface ConditionKeyIndex {
+
+    /**
+     * @return true if the ConditionDetector can be held by this index
+     */
+    boolean accepts( ConditionDetector conditionDetector );
+
+    void add( RowDetector rowDetector,
+              ConditionDetector conditionDetector );
+
+    void remove( RowDetector rowDetector,
+                 ConditionDetector conditionDetector );
+
+    /**
+     * Collect rows whose ConditionDetector might overlap with the given ConditionDetector
+     * @param conditionDetector ConditionDetector for which to find candidates
+     * @param candidates Collection to which candidate rows are added
+     * @param limit Maximum size of candidates. Collection stops once the limit is exceeded
+     * @return false if the limit was exceeded and candidates are therefore incomplete
+     */
+    boolean collectCandidates( ConditionDetector conditionDetector,
+                               Collection<RowDetector> candidates,
+                               int limit );
+
+    /**
+     * Check whether a row held by this index could overlap the given ConditionDetector, without collecting
+     * every candidate. Used to narrow the candidates already found through another key.
+     * @param conditionDetector ConditionDetector for which to find candidates
+     * @param candidateConditionDetector ConditionDetector of the candidate row, as added to this index
+     * @return false if the ConditionDetectors are definitely disjoint
+     */
+    boolean isCandidate( ConditionDetector conditionDetector,
+                         ConditionDetector candidateConditionDetector );
+
+}
@@ -0,0 +1,362 @@
+/*
+ * Copyright 2015 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.drools.workbench.screens.guided.dtable.analysis.index;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * A self-balancing (AVL) interval tree. Each interval is closed and a null bound means the interval is unbounded
+ * at that end. Nodes are keyed by the lower bound and every node records the greatest upper bound in its sub-tree
+ * so that queries for overlapping intervals only visit sub-trees that can contain a match.
+ * @param <T> Type of the interval bounds
+ * @param <V> Type of the values associated with each interval
+ */
+public class IntervalTree<T extends Comparable<T>, V> {
+
+    private Node root = null;
+    private int size = 0;
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Add an interval
+     * @param from Lower bound, or null if unbounded
+     * @param to Upper bound, or null if unbounded
+     * @param value Value associated with the interval
+     */
+    public void add( final T from,
+                     final T to,
+                     final V value ) {
+        root = add( root,
+                    from,
+                    new Interval( to,
+                                  value ) );
+        size++;
+    }
+
+    /**
+     * Remove an interval previously added with the same bounds and value
+     * @param from Lower bound, or null if unbounded
+     * @param to Upper bound, or null if unbounded
+     * @param value Value associated with the interval
+     * @return true if the interval was found and removed
+     */
+    public boolean remove( final T from,
+                           final T to,
+                           final V value ) {
+        final int originalSize = size;
+        root = remove( root,
+                       from,
+                       to,
+                       value );
+        return size < originalSize;
+    }
+
+    /**
+     * Collect the values of all intervals overlapping the given (closed) interval
+     * @param from Lower bound, or null if unbounded
+     * @param to Upper bound, or null if unbounded
+     * @param results Collection to which the matching values are added
+     * @param limit Maximum size of results. Collection stops once the limit is exceeded
+     * @return false if the limit was exceeded and results are therefore incomplete
+     */
+    public boolean collectOverlapping( final T from,
+                                       final T to,
+                                       final Collection<V> results,
+                                       final int limit ) {
+        return collectOverlapping( root,
+                                   from,
+                                   to,
+                                   results,
+                                   limit );
+    }
+
+    /**
+     * Check whether two (closed) intervals overlap
+     * @param from Lower bound of the first interval, or null if unbounded
+     * @param to Upper bound of the first interval, or null if unbounded
+     * @param otherFrom Lower bound of the second interval, or null if unbounded
+     * @param otherTo Upper bound of the second interval, or null if unbounded
+     * @return true if the intervals have at least one value in common
+     */
+    public boolean overlaps( final T from,
+                             final T to,
+                             final T otherFrom,
+                             final T otherTo ) {
+        return compareUpperToLower( otherTo,
+                                    from ) >= 0 && compareLowerToUpper( otherFrom,
+                                                                       to ) <= 0;
+    }
+
+    private boolean collectOverlapping( final Node node,
+                                        final T from,
+                                        final T to,
+                                        final Collection<V> results,
+                                        final int limit ) {
+        if ( node == null ) {
+            return true;
+        }
+        //No interval in this sub-tree reaches the start of the query interval
+        if ( compareUpperToLower( node.maxTo,
+                                  from ) < 0 ) {
+            return true;
+        }
+        if ( !collectOverlapping( node.left,
+                                  from,
+                                  to,
+                                  results,
+                                  limit ) ) {
+            return false;
+        }
+        //This node, and all in the right sub-tree, start after the end of the query interval
+        if ( compareLowerToUpper( node.from,
+                                  to ) > 0 ) {
+            return true;
+        }
+        //Intervals are held in descending order of upper bound, so stop at the first that ends before the query
+        for ( Interval interval : node.intervals ) {
+            if ( compareUpperToLower( interval.to,
+                                      from ) < 0 ) {
+                break;
+            }
+            results.add( interval.value );
+            if ( results.size() > limit ) {
+                return false;
+            }
+        }
+        return collectOverlapping( node.right,
+                                   from,
+                                   to,
+                                   results,
+                                   limit );
+    }
+
+    private Node add( final Node node,
+                      final T from,
+                      final Interval interval ) {
+        if ( node == null ) {
+            final Node newNode = new Node( from );
+            newNode.addInterval( interval );
+            newNode.update();
+            return newNode;
+        }
+        final int comparison = compareLowers( from,
+                                              node.from );
+        if ( comparison < 0 ) {
+            node.left = add( node.left,
+                             from,
+                             interval );
+        } else if ( comparison > 0 ) {
+            node.right = add( node.right,
+                              from,
+                              interval );
+        } else {
+            node.addInterval( interval );
+        }
+        return balance( node );
+    }
+
+    private Node remove( final Node node,
+                         final T from,
+                         final T to,
+                         final V value ) {
+        if ( node == null ) {
+            return null;
+        }
+        final int comparison = compareLowers( from,
+                                              node.from );
+        if ( comparison < 0 ) {
+            node.left = remove( node.left,
+                                from,
+                                to,
+                                value );
+        } else if ( comparison > 0 ) {
+            node.right = remove( node.right,
+                                 from,
+                                 to,
+                                 value );
+        } else {
+            for ( int i = 0; i < node.intervals.size(); i++ ) {
+                final Interval interval = node.intervals.get( i );
+                if ( interval.value == value && compareUppers( interval.to,
+                                                               to ) == 0 ) {
+                    node.intervals.remove( i );
+                    size--;
+                    break;
+                }
+            }
+            if ( node.intervals.isEmpty() ) {
+                if ( node.left == null ) {
+                    return node.right;
+                } else if ( node.right == null ) {
+                    return node.left;
+                }
+                //Replace this node with its in-order successor
+                Node successor = node.right;
+                while ( successor.left != null ) {
+                    successor = successor.left;
+                }
+                node.from = successor.from;
+                node.intervals = successor.intervals;
+                node.right = removeMinimum( node.right );
+            }
+        }
+        return balance( node );
+    }
+
+    private Node removeMinimum( final Node node ) {
+        if ( node.left == null ) {
+            return node.right;
+        }
+        node.left = removeMinimum( node.left );
+        return balance( node );
+    }
+
+    private Node balance( final Node node ) {
+        node.update();
+        final int balance = height( node.left ) - height( node.right );
+        if ( balance > 1 ) {
+            if ( height( node.left.left ) < height( node.left.right ) ) {
+                node.left = rotateLeft( node.left );
+            }
+            return rotateRight( node );
+        } else if ( balance < -1 ) {
+            if ( height( node.right.right ) < height( node.right.left ) ) {
+                node.right = rotateRight( node.right );
+            }
+            return rotateLeft( node );
+        }
+        return node;
+    }
+
+    private Node rotateRight( final Node node ) {
+        final Node pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        node.update();
+        pivot.update();
+        return pivot;
+    }
+
+    private Node rotateLeft( final Node node ) {
+        final Node pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        node.update();
+        pivot.update();
+        return pivot;
+    }
+
+    private int height( final Node node ) {
+        return node == null ? 0 : node.height;
+    }
+
+    //Lower bounds: null is negative infinity
+    private int compareLowers( final T a,
+                               final T b ) {
+        if ( a == null ) {
+            return b == null ? 0 : -1;
+        }
+        return b == null ? 1 : a.compareTo( b );
+    }
+
+    //Upper bounds: null is positive infinity
+    private int compareUppers( final T a,
+                               final T b ) {
+        if ( a == null ) {
+            return b == null ? 0 : 1;
+        }
+        return b == null ? -1 : a.compareTo( b );
+    }
+
+    private int compareUpperToLower( final T upper,
+                                     final T lower ) {
+        if ( upper == null || lower == null ) {
+            return 1;
+        }
+        return upper.compareTo( lower );
+    }
+
+    private int compareLowerToUpper( final T lower,
+                                     final T upper ) {
+        if ( lower == null || upper == null ) {
+            return -1;
+        }
+        return lower.compareTo( upper );
+    }
+
+    private class Interval {
+
+        private final T to;
+        private final V value;
+
+        private Interval( final T to,
+                          final V value ) {
+            this.to = to;
+            this.value = value;
+        }
+
+    }
+
+    private class Node {
+
+        private T from;
+        private List<Interval> intervals = new ArrayList<Interval>( 1 );
+        private T maxTo;
+        private int height;
+        private Node left;
+        private Node right;
+
+        private Node( final T from ) {
+            this.from = from;
+        }
+
+        private void addInterval( final Interval interval ) {
+            int index = 0;
+            while ( index < intervals.size() && compareUppers( intervals.get( index ).to,
+                                                               interval.to ) >= 0 ) {
+                index++;
+            }
+            intervals.add( index,
+                           interval );
+        }
+
+        private void update() {
+            height = Math.max( IntervalTree.this.height( left ),
+                               IntervalTree.this.height( right ) ) + 1;
+            T max = intervals.get( 0 ).to;
+            if ( left != null && compareUppers( left.maxTo,
+                                                max ) > 0 ) {
+                max = left.maxTo;
+            }
+            if ( right != null && compareUppers( right.maxTo,
+                                                 max ) > 0 ) {
+                max = right.maxTo;
+            }
+            maxTo = max;
+        }
+
+    }
+
+}
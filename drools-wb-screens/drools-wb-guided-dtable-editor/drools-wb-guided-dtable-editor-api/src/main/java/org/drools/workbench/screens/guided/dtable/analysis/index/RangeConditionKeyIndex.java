@@ -0,0 +1,77 @@
+/*
+ * Copyright 2015 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.drools.workbench.screens.guided.dtable.analysis.index;
+
+import java.util.Collection;
+
+import org.drools.workbench.screens.guided.dtable.analysis.RowDetector;
+import org.drools.workbench.screens.guided.dtable.analysis.condition.ConditionDetector;
+import org.drools.workbench.screens.guided.dtable.analysis.condition.RangeConditionDetector;
+
+/**
+ * Index for numeric and date ConditionDetectors backed by an IntervalTree
+ */
+@SuppressWarnings("unchecked")
+public class RangeConditionKeyIndex<T extends Comparable<T>> implements ConditionKeyIndex {
+
+    private final IntervalTree<T, RowDetector> tree = new IntervalTree<T, RowDetector>();
+
+    @Override
+    public boolean accepts( final ConditionDetector conditionDetector ) {
+        return conditionDetector instanceof RangeConditionDetector;
+    }
+
+    @Override
+    public void add( final RowDetector rowDetector,
+                     final ConditionDetector conditionDetector ) {
+        final RangeConditionDetector<T> range = (RangeConditionDetector<T>) conditionDetector;
+        tree.add( range.getFrom(),
+                  range.getTo(),
+                  rowDetector );
+    }
+
+    @Override
+    public void remove( final RowDetector rowDetector,
+                        final ConditionDetector conditionDetector ) {
+        final RangeConditionDetector<T> range = (RangeConditionDetector<T>) conditionDetector;
+        tree.remove( range.getFrom(),
+                     range.getTo(),
+                     rowDetector );
+    }
+
+    @Override
+    public boolean collectCandidates( final ConditionDetector conditionDetector,
+                                      final Collection<RowDetector> candidates,
+                                      final int limit ) {
+        final RangeConditionDetector<T> range = (RangeConditionDetector<T>) conditionDetector;
+        return tree.collectOverlapping( range.getFrom(),
+                                        range.getTo(),
+                                        candidates,
+                                        limit );
+    }
+
+    @Override
+    public boolean isCandidate( final ConditionDetector conditionDetector,
+                                final ConditionDetector candidateConditionDetector ) {
+        final RangeConditionDetector<T> range = (RangeConditionDetector<T>) conditionDetector;
+        final RangeConditionDetector<T> candidateRange = (RangeConditionDetector<T>) candidateConditionDetector;
+        return tree.overlaps( range.getFrom(),
+                              range.getTo(),
+                              candidateRange.getFrom(),
+                              candidateRange.getTo() );
+    }
+
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2015 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.drools.workbench.screens.guided.dtable.analysis.index;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.drools.workbench.screens.guided.dtable.analysis.RowDetector;
+import org.drools.workbench.screens.guided.dtable.analysis.condition.ConditionDetector;
+
+/**
+ * Index for ConditionDetectors that cannot be pruned (e.g. unrecognized constraints). Every row is a candidate.
+ */
+public class UnindexedConditionKeyIndex implements ConditionKeyIndex {
+
+    private final Set<RowDetector> allRows = new HashSet<RowDetector>();
+
+    @Override
+    public boolean accepts( final ConditionDetector conditionDetector ) {
+        return true;
+    }
+
+    @Override
+    public void add( final RowDetector rowDetector,
+                     final ConditionDetector conditionDetector ) {
+        allRows.add( rowDetector );
+    }
+
+    @Override
+    public void remove( final RowDetector rowDetector,
+                        final ConditionDetector conditionDetector ) {
+        allRows.remove( rowDetector );
+    }
+
+    @Override
+    public boolean collectCandidates( final ConditionDetector conditionDetector,
+                                      final Collection<RowDetector> candidates,
+                                      final int limit ) {
+        if ( candidates.size() + allRows.size() > limit ) {
+            return false;
+        }
+        candidates.addAll( allRows );
+        return true;
+    }
+
+    @Override
+    public boolean isCandidate( final ConditionDetector conditionDetector,
+                                final ConditionDetector candidateConditionDetector ) {
+        return true;
+    }
+
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright 2015 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.drools.workbench.screens.guided.dtable.analysis.index;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.drools.workbench.screens.guided.dtable.analysis.RowDetector;
+import org.drools.workbench.screens.guided.dtable.analysis.condition.ConditionDetector;
+import org.drools.workbench.screens.guided.dtable.analysis.condition.ValueConditionDetector;
+
+/**
+ * Index for enumeration, String and Boolean ConditionDetectors. Rows are held in one bucket per allowed value;
+ * rows that could allow any value are held separately and are candidates for every query.
+ */
+public class ValueConditionKeyIndex implements ConditionKeyIndex {
+
+    private final Map<Object, Set<RowDetector>> buckets = new HashMap<Object, Set<RowDetector>>();
+    private final Set<RowDetector> anyValueRows = new HashSet<RowDetector>();
+    private final Set<RowDetector> allRows = new HashSet<RowDetector>();
+
+    @Override
+    public boolean accepts( final ConditionDetector conditionDetector ) {
+        return conditionDetector instanceof ValueConditionDetector;
+    }
+
+    @Override
+    public void add( final RowDetector rowDetector,
+                     final ConditionDetector conditionDetector ) {
+        allRows.add( rowDetector );
+        final Collection<?> allowedValues = ( (ValueConditionDetector) conditionDetector ).getAllowedValues();
+        if ( allowedValues == null ) {
+            anyValueRows.add( rowDetector );
+            return;
+        }
+        for ( Object value : allowedValues ) {
+            Set<RowDetector> bucket = buckets.get( value );
+            if ( bucket == null ) {
+                bucket = new HashSet<RowDetector>();
+                buckets.put( value,
+                             bucket );
+            }
+            bucket.add( rowDetector );
+        }
+    }
+
+    @Override
+    public void remove( final RowDetector rowDetector,
+                        final ConditionDetector conditionDetector ) {
+        allRows.remove( rowDetector );
+        final Collection<?> allowedValues = ( (ValueConditionDetector) conditionDetector ).getAllowedValues();
+        if ( allowedValues == null ) {
+            anyValueRows.remove( rowDetector );
+            return;
+        }
+        for ( Object value : allowedValues ) {
+            final Set<RowDetector> bucket = buckets.get( value );
+            if ( bucket != null ) {
+                bucket.remove( rowDetector );
+                if ( bucket.isEmpty() ) {
+                    buckets.remove( value );
+                }
+            }
+        }
+    }
+
+    @Override
+    public boolean collectCandidates( final ConditionDetector conditionDetector,
+                                      final Collection<RowDetector> candidates,
+                                      final int limit ) {
+        final Collection<?> allowedValues = ( (ValueConditionDetector) conditionDetector ).getAllowedValues();
+        if ( allowedValues == null ) {
+            return addAll( allRows,
+                           candidates,
+                           limit );
+        }
+        if ( !addAll( anyValueRows,
+                      candidates,
+                      limit ) ) {
+            return false;
+        }
+        for ( Object value : allowedValues ) {
+            final Set<RowDetector> bucket = buckets.get( value );
+            if ( bucket != null && !addAll( bucket,
+                                            candidates,
+                                            limit ) ) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean isCandidate( final ConditionDetector conditionDetector,
+                                final ConditionDetector candidateConditionDetector ) {
+        final Collection<?> allowedValues = ( (ValueConditionDetector) conditionDetector ).getAllowedValues();
+        final Collection<?> candidateAllowedValues = ( (ValueConditionDetector) candidateConditionDetector ).getAllowedValues();
+        if ( allowedValues == null || candidateAllowedValues == null ) {
+            return true;
+        }
+        for ( Object value : allowedValues ) {
+            if ( candidateAllowedValues.contains( value ) ) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean addAll( final Collection<RowDetector> rowDetectors,
+                            final Collection<RowDetector> candidates,
+                            final int limit ) {
+        if ( candidates.size() + rowDetectors.size() > limit ) {
+            return false;
+        }
+        candidates.addAll( rowDetectors );
+        return true;
+    }
+
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright 2015 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.workbench.screens.guided.dtable.model;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.drools.workbench.models.guided.dtable.shared.model.BaseColumn;
+import org.drools.workbench.models.guided.dtable.shared.model.GuidedDecisionTable52;
+import org.uberfire.commons.validation.PortablePreconditions;
+
+/**
+ * Cache of the index of each column in {@link GuidedDecisionTable52#getExpandedColumns()}. Building the
+ * expanded columns creates a new list on each call and List.indexOf() then scans it linearly, so
+ * repeated look-ups are O(n^2) in the number of columns. Columns are held by identity; the cache is
+ * built on first use and must be invalidated whenever columns are added, removed or moved.
+ */
+public class ExpandedColumnIndexMap {
+
+    private final GuidedDecisionTable52 model;
+    private Map<BaseColumn, Integer> indexes;
+
+    public ExpandedColumnIndexMap( final GuidedDecisionTable52 model ) {
+        this.model = PortablePreconditions.checkNotNull( "model",
+                                                         model );
+    }
+
+    /**
+     * Index of the given column in the expanded columns, or -1 if the column is not part of the model
+     * @param column The column
+     * @return The index of the column
+     */
+    public int indexOf( final BaseColumn column ) {
+        if ( indexes == null ) {
+            build();
+        }
+        final Integer index = indexes.get( column );
+        return index == null ? -1 : index;
+    }
+
+    public void invalidate() {
+        indexes = null;
+    }
+
+    private void build() {
+        final List<BaseColumn> columns = model.getExpandedColumns();
+        indexes = new IdentityHashMap<BaseColumn, Integer>( columns.size() );
+        for ( int iCol = 0; iCol < columns.size(); iCol++ ) {
+            indexes.put( columns.get( iCol ),
+                         iCol );
+        }
+    }
+
+}
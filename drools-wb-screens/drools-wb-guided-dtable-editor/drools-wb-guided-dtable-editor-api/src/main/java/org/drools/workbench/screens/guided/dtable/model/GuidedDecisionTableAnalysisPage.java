@@ -0,0 +1,73 @@
+/*
+ * Copyright 2015 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.workbench.screens.guided.dtable.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.drools.workbench.models.guided.dtable.shared.model.Analysis;
+import org.jboss.errai.common.client.api.annotations.Portable;
+import org.uberfire.commons.validation.PortablePreconditions;
+
+/**
+ * A page of the results of a server-side analysis of a Decision Table. A page holds the contiguous
+ * run of analysed rows starting at {@link #getFirstRow()}; it may hold fewer rows than requested
+ * if the following rows have not yet been analysed.
+ */
+@Portable
+public class GuidedDecisionTableAnalysisPage {
+
+    private int firstRow;
+    private int totalRows;
+    private boolean complete;
+    private List<Analysis> analysisData = new ArrayList<Analysis>();
+
+    public GuidedDecisionTableAnalysisPage() {
+    }
+
+    public GuidedDecisionTableAnalysisPage( final int firstRow,
+                                            final int totalRows,
+                                            final boolean complete,
+                                            final List<Analysis> analysisData ) {
+        this.firstRow = firstRow;
+        this.totalRows = totalRows;
+        this.complete = complete;
+        this.analysisData = PortablePreconditions.checkNotNull( "analysisData",
+                                                                analysisData );
+    }
+
+    public int getFirstRow() {
+        return firstRow;
+    }
+
+    public int getTotalRows() {
+        return totalRows;
+    }
+
+    /**
+     * Whether every row of the Decision Table has been analysed
+     * @return true if the analysis is complete
+     */
+    public boolean isComplete() {
+        return complete;
+    }
+
+    public List<Analysis> getAnalysisData() {
+        return analysisData;
+    }
+
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2015 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.workbench.screens.guided.dtable.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.drools.workbench.models.datamodel.auditlog.AuditLogEntry;
+import org.drools.workbench.models.guided.dtable.shared.model.GuidedDecisionTable52;
+import org.jboss.errai.common.client.api.annotations.Portable;
+import org.uberfire.commons.validation.PortablePreconditions;
+
+/**
+ * The changes made to a Decision Table since a version saved (or loaded) by the server. Changes to the rows are
+ * sent as {@link GuidedDecisionTableRowSegment}s that rebuild the table's data from the base version, together
+ * with any entries appended to the Audit Log. Any other change (e.g. to the columns or the imports) is sent as
+ * the whole table.
+ */
+@Portable
+public class GuidedDecisionTableDelta {
+
+    private long baseVersion;
+    private int baseRowCount;
+    private List<GuidedDecisionTableRowSegment> segments;
+    private List<AuditLogEntry> auditLogEntries;
+    private GuidedDecisionTable52 model;
+
+    public GuidedDecisionTableDelta() {
+    }
+
+    private GuidedDecisionTableDelta( final long baseVersion,
+                                      final int baseRowCount,
+                                      final List<GuidedDecisionTableRowSegment> segments,
+                                      final List<AuditLogEntry> auditLogEntries,
+                                      final GuidedDecisionTable52 model ) {
+        this.baseVersion = baseVersion;
+        this.baseRowCount = baseRowCount;
+        this.segments = segments;
+        this.auditLogEntries = auditLogEntries;
+        this.model = model;
+    }
+
+    /**
+     * Changes to the rows of the table
+     * @param baseVersion Version of the table to which the changes apply
+     * @param baseRowCount Number of rows in the base version
+     * @param segments Segments from which to rebuild the rows
+     * @param auditLogEntries Entries appended to the Audit Log
+     * @return The delta
+     */
+    public static GuidedDecisionTableDelta rows( final long baseVersion,
+                                                 final int baseRowCount,
+                                                 final List<GuidedDecisionTableRowSegment> segments,
+                                                 final List<AuditLogEntry> auditLogEntries ) {
+        PortablePreconditions.checkNotNull( "segments",
+                                            segments );
+        PortablePreconditions.checkNotNull( "auditLogEntries",
+                                            auditLogEntries );
+        return new GuidedDecisionTableDelta( baseVersion,
+                                             baseRowCount,
+                                             new ArrayList<GuidedDecisionTableRowSegment>( segments ),
+                                             new ArrayList<AuditLogEntry>( auditLogEntries ),
+                                             null );
+    }
+
+    /**
+     * The whole table, replacing the version upon which it is based
+     * @param baseVersion Version of the table that is replaced
+     * @param model The table
+     * @return The delta
+     */
+    public static GuidedDecisionTableDelta model( final long baseVersion,
+                                                  final GuidedDecisionTable52 model ) {
+        PortablePreconditions.checkNotNull( "model",
+                                            model );
+        return new GuidedDecisionTableDelta( baseVersion,
+                                             -1,
+                                             null,
+                                             null,
+                                             model );
+    }
+
+    /**
+     * The whole table, replacing whatever version the server holds; only to be used when the user has chosen to
+     * overwrite changes made by others
+     * @param model The table
+     * @return The delta
+     */
+    public static GuidedDecisionTableDelta model( final GuidedDecisionTable52 model ) {
+        PortablePreconditions.checkNotNull( "model",
+                                            model );
+        return new GuidedDecisionTableDelta( -1,
+                                             -1,
+                                             null,
+                                             null,
+                                             model );
+    }
+
+    public boolean isModel() {
+        return model != null;
+    }
+
+    public long getBaseVersion() {
+        return baseVersion;
+    }
+
+    public int getBaseRowCount() {
+        return baseRowCount;
+    }
+
+    public List<GuidedDecisionTableRowSegment> getSegments() {
+        return segments;
+    }
+
+    public List<AuditLogEntry> getAuditLogEntries() {
+        return auditLogEntries;
+    }
+
+    public GuidedDecisionTable52 getModel() {
+        return model;
+    }
+
+}
@@ -32,6 +32,7 @@ public class GuidedDecisionTableEditorContent {
     private Set<PortableWorkDefinition> workItemDefinitions;
     private PackageDataModelOracleBaselinePayload dataModel;
     private Overview overview;
+    private long version;
 
     public GuidedDecisionTableEditorContent() {
     }
@@ -39,7 +40,8 @@ public class GuidedDecisionTableEditorContent {
     public GuidedDecisionTableEditorContent( final GuidedDecisionTable52 model,
                                              final Set<PortableWorkDefinition> workItemDefinitions,
                                              final Overview overview,
-                                             final PackageDataModelOracleBaselinePayload dataModel ) {
+                                             final PackageDataModelOracleBaselinePayload dataModel,
+                                             final long version ) {
         this.overview = PortablePreconditions.checkNotNull( "overview",
                                                             overview );
         this.model = PortablePreconditions.checkNotNull( "model",
@@ -48,6 +50,7 @@ public class GuidedDecisionTableEditorContent {
                                                                        workItemDefinitions );
         this.dataModel = PortablePreconditions.checkNotNull( "dataModel",
                                                              dataModel );
+        this.version = version;
     }
 
     public GuidedDecisionTable52 getModel() {
@@ -66,6 +69,14 @@ public class GuidedDecisionTableEditorContent {
         return overview;
     }
 
+    /**
+     * The version of the model held by the server, against which changes can be saved
+     * @return The version
+     */
+    public long getVersion() {
+        return version;
+    }
+
     public void setOverview(Overview overview) {
         this.overview = overview;
     }
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2015 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.workbench.screens.guided.dtable.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.drools.workbench.models.guided.dtable.shared.model.DTCellValue52;
+import org.jboss.errai.common.client.api.annotations.Portable;
+import org.uberfire.commons.validation.PortablePreconditions;
+
+/**
+ * A consecutive run of rows of a Decision Table within a {@link GuidedDecisionTableDelta}. A segment either
+ * copies unchanged rows from the base version of the table or contains the values of new or updated rows.
+ */
+@Portable
+public class GuidedDecisionTableRowSegment {
+
+    private int baseRowIndex = -1;
+    private int rowCount;
+    private List<List<DTCellValue52>> rows;
+
+    public GuidedDecisionTableRowSegment() {
+    }
+
+    private GuidedDecisionTableRowSegment( final int baseRowIndex,
+                                           final int rowCount,
+                                           final List<List<DTCellValue52>> rows ) {
+        this.baseRowIndex = baseRowIndex;
+        this.rowCount = rowCount;
+        this.rows = rows;
+    }
+
+    /**
+     * A segment copying unchanged rows from the base version
+     * @param baseRowIndex Index of the first row in the base version
+     * @param rowCount Number of rows to copy
+     * @return The segment
+     */
+    public static GuidedDecisionTableRowSegment copy( final int baseRowIndex,
+                                                      final int rowCount ) {
+        return new GuidedDecisionTableRowSegment( baseRowIndex,
+                                                  rowCount,
+                                                  null );
+    }
+
+    /**
+     * A segment containing new or updated rows
+     * @param rows The values of the rows
+     * @return The segment
+     */
+    public static GuidedDecisionTableRowSegment rows( final List<List<DTCellValue52>> rows ) {
+        PortablePreconditions.checkNotNull( "rows",
+                                            rows );
+        return new GuidedDecisionTableRowSegment( -1,
+                                                  rows.size(),
+                                                  new ArrayList<List<DTCellValue52>>( rows ) );
+    }
+
+    public boolean isCopy() {
+        return rows == null;
+    }
+
+    public int getBaseRowIndex() {
+        return baseRowIndex;
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    public List<List<DTCellValue52>> getRows() {
+        return rows;
+    }
+
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright 2015 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.workbench.screens.guided.dtable.service;
+
+import java.util.List;
+
+import org.drools.workbench.models.guided.dtable.shared.model.Analysis;
+import org.drools.workbench.screens.guided.dtable.model.GuidedDecisionTableAnalysisPage;
+import org.jboss.errai.bus.server.annotations.Remote;
+import org.uberfire.backend.vfs.Path;
+
+/**
+ * Server-side detection of impossible matches, conflicting and duplicated rows in a Decision Table.
+ * Rows are analysed in parallel; results can be retrieved in pages while the analysis is in progress.
+ */
+@Remote
+public interface GuidedDecisionTableAnalysisService {
+
+    /**
+     * Start analysing the Decision Table at the given Path
+     * @param path Path of the Decision Table
+     * @return Identifier of the analysis, used to retrieve results
+     */
+    String startAnalysis( final Path path );
+
+    /**
+     * Retrieve the results of an analysis for rows that have been analysed. Once the final page of a
+     * complete analysis has been retrieved the analysis is discarded.
+     * @param analysisId Identifier returned by {@link #startAnalysis(Path)}
+     * @param firstRow Index of the first row to retrieve
+     * @param pageSize Maximum number of rows to retrieve
+     * @return The page of results
+     */
+    GuidedDecisionTableAnalysisPage getAnalysis( final String analysisId,
+                                                 final int firstRow,
+                                                 final int pageSize );
+
+    void cancelAnalysis( final String analysisId );
+
+    /**
+     * Analyse the Decision Table at the given Path, waiting for all rows to be analysed
+     * @param path Path of the Decision Table
+     * @return Analysis for all rows
+     */
+    List<Analysis> analyze( final Path path );
+
+}
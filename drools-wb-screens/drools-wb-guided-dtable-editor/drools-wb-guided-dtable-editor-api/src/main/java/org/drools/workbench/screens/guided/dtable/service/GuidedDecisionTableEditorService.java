@@ -17,8 +17,10 @@
 package org.drools.workbench.screens.guided.dtable.service;
 
 import org.drools.workbench.models.guided.dtable.shared.model.GuidedDecisionTable52;
+import org.drools.workbench.screens.guided.dtable.model.GuidedDecisionTableDelta;
 import org.drools.workbench.screens.guided.dtable.model.GuidedDecisionTableEditorContent;
 import org.guvnor.common.services.shared.file.SupportsUpdate;
+import org.guvnor.common.services.shared.metadata.model.Metadata;
 import org.guvnor.common.services.shared.validation.ValidationService;
 import org.jboss.errai.bus.server.annotations.Remote;
 import org.kie.workbench.common.services.datamodel.model.PackageDataModelOracleBaselinePayload;
@@ -46,4 +48,20 @@ public interface GuidedDecisionTableEditorService
 
     PackageDataModelOracleBaselinePayload loadDataModel( final Path path );
 
+    /**
+     * Save the changes made to a Decision Table since the version returned by {@link #loadContent(Path)} or by a
+     * previous call to this method. Changes to the rows are applied to that version; a
+     * {@link GuidedDecisionTableStaleVersionException} is thrown if it is no longer the version stored, unless the
+     * delta is a whole table without a base version.
+     * @param path Path to the Decision Table
+     * @param delta The changes
+     * @param metadata Metadata to save
+     * @param comment Commit message
+     * @return The version of the saved Decision Table
+     */
+    long saveDelta( final Path path,
+                    final GuidedDecisionTableDelta delta,
+                    final Metadata metadata,
+                    final String comment );
+
 }
@@ -0,0 +1,36 @@
+/*
+ * Copyright 2015 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.workbench.screens.guided.dtable.service;
+
+import org.jboss.errai.common.client.api.annotations.Portable;
+
+/**
+ * Thrown when a {@link org.drools.workbench.screens.guided.dtable.model.GuidedDecisionTableDelta} is based upon a
+ * version of a Decision Table that is no longer the version stored, as the table has been written since. Callers should
+ * let the user choose between overwriting the other changes and reopening the table.
+ */
+@Portable
+public class GuidedDecisionTableStaleVersionException extends RuntimeException {
+
+    public GuidedDecisionTableStaleVersionException() {
+    }
+
+    public GuidedDecisionTableStaleVersionException( final String message ) {
+        super( message );
+    }
+
+}
@@ -30,8 +30,10 @@ import org.drools.workbench.models.datamodel.oracle.PackageDataModelOracle;
 import org.drools.workbench.models.datamodel.workitems.PortableWorkDefinition;
 import org.drools.workbench.models.guided.dtable.backend.GuidedDTXMLPersistence;
 import org.drools.workbench.models.guided.dtable.shared.model.GuidedDecisionTable52;
+import org.drools.workbench.screens.guided.dtable.model.GuidedDecisionTableDelta;
 import org.drools.workbench.screens.guided.dtable.model.GuidedDecisionTableEditorContent;
 import org.drools.workbench.screens.guided.dtable.service.GuidedDecisionTableEditorService;
+import org.drools.workbench.screens.guided.rule.backend.server.EditorOpenTimer;
 import org.drools.workbench.screens.workitems.service.WorkItemsEditorService;
 import org.guvnor.common.services.backend.exceptions.ExceptionUtilities;
 import org.guvnor.common.services.backend.file.JavaFileFilter;
@@ -54,6 +56,8 @@ import org.kie.workbench.common.services.datamodel.backend.server.DataModelOracl
 import org.kie.workbench.common.services.datamodel.backend.server.service.DataModelService;
 import org.kie.workbench.common.services.datamodel.model.PackageDataModelOracleBaselinePayload;
 import org.kie.workbench.common.services.shared.project.KieProjectService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.uberfire.backend.server.util.Paths;
 import org.uberfire.backend.vfs.Path;
 import org.uberfire.ext.editor.commons.service.CopyService;
@@ -69,6 +73,8 @@ public class GuidedDecisionTableEditorServiceImpl
         extends KieService<GuidedDecisionTableEditorContent>
         implements GuidedDecisionTableEditorService {
 
+    private static final Logger log = LoggerFactory.getLogger( GuidedDecisionTableEditorServiceImpl.class );
+
     //Filters to include *all* applicable resources
     private static final JavaFileFilter FILTER_JAVA = new JavaFileFilter();
     private static final DRLFileFilter FILTER_DRL = new DRLFileFilter();
@@ -103,6 +109,8 @@ public class GuidedDecisionTableEditorServiceImpl
     @Inject
     private GenericValidator genericValidator;
 
+    private final GuidedDecisionTableSnapshots snapshots = new GuidedDecisionTableSnapshots();
+
     @Override
     public Path create( final Path context,
                         final String fileName,
@@ -150,8 +158,14 @@ public class GuidedDecisionTableEditorServiceImpl
 
     @Override
     protected GuidedDecisionTableEditorContent constructContent(Path path, Overview overview) {
-        final GuidedDecisionTable52 model = load(path);
+        final EditorOpenTimer timer = new EditorOpenTimer(log,
+                                                          "Guided Decision Table",
+                                                          path);
         final PackageDataModelOracle oracle = dataModelService.getDataModel(path);
+        timer.oracleResolved();
+        final String content = ioService.readAllString(Paths.convert(path));
+        final GuidedDecisionTable52 model = GuidedDTXMLPersistence.getInstance().unmarshal(content);
+        final long version = GuidedDecisionTableSnapshots.getVersion(content);
         final PackageDataModelOracleBaselinePayload dataModel = new PackageDataModelOracleBaselinePayload();
 
         //Get FQCN's used by model
@@ -171,10 +185,13 @@ public class GuidedDecisionTableEditorServiceImpl
         resourceOpenedEvent.fire(new ResourceOpenedEvent(path,
                                                          sessionInfo));
 
+        timer.opened();
+
         return new GuidedDecisionTableEditorContent(model,
                                                     workItemDefinitions,
                                                     overview,
-                                                    dataModel);
+                                                    dataModel,
+                                                    version);
     }
 
     @Override
@@ -200,29 +217,91 @@ public class GuidedDecisionTableEditorServiceImpl
                       final Metadata metadata,
                       final String comment ) {
         try {
-            final Package pkg = projectService.resolvePackage( resource );
-            final String packageName = ( pkg == null ? null : pkg.getPackageName() );
-            model.setPackageName( packageName );
+            snapshots.invalidate( resource );
+            write( resource,
+                   model,
+                   metadata,
+                   comment );
+            return resource;
 
-            Metadata currentMetadata = metadataService.getMetadata( resource );
-            ioService.write( Paths.convert( resource ),
-                             GuidedDTXMLPersistence.getInstance().marshal( model ),
-                             metadataService.setUpAttributes( resource,
-                                                              metadata ),
-                             makeCommentedOption( comment ) );
+        } catch ( Exception e ) {
+            throw ExceptionUtilities.handleException( e );
+        }
+    }
 
-            fireMetadataSocialEvents( resource, currentMetadata, metadata );
-            return resource;
+    @Override
+    public long saveDelta( final Path resource,
+                           final GuidedDecisionTableDelta delta,
+                           final Metadata metadata,
+                           final String comment ) {
+        try {
+            snapshots.lock( resource );
+            try {
+                if ( delta.isModel() ) {
+                    //A whole table without a base version overwrites whatever version is stored, as chosen by the user
+                    if ( delta.getBaseVersion() >= 0 ) {
+                        GuidedDecisionTableSnapshots.checkVersion( resource,
+                                                                   delta.getBaseVersion(),
+                                                                   ioService.readAllString( Paths.convert( resource ) ) );
+                    }
+                    //Only tables saved from a delta of their rows are held; the next delta reads this one from storage
+                    snapshots.invalidate( resource );
+                    final String content = write( resource,
+                                                  delta.getModel(),
+                                                  metadata,
+                                                  comment );
+                    return GuidedDecisionTableSnapshots.getVersion( content );
+                }
+
+                //The table held is removed until the changes have been written, so a failure leaves it to be read again
+                final GuidedDecisionTable52 model = snapshots.checkout( resource,
+                                                                        delta.getBaseVersion(),
+                                                                        ioService.readAllString( Paths.convert( resource ) ) );
+                GuidedDecisionTableSnapshots.apply( model,
+                                                    delta );
+                final String content = write( resource,
+                                              model,
+                                              metadata,
+                                              comment );
+                return snapshots.register( resource,
+                                           model,
+                                           content );
+
+            } finally {
+                snapshots.unlock( resource );
+            }
 
         } catch ( Exception e ) {
             throw ExceptionUtilities.handleException( e );
         }
     }
 
+    //Returns the Decision Table as stored
+    private String write( final Path resource,
+                          final GuidedDecisionTable52 model,
+                          final Metadata metadata,
+                          final String comment ) {
+        final Package pkg = projectService.resolvePackage( resource );
+        final String packageName = ( pkg == null ? null : pkg.getPackageName() );
+        model.setPackageName( packageName );
+
+        Metadata currentMetadata = metadataService.getMetadata( resource );
+        final String content = GuidedDTXMLPersistence.getInstance().marshal( model );
+        ioService.write( Paths.convert( resource ),
+                         content,
+                         metadataService.setUpAttributes( resource,
+                                                          metadata ),
+                         makeCommentedOption( comment ) );
+
+        fireMetadataSocialEvents( resource, currentMetadata, metadata );
+        return content;
+    }
+
     @Override
     public void delete( final Path path,
                         final String comment ) {
         try {
+            snapshots.invalidate( path );
             deleteService.delete( path,
                                   comment );
 
@@ -236,6 +315,7 @@ public class GuidedDecisionTableEditorServiceImpl
                         final String newName,
                         final String comment ) {
         try {
+            snapshots.invalidate( path );
             return renameService.rename( path,
                                          newName,
                                          comment );
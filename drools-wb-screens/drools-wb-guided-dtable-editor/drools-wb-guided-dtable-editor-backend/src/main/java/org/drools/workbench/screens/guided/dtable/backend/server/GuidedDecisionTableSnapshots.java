@@ -0,0 +1,248 @@
+/*
+ * Copyright 2015 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.workbench.screens.guided.dtable.backend.server;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.google.common.base.Charsets;
+import org.drools.workbench.models.datamodel.auditlog.AuditLogEntry;
+import org.drools.workbench.models.guided.dtable.backend.GuidedDTXMLPersistence;
+import org.drools.workbench.models.guided.dtable.shared.model.DTCellValue52;
+import org.drools.workbench.models.guided.dtable.shared.model.GuidedDecisionTable52;
+import org.drools.workbench.screens.guided.dtable.model.GuidedDecisionTableDelta;
+import org.drools.workbench.screens.guided.dtable.model.GuidedDecisionTableRowSegment;
+import org.drools.workbench.screens.guided.dtable.service.GuidedDecisionTableStaleVersionException;
+import org.uberfire.backend.vfs.Path;
+
+/**
+ * The Decision Tables recently saved from a delta, against which the next {@link GuidedDecisionTableDelta} can be
+ * applied without reading them again. Opening a table only computes its version, so tables that are never saved from
+ * a delta are not held. The version of a Decision Table is a hash of its content as stored, so it does not depend upon
+ * what is held here: a table that is no longer held is read from storage, and a table written by other means (e.g.
+ * restored from its history or pushed to the repository) has another version. A table is checked out to save changes
+ * while its path is locked, so concurrent saves against the same version cannot both succeed; the losing caller
+ * receives a {@link GuidedDecisionTableStaleVersionException} and has to resolve the conflict.
+ */
+class GuidedDecisionTableSnapshots {
+
+    static final int DEFAULT_CAPACITY = 64;
+    static final long DEFAULT_LOCK_TIMEOUT = 30000;
+
+    private final Map<String, Snapshot> snapshots;
+    private final Set<String> lockedPaths = new HashSet<String>();
+    private final long lockTimeout;
+
+    GuidedDecisionTableSnapshots() {
+        this( DEFAULT_CAPACITY,
+              DEFAULT_LOCK_TIMEOUT );
+    }
+
+    GuidedDecisionTableSnapshots( final int capacity ) {
+        this( capacity,
+              DEFAULT_LOCK_TIMEOUT );
+    }
+
+    /**
+     * @param capacity Maximum number of Decision Tables held
+     * @param lockTimeout Maximum time, in milliseconds, to wait for another caller holding the lock of a Decision Table
+     */
+    GuidedDecisionTableSnapshots( final int capacity,
+                                  final long lockTimeout ) {
+        this.lockTimeout = lockTimeout;
+        this.snapshots = new LinkedHashMap<String, Snapshot>( 16,
+                                                              0.75f,
+                                                              true ) {
+            @Override
+            protected boolean removeEldestEntry( final Map.Entry<String, Snapshot> eldest ) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * The version of a Decision Table
+     * @param content The Decision Table as stored
+     * @return The version, which is never negative
+     */
+    static long getVersion( final String content ) {
+        try {
+            final byte[] digest = MessageDigest.getInstance( "SHA-1" ).digest( content.getBytes( Charsets.UTF_8 ) );
+            long version = 0;
+            for ( int i = 0; i < 8; i++ ) {
+                version = ( version << 8 ) | ( digest[ i ] & 0xff );
+            }
+            return version & Long.MAX_VALUE;
+        } catch ( NoSuchAlgorithmException e ) {
+            throw new IllegalStateException( e );
+        }
+    }
+
+    /**
+     * Hold a Decision Table that has been saved from a delta. The model must not be changed by the caller afterwards.
+     * @param path Path to the Decision Table
+     * @param model The Decision Table
+     * @param content The Decision Table as stored
+     * @return The version
+     */
+    synchronized long register( final Path path,
+                                final GuidedDecisionTable52 model,
+                                final String content ) {
+        final long version = getVersion( content );
+        snapshots.put( path.toURI(),
+                       new Snapshot( version,
+                                     model ) );
+        return version;
+    }
+
+    /**
+     * Discard the Decision Table held, e.g. when it has been written by other means
+     * @param path Path to the Decision Table
+     */
+    synchronized void invalidate( final Path path ) {
+        snapshots.remove( path.toURI() );
+    }
+
+    /**
+     * Lock a Decision Table, waiting for any other caller holding the lock to release it. The table has to be read,
+     * checked out and written while it is locked.
+     * @param path Path to the Decision Table
+     * @throws GuidedDecisionTableStaleVersionException If the lock is not released in time; the other caller is
+     * saving the same Decision Table, so the version expected by this caller is unlikely to remain the version stored
+     */
+    synchronized void lock( final Path path ) throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + lockTimeout;
+        while ( lockedPaths.contains( path.toURI() ) ) {
+            final long remaining = deadline - System.currentTimeMillis();
+            if ( remaining <= 0 ) {
+                throw new GuidedDecisionTableStaleVersionException( "Timed out waiting for another save of '" + path.toURI() + "'." );
+            }
+            wait( remaining );
+        }
+        lockedPaths.add( path.toURI() );
+    }
+
+    /**
+     * Release a Decision Table locked by {@link #lock(Path)}
+     * @param path Path to the Decision Table
+     */
+    synchronized void unlock( final Path path ) {
+        lockedPaths.remove( path.toURI() );
+        notifyAll();
+    }
+
+    /**
+     * Remove the Decision Table held, against which a delta is to be applied. If it is not held it is read from the
+     * stored content.
+     * @param path Path to the Decision Table
+     * @param version Version expected by the delta
+     * @param content The Decision Table as currently stored
+     * @return The Decision Table
+     * @throws GuidedDecisionTableStaleVersionException If the stored Decision Table is not the expected version
+     */
+    synchronized GuidedDecisionTable52 checkout( final Path path,
+                                                 final long version,
+                                                 final String content ) {
+        checkVersion( path,
+                      version,
+                      content );
+        final Snapshot snapshot = snapshots.remove( path.toURI() );
+        if ( snapshot != null && snapshot.version == version ) {
+            return snapshot.model;
+        }
+        return GuidedDTXMLPersistence.getInstance().unmarshal( content );
+    }
+
+    /**
+     * Check the version of a stored Decision Table
+     * @param path Path to the Decision Table
+     * @param version Version expected
+     * @param content The Decision Table as currently stored
+     * @throws GuidedDecisionTableStaleVersionException If the stored Decision Table is not the expected version
+     */
+    static void checkVersion( final Path path,
+                              final long version,
+                              final String content ) {
+        if ( getVersion( content ) != version ) {
+            throw new GuidedDecisionTableStaleVersionException( "Version " + version + " of '" + path.toURI() + "' is not the version stored." );
+        }
+    }
+
+    /**
+     * Apply changes to the rows of a Decision Table. The delta is validated before the model is changed: rows copied
+     * from the base version have to be in ascending order, without overlaps, and within the base version's rows.
+     * @param model The base version of the Decision Table
+     * @param delta Changes to the rows
+     * @throws GuidedDecisionTableStaleVersionException If the delta does not fit the base version
+     */
+    static void apply( final GuidedDecisionTable52 model,
+                       final GuidedDecisionTableDelta delta ) {
+        final List<List<DTCellValue52>> data = model.getData();
+        if ( delta.getBaseRowCount() != data.size() ) {
+            throw new GuidedDecisionTableStaleVersionException( "Expected " + delta.getBaseRowCount() + " rows but found " + data.size() + "." );
+        }
+        final int columnCount = model.getExpandedColumns().size();
+        final List<List<DTCellValue52>> rows = new ArrayList<List<DTCellValue52>>();
+        int nextBaseRowIndex = 0;
+        for ( GuidedDecisionTableRowSegment segment : delta.getSegments() ) {
+            if ( segment.isCopy() ) {
+                //Copies have to be in order and must not overlap, so that no row of the base version is duplicated
+                final int fromIndex = segment.getBaseRowIndex();
+                final int rowCount = segment.getRowCount();
+                if ( fromIndex < nextBaseRowIndex || rowCount < 0 || rowCount > data.size() - fromIndex ) {
+                    throw new GuidedDecisionTableStaleVersionException( "Cannot copy " + rowCount + " rows from row " + fromIndex + " of " + data.size() + " after row " + nextBaseRowIndex + "." );
+                }
+                nextBaseRowIndex = fromIndex + rowCount;
+                rows.addAll( data.subList( fromIndex,
+                                           nextBaseRowIndex ) );
+            } else {
+                for ( List<DTCellValue52> row : segment.getRows() ) {
+                    if ( row.size() != columnCount ) {
+                        throw new GuidedDecisionTableStaleVersionException( "Expected " + columnCount + " columns but found " + row.size() + "." );
+                    }
+                    rows.add( row );
+                }
+            }
+        }
+
+        data.clear();
+        data.addAll( rows );
+        for ( AuditLogEntry entry : delta.getAuditLogEntries() ) {
+            model.getAuditLog().add( entry );
+        }
+    }
+
+    private static class Snapshot {
+
+        private final long version;
+        private final GuidedDecisionTable52 model;
+
+        private Snapshot( final long version,
+                          final GuidedDecisionTable52 model ) {
+            this.version = version;
+            this.model = model;
+        }
+
+    }
+
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright 2015 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.workbench.screens.guided.dtable.backend.server.analysis;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.drools.workbench.models.datamodel.oracle.PackageDataModelOracle;
+import org.drools.workbench.models.guided.dtable.shared.model.Analysis;
+import org.drools.workbench.models.guided.dtable.shared.model.GuidedDecisionTable52;
+import org.drools.workbench.screens.guided.dtable.analysis.DecisionTableAnalyzer;
+import org.drools.workbench.screens.guided.dtable.model.GuidedDecisionTableAnalysisPage;
+
+/**
+ * The analysis of a single Decision Table. Rows are indexed on construction; the task returned by
+ * {@link #makeTask()} then analyses blocks of rows in parallel, publishing the result of each row
+ * as soon as it is available.
+ */
+class GuidedDecisionTableAnalysisJob {
+
+    //Rows analysed by a single task; large enough to outweigh the cost of forking
+    static final int ROW_BLOCK_SIZE = 64;
+
+    private final DecisionTableAnalyzer analyzer;
+    private final AtomicReferenceArray<Analysis> results;
+    private final AtomicInteger analysedRows = new AtomicInteger();
+    private volatile boolean cancelled = false;
+    private volatile long lastAccessed;
+
+    GuidedDecisionTableAnalysisJob( final GuidedDecisionTable52 model,
+                                    final PackageDataModelOracle oracle ) {
+        this.analyzer = new DecisionTableAnalyzer( new PackageDataModelOracleColumnUtilities( model,
+                                                                                              oracle ) );
+        this.analyzer.index( model );
+        this.results = new AtomicReferenceArray<Analysis>( analyzer.getRowCount() );
+    }
+
+    /**
+     * Record that the analysis has been used, so that it is not discarded as abandoned
+     * @param now The current time in milliseconds
+     */
+    void touch( final long now ) {
+        lastAccessed = now;
+    }
+
+    long getLastAccessed() {
+        return lastAccessed;
+    }
+
+    ForkJoinTask<Void> makeTask() {
+        return new AnalyzeRowsTask( 0,
+                                    results.length() );
+    }
+
+    int getRowCount() {
+        return results.length();
+    }
+
+    boolean isComplete() {
+        return analysedRows.get() == results.length();
+    }
+
+    void cancel() {
+        cancelled = true;
+    }
+
+    GuidedDecisionTableAnalysisPage getPage( final int firstRow,
+                                             final int pageSize ) {
+        final List<Analysis> analysisData = new ArrayList<Analysis>();
+        final int lastRow = Math.min( firstRow + pageSize,
+                                      results.length() );
+        for ( int iRow = firstRow; iRow < lastRow; iRow++ ) {
+            final Analysis analysis = results.get( iRow );
+            if ( analysis == null ) {
+                break;
+            }
+            analysisData.add( analysis );
+        }
+        return new GuidedDecisionTableAnalysisPage( firstRow,
+                                                    results.length(),
+                                                    isComplete(),
+                                                    analysisData );
+    }
+
+    List<Analysis> getAnalysisData() {
+        final List<Analysis> analysisData = new ArrayList<Analysis>( results.length() );
+        for ( int iRow = 0; iRow < results.length(); iRow++ ) {
+            analysisData.add( results.get( iRow ) );
+        }
+        return analysisData;
+    }
+
+    private class AnalyzeRowsTask extends RecursiveAction {
+
+        private final int fromRow;
+        private final int toRow;
+
+        private AnalyzeRowsTask( final int fromRow,
+                                 final int toRow ) {
+            this.fromRow = fromRow;
+            this.toRow = toRow;
+        }
+
+        @Override
+        protected void compute() {
+            if ( cancelled ) {
+                return;
+            }
+            if ( toRow - fromRow > ROW_BLOCK_SIZE ) {
+                final int midRow = ( fromRow + toRow ) >>> 1;
+                invokeAll( new AnalyzeRowsTask( fromRow,
+                                                midRow ),
+                           new AnalyzeRowsTask( midRow,
+                                                toRow ) );
+                return;
+            }
+            for ( int iRow = fromRow; iRow < toRow && !cancelled; iRow++ ) {
+                results.set( iRow,
+                             analyzer.analyzeRow( iRow ) );
+                analysedRows.incrementAndGet();
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,179 @@
+/*
+ * Copyright 2015 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.workbench.screens.guided.dtable.backend.server.analysis;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.PreDestroy;
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+import javax.inject.Named;
+
+import org.drools.workbench.models.datamodel.oracle.PackageDataModelOracle;
+import org.drools.workbench.models.guided.dtable.backend.GuidedDTXMLPersistence;
+import org.drools.workbench.models.guided.dtable.shared.model.Analysis;
+import org.drools.workbench.models.guided.dtable.shared.model.GuidedDecisionTable52;
+import org.drools.workbench.screens.guided.dtable.model.GuidedDecisionTableAnalysisPage;
+import org.drools.workbench.screens.guided.dtable.service.GuidedDecisionTableAnalysisService;
+import org.guvnor.common.services.backend.exceptions.ExceptionUtilities;
+import org.jboss.errai.bus.server.annotations.Service;
+import org.kie.workbench.common.services.datamodel.backend.server.service.DataModelService;
+import org.uberfire.backend.server.util.Paths;
+import org.uberfire.backend.vfs.Path;
+import org.uberfire.io.IOService;
+
+@Service
+@ApplicationScoped
+public class GuidedDecisionTableAnalysisServiceImpl implements GuidedDecisionTableAnalysisService {
+
+    //Analyses not retrieved for this long are assumed to have been abandoned and are discarded
+    static final long JOB_TIMEOUT_MILLIS = TimeUnit.MINUTES.toMillis( 10 );
+
+    //Maximum analyses held; the least recently retrieved is discarded to make room for a new analysis
+    static final int MAX_JOBS = 32;
+
+    //Analyses in progress, or complete but whose final page has not been retrieved
+    final Map<String, GuidedDecisionTableAnalysisJob> jobs = new ConcurrentHashMap<String, GuidedDecisionTableAnalysisJob>();
+
+    private final ForkJoinPool pool = new ForkJoinPool();
+
+    @Inject
+    @Named("ioStrategy")
+    private IOService ioService;
+
+    @Inject
+    private DataModelService dataModelService;
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    @Override
+    public String startAnalysis( final Path path ) {
+        try {
+            final GuidedDecisionTableAnalysisJob job = makeJob( path );
+            final String analysisId = addJob( job,
+                                              System.currentTimeMillis() );
+            pool.execute( job.makeTask() );
+            return analysisId;
+
+        } catch ( Exception e ) {
+            throw ExceptionUtilities.handleException( e );
+        }
+    }
+
+    @Override
+    public GuidedDecisionTableAnalysisPage getAnalysis( final String analysisId,
+                                                        final int firstRow,
+                                                        final int pageSize ) {
+        try {
+            final long now = System.currentTimeMillis();
+            evictJobs( now );
+            final GuidedDecisionTableAnalysisJob job = jobs.get( analysisId );
+            if ( job == null ) {
+                throw new IllegalArgumentException( "Analysis '" + analysisId + "' does not exist." );
+            }
+            job.touch( now );
+            final GuidedDecisionTableAnalysisPage page = job.getPage( firstRow,
+                                                                      pageSize );
+            if ( page.isComplete() && firstRow + page.getAnalysisData().size() >= page.getTotalRows() ) {
+                jobs.remove( analysisId );
+            }
+            return page;
+
+        } catch ( Exception e ) {
+            throw ExceptionUtilities.handleException( e );
+        }
+    }
+
+    @Override
+    public void cancelAnalysis( final String analysisId ) {
+        final GuidedDecisionTableAnalysisJob job = jobs.remove( analysisId );
+        if ( job != null ) {
+            job.cancel();
+        }
+    }
+
+    @Override
+    public List<Analysis> analyze( final Path path ) {
+        try {
+            final GuidedDecisionTableAnalysisJob job = makeJob( path );
+            pool.invoke( job.makeTask() );
+            return job.getAnalysisData();
+
+        } catch ( Exception e ) {
+            throw ExceptionUtilities.handleException( e );
+        }
+    }
+
+    String addJob( final GuidedDecisionTableAnalysisJob job,
+                   final long now ) {
+        evictJobs( now );
+        while ( jobs.size() >= MAX_JOBS ) {
+            evictLeastRecentlyAccessedJob();
+        }
+        final String analysisId = UUID.randomUUID().toString();
+        job.touch( now );
+        jobs.put( analysisId,
+                  job );
+        return analysisId;
+    }
+
+    void evictJobs( final long now ) {
+        for ( Map.Entry<String, GuidedDecisionTableAnalysisJob> e : jobs.entrySet() ) {
+            if ( now - e.getValue().getLastAccessed() > JOB_TIMEOUT_MILLIS ) {
+                evictJob( e.getKey(),
+                          e.getValue() );
+            }
+        }
+    }
+
+    private void evictLeastRecentlyAccessedJob() {
+        Map.Entry<String, GuidedDecisionTableAnalysisJob> eldest = null;
+        for ( Map.Entry<String, GuidedDecisionTableAnalysisJob> e : jobs.entrySet() ) {
+            if ( eldest == null || e.getValue().getLastAccessed() < eldest.getValue().getLastAccessed() ) {
+                eldest = e;
+            }
+        }
+        if ( eldest != null ) {
+            evictJob( eldest.getKey(),
+                      eldest.getValue() );
+        }
+    }
+
+    private void evictJob( final String analysisId,
+                           final GuidedDecisionTableAnalysisJob job ) {
+        if ( jobs.remove( analysisId,
+                          job ) ) {
+            job.cancel();
+        }
+    }
+
+    private GuidedDecisionTableAnalysisJob makeJob( final Path path ) {
+        final String content = ioService.readAllString( Paths.convert( path ) );
+        final GuidedDecisionTable52 model = GuidedDTXMLPersistence.getInstance().unmarshal( content );
+        final PackageDataModelOracle oracle = dataModelService.getDataModel( path );
+        return new GuidedDecisionTableAnalysisJob( model,
+                                                   oracle );
+    }
+
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright 2015 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.workbench.screens.guided.dtable.backend.server.analysis;
+
+import org.drools.workbench.models.datamodel.oracle.DataType;
+import org.drools.workbench.models.datamodel.oracle.ModelField;
+import org.drools.workbench.models.datamodel.oracle.OperatorsOracle;
+import org.drools.workbench.models.datamodel.oracle.PackageDataModelOracle;
+import org.drools.workbench.models.datamodel.rule.BaseSingleFieldConstraint;
+import org.drools.workbench.models.guided.dtable.shared.model.BRLConditionVariableColumn;
+import org.drools.workbench.models.guided.dtable.shared.model.BaseColumn;
+import org.drools.workbench.models.guided.dtable.shared.model.ConditionCol52;
+import org.drools.workbench.models.guided.dtable.shared.model.GuidedDecisionTable52;
+import org.drools.workbench.models.guided.dtable.shared.model.Pattern52;
+import org.drools.workbench.screens.guided.dtable.analysis.ColumnUtilities;
+import org.drools.workbench.screens.guided.rule.backend.server.indexing.IndexTypeResolver;
+import org.uberfire.commons.validation.PortablePreconditions;
+
+/**
+ * Resolves the column information needed to analyse a Decision Table from the server-side PackageDataModelOracle.
+ * Types of condition columns are resolved following the same rules as the editor's GuidedDecisionTableUtils;
+ * simple type names are resolved against the Decision Table's imports by the indexers' {@link IndexTypeResolver}.
+ */
+public class PackageDataModelOracleColumnUtilities implements ColumnUtilities {
+
+    private final GuidedDecisionTable52 model;
+    private final PackageDataModelOracle oracle;
+    private final IndexTypeResolver typeResolver;
+
+    public PackageDataModelOracleColumnUtilities( final GuidedDecisionTable52 model,
+                                                  final PackageDataModelOracle oracle ) {
+        this.model = PortablePreconditions.checkNotNull( "model",
+                                                         model );
+        this.oracle = PortablePreconditions.checkNotNull( "oracle",
+                                                          oracle );
+        this.typeResolver = new IndexTypeResolver( model.getImports(),
+                                                   model.getPackageName() );
+    }
+
+    @Override
+    public String getType( final BaseColumn col ) {
+        if ( col instanceof BRLConditionVariableColumn ) {
+            return getType( (BRLConditionVariableColumn) col );
+        } else if ( col instanceof ConditionCol52 ) {
+            return getType( (ConditionCol52) col );
+        }
+        return DataType.TYPE_STRING;
+    }
+
+    private String getType( final ConditionCol52 col ) {
+
+        // Columns with "Value Lists" etc are always Text (for now)
+        if ( getValueList( col ).length > 0 ) {
+            return DataType.TYPE_STRING;
+        }
+
+        // Operator "in" and "not in" requires a List as the value. These are always Text (for now)
+        if ( OperatorsOracle.operatorRequiresList( col.getOperator() ) ) {
+            return DataType.TYPE_STRING;
+        }
+
+        //Literals without operators are always Text (as the user can specify the operator "in cell")
+        if ( col.getConstraintValueType() == BaseSingleFieldConstraint.TYPE_LITERAL ) {
+            if ( col.getOperator() == null || "".equals( col.getOperator() ) ) {
+                return DataType.TYPE_STRING;
+            }
+        }
+
+        //Formula and Predicates are always Text (as the user can specify anything "in cell")
+        if ( col.getConstraintValueType() == BaseSingleFieldConstraint.TYPE_PREDICATE
+                || col.getConstraintValueType() == BaseSingleFieldConstraint.TYPE_RET_VALUE ) {
+            return DataType.TYPE_STRING;
+        }
+
+        final Pattern52 pattern = model.getPattern( col );
+        return getTypeFromDataOracle( pattern.getFactType(),
+                                      col.getFactField() );
+    }
+
+    private String getType( final BRLConditionVariableColumn col ) {
+        if ( col.getFactType() == null && col.getFactField() == null ) {
+            return col.getFieldType();
+        }
+        return getTypeFromDataOracle( col.getFactType(),
+                                      col.getFactField() );
+    }
+
+    @Override
+    public String[] getValueList( final BaseColumn col ) {
+        if ( col instanceof ConditionCol52 ) {
+            final String valueList = ( (ConditionCol52) col ).getValueList();
+            if ( valueList != null && !"".equals( valueList ) ) {
+                return valueList.split( "," );
+            }
+        }
+        return new String[ 0 ];
+    }
+
+    private String getTypeFromDataOracle( final String factType,
+                                          final String fieldName ) {
+        if ( factType == null ) {
+            return null;
+        }
+        final ModelField[] modelFields = oracle.getProjectModelFields().get( typeResolver.getFullyQualifiedClassName( factType ) );
+        if ( modelFields == null ) {
+            return null;
+        }
+        for ( ModelField modelField : modelFields ) {
+            if ( modelField.getName().equals( fieldName ) ) {
+                return modelField.getType();
+            }
+        }
+        return null;
+    }
+
+}
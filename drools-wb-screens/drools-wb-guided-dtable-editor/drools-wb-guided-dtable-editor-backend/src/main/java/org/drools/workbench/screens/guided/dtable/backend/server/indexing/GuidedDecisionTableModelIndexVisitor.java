@@ -19,7 +19,6 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
-import org.drools.workbench.models.datamodel.imports.Import;
 import org.drools.workbench.models.datamodel.rule.IAction;
 import org.drools.workbench.models.datamodel.rule.IPattern;
 import org.drools.workbench.models.datamodel.rule.RuleModel;
@@ -35,6 +34,8 @@ import org.drools.workbench.models.guided.dtable.shared.model.ConditionCol52;
 import org.drools.workbench.models.guided.dtable.shared.model.DTCellValue52;
 import org.drools.workbench.models.guided.dtable.shared.model.GuidedDecisionTable52;
 import org.drools.workbench.models.guided.dtable.shared.model.Pattern52;
+import org.drools.workbench.screens.guided.dtable.model.ExpandedColumnIndexMap;
+import org.drools.workbench.screens.guided.rule.backend.server.indexing.IndexTypeResolver;
 import org.kie.workbench.common.services.refactoring.backend.server.indexing.DefaultIndexBuilder;
 import org.kie.workbench.common.services.refactoring.model.index.Rule;
 import org.kie.workbench.common.services.refactoring.model.index.RuleAttribute;
@@ -55,6 +56,8 @@ public class GuidedDecisionTableModelIndexVisitor {
 
     private final DefaultIndexBuilder builder;
     private final GuidedDecisionTable52 model;
+    private final IndexTypeResolver typeResolver;
+    private final ExpandedColumnIndexMap columnIndexes;
     private final Set<Pair<String, String>> results = new HashSet<Pair<String, String>>();
 
     public GuidedDecisionTableModelIndexVisitor( final DefaultIndexBuilder builder,
@@ -63,6 +66,9 @@ public class GuidedDecisionTableModelIndexVisitor {
                                                            builder );
         this.model = PortablePreconditions.checkNotNull( "model",
                                                          model );
+        this.columnIndexes = new ExpandedColumnIndexMap( model );
+        this.typeResolver = new IndexTypeResolver( model.getImports(),
+                                                   model.getPackageName() );
     }
 
     public Set<Pair<String, String>> visit() {
@@ -114,7 +120,7 @@ public class GuidedDecisionTableModelIndexVisitor {
     }
 
     private void visit( final AttributeCol52 o ) {
-        final int iCol = model.getExpandedColumns().indexOf( o );
+        final int iCol = columnIndexes.indexOf( o );
         for ( List<DTCellValue52> row : model.getData() ) {
             final String attributeValue = row.get( iCol ).getStringValue();
             if ( !( attributeValue == null || attributeValue.isEmpty() ) ) {
@@ -125,7 +131,7 @@ public class GuidedDecisionTableModelIndexVisitor {
     }
 
     private void visit( final Pattern52 o ) {
-        builder.addGenerator( new Type( new ValueTypeIndexTerm( getFullyQualifiedClassName( o.getFactType() ) ) ) );
+        builder.addGenerator( new Type( new ValueTypeIndexTerm( typeResolver.getFullyQualifiedClassName( o.getFactType() ) ) ) );
         for ( ConditionCol52 c : o.getChildColumns() ) {
             visit( c );
         }
@@ -144,9 +150,9 @@ public class GuidedDecisionTableModelIndexVisitor {
 
     private void visit( final ConditionCol52 o ) {
         final Pattern52 p = model.getPattern( o );
-        final String fullyQualifiedClassName = getFullyQualifiedClassName( p.getFactType() );
+        final String fullyQualifiedClassName = typeResolver.getFullyQualifiedClassName( p.getFactType() );
         builder.addGenerator( new TypeField( new ValueFieldIndexTerm( o.getFactField() ),
-                                             new ValueTypeIndexTerm( getFullyQualifiedClassName( o.getFieldType() ) ),
+                                             new ValueTypeIndexTerm( typeResolver.getFullyQualifiedClassName( o.getFieldType() ) ),
                                              new ValueTypeIndexTerm( fullyQualifiedClassName ) ) );
     }
 
@@ -162,33 +168,19 @@ public class GuidedDecisionTableModelIndexVisitor {
     }
 
     private void visit( final ActionInsertFactCol52 o ) {
-        final String fullyQualifiedClassName = getFullyQualifiedClassName( o.getFactType() );
+        final String fullyQualifiedClassName = typeResolver.getFullyQualifiedClassName( o.getFactType() );
         builder.addGenerator( new Type( new ValueTypeIndexTerm( fullyQualifiedClassName ) ) );
         builder.addGenerator( new TypeField( new ValueFieldIndexTerm( o.getFactField() ),
-                                             new ValueTypeIndexTerm( getFullyQualifiedClassName( o.getType() ) ),
+                                             new ValueTypeIndexTerm( typeResolver.getFullyQualifiedClassName( o.getType() ) ),
                                              new ValueTypeIndexTerm( fullyQualifiedClassName ) ) );
     }
 
     private void visit( final ActionSetFieldCol52 o ) {
         final Pattern52 p = model.getConditionPattern( o.getBoundName() );
-        final String fullyQualifiedClassName = getFullyQualifiedClassName( p.getFactType() );
+        final String fullyQualifiedClassName = typeResolver.getFullyQualifiedClassName( p.getFactType() );
         builder.addGenerator( new TypeField( new ValueFieldIndexTerm( o.getFactField() ),
-                                             new ValueTypeIndexTerm( getFullyQualifiedClassName( o.getType() ) ),
+                                             new ValueTypeIndexTerm( typeResolver.getFullyQualifiedClassName( o.getType() ) ),
                                              new ValueTypeIndexTerm( fullyQualifiedClassName ) ) );
     }
 
-    private String getFullyQualifiedClassName( final String typeName ) {
-        if ( typeName.contains( "." ) ) {
-            return typeName;
-        }
-
-        for ( Import i : model.getImports().getImports() ) {
-            if ( i.getType().endsWith( typeName ) ) {
-                return i.getType();
-            }
-        }
-        final String packageName = model.getPackageName();
-        return ( !( packageName == null || packageName.isEmpty() ) ? packageName + "." + typeName : typeName );
-    }
-
 }
@@ -17,7 +17,6 @@ package org.drools.workbench.screens.guided.dtable.backend.server.indexing;
 
 import java.util.Set;
 
-import org.drools.workbench.models.datamodel.imports.Import;
 import org.drools.workbench.models.datamodel.rule.ActionFieldValue;
 import org.drools.workbench.models.datamodel.rule.ActionInsertFact;
 import org.drools.workbench.models.datamodel.rule.ActionSetField;
@@ -38,6 +37,7 @@ import org.drools.workbench.models.datamodel.rule.RuleAttribute;
 import org.drools.workbench.models.datamodel.rule.RuleModel;
 import org.drools.workbench.models.datamodel.rule.SingleFieldConstraint;
 import org.drools.workbench.models.datamodel.rule.SingleFieldConstraintEBLeftSide;
+import org.drools.workbench.screens.guided.rule.backend.server.indexing.IndexTypeResolver;
 import org.kie.workbench.common.services.refactoring.backend.server.indexing.DefaultIndexBuilder;
 import org.kie.workbench.common.services.refactoring.model.index.Type;
 import org.kie.workbench.common.services.refactoring.model.index.TypeField;
@@ -55,6 +55,7 @@ public class GuidedRuleModelIndexVisitor {
 
     private final DefaultIndexBuilder builder;
     private final RuleModel model;
+    private final IndexTypeResolver typeResolver;
 
     public GuidedRuleModelIndexVisitor( final DefaultIndexBuilder builder,
                                         final RuleModel model ) {
@@ -62,6 +63,8 @@ public class GuidedRuleModelIndexVisitor {
                                                            builder );
         this.model = PortablePreconditions.checkNotNull( "model",
                                                          model );
+        this.typeResolver = new IndexTypeResolver( model.getImports(),
+                                                   model.getPackageName() );
     }
 
     public Set<Pair<String, String>> visit() {
@@ -108,7 +111,7 @@ public class GuidedRuleModelIndexVisitor {
 
     //ActionInsertFact, ActionSetField, ActionUpdateField
     private void visitActionFieldList( final ActionInsertFact afl ) {
-        builder.addGenerator( new Type( new ValueTypeIndexTerm( getFullyQualifiedClassName( afl.getFactType() ) ) ) );
+        builder.addGenerator( new Type( new ValueTypeIndexTerm( typeResolver.getFullyQualifiedClassName( afl.getFactType() ) ) ) );
     }
 
     private void visitActionFieldList( final String fullyQualifiedClassName,
@@ -120,7 +123,7 @@ public class GuidedRuleModelIndexVisitor {
     }
 
     private void visitCompositeFactPattern( final CompositeFactPattern pattern ) {
-        builder.addGenerator( new Type( new ValueTypeIndexTerm( getFullyQualifiedClassName( pattern.getType() ) ) ) );
+        builder.addGenerator( new Type( new ValueTypeIndexTerm( typeResolver.getFullyQualifiedClassName( pattern.getType() ) ) ) );
         if ( pattern.getPatterns() != null ) {
             for ( IFactPattern fp : pattern.getPatterns() ) {
                 visit( fp );
@@ -142,7 +145,7 @@ public class GuidedRuleModelIndexVisitor {
     }
 
     private void visitFactPattern( final FactPattern pattern ) {
-        builder.addGenerator( new Type( new ValueTypeIndexTerm( getFullyQualifiedClassName( pattern.getFactType() ) ) ) );
+        builder.addGenerator( new Type( new ValueTypeIndexTerm( typeResolver.getFullyQualifiedClassName( pattern.getFactType() ) ) ) );
         for ( FieldConstraint fc : pattern.getFieldConstraints() ) {
             visit( fc );
         }
@@ -189,7 +192,7 @@ public class GuidedRuleModelIndexVisitor {
                     final ActionSetField asf = (ActionSetField) action;
                     final String typeName = getTypeNameForBinding( asf.getVariable() );
                     if ( typeName != null ) {
-                        final String fullyQualifiedClassName = getFullyQualifiedClassName( typeName );
+                        final String fullyQualifiedClassName = typeResolver.getFullyQualifiedClassName( typeName );
                         visitActionFieldList( fullyQualifiedClassName,
                                               asf );
                     }
@@ -211,8 +214,8 @@ public class GuidedRuleModelIndexVisitor {
 
     private void visitSingleFieldConstraint( final SingleFieldConstraint sfc ) {
         builder.addGenerator( new TypeField( new ValueFieldIndexTerm( sfc.getFieldName() ),
-                                             new ValueTypeIndexTerm( getFullyQualifiedClassName( sfc.getFieldType() ) ),
-                                             new ValueTypeIndexTerm( getFullyQualifiedClassName( sfc.getFactType() ) ) ) );
+                                             new ValueTypeIndexTerm( typeResolver.getFullyQualifiedClassName( sfc.getFieldType() ) ),
+                                             new ValueTypeIndexTerm( typeResolver.getFullyQualifiedClassName( sfc.getFactType() ) ) ) );
         if ( sfc.getConnectives() != null ) {
             for ( int i = 0; i < sfc.getConnectives().length; i++ ) {
                 visit( sfc.getConnectives()[ i ] );
@@ -222,8 +225,8 @@ public class GuidedRuleModelIndexVisitor {
 
     private void visitConnectiveConstraint( final ConnectiveConstraint cc ) {
         builder.addGenerator( new TypeField( new ValueFieldIndexTerm( cc.getFieldName() ),
-                                             new ValueTypeIndexTerm( getFullyQualifiedClassName( cc.getFieldType() ) ),
-                                             new ValueTypeIndexTerm( getFullyQualifiedClassName( cc.getFactType() ) ) ) );
+                                             new ValueTypeIndexTerm( typeResolver.getFullyQualifiedClassName( cc.getFieldType() ) ),
+                                             new ValueTypeIndexTerm( typeResolver.getFullyQualifiedClassName( cc.getFactType() ) ) ) );
     }
 
     private void visitSingleFieldConstraint( final SingleFieldConstraintEBLeftSide sfexp ) {
@@ -239,22 +242,8 @@ public class GuidedRuleModelIndexVisitor {
     private void visit( final String fullyQualifiedClassName,
                         final ActionFieldValue afv ) {
         builder.addGenerator( new TypeField( new ValueFieldIndexTerm( afv.getField() ),
-                                             new ValueTypeIndexTerm( getFullyQualifiedClassName( afv.getType() ) ),
+                                             new ValueTypeIndexTerm( typeResolver.getFullyQualifiedClassName( afv.getType() ) ),
                                              new ValueTypeIndexTerm( fullyQualifiedClassName ) ) );
     }
 
-    private String getFullyQualifiedClassName( final String typeName ) {
-        if ( typeName.contains( "." ) ) {
-            return typeName;
-        }
-
-        for ( Import i : model.getImports().getImports() ) {
-            if ( i.getType().endsWith( typeName ) ) {
-                return i.getType();
-            }
-        }
-        final String packageName = model.getPackageName();
-        return ( !( packageName == null || packageName.isEmpty() ) ? packageName + "." + typeName : typeName );
-    }
-
 }
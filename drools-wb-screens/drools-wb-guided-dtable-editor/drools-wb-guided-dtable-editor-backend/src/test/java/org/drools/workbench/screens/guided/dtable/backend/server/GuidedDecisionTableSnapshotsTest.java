@@ -0,0 +1,288 @@
+/*
+ * Copyright 2015 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.workbench.screens.guided.dtable.backend.server;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.drools.workbench.models.datamodel.auditlog.AuditLogEntry;
+import org.drools.workbench.models.guided.dtable.backend.GuidedDTXMLPersistence;
+import org.drools.workbench.models.guided.dtable.shared.model.DTCellValue52;
+import org.drools.workbench.models.guided.dtable.shared.model.GuidedDecisionTable52;
+import org.drools.workbench.screens.guided.dtable.model.GuidedDecisionTableDelta;
+import org.drools.workbench.screens.guided.dtable.model.GuidedDecisionTableRowSegment;
+import org.drools.workbench.screens.guided.dtable.service.GuidedDecisionTableStaleVersionException;
+import org.junit.Before;
+import org.junit.Test;
+import org.uberfire.backend.vfs.Path;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class GuidedDecisionTableSnapshotsTest {
+
+    private Path path;
+    private GuidedDecisionTable52 model;
+
+    @Before
+    public void setup() {
+        path = mock( Path.class );
+        when( path.toURI() ).thenReturn( "default://master@repo/project/src/main/resources/org/test/table.gdst" );
+
+        model = new GuidedDecisionTable52();
+        for ( int iRow = 0; iRow < 3; iRow++ ) {
+            model.getData().add( makeRow( iRow ) );
+        }
+    }
+
+    @Test
+    public void testDeltaIsApplied() {
+        final List<DTCellValue52> row0 = model.getData().get( 0 );
+        final List<DTCellValue52> row2 = model.getData().get( 2 );
+        final List<DTCellValue52> insertedRow = makeRow( 3 );
+        final GuidedDecisionTableDelta delta = GuidedDecisionTableDelta.rows( 1,
+                                                                              3,
+                                                                              Arrays.asList( GuidedDecisionTableRowSegment.copy( 0,
+                                                                                                                                 1 ),
+                                                                                             GuidedDecisionTableRowSegment.rows( Collections.singletonList( insertedRow ) ),
+                                                                                             GuidedDecisionTableRowSegment.copy( 2,
+                                                                                                                                 1 ) ),
+                                                                              Collections.<AuditLogEntry>emptyList() );
+
+        GuidedDecisionTableSnapshots.apply( model,
+                                            delta );
+
+        assertEquals( Arrays.asList( row0,
+                                     insertedRow,
+                                     row2 ),
+                      model.getData() );
+    }
+
+    @Test
+    public void testInvalidCopiesAreRejected() {
+        //Out of order, overlapping, repeated and out of range
+        assertCopiesRejected( GuidedDecisionTableRowSegment.copy( 2,
+                                                                  1 ),
+                              GuidedDecisionTableRowSegment.copy( 0,
+                                                                  1 ) );
+        assertCopiesRejected( GuidedDecisionTableRowSegment.copy( 0,
+                                                                  2 ),
+                              GuidedDecisionTableRowSegment.copy( 1,
+                                                                  2 ) );
+        assertCopiesRejected( GuidedDecisionTableRowSegment.copy( 0,
+                                                                  1 ),
+                              GuidedDecisionTableRowSegment.copy( 0,
+                                                                  1 ) );
+        assertCopiesRejected( GuidedDecisionTableRowSegment.copy( 1,
+                                                                  3 ) );
+        assertCopiesRejected( GuidedDecisionTableRowSegment.copy( -1,
+                                                                  1 ) );
+    }
+
+    @Test
+    public void testDeltaForWrongColumnsIsRejected() {
+        final List<List<DTCellValue52>> data = new ArrayList<List<DTCellValue52>>( model.getData() );
+        final List<DTCellValue52> insertedRow = makeRow( 3 );
+        insertedRow.add( new DTCellValue52( "extra" ) );
+        final GuidedDecisionTableDelta delta = GuidedDecisionTableDelta.rows( 1,
+                                                                              3,
+                                                                              Arrays.asList( GuidedDecisionTableRowSegment.copy( 0,
+                                                                                                                                 3 ),
+                                                                                             GuidedDecisionTableRowSegment.rows( Collections.singletonList( insertedRow ) ) ),
+                                                                              Collections.<AuditLogEntry>emptyList() );
+        try {
+            GuidedDecisionTableSnapshots.apply( model,
+                                                delta );
+            fail( "Rows with the wrong number of columns should be rejected" );
+        } catch ( GuidedDecisionTableStaleVersionException e ) {
+            //The model is not changed
+            assertEquals( data,
+                          model.getData() );
+        }
+    }
+
+    @Test
+    public void testHeldTableIsCheckedOut() {
+        final GuidedDecisionTableSnapshots snapshots = new GuidedDecisionTableSnapshots();
+        final String content = marshal( model );
+        final long version = snapshots.register( path,
+                                                 model,
+                                                 content );
+
+        assertSame( model,
+                    snapshots.checkout( path,
+                                        version,
+                                        content ) );
+
+        //A checked out table is no longer held, as it is to be changed; it is read again from its content
+        final GuidedDecisionTable52 readModel = snapshots.checkout( path,
+                                                                    version,
+                                                                    content );
+        assertNotSame( model,
+                       readModel );
+        assertEquals( 3,
+                      readModel.getData().size() );
+    }
+
+    @Test
+    public void testVersionDependsOnContent() {
+        final String content = marshal( model );
+        final long version = new GuidedDecisionTableSnapshots().register( path,
+                                                                          model,
+                                                                          content );
+
+        //e.g. after the server restarted
+        assertEquals( version,
+                      new GuidedDecisionTableSnapshots().register( path,
+                                                                   new GuidedDecisionTable52(),
+                                                                   content ) );
+        assertTrue( version >= 0 );
+        assertTrue( version != GuidedDecisionTableSnapshots.getVersion( content + " " ) );
+    }
+
+    @Test
+    public void testTableWrittenByOtherMeansIsRejected() {
+        final GuidedDecisionTableSnapshots snapshots = new GuidedDecisionTableSnapshots();
+        final long version = snapshots.register( path,
+                                                 model,
+                                                 marshal( model ) );
+
+        //e.g. restored from its history, without this service
+        final GuidedDecisionTable52 restoredModel = new GuidedDecisionTable52();
+        restoredModel.getData().add( makeRow( 0 ) );
+        final String restoredContent = marshal( restoredModel );
+
+        try {
+            snapshots.checkout( path,
+                                version,
+                                restoredContent );
+            fail( "A table written by other means should be rejected" );
+        } catch ( GuidedDecisionTableStaleVersionException e ) {
+            //Expected
+        }
+        try {
+            GuidedDecisionTableSnapshots.checkVersion( path,
+                                                       version,
+                                                       restoredContent );
+            fail( "A table written by other means should be rejected" );
+        } catch ( GuidedDecisionTableStaleVersionException e ) {
+            //Expected
+        }
+    }
+
+    @Test
+    public void testDiscardedTableIsReadFromContent() {
+        final GuidedDecisionTableSnapshots snapshots = new GuidedDecisionTableSnapshots( 1 );
+        final String content = marshal( model );
+        final long version = snapshots.register( path,
+                                                 model,
+                                                 content );
+
+        final Path otherPath = mock( Path.class );
+        when( otherPath.toURI() ).thenReturn( "default://master@repo/project/src/main/resources/org/test/other.gdst" );
+        snapshots.register( otherPath,
+                            new GuidedDecisionTable52(),
+                            "other content" );
+
+        final GuidedDecisionTable52 readModel = snapshots.checkout( path,
+                                                                    version,
+                                                                    content );
+        assertNotSame( model,
+                       readModel );
+        assertEquals( 3,
+                      readModel.getData().size() );
+    }
+
+    @Test
+    public void testLockWaitsForRelease() throws Exception {
+        final GuidedDecisionTableSnapshots snapshots = new GuidedDecisionTableSnapshots();
+        snapshots.lock( path );
+
+        final CountDownLatch locked = new CountDownLatch( 1 );
+        final Thread thread = new Thread() {
+            @Override
+            public void run() {
+                try {
+                    snapshots.lock( path );
+                    locked.countDown();
+                    snapshots.unlock( path );
+                } catch ( InterruptedException e ) {
+                    //Test fails
+                }
+            }
+        };
+        thread.start();
+
+        assertFalse( locked.await( 100,
+                                   TimeUnit.MILLISECONDS ) );
+        snapshots.unlock( path );
+        assertTrue( locked.await( 5,
+                                  TimeUnit.SECONDS ) );
+        thread.join();
+    }
+
+    @Test
+    public void testLockTimesOut() throws Exception {
+        final GuidedDecisionTableSnapshots snapshots = new GuidedDecisionTableSnapshots( GuidedDecisionTableSnapshots.DEFAULT_CAPACITY,
+                                                                                         100 );
+        snapshots.lock( path );
+        try {
+            snapshots.lock( path );
+            fail( "Waiting for the lock should time out" );
+        } catch ( GuidedDecisionTableStaleVersionException e ) {
+            //Expected
+        }
+
+        //The lock is still held by its first caller until released
+        snapshots.unlock( path );
+        snapshots.lock( path );
+        snapshots.unlock( path );
+    }
+
+    private void assertCopiesRejected( final GuidedDecisionTableRowSegment... segments ) {
+        final List<List<DTCellValue52>> data = new ArrayList<List<DTCellValue52>>( model.getData() );
+        final GuidedDecisionTableDelta delta = GuidedDecisionTableDelta.rows( 1,
+                                                                              3,
+                                                                              Arrays.asList( segments ),
+                                                                              Collections.<AuditLogEntry>emptyList() );
+        try {
+            GuidedDecisionTableSnapshots.apply( model,
+                                                delta );
+            fail( "Copies " + Arrays.asList( segments ) + " should be rejected" );
+        } catch ( GuidedDecisionTableStaleVersionException e ) {
+            //The model is not changed
+            assertEquals( data,
+                          model.getData() );
+        }
+    }
+
+    private String marshal( final GuidedDecisionTable52 model ) {
+        return GuidedDTXMLPersistence.getInstance().marshal( model );
+    }
+
+    private List<DTCellValue52> makeRow( final int iRow ) {
+        final List<DTCellValue52> row = new ArrayList<DTCellValue52>();
+        row.add( new DTCellValue52( iRow + 1 ) );
+        row.add( new DTCellValue52( "" ) );
+        return row;
+    }
+
+}
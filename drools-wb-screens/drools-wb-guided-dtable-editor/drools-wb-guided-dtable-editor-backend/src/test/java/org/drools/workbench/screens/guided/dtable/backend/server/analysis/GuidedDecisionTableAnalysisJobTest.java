@@ -0,0 +1,180 @@
+/*
+ * Copyright 2015 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.workbench.screens.guided.dtable.backend.server.analysis;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.drools.workbench.models.datamodel.imports.Import;
+import org.drools.workbench.models.datamodel.oracle.DataType;
+import org.drools.workbench.models.datamodel.oracle.FieldAccessorsAndMutators;
+import org.drools.workbench.models.datamodel.oracle.ModelField;
+import org.drools.workbench.models.datamodel.oracle.PackageDataModelOracle;
+import org.drools.workbench.models.datamodel.oracle.ProjectDataModelOracle;
+import org.drools.workbench.models.datamodel.rule.BaseSingleFieldConstraint;
+import org.drools.workbench.models.guided.dtable.shared.model.ActionSetFieldCol52;
+import org.drools.workbench.models.guided.dtable.shared.model.Analysis;
+import org.drools.workbench.models.guided.dtable.shared.model.ConditionCol52;
+import org.drools.workbench.models.guided.dtable.shared.model.DTCellValue52;
+import org.drools.workbench.models.guided.dtable.shared.model.GuidedDecisionTable52;
+import org.drools.workbench.models.guided.dtable.shared.model.Pattern52;
+import org.drools.workbench.screens.guided.dtable.analysis.DecisionTableAnalyzer;
+import org.drools.workbench.screens.guided.dtable.model.GuidedDecisionTableAnalysisPage;
+import org.junit.Before;
+import org.junit.Test;
+import org.kie.workbench.common.services.datamodel.backend.server.builder.packages.PackageDataModelOracleBuilder;
+import org.kie.workbench.common.services.datamodel.backend.server.builder.projects.ProjectDataModelOracleBuilder;
+
+import static org.junit.Assert.*;
+
+public class GuidedDecisionTableAnalysisJobTest {
+
+    private PackageDataModelOracle oracle;
+
+    @Before
+    public void setup() {
+        final ProjectDataModelOracle projectLoader = ProjectDataModelOracleBuilder.newProjectOracleBuilder()
+                .addFact( "Applicant" )
+                .addField( new ModelField( "age",
+                                           Integer.class.getName(),
+                                           ModelField.FIELD_CLASS_TYPE.REGULAR_CLASS,
+                                           ModelField.FIELD_ORIGIN.DECLARED,
+                                           FieldAccessorsAndMutators.BOTH,
+                                           DataType.TYPE_NUMERIC_INTEGER ) )
+                .addField( new ModelField( "approved",
+                                           Boolean.class.getName(),
+                                           ModelField.FIELD_CLASS_TYPE.REGULAR_CLASS,
+                                           ModelField.FIELD_ORIGIN.DECLARED,
+                                           FieldAccessorsAndMutators.BOTH,
+                                           DataType.TYPE_BOOLEAN ) )
+                .end()
+                .build();
+        oracle = PackageDataModelOracleBuilder.newPackageOracleBuilder()
+                .setProjectOracle( projectLoader )
+                .build();
+    }
+
+    @Test
+    public void testConditionTypeResolvedFromOracle() {
+        final GuidedDecisionTable52 model = makeModel();
+        final PackageDataModelOracleColumnUtilities utils = new PackageDataModelOracleColumnUtilities( model,
+                                                                                                       oracle );
+        assertEquals( DataType.TYPE_NUMERIC_INTEGER,
+                      utils.getType( model.getPatterns().get( 0 ).getChildColumns().get( 0 ) ) );
+    }
+
+    @Test
+    public void testConditionTypeNotResolvedFromImportEndingWithTypeName() {
+        final GuidedDecisionTable52 model = makeModel();
+        model.getImports().addImport( new Import( "org.other.MyApplicant" ) );
+        final PackageDataModelOracleColumnUtilities utils = new PackageDataModelOracleColumnUtilities( model,
+                                                                                                       oracle );
+        assertEquals( DataType.TYPE_NUMERIC_INTEGER,
+                      utils.getType( model.getPatterns().get( 0 ).getChildColumns().get( 0 ) ) );
+    }
+
+    @Test
+    public void testParallelAnalysisMatchesSequentialAnalysis() {
+        final GuidedDecisionTable52 model = makeModel( 2000,
+                                                       new Random( 0 ) );
+        final List<Analysis> expected = new DecisionTableAnalyzer( new PackageDataModelOracleColumnUtilities( model,
+                                                                                                              oracle ) ).analyze( model );
+
+        final GuidedDecisionTableAnalysisJob job = new GuidedDecisionTableAnalysisJob( model,
+                                                                                       oracle );
+        new ForkJoinPool().invoke( job.makeTask() );
+        assertTrue( job.isComplete() );
+
+        final List<Analysis> actual = new ArrayList<Analysis>();
+        GuidedDecisionTableAnalysisPage page;
+        do {
+            page = job.getPage( actual.size(),
+                                GuidedDecisionTableAnalysisJob.ROW_BLOCK_SIZE );
+            actual.addAll( page.getAnalysisData() );
+        } while ( !page.getAnalysisData().isEmpty() );
+
+        assertEquals( expected.size(),
+                      actual.size() );
+        for ( int i = 0; i < expected.size(); i++ ) {
+            assertEquals( "Row " + ( i + 1 ),
+                          expected.get( i ).toHtmlString(),
+                          actual.get( i ).toHtmlString() );
+        }
+    }
+
+    @Test
+    public void testPageStopsAtFirstUnanalysedRow() {
+        final GuidedDecisionTable52 model = makeModel( 10,
+                                                       new Random( 1 ) );
+        final GuidedDecisionTableAnalysisJob job = new GuidedDecisionTableAnalysisJob( model,
+                                                                                       oracle );
+        final GuidedDecisionTableAnalysisPage page = job.getPage( 0,
+                                                                  5 );
+        assertFalse( page.isComplete() );
+        assertEquals( 10,
+                      page.getTotalRows() );
+        assertTrue( page.getAnalysisData().isEmpty() );
+    }
+
+    private GuidedDecisionTable52 makeModel() {
+        final GuidedDecisionTable52 model = new GuidedDecisionTable52();
+        final Pattern52 pattern = new Pattern52();
+        pattern.setBoundName( "$a" );
+        pattern.setFactType( "Applicant" );
+        pattern.getChildColumns().add( makeConditionColumn( "age",
+                                                            ">=" ) );
+        pattern.getChildColumns().add( makeConditionColumn( "age",
+                                                            "<" ) );
+        model.getConditions().add( pattern );
+
+        final ActionSetFieldCol52 action = new ActionSetFieldCol52();
+        action.setBoundName( "$a" );
+        action.setFactField( "approved" );
+        action.setType( DataType.TYPE_BOOLEAN );
+        model.getActionCols().add( action );
+        return model;
+    }
+
+    private GuidedDecisionTable52 makeModel( final int rows,
+                                             final Random random ) {
+        final GuidedDecisionTable52 model = makeModel();
+        for ( int iRow = 0; iRow < rows; iRow++ ) {
+            final int minAge = random.nextInt( 100 );
+            final List<DTCellValue52> row = new ArrayList<DTCellValue52>();
+            row.add( new DTCellValue52( iRow + 1 ) );
+            row.add( new DTCellValue52( "" ) );
+            row.add( new DTCellValue52( minAge ) );
+            row.add( new DTCellValue52( minAge + random.nextInt( 15 ) ) );
+            row.add( new DTCellValue52( random.nextBoolean() ) );
+            model.getData().add( row );
+        }
+        return model;
+    }
+
+    private ConditionCol52 makeConditionColumn( final String factField,
+                                                final String operator ) {
+        final ConditionCol52 column = new ConditionCol52();
+        column.setFactField( factField );
+        column.setOperator( operator );
+        column.setFieldType( DataType.TYPE_NUMERIC_INTEGER );
+        column.setConstraintValueType( BaseSingleFieldConstraint.TYPE_LITERAL );
+        return column;
+    }
+
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2015 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.workbench.screens.guided.dtable.backend.server.analysis;
+
+import org.drools.workbench.models.datamodel.oracle.PackageDataModelOracle;
+import org.drools.workbench.models.guided.dtable.shared.model.GuidedDecisionTable52;
+import org.junit.Before;
+import org.junit.Test;
+import org.kie.workbench.common.services.datamodel.backend.server.builder.packages.PackageDataModelOracleBuilder;
+
+import static org.junit.Assert.*;
+
+public class GuidedDecisionTableAnalysisServiceImplTest {
+
+    private PackageDataModelOracle oracle;
+    private GuidedDecisionTableAnalysisServiceImpl service;
+
+    @Before
+    public void setup() {
+        oracle = PackageDataModelOracleBuilder.newPackageOracleBuilder().build();
+        service = new GuidedDecisionTableAnalysisServiceImpl();
+    }
+
+    @Test
+    public void testAbandonedAnalysisIsEvicted() {
+        final String abandonedId = service.addJob( makeJob(),
+                                                   0 );
+        final String activeId = service.addJob( makeJob(),
+                                                GuidedDecisionTableAnalysisServiceImpl.JOB_TIMEOUT_MILLIS );
+
+        service.evictJobs( GuidedDecisionTableAnalysisServiceImpl.JOB_TIMEOUT_MILLIS + 1 );
+
+        assertFalse( service.jobs.containsKey( abandonedId ) );
+        assertTrue( service.jobs.containsKey( activeId ) );
+    }
+
+    @Test
+    public void testLeastRecentlyAccessedAnalysisIsEvictedWhenFull() {
+        final String eldestId = service.addJob( makeJob(),
+                                                0 );
+        for ( int i = 1; i < GuidedDecisionTableAnalysisServiceImpl.MAX_JOBS; i++ ) {
+            service.addJob( makeJob(),
+                            i );
+        }
+        final String newestId = service.addJob( makeJob(),
+                                                GuidedDecisionTableAnalysisServiceImpl.MAX_JOBS );
+
+        assertEquals( GuidedDecisionTableAnalysisServiceImpl.MAX_JOBS,
+                      service.jobs.size() );
+        assertFalse( service.jobs.containsKey( eldestId ) );
+        assertTrue( service.jobs.containsKey( newestId ) );
+    }
+
+    private GuidedDecisionTableAnalysisJob makeJob() {
+        return new GuidedDecisionTableAnalysisJob( new GuidedDecisionTable52(),
+                                                   oracle );
+    }
+
+}
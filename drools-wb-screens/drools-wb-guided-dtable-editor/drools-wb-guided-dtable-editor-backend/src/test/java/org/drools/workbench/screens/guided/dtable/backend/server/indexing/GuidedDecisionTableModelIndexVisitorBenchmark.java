@@ -0,0 +1,108 @@
+/*
+ * Copyright 2015 JBoss, by Red Hat, Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.drools.workbench.screens.guided.dtable.backend.server.indexing;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.drools.workbench.models.guided.dtable.backend.util.DataUtilities;
+import org.drools.workbench.models.guided.dtable.shared.model.AttributeCol52;
+import org.drools.workbench.models.guided.dtable.shared.model.GuidedDecisionTable52;
+import org.guvnor.common.services.project.model.Package;
+import org.guvnor.common.services.project.model.Project;
+import org.kie.workbench.common.services.refactoring.backend.server.indexing.DefaultIndexBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.uberfire.commons.data.Pair;
+
+import static org.mockito.Mockito.*;
+
+/**
+ * JMH benchmark of how indexing a Decision Table scales with the number of attribute columns.
+ * This is not run as part of the build; run {@link #main(String[])} from the test class-path.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class GuidedDecisionTableModelIndexVisitorBenchmark {
+
+    @Param({ "50", "100", "250", "500" })
+    private int columns;
+
+    @Param({ "1000" })
+    private int rows;
+
+    private Project project;
+    private Package pkg;
+    private GuidedDecisionTable52 model;
+
+    @Setup
+    public void setup() {
+        project = mock( Project.class,
+                        RETURNS_DEEP_STUBS );
+        pkg = mock( Package.class,
+                    RETURNS_DEEP_STUBS );
+
+        model = new GuidedDecisionTable52();
+        model.setPackageName( "org.drools.workbench.screens.guided.dtable.backend.server.indexing" );
+        model.setTableName( "benchmark" );
+        for ( int iCol = 0; iCol < columns; iCol++ ) {
+            final AttributeCol52 attr = new AttributeCol52();
+            attr.setAttribute( "ruleflow-group" );
+            model.getAttributeCols().add( attr );
+        }
+
+        final String[][] data = new String[ rows ][ columns + 2 ];
+        for ( int iRow = 0; iRow < rows; iRow++ ) {
+            data[ iRow ][ 0 ] = String.valueOf( iRow + 1 );
+            data[ iRow ][ 1 ] = "desc";
+            for ( int iCol = 0; iCol < columns; iCol++ ) {
+                data[ iRow ][ iCol + 2 ] = "group" + ( iCol % 10 );
+            }
+        }
+        model.setData( DataUtilities.makeDataLists( data ) );
+    }
+
+    @Benchmark
+    public Set<Pair<String, String>> visit() {
+        final DefaultIndexBuilder builder = new DefaultIndexBuilder( project,
+                                                                     pkg );
+        return new GuidedDecisionTableModelIndexVisitor( builder,
+                                                         model ).visit();
+    }
+
+    public static void main( final String[] args ) throws RunnerException {
+        new Runner( new OptionsBuilder()
+                            .include( GuidedDecisionTableModelIndexVisitorBenchmark.class.getSimpleName() )
+                            .build() ).run();
+    }
+
+}
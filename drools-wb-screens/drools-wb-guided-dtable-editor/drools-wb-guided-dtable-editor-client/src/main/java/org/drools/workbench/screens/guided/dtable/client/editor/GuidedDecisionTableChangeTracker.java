@@ -0,0 +1,194 @@
+/*
+ * Copyright 2015 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.workbench.screens.guided.dtable.client.editor;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.drools.workbench.models.datamodel.auditlog.AuditLogEntry;
+import org.drools.workbench.models.guided.dtable.shared.model.DTCellValue52;
+import org.drools.workbench.models.guided.dtable.shared.model.GuidedDecisionTable52;
+import org.drools.workbench.screens.guided.dtable.model.GuidedDecisionTableDelta;
+import org.drools.workbench.screens.guided.dtable.model.GuidedDecisionTableRowSegment;
+import org.uberfire.commons.validation.PortablePreconditions;
+
+/**
+ * Records the state of a Decision Table when it was loaded or last sent to be saved, so that the changes made since
+ * can be saved as a {@link GuidedDecisionTableDelta}. Rows are matched by identity and compared with a copy of their
+ * values. Everything else is compared by the hashCode of the model without its rows and new Audit Log entries, as the
+ * editor's own "dirty" check is; any difference there causes the whole table to be saved.
+ */
+public class GuidedDecisionTableChangeTracker {
+
+    private final GuidedDecisionTable52 model;
+    private final long version;
+    private final List<List<DTCellValue52>> rows;
+    private final List<List<DTCellValue52>> rowValues;
+    private final int modelHashCode;
+    private final int auditLogSize;
+    private final int deletedAuditLogEntries;
+
+    private GuidedDecisionTableChangeTracker( final GuidedDecisionTableChangeTracker tracker,
+                                              final long version ) {
+        this.model = tracker.model;
+        this.version = version;
+        this.rows = tracker.rows;
+        this.rowValues = tracker.rowValues;
+        this.modelHashCode = tracker.modelHashCode;
+        this.auditLogSize = tracker.auditLogSize;
+        this.deletedAuditLogEntries = tracker.deletedAuditLogEntries;
+    }
+
+    public GuidedDecisionTableChangeTracker( final GuidedDecisionTable52 model,
+                                             final long version ) {
+        this.model = PortablePreconditions.checkNotNull( "model",
+                                                         model );
+        this.version = version;
+        this.rows = new ArrayList<List<DTCellValue52>>( model.getData() );
+        this.rowValues = new ArrayList<List<DTCellValue52>>( rows.size() );
+        for ( List<DTCellValue52> row : rows ) {
+            rowValues.add( copy( row ) );
+        }
+        this.auditLogSize = model.getAuditLog().size();
+        this.modelHashCode = getModelHashCode( model,
+                                               auditLogSize );
+        this.deletedAuditLogEntries = getDeletedAuditLogEntries( model );
+    }
+
+    /**
+     * The changes made to the Decision Table since this tracker was created
+     * @return The changes to the rows if nothing else has changed, otherwise the whole Decision Table
+     */
+    public GuidedDecisionTableDelta getDelta() {
+        final List<AuditLogEntry> auditLog = model.getAuditLog();
+        if ( auditLog.size() < auditLogSize
+                || getDeletedAuditLogEntries( model ) != deletedAuditLogEntries
+                || getModelHashCode( model,
+                                     auditLogSize ) != modelHashCode ) {
+            return GuidedDecisionTableDelta.model( version,
+                                                   model );
+        }
+
+        final Map<List<DTCellValue52>, Integer> baseRowIndexes = new IdentityHashMap<List<DTCellValue52>, Integer>();
+        for ( int iRow = 0; iRow < rows.size(); iRow++ ) {
+            baseRowIndexes.put( rows.get( iRow ),
+                                iRow );
+        }
+
+        final List<GuidedDecisionTableRowSegment> segments = new ArrayList<GuidedDecisionTableRowSegment>();
+        final List<List<DTCellValue52>> changedRows = new ArrayList<List<DTCellValue52>>();
+        int copyFromIndex = -1;
+        int copyRowCount = 0;
+        int nextBaseRowIndex = 0;
+        for ( List<DTCellValue52> row : model.getData() ) {
+            //Rows can only be copied in their original order, so rows moved before a copied row are sent as well
+            final Integer baseRowIndex = baseRowIndexes.get( row );
+            if ( baseRowIndex == null || baseRowIndex < nextBaseRowIndex || !row.equals( rowValues.get( baseRowIndex ) ) ) {
+                if ( copyRowCount > 0 ) {
+                    segments.add( GuidedDecisionTableRowSegment.copy( copyFromIndex,
+                                                                      copyRowCount ) );
+                    copyRowCount = 0;
+                }
+                changedRows.add( row );
+                continue;
+            }
+            if ( !changedRows.isEmpty() ) {
+                segments.add( GuidedDecisionTableRowSegment.rows( changedRows ) );
+                changedRows.clear();
+            }
+            if ( copyRowCount > 0 && baseRowIndex == copyFromIndex + copyRowCount ) {
+                copyRowCount++;
+            } else {
+                if ( copyRowCount > 0 ) {
+                    segments.add( GuidedDecisionTableRowSegment.copy( copyFromIndex,
+                                                                      copyRowCount ) );
+                }
+                copyFromIndex = baseRowIndex;
+                copyRowCount = 1;
+            }
+            nextBaseRowIndex = baseRowIndex + 1;
+        }
+        if ( copyRowCount > 0 ) {
+            segments.add( GuidedDecisionTableRowSegment.copy( copyFromIndex,
+                                                              copyRowCount ) );
+        }
+        if ( !changedRows.isEmpty() ) {
+            segments.add( GuidedDecisionTableRowSegment.rows( changedRows ) );
+        }
+
+        return GuidedDecisionTableDelta.rows( version,
+                                              rows.size(),
+                                              segments,
+                                              auditLog.subList( auditLogSize,
+                                                                auditLog.size() ) );
+    }
+
+    /**
+     * The state recorded by this tracker, as the given version. Create a tracker when the changes returned by
+     * {@link #getDelta()} are sent, and use this once they have been saved; changes made while saving are kept.
+     * @param version The version given by the server to the saved changes
+     * @return A tracker of the same state with the new version
+     */
+    public GuidedDecisionTableChangeTracker withVersion( final long version ) {
+        return new GuidedDecisionTableChangeTracker( this,
+                                                     version );
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    private static List<DTCellValue52> copy( final List<DTCellValue52> row ) {
+        final List<DTCellValue52> values = new ArrayList<DTCellValue52>( row.size() );
+        for ( DTCellValue52 dcv : row ) {
+            values.add( dcv == null ? null : new DTCellValue52( dcv ) );
+        }
+        return values;
+    }
+
+    //The hashCode of the model without its rows or the Audit Log entries after the first auditLogSize. Both are
+    //removed for the computation only and put back afterwards.
+    private static int getModelHashCode( final GuidedDecisionTable52 model,
+                                         final int auditLogSize ) {
+        final List<List<DTCellValue52>> data = model.getData();
+        final List<AuditLogEntry> auditLog = model.getAuditLog();
+        final List<AuditLogEntry> newAuditLogEntries = auditLog.subList( auditLogSize,
+                                                                         auditLog.size() );
+        final List<AuditLogEntry> removedAuditLogEntries = new ArrayList<AuditLogEntry>( newAuditLogEntries );
+        model.setData( new ArrayList<List<DTCellValue52>>() );
+        newAuditLogEntries.clear();
+        try {
+            return model.hashCode();
+        } finally {
+            model.setData( data );
+            auditLog.addAll( removedAuditLogEntries );
+        }
+    }
+
+    private static int getDeletedAuditLogEntries( final GuidedDecisionTable52 model ) {
+        int deletedAuditLogEntries = 0;
+        for ( AuditLogEntry entry : model.getAuditLog() ) {
+            if ( entry.isDeleted() ) {
+                deletedAuditLogEntries++;
+            }
+        }
+        return deletedAuditLogEntries;
+    }
+
+}
@@ -21,12 +21,17 @@ import javax.enterprise.context.Dependent;
 import javax.enterprise.event.Event;
 import javax.inject.Inject;
 
+import com.google.gwt.user.client.Window;
 import com.google.gwt.user.client.ui.IsWidget;
 import org.drools.workbench.models.guided.dtable.shared.model.GuidedDecisionTable52;
+import org.drools.workbench.screens.guided.dtable.client.resources.i18n.GuidedDecisionTableConstants;
 import org.drools.workbench.screens.guided.dtable.client.type.GuidedDTableResourceType;
+import org.drools.workbench.screens.guided.dtable.model.GuidedDecisionTableDelta;
 import org.drools.workbench.screens.guided.dtable.model.GuidedDecisionTableEditorContent;
 import org.drools.workbench.screens.guided.dtable.service.GuidedDecisionTableEditorService;
+import org.drools.workbench.screens.guided.dtable.service.GuidedDecisionTableStaleVersionException;
 import org.guvnor.common.services.shared.validation.model.ValidationMessage;
+import org.jboss.errai.bus.client.api.messaging.Message;
 import org.jboss.errai.common.client.api.Caller;
 import org.jboss.errai.common.client.api.RemoteCallback;
 import org.kie.workbench.common.services.datamodel.model.PackageDataModelOracleBaselinePayload;
@@ -87,6 +92,7 @@ public class GuidedDecisionTableEditorPresenter
     private GuidedDecisionTable52 model;
     private AsyncPackageDataModelOracle oracle;
     private GuidedDecisionTableEditorContent content;
+    private GuidedDecisionTableChangeTracker changeTracker;
 
     @Inject
     public GuidedDecisionTableEditorPresenter( final GuidedDecisionTableEditorView view ) {
@@ -130,6 +136,8 @@ public class GuidedDecisionTableEditorPresenter
                 GuidedDecisionTableEditorPresenter.this.content = content;
 
                 model = content.getModel();
+                changeTracker = new GuidedDecisionTableChangeTracker( model,
+                                                                      content.getVersion() );
                 metadata = content.getOverview().getMetadata();
                 final PackageDataModelOracleBaselinePayload dataModel = content.getDataModel();
                 oracle = oracleFactory.makeAsyncPackageDataModelOracle( versionRecordManager.getCurrentPath(),
@@ -182,11 +190,46 @@ public class GuidedDecisionTableEditorPresenter
 
     @Override
     protected void save(String commitMessage) {
-        service.call(getSaveSuccessCallback(model.hashCode()),
-                     new HasBusyIndicatorDefaultErrorCallback(view)).save(versionRecordManager.getCurrentPath(),
-                                                                          model,
-                                                                          metadata,
-                                                                          commitMessage);
+        save( changeTracker.getDelta(),
+              commitMessage );
+    }
+
+    private void save( final GuidedDecisionTableDelta delta,
+                       final String commitMessage ) {
+        final int newHash = model.hashCode();
+        //The table as sent; changes made while saving are not part of the saved version
+        final GuidedDecisionTableChangeTracker sentTracker = new GuidedDecisionTableChangeTracker( model,
+                                                                                                  changeTracker.getVersion() );
+        service.call( new RemoteCallback<Long>() {
+                          @Override
+                          public void callback( final Long version ) {
+                              changeTracker = sentTracker.withVersion( version );
+                              getSaveSuccessCallback( newHash ).callback( versionRecordManager.getCurrentPath() );
+                          }
+                      },
+                      new HasBusyIndicatorDefaultErrorCallback( view ) {
+                          @Override
+                          public boolean error( final Message message,
+                                                final Throwable throwable ) {
+                              //The table has been saved since the version upon which the changes are based
+                              if ( throwable instanceof GuidedDecisionTableStaleVersionException ) {
+                                  view.hideBusyIndicator();
+                                  if ( Window.confirm( GuidedDecisionTableConstants.INSTANCE.DecisionTableChangedSinceOpened() ) ) {
+                                      save( GuidedDecisionTableDelta.model( model ),
+                                            commitMessage );
+                                  } else {
+                                      notification.fire( new NotificationEvent( GuidedDecisionTableConstants.INSTANCE.DecisionTableNotSaved(),
+                                                                                NotificationEvent.NotificationType.WARNING ) );
+                                  }
+                                  return false;
+                              }
+                              return super.error( message,
+                                                  throwable );
+                          }
+                      } ).saveDelta( versionRecordManager.getCurrentPath(),
+                                     delta,
+                                     metadata,
+                                     commitMessage );
     }
 
     @Override
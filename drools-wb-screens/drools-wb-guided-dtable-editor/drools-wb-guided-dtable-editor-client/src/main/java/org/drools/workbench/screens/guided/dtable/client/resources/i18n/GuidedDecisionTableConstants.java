@@ -470,5 +470,9 @@ public interface GuidedDecisionTableConstants
 
     String GuidedDecisionTableEditorTitle();
 
+    String DecisionTableChangedSinceOpened();
+
+    String DecisionTableNotSaved();
+
     String guidedDecisionTableResourceTypeDescription();
 }
@@ -31,7 +31,9 @@ import org.drools.workbench.models.guided.dtable.shared.model.DTCellValue52;
 import org.drools.workbench.models.guided.dtable.shared.model.GuidedDecisionTable52;
 import org.drools.workbench.models.guided.dtable.shared.model.LimitedEntryCol;
 import org.drools.workbench.models.guided.dtable.shared.model.Pattern52;
+import org.drools.workbench.screens.guided.dtable.analysis.ColumnDescriptorCache;
 import org.kie.workbench.common.widgets.client.datamodel.AsyncPackageDataModelOracle;
+import org.uberfire.commons.validation.PortablePreconditions;
 
 /**
  * Utilities relating to the use of DTCellValue's
@@ -53,6 +55,7 @@ public class DTCellValueUtilities {
     private final GuidedDecisionTable52 model;
     private final AsyncPackageDataModelOracle oracle;
     private final GuidedDecisionTableUtils utils;
+    private final ColumnDescriptorCache descriptors;
 
     public DTCellValueUtilities( final GuidedDecisionTable52 model,
                                  final AsyncPackageDataModelOracle oracle ) {
@@ -60,6 +63,24 @@ public class DTCellValueUtilities {
         this.oracle = oracle;
         this.utils = new GuidedDecisionTableUtils( model,
                                                    oracle );
+        this.descriptors = ColumnDescriptorCache.uncached( utils );
+    }
+
+    /**
+     * Constructor for utilities sharing the descriptors of the model's columns
+     * @param model The Decision Table
+     * @param oracle DataModelOracle from which data-types are resolved
+     * @param descriptors Cache of column descriptors; invalidated by its owner when columns change
+     */
+    public DTCellValueUtilities( final GuidedDecisionTable52 model,
+                                 final AsyncPackageDataModelOracle oracle,
+                                 final ColumnDescriptorCache descriptors ) {
+        this.model = model;
+        this.oracle = oracle;
+        this.utils = new GuidedDecisionTableUtils( model,
+                                                   oracle );
+        this.descriptors = PortablePreconditions.checkNotNull( "descriptors",
+                                                               descriptors );
     }
 
     /**
@@ -96,7 +117,7 @@ public class DTCellValueUtilities {
         }
 
         //Extended Entry...
-        return utils.getTypeSafeType( column );
+        return descriptors.getDescriptor( column ).getTypeSafeType();
     }
 
     /**
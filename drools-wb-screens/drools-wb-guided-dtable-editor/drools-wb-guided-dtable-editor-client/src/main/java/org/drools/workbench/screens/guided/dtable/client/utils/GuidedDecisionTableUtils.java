@@ -24,13 +24,15 @@ import org.drools.workbench.models.guided.dtable.shared.model.GuidedDecisionTabl
 import org.drools.workbench.models.guided.dtable.shared.model.MetadataCol52;
 import org.drools.workbench.models.guided.dtable.shared.model.Pattern52;
 import org.drools.workbench.models.guided.dtable.shared.model.RowNumberCol52;
+import org.drools.workbench.screens.guided.dtable.analysis.ColumnDescriptor;
+import org.drools.workbench.screens.guided.dtable.analysis.ColumnUtilities;
 import org.kie.workbench.common.widgets.client.datamodel.AsyncPackageDataModelOracle;
 import org.uberfire.commons.validation.PortablePreconditions;
 
 /**
  * Utilities for GuidedDecisionTable
  */
-public class GuidedDecisionTableUtils {
+public class GuidedDecisionTableUtils implements ColumnUtilities {
 
     private final GuidedDecisionTable52 model;
     private final AsyncPackageDataModelOracle oracle;
@@ -43,6 +45,7 @@ public class GuidedDecisionTableUtils {
                                                           oracle );
     }
 
+    @Override
     public String getType( final BaseColumn col ) {
         if ( col instanceof RowNumberCol52 ) {
             return getType( (RowNumberCol52) col );
@@ -246,32 +249,10 @@ public class GuidedDecisionTableUtils {
     }
 
     private DataType.DataTypes convertToTypeSafeType( final String type ) {
-        if ( type.equals( DataType.TYPE_NUMERIC ) ) {
-            return DataType.DataTypes.NUMERIC;
-        } else if ( type.equals( DataType.TYPE_NUMERIC_BIGDECIMAL ) ) {
-            return DataType.DataTypes.NUMERIC_BIGDECIMAL;
-        } else if ( type.equals( DataType.TYPE_NUMERIC_BIGINTEGER ) ) {
-            return DataType.DataTypes.NUMERIC_BIGINTEGER;
-        } else if ( type.equals( DataType.TYPE_NUMERIC_BYTE ) ) {
-            return DataType.DataTypes.NUMERIC_BYTE;
-        } else if ( type.equals( DataType.TYPE_NUMERIC_DOUBLE ) ) {
-            return DataType.DataTypes.NUMERIC_DOUBLE;
-        } else if ( type.equals( DataType.TYPE_NUMERIC_FLOAT ) ) {
-            return DataType.DataTypes.NUMERIC_FLOAT;
-        } else if ( type.equals( DataType.TYPE_NUMERIC_INTEGER ) ) {
-            return DataType.DataTypes.NUMERIC_INTEGER;
-        } else if ( type.equals( DataType.TYPE_NUMERIC_LONG ) ) {
-            return DataType.DataTypes.NUMERIC_LONG;
-        } else if ( type.equals( DataType.TYPE_NUMERIC_SHORT ) ) {
-            return DataType.DataTypes.NUMERIC_SHORT;
-        } else if ( type.equals( DataType.TYPE_BOOLEAN ) ) {
-            return DataType.DataTypes.BOOLEAN;
-        } else if ( type.equals( DataType.TYPE_DATE ) ) {
-            return DataType.DataTypes.DATE;
-        }
-        return DataType.DataTypes.STRING;
+        return ColumnDescriptor.toTypeSafeType( type );
     }
 
+    @Override
     public String[] getValueList( final BaseColumn col ) {
         if ( col instanceof AttributeCol52 ) {
             return getValueList( (AttributeCol52) col );
@@ -65,11 +65,13 @@ import org.drools.workbench.models.guided.dtable.shared.model.LimitedEntryCol;
 import org.drools.workbench.models.guided.dtable.shared.model.MetadataCol52;
 import org.drools.workbench.models.guided.dtable.shared.model.Pattern52;
 import org.drools.workbench.models.guided.dtable.shared.model.RowNumberCol52;
+import org.drools.workbench.screens.guided.dtable.analysis.ColumnDescriptorCache;
+import org.drools.workbench.screens.guided.dtable.analysis.DecisionTableAnalyzer;
 import org.drools.workbench.screens.guided.dtable.client.utils.DTCellValueUtilities;
 import org.drools.workbench.screens.guided.dtable.client.utils.GuidedDecisionTableUtils;
-import org.drools.workbench.screens.guided.dtable.client.widget.analysis.DecisionTableAnalyzer;
 import org.drools.workbench.screens.guided.dtable.client.widget.table.events.BoundFactsChangedEvent;
 import org.drools.workbench.screens.guided.dtable.client.widget.table.events.InsertDecisionTableColumnEvent;
+import org.drools.workbench.screens.guided.dtable.model.ExpandedColumnIndexMap;
 import org.drools.workbench.screens.guided.rule.client.editor.RuleAttributeWidget;
 import org.drools.workbench.screens.guided.rule.client.util.GWTDateConverter;
 import org.jboss.errai.security.shared.api.identity.User;
@@ -131,6 +133,15 @@ public abstract class AbstractDecisionTableWidget extends Composite
     //Rows that have been copied in a copy-paste operation
     private List<List<DTCellValue52>> copiedRows = new ArrayList<List<DTCellValue52>>();
 
+    //Index of each column in the model's expanded columns; invalidated whenever columns are added, removed or moved
+    private final ExpandedColumnIndexMap columnIndexes;
+
+    //Data-type and value list of each column; invalidated whenever columns are added, removed, moved or edited
+    private final ColumnDescriptorCache columnDescriptors;
+
+    //Analyzer retaining the last analysis so row changes can be analysed incrementally; null until analysed
+    private DecisionTableAnalyzer analyzer;
+
     protected static final DecisionTableResourcesProvider resources = new DecisionTableResourcesProvider();
 
     /**
@@ -155,13 +166,16 @@ public abstract class AbstractDecisionTableWidget extends Composite
             throw new IllegalArgumentException( "eventBus cannot be null" );
         }
         this.model = model;
+        this.columnIndexes = new ExpandedColumnIndexMap( model );
         this.oracle = oracle;
         this.identity = identity;
         this.rm = new BRLRuleModel( model );
         this.utils = new GuidedDecisionTableUtils( model,
                                                    oracle );
+        this.columnDescriptors = new ColumnDescriptorCache( utils );
         this.cellUtils = new DTCellValueUtilities( model,
-                                                   oracle );
+                                                   oracle,
+                                                   columnDescriptors );
         this.eventBus = eventBus;
         this.isReadOnly = isReadOnly;
 
@@ -185,11 +199,13 @@ public abstract class AbstractDecisionTableWidget extends Composite
         //Factories for new cell elements
         this.cellFactory = new DecisionTableCellFactory( model,
                                                          oracle,
+                                                         columnDescriptors,
                                                          dropDownManager,
                                                          isReadOnly,
                                                          eventBus );
         this.cellValueFactory = new DecisionTableCellValueFactory( model,
-                                                                   oracle );
+                                                                   oracle,
+                                                                   columnDescriptors );
 
         //Date converter is injected so a GWT compatible one can be used here and another in testing
         DTCellValueUtilities.injectDateConvertor( GWTDateConverter.getInstance() );
@@ -226,6 +242,7 @@ public abstract class AbstractDecisionTableWidget extends Composite
             throw new IllegalArgumentException( "modelColumn cannot be null." );
         }
         model.getActionCols().add( modelColumn );
+        invalidateColumns();
         addColumn( modelColumn,
                    cellValueFactory.makeColumnData( modelColumn ),
                    true );
@@ -244,6 +261,7 @@ public abstract class AbstractDecisionTableWidget extends Composite
             throw new IllegalArgumentException( "modelColumn cannot be null." );
         }
         model.getActionCols().add( modelColumn );
+        invalidateColumns();
         addBRLActionVariableColumns( modelColumn.getChildColumns(),
                                      true );
 
@@ -261,6 +279,7 @@ public abstract class AbstractDecisionTableWidget extends Composite
             throw new IllegalArgumentException( "modelColumn cannot be null." );
         }
         model.getActionCols().add( modelColumn );
+        invalidateColumns();
         addColumn( modelColumn,
                    cellValueFactory.makeColumnData( modelColumn ),
                    true );
@@ -279,6 +298,7 @@ public abstract class AbstractDecisionTableWidget extends Composite
             throw new IllegalArgumentException( "modelColumn cannot be null." );
         }
         model.getConditions().add( modelColumn );
+        invalidateColumns();
         addBRLConditionVariableColumns( modelColumn.getChildColumns(),
                                         true );
 
@@ -296,6 +316,7 @@ public abstract class AbstractDecisionTableWidget extends Composite
             throw new IllegalArgumentException( "modelColumn cannot be null." );
         }
         model.getConditions().add( modelColumn );
+        invalidateColumns();
         addColumn( modelColumn,
                    cellValueFactory.makeColumnData( modelColumn ),
                    true );
@@ -314,6 +335,7 @@ public abstract class AbstractDecisionTableWidget extends Composite
             throw new IllegalArgumentException( "modelColumn cannot be null." );
         }
         model.getAttributeCols().add( modelColumn );
+        invalidateColumns();
         addColumn( modelColumn,
                    cellValueFactory.makeColumnData( modelColumn ),
                    true );
@@ -332,6 +354,7 @@ public abstract class AbstractDecisionTableWidget extends Composite
             throw new IllegalArgumentException( "modelColumn cannot be null." );
         }
         model.getMetadataCols().add( modelColumn );
+        invalidateColumns();
         addColumn( modelColumn,
                    cellValueFactory.makeColumnData( modelColumn ),
                    true );
@@ -358,6 +381,7 @@ public abstract class AbstractDecisionTableWidget extends Composite
         //Add pattern if it does not already exist
         if ( !model.getConditions().contains( pattern ) ) {
             model.getConditions().add( pattern );
+            invalidateColumns();
 
             //Signal patterns changed event
             BoundFactsChangedEvent pce = new BoundFactsChangedEvent( rm.getLHSBoundFacts() );
@@ -366,6 +390,7 @@ public abstract class AbstractDecisionTableWidget extends Composite
 
         //Column needs to be added to pattern first so it can be correctly positioned
         pattern.getChildColumns().add( modelColumn );
+        invalidateColumns();
         addColumn( modelColumn,
                    cellValueFactory.makeColumnData( modelColumn ),
                    true );
@@ -384,8 +409,9 @@ public abstract class AbstractDecisionTableWidget extends Composite
             throw new IllegalArgumentException( "modelColumn cannot be null." );
         }
 
-        int index = model.getExpandedColumns().indexOf( modelColumn );
+        int index = columnIndexes.indexOf( modelColumn );
         model.getActionCols().remove( modelColumn );
+        invalidateColumns();
         deleteColumn( index,
                       true );
 
@@ -403,13 +429,14 @@ public abstract class AbstractDecisionTableWidget extends Composite
             throw new IllegalArgumentException( "modelColumn cannot be null." );
         }
         BRLActionVariableColumn firstColumn = modelColumn.getChildColumns().get( 0 );
-        int firstColumnIndex = model.getExpandedColumns().indexOf( firstColumn );
+        int firstColumnIndex = columnIndexes.indexOf( firstColumn );
         if ( firstColumnIndex >= 0 ) {
             int numberOfColumns = modelColumn.getChildColumns().size();
             deleteColumns( firstColumnIndex,
                            numberOfColumns,
                            true );
             model.getActionCols().remove( modelColumn );
+            invalidateColumns();
 
             //Log deletion of column
             model.getAuditLog().add( new DeleteColumnAuditLogEntry( identity.getIdentifier(),
@@ -426,8 +453,9 @@ public abstract class AbstractDecisionTableWidget extends Composite
             throw new IllegalArgumentException( "modelColumn cannot be null." );
         }
 
-        int index = model.getExpandedColumns().indexOf( modelColumn );
+        int index = columnIndexes.indexOf( modelColumn );
         model.getActionCols().remove( modelColumn );
+        invalidateColumns();
         deleteColumn( index,
                       true );
 
@@ -445,13 +473,14 @@ public abstract class AbstractDecisionTableWidget extends Composite
             throw new IllegalArgumentException( "modelColumn cannot be null." );
         }
         BRLConditionVariableColumn firstColumn = modelColumn.getChildColumns().get( 0 );
-        int firstColumnIndex = model.getExpandedColumns().indexOf( firstColumn );
+        int firstColumnIndex = columnIndexes.indexOf( firstColumn );
         if ( firstColumnIndex >= 0 ) {
             int numberOfColumns = modelColumn.getChildColumns().size();
             deleteColumns( firstColumnIndex,
                            numberOfColumns,
                            true );
             model.getConditions().remove( modelColumn );
+            invalidateColumns();
 
             //Log deletion of column
             model.getAuditLog().add( new DeleteColumnAuditLogEntry( identity.getIdentifier(),
@@ -468,8 +497,9 @@ public abstract class AbstractDecisionTableWidget extends Composite
             throw new IllegalArgumentException( "modelColumn cannot be null." );
         }
 
-        int index = model.getExpandedColumns().indexOf( modelColumn );
+        int index = columnIndexes.indexOf( modelColumn );
         model.getConditions().remove( modelColumn );
+        invalidateColumns();
         deleteColumn( index,
                       true );
 
@@ -487,9 +517,10 @@ public abstract class AbstractDecisionTableWidget extends Composite
             throw new IllegalArgumentException( "modelColumn cannot be null." );
         }
 
-        int index = model.getExpandedColumns().indexOf( modelColumn );
+        int index = columnIndexes.indexOf( modelColumn );
         if ( index >= 0 ) {
             model.getAttributeCols().remove( modelColumn );
+            invalidateColumns();
             deleteColumn( index,
                           true );
 
@@ -508,8 +539,9 @@ public abstract class AbstractDecisionTableWidget extends Composite
             throw new IllegalArgumentException( "modelColumn cannot be null." );
         }
 
-        int index = model.getExpandedColumns().indexOf( modelColumn );
+        int index = columnIndexes.indexOf( modelColumn );
         model.getMetadataCols().remove( modelColumn );
+        invalidateColumns();
         deleteColumn( index,
                       true );
 
@@ -527,13 +559,15 @@ public abstract class AbstractDecisionTableWidget extends Composite
             throw new IllegalArgumentException( "modelColumn cannot be null." );
         }
 
-        int index = model.getExpandedColumns().indexOf( modelColumn );
+        int index = columnIndexes.indexOf( modelColumn );
         Pattern52 pattern = model.getPattern( modelColumn );
         pattern.getChildColumns().remove( modelColumn );
+        invalidateColumns();
 
         //Remove pattern if it contains zero conditions
         if ( pattern.getChildColumns().size() == 0 ) {
             model.getConditions().remove( pattern );
+            invalidateColumns();
 
             //Signal patterns changed event to Decision Table Widget
             BoundFactsChangedEvent pce = new BoundFactsChangedEvent( rm.getLHSBoundFacts() );
@@ -597,7 +631,7 @@ public abstract class AbstractDecisionTableWidget extends Composite
         if ( modelColumn == null ) {
             throw new IllegalArgumentException( "modelColumn cannot be null" );
         }
-        int index = model.getExpandedColumns().indexOf( modelColumn );
+        int index = columnIndexes.indexOf( modelColumn );
         SetColumnVisibilityEvent scve = new SetColumnVisibilityEvent( index,
                                                                       isVisible );
         eventBus.fireEvent( scve );
@@ -628,6 +662,7 @@ public abstract class AbstractDecisionTableWidget extends Composite
      */
     public void updateColumn( final ActionInsertFactCol52 origColumn,
                               final ActionInsertFactCol52 editColumn ) {
+        invalidateAnalysis();
         if ( origColumn == null ) {
             throw new IllegalArgumentException( "origColumn cannot be null" );
         }
@@ -642,7 +677,7 @@ public abstract class AbstractDecisionTableWidget extends Composite
         boolean isFactTypeUpdated = false;
         boolean isFactFieldUpdated = false;
         boolean isValueListUpdated = false;
-        int iCol = model.getExpandedColumns().indexOf( origColumn );
+        int iCol = columnIndexes.indexOf( origColumn );
 
         List<BaseColumnFieldDiff> diffs = origColumn.diff( editColumn );
         if ( diffs != null && !diffs.isEmpty() ) {
@@ -685,6 +720,7 @@ public abstract class AbstractDecisionTableWidget extends Composite
         // Copy new values into original column definition
         populateModelColumn( origColumn,
                              editColumn );
+        invalidateColumn( origColumn );
 
         //First remove merging if column data is being changed. This is necessary before we potentially update
         //the column's cell type as removing merging causes a redraw that needs the column's cell to be
@@ -718,6 +754,7 @@ public abstract class AbstractDecisionTableWidget extends Composite
      */
     public void updateColumn( final ActionSetFieldCol52 origColumn,
                               final ActionSetFieldCol52 editColumn ) {
+        invalidateAnalysis();
         if ( origColumn == null ) {
             throw new IllegalArgumentException( "origColumn cannot be null" );
         }
@@ -727,7 +764,7 @@ public abstract class AbstractDecisionTableWidget extends Composite
 
         boolean bUpdateColumnData = false;
         boolean bUpdateColumnDefinition = false;
-        int iCol = model.getExpandedColumns().indexOf( origColumn );
+        int iCol = columnIndexes.indexOf( origColumn );
 
         boolean isHideUpdated = false;
         boolean isBoundNameUpdated = false;
@@ -775,6 +812,7 @@ public abstract class AbstractDecisionTableWidget extends Composite
         // Copy new values into original column definition
         populateModelColumn( origColumn,
                              editColumn );
+        invalidateColumn( origColumn );
 
         //First remove merging if column data is being changed. This is necessary before we potentially update
         //the column's cell type as removing merging causes a redraw that needs the column's cell to be
@@ -808,6 +846,7 @@ public abstract class AbstractDecisionTableWidget extends Composite
      */
     public void updateColumn( final ActionWorkItemSetFieldCol52 origColumn,
                               final ActionWorkItemSetFieldCol52 editColumn ) {
+        invalidateAnalysis();
         if ( origColumn == null ) {
             throw new IllegalArgumentException( "origColumn cannot be null" );
         }
@@ -816,7 +855,7 @@ public abstract class AbstractDecisionTableWidget extends Composite
         }
 
         boolean bUpdateColumnDefinition = false;
-        int iCol = model.getExpandedColumns().indexOf( origColumn );
+        int iCol = columnIndexes.indexOf( origColumn );
 
         boolean isHideUpdated = false;
 
@@ -842,6 +881,7 @@ public abstract class AbstractDecisionTableWidget extends Composite
         // Copy new values into original column definition
         populateModelColumn( origColumn,
                              editColumn );
+        invalidateColumn( origColumn );
 
         //Update Column cell
         if ( bUpdateColumnDefinition ) {
@@ -860,6 +900,7 @@ public abstract class AbstractDecisionTableWidget extends Composite
      */
     public void updateColumn( final ActionRetractFactCol52 origColumn,
                               final ActionRetractFactCol52 editColumn ) {
+        invalidateAnalysis();
         if ( origColumn == null ) {
             throw new IllegalArgumentException( "origColumn cannot be null" );
         }
@@ -868,7 +909,7 @@ public abstract class AbstractDecisionTableWidget extends Composite
         }
 
         boolean bUpdateColumnDefinition = false;
-        int iCol = model.getExpandedColumns().indexOf( origColumn );
+        int iCol = columnIndexes.indexOf( origColumn );
 
         boolean isHideUpdated = false;
 
@@ -894,6 +935,7 @@ public abstract class AbstractDecisionTableWidget extends Composite
         // Copy new values into original column definition
         populateModelColumn( origColumn,
                              editColumn );
+        invalidateColumn( origColumn );
 
         //Update Column cell
         if ( bUpdateColumnDefinition ) {
@@ -912,6 +954,7 @@ public abstract class AbstractDecisionTableWidget extends Composite
      */
     public void updateColumn( final ActionWorkItemCol52 origColumn,
                               final ActionWorkItemCol52 editColumn ) {
+        invalidateAnalysis();
         if ( origColumn == null ) {
             throw new IllegalArgumentException( "origColumn cannot be null" );
         }
@@ -920,7 +963,7 @@ public abstract class AbstractDecisionTableWidget extends Composite
         }
 
         boolean bUpdateColumnDefinition = false;
-        int iCol = model.getExpandedColumns().indexOf( origColumn );
+        int iCol = columnIndexes.indexOf( origColumn );
 
         boolean isHideUpdated = false;
 
@@ -946,6 +989,7 @@ public abstract class AbstractDecisionTableWidget extends Composite
         // Copy new values into original column definition
         populateModelColumn( origColumn,
                              editColumn );
+        invalidateColumn( origColumn );
 
         //Update Column cell
         if ( bUpdateColumnDefinition ) {
@@ -964,6 +1008,7 @@ public abstract class AbstractDecisionTableWidget extends Composite
      */
     public void updateColumn( final BRLActionColumn origColumn,
                               final BRLActionColumn editColumn ) {
+        invalidateAnalysis();
         if ( origColumn == null ) {
             throw new IllegalArgumentException( "origColumn cannot be null" );
         }
@@ -981,7 +1026,7 @@ public abstract class AbstractDecisionTableWidget extends Composite
         //Copy existing data for re-use if applicable
         Map<String, List<DTCellValue52>> origColumnVariables = new HashMap<String, List<DTCellValue52>>();
         for ( BRLActionVariableColumn variable : origColumn.getChildColumns() ) {
-            int iCol = model.getExpandedColumns().indexOf( variable );
+            int iCol = columnIndexes.indexOf( variable );
             List<DTCellValue52> columnData = new ArrayList<DTCellValue52>();
             String key = getUpdateBRLActionColumnKey( variable );
             for ( List<DTCellValue52> row : model.getData() ) {
@@ -994,7 +1039,8 @@ public abstract class AbstractDecisionTableWidget extends Composite
         //Insert new variable columns setting data from that above, if applicable. Column visibility is handled here too.
         model.getActionCols().add( model.getActionCols().indexOf( origColumn ),
                                    editColumn );
-        final int index = model.getExpandedColumns().indexOf( editColumn.getChildColumns().get( 0 ) );
+        invalidateColumns();
+        final int index = columnIndexes.indexOf( editColumn.getChildColumns().get( 0 ) );
         final List<BaseColumn> columns = new ArrayList<BaseColumn>();
         final List<List<DTCellValue52>> columnsData = new ArrayList<List<DTCellValue52>>();
         columns.addAll( editColumn.getChildColumns() );
@@ -1015,12 +1061,13 @@ public abstract class AbstractDecisionTableWidget extends Composite
 
         //Delete columns for the original definition
         BRLActionVariableColumn firstColumn = origColumn.getChildColumns().get( 0 );
-        int firstColumnIndex = model.getExpandedColumns().indexOf( firstColumn );
+        int firstColumnIndex = columnIndexes.indexOf( firstColumn );
         int numberOfColumns = origColumn.getChildColumns().size();
         deleteColumns( firstColumnIndex,
                        numberOfColumns,
                        true );
         model.getActionCols().remove( origColumn );
+        invalidateColumns();
 
         //Log change to column definition
         if ( bUpdateColumnDefinition ) {
@@ -1043,6 +1090,7 @@ public abstract class AbstractDecisionTableWidget extends Composite
      */
     public void updateColumn( final BRLConditionColumn origColumn,
                               final BRLConditionColumn editColumn ) {
+        invalidateAnalysis();
         if ( origColumn == null ) {
             throw new IllegalArgumentException( "origColumn cannot be null" );
         }
@@ -1060,7 +1108,7 @@ public abstract class AbstractDecisionTableWidget extends Composite
         //Copy existing data for re-use if applicable
         Map<String, List<DTCellValue52>> origColumnVariables = new HashMap<String, List<DTCellValue52>>();
         for ( BRLConditionVariableColumn variable : origColumn.getChildColumns() ) {
-            int iCol = model.getExpandedColumns().indexOf( variable );
+            int iCol = columnIndexes.indexOf( variable );
             List<DTCellValue52> columnData = new ArrayList<DTCellValue52>();
             String key = getUpdateBRLConditionColumnKey( variable );
             for ( List<DTCellValue52> row : model.getData() ) {
@@ -1073,7 +1121,8 @@ public abstract class AbstractDecisionTableWidget extends Composite
         //Insert new variable columns setting data from that above, if applicable. Column visibility is handled here too.
         model.getConditions().add( model.getConditions().indexOf( origColumn ),
                                    editColumn );
-        final int index = model.getExpandedColumns().indexOf( editColumn.getChildColumns().get( 0 ) );
+        invalidateColumns();
+        final int index = columnIndexes.indexOf( editColumn.getChildColumns().get( 0 ) );
         final List<BaseColumn> columns = new ArrayList<BaseColumn>();
         final List<List<DTCellValue52>> columnsData = new ArrayList<List<DTCellValue52>>();
         columns.addAll( editColumn.getChildColumns() );
@@ -1094,12 +1143,13 @@ public abstract class AbstractDecisionTableWidget extends Composite
 
         //Delete columns for the original definition
         BRLConditionVariableColumn firstColumn = origColumn.getChildColumns().get( 0 );
-        int firstColumnIndex = model.getExpandedColumns().indexOf( firstColumn );
+        int firstColumnIndex = columnIndexes.indexOf( firstColumn );
         int numberOfColumns = origColumn.getChildColumns().size();
         deleteColumns( firstColumnIndex,
                        numberOfColumns,
                        true );
         model.getConditions().remove( origColumn );
+        invalidateColumns();
 
         //Log change to column definition
         if ( bUpdateColumnDefinition ) {
@@ -1125,6 +1175,7 @@ public abstract class AbstractDecisionTableWidget extends Composite
      */
     public void updateColumn( final LimitedEntryBRLConditionColumn origColumn,
                               final LimitedEntryBRLConditionColumn editColumn ) {
+        invalidateAnalysis();
         if ( origColumn == null ) {
             throw new IllegalArgumentException( "origColumn cannot be null" );
         }
@@ -1133,7 +1184,7 @@ public abstract class AbstractDecisionTableWidget extends Composite
         }
 
         boolean bUpdateColumnDefinition = false;
-        int iCol = model.getExpandedColumns().indexOf( origColumn );
+        int iCol = columnIndexes.indexOf( origColumn );
 
         boolean isHideUpdated = false;
 
@@ -1159,6 +1210,7 @@ public abstract class AbstractDecisionTableWidget extends Composite
         // Copy new values into original column definition
         populateModelColumn( origColumn,
                              editColumn );
+        invalidateColumn( origColumn );
 
         //Update Column cell
         if ( bUpdateColumnDefinition ) {
@@ -1177,6 +1229,7 @@ public abstract class AbstractDecisionTableWidget extends Composite
      */
     public void updateColumn( final LimitedEntryBRLActionColumn origColumn,
                               final LimitedEntryBRLActionColumn editColumn ) {
+        invalidateAnalysis();
         if ( origColumn == null ) {
             throw new IllegalArgumentException( "origColumn cannot be null" );
         }
@@ -1185,7 +1238,7 @@ public abstract class AbstractDecisionTableWidget extends Composite
         }
 
         boolean bUpdateColumnDefinition = false;
-        int iCol = model.getExpandedColumns().indexOf( origColumn );
+        int iCol = columnIndexes.indexOf( origColumn );
 
         boolean isHideUpdated = false;
 
@@ -1211,6 +1264,7 @@ public abstract class AbstractDecisionTableWidget extends Composite
         // Copy new values into original column definition
         populateModelColumn( origColumn,
                              editColumn );
+        invalidateColumn( origColumn );
 
         //Update Column cell
         if ( bUpdateColumnDefinition ) {
@@ -1233,6 +1287,7 @@ public abstract class AbstractDecisionTableWidget extends Composite
                               ConditionCol52 origColumn,
                               Pattern52 editPattern,
                               ConditionCol52 editColumn ) {
+        invalidateAnalysis();
         if ( origPattern == null ) {
             throw new IllegalArgumentException( "origPattern cannot be null" );
         }
@@ -1270,6 +1325,7 @@ public abstract class AbstractDecisionTableWidget extends Composite
         //Add pattern to model, if applicable
         if ( !existPattern ) {
             model.getConditions().add( editPattern );
+            invalidateColumns();
 
             //Signal patterns changed event
             BoundFactsChangedEvent pce = new BoundFactsChangedEvent( rm.getLHSBoundFacts() );
@@ -1277,6 +1333,9 @@ public abstract class AbstractDecisionTableWidget extends Composite
         } else {
             // Update the original pattern properties with new values.
             origPattern.update( editPattern );
+
+            //The data-types and dependent enumerations of all of the Pattern's columns depend upon its Fact Type
+            invalidateColumns();
         }
 
         boolean bUpdateColumnData = false;
@@ -1287,8 +1346,9 @@ public abstract class AbstractDecisionTableWidget extends Composite
                              editPattern.getBoundName() ) ) {
 
             editPattern.getChildColumns().add( editColumn );
+            invalidateColumns();
             List<DTCellValue52> columnData = cellValueFactory.makeColumnData( editColumn );
-            int origColumnIndex = model.getExpandedColumns().indexOf( origColumn );
+            int origColumnIndex = columnIndexes.indexOf( origColumn );
 
             // If the FactType, FieldType and ConstraintValueType are unchanged
             // we can copy cell values from the old column into the new
@@ -1311,8 +1371,10 @@ public abstract class AbstractDecisionTableWidget extends Composite
 
             // Delete old column
             origPattern.getChildColumns().remove( origColumn );
+            invalidateColumns();
             if ( origPattern.getChildColumns().size() == 0 ) {
                 model.getConditions().remove( origPattern );
+                invalidateColumns();
 
                 //Signal patterns changed event to Decision Table Widget
                 BRLRuleModel rm = new BRLRuleModel( model );
@@ -1410,6 +1472,7 @@ public abstract class AbstractDecisionTableWidget extends Composite
             // Copy new values into original column definition
             populateModelColumn( origColumn,
                                  editColumn );
+            invalidateColumn( origColumn );
         }
 
         //First remove merging if column data is being changed. This is necessary before we potentially update
@@ -1422,7 +1485,7 @@ public abstract class AbstractDecisionTableWidget extends Composite
 
         //Update Column cell
         if ( bUpdateColumnDefinition ) {
-            int iCol = model.getExpandedColumns().indexOf( origColumn );
+            int iCol = columnIndexes.indexOf( origColumn );
             DecoratedGridCellValueAdaptor<? extends Comparable<?>> cell = cellFactory.getCell( origColumn );
             UpdateColumnDefinitionEvent updateColumnDefinition = new UpdateColumnDefinitionEvent( cell,
                                                                                                   iCol );
@@ -1431,7 +1494,7 @@ public abstract class AbstractDecisionTableWidget extends Composite
 
         //Update Column data
         if ( bUpdateColumnData ) {
-            int iCol = model.getExpandedColumns().indexOf( origColumn );
+            int iCol = columnIndexes.indexOf( origColumn );
             UpdateColumnDataEvent updateColumnData = new UpdateColumnDataEvent( iCol,
                                                                                 getColumnData( origColumn ) );
             eventBus.fireEvent( updateColumnData );
@@ -1463,7 +1526,7 @@ public abstract class AbstractDecisionTableWidget extends Composite
     private void addColumn( MetadataCol52 modelColumn,
                             List<DTCellValue52> columnData,
                             boolean bRedraw ) {
-        final int index = model.getExpandedColumns().indexOf( modelColumn );
+        final int index = columnIndexes.indexOf( modelColumn );
         InsertDecisionTableColumnEvent dce = new InsertDecisionTableColumnEvent( modelColumn,
                                                                                  columnData,
                                                                                  index,
@@ -1475,7 +1538,7 @@ public abstract class AbstractDecisionTableWidget extends Composite
     private void addColumn( AttributeCol52 modelColumn,
                             List<DTCellValue52> columnData,
                             boolean bRedraw ) {
-        final int index = model.getExpandedColumns().indexOf( modelColumn );
+        final int index = columnIndexes.indexOf( modelColumn );
         InsertDecisionTableColumnEvent dce = new InsertDecisionTableColumnEvent( modelColumn,
                                                                                  columnData,
                                                                                  index,
@@ -1499,7 +1562,7 @@ public abstract class AbstractDecisionTableWidget extends Composite
     private void addColumn( ActionCol52 modelColumn,
                             List<DTCellValue52> columnData,
                             boolean bRedraw ) {
-        final int index = model.getExpandedColumns().indexOf( modelColumn );
+        final int index = columnIndexes.indexOf( modelColumn );
         InsertDecisionTableColumnEvent dce = new InsertDecisionTableColumnEvent( modelColumn,
                                                                                  columnData,
                                                                                  index,
@@ -1510,7 +1573,7 @@ public abstract class AbstractDecisionTableWidget extends Composite
     // Add column to table with optional redraw
     private void addBRLActionVariableColumns( List<BRLActionVariableColumn> modelColumns,
                                               boolean bRedraw ) {
-        final int index = model.getExpandedColumns().indexOf( modelColumns.get( 0 ) );
+        final int index = columnIndexes.indexOf( modelColumns.get( 0 ) );
         final List<BaseColumn> columns = new ArrayList<BaseColumn>();
         final List<List<DTCellValue52>> columnsData = new ArrayList<List<DTCellValue52>>();
         columns.addAll( modelColumns );
@@ -1527,7 +1590,7 @@ public abstract class AbstractDecisionTableWidget extends Composite
     // Add column to table with optional redraw
     private void addBRLConditionVariableColumns( List<BRLConditionVariableColumn> modelColumns,
                                                  boolean bRedraw ) {
-        final int index = model.getExpandedColumns().indexOf( modelColumns.get( 0 ) );
+        final int index = columnIndexes.indexOf( modelColumns.get( 0 ) );
         final List<BaseColumn> columns = new ArrayList<BaseColumn>();
         final List<List<DTCellValue52>> columnsData = new ArrayList<List<DTCellValue52>>();
         columns.addAll( modelColumns );
@@ -1625,7 +1688,7 @@ public abstract class AbstractDecisionTableWidget extends Composite
 
     // Retrieve the data for a particular column
     private List<CellValue<? extends Comparable<?>>> getColumnData( BaseColumn column ) {
-        int iColIndex = model.getExpandedColumns().indexOf( column );
+        int iColIndex = columnIndexes.indexOf( column );
         List<CellValue<? extends Comparable<?>>> columnData = new ArrayList<CellValue<? extends Comparable<?>>>();
         for ( List<DTCellValue52> row : model.getData() ) {
             DTCellValue52 dcv = row.get( iColIndex );
@@ -1782,7 +1845,7 @@ public abstract class AbstractDecisionTableWidget extends Composite
 
     //Remove Otherwise state from column cells
     private void removeOtherwiseStates( DTColumnConfig52 column ) {
-        int index = this.model.getExpandedColumns().indexOf( column );
+        int index = columnIndexes.indexOf( column );
         for ( List<DTCellValue52> row : this.model.getData() ) {
             DTCellValue52 dcv = row.get( index );
             dcv.setOtherwise( false );
@@ -1791,7 +1854,7 @@ public abstract class AbstractDecisionTableWidget extends Composite
 
     //Convert comma-separated values to the first in the list
     private void removeCommaSeparatedValues( DTColumnConfig52 column ) {
-        int index = this.model.getExpandedColumns().indexOf( column );
+        int index = columnIndexes.indexOf( column );
         if ( index >= 0 ) {
             for ( List<DTCellValue52> row : this.model.getData() ) {
                 DTCellValue52 dcv = row.get( index );
@@ -1809,7 +1872,7 @@ public abstract class AbstractDecisionTableWidget extends Composite
         final boolean clearExistingValues = vals.size() > 0;
 
         boolean bUpdateColumnData = false;
-        int iCol = model.getExpandedColumns().indexOf( origColumn );
+        int iCol = columnIndexes.indexOf( origColumn );
         if ( iCol >= 0 ) {
             for ( List<DTCellValue52> row : this.model.getData() ) {
                 if ( !vals.contains( row.get( iCol ).getStringValue() ) ) {
@@ -1827,7 +1890,7 @@ public abstract class AbstractDecisionTableWidget extends Composite
     // Update Row Number column values
     private void updateRowNumberColumnValues( BaseColumn column ) {
         int rowNumber = 1;
-        int iColIndex = model.getExpandedColumns().indexOf( column );
+        int iColIndex = columnIndexes.indexOf( column );
         for ( List<DTCellValue52> row : model.getData() ) {
             row.get( iColIndex ).setNumericValue( rowNumber );
             rowNumber++;
@@ -1843,7 +1906,7 @@ public abstract class AbstractDecisionTableWidget extends Composite
     private void updateSalienceColumnValues( AttributeCol52 column ) {
 
         //Ensure Salience cells are rendered with the correct Cell
-        int iColIndex = model.getExpandedColumns().indexOf( column );
+        int iColIndex = columnIndexes.indexOf( column );
         UpdateColumnDefinitionEvent updateColumnDefinition = new UpdateColumnDefinitionEvent( cellFactory.getCell( column ),
                                                                                               column.isUseRowNumber(),
                                                                                               !column.isUseRowNumber(),
@@ -1876,24 +1939,50 @@ public abstract class AbstractDecisionTableWidget extends Composite
     }
 
     public void analyze() {
-        model.getAnalysisData().clear();
-        DecisionTableAnalyzer analyzer = new DecisionTableAnalyzer( oracle );
-        List<Analysis> analysisData = analyzer.analyze( model );
-        model.getAnalysisData().addAll( analysisData );
+        analyzer = new DecisionTableAnalyzer( columnDescriptors );
+        setAnalysisData( analyzer.analyze( model ) );
         showAnalysis();
     }
 
     private void showAnalysis() {
         AnalysisCol52 analysisCol = model.getAnalysisCol();
-        int analysisColumnIndex = model.getExpandedColumns().indexOf( analysisCol );
+        refreshAnalysisColumn();
+
+        analysisCol.setHideColumn( false );
+        setColumnVisibility( analysisCol,
+                             !analysisCol.isHideColumn() );
+    }
+
+    private void setAnalysisData( final List<Analysis> analysisData ) {
+        model.getAnalysisData().clear();
+        model.getAnalysisData().addAll( analysisData );
+    }
+
+    private void refreshAnalysisColumn() {
+        AnalysisCol52 analysisCol = model.getAnalysisCol();
+        int analysisColumnIndex = columnIndexes.indexOf( analysisCol );
 
         UpdateColumnDataEvent updateColumnData = new UpdateColumnDataEvent( analysisColumnIndex,
                                                                             getAnalysisColumnData() );
         eventBus.fireEvent( updateColumnData );
+    }
 
-        analysisCol.setHideColumn( false );
-        setColumnVisibility( analysisCol,
-                             !analysisCol.isHideColumn() );
+    //Changes to columns require a full analysis, which is performed when the user next requests one
+    private void invalidateAnalysis() {
+        analyzer = null;
+    }
+
+    //Cached column indexes, descriptors and dependent enumerations must be rebuilt when columns are added, removed or moved
+    private void invalidateColumns() {
+        columnIndexes.invalidate();
+        columnDescriptors.invalidate();
+        dropDownManager.invalidate();
+    }
+
+    //The descriptor and dependent enumerations of a column must be rebuilt when its definition changes
+    private void invalidateColumn( final BaseColumn column ) {
+        columnDescriptors.invalidate( column );
+        dropDownManager.invalidate();
     }
 
     /**
@@ -1920,14 +2009,15 @@ public abstract class AbstractDecisionTableWidget extends Composite
 
             //Move down (after)
             CompositeColumn<?> patternBeingMovedAfter = model.getConditions().get( patternTargetIndex );
-            int sourceColumnIndex = model.getExpandedColumns().indexOf( pattern.getChildColumns().get( 0 ) );
-            int targetColumnIndex = model.getExpandedColumns().indexOf( patternBeingMovedAfter.getChildColumns().get( patternBeingMovedAfter.getChildColumns().size() - 1 ) );
+            int sourceColumnIndex = columnIndexes.indexOf( pattern.getChildColumns().get( 0 ) );
+            int targetColumnIndex = columnIndexes.indexOf( patternBeingMovedAfter.getChildColumns().get( patternBeingMovedAfter.getChildColumns().size() - 1 ) );
             int numberOfColumns = pattern.getChildColumns().size();
 
             //Update model
             model.getConditions().remove( pattern );
             model.getConditions().add( patternTargetIndex,
                                        pattern );
+            invalidateColumns();
 
             //Update data and UI
             MoveColumnsEvent mce = new MoveColumnsEvent( sourceColumnIndex,
@@ -1938,14 +2028,15 @@ public abstract class AbstractDecisionTableWidget extends Composite
         } else {
             //Move up (before)
             CompositeColumn<?> patternBeingMovedBefore = model.getConditions().get( patternTargetIndex );
-            int sourceColumnIndex = model.getExpandedColumns().indexOf( pattern.getChildColumns().get( 0 ) );
-            int targetColumnIndex = model.getExpandedColumns().indexOf( patternBeingMovedBefore.getChildColumns().get( 0 ) );
+            int sourceColumnIndex = columnIndexes.indexOf( pattern.getChildColumns().get( 0 ) );
+            int targetColumnIndex = columnIndexes.indexOf( patternBeingMovedBefore.getChildColumns().get( 0 ) );
             int numberOfColumns = pattern.getChildColumns().size();
 
             //Update model
             model.getConditions().remove( pattern );
             model.getConditions().add( patternTargetIndex,
                                        pattern );
+            invalidateColumns();
 
             //Update data and UI
             MoveColumnsEvent mce = new MoveColumnsEvent( sourceColumnIndex,
@@ -1978,13 +2069,14 @@ public abstract class AbstractDecisionTableWidget extends Composite
         }
 
         ConditionCol52 conditionTarget = pattern.getChildColumns().get( conditionTargetIndex );
-        int conditionTargetColumnIndex = model.getExpandedColumns().indexOf( conditionTarget );
-        int conditionSourceColumnIndex = model.getExpandedColumns().indexOf( condition );
+        int conditionTargetColumnIndex = columnIndexes.indexOf( conditionTarget );
+        int conditionSourceColumnIndex = columnIndexes.indexOf( condition );
 
         //Update model
         pattern.getChildColumns().remove( condition );
         pattern.getChildColumns().add( conditionTargetIndex,
                                        condition );
+        invalidateColumns();
 
         //Update data and UI
         MoveColumnsEvent mce = new MoveColumnsEvent( conditionSourceColumnIndex,
@@ -2024,25 +2116,26 @@ public abstract class AbstractDecisionTableWidget extends Composite
             if ( action instanceof BRLActionColumn ) {
                 BRLActionColumn brlColumn = (BRLActionColumn) action;
                 BRLActionVariableColumn variable = brlColumn.getChildColumns().get( 0 );
-                sourceColumnIndex = model.getExpandedColumns().indexOf( variable );
+                sourceColumnIndex = columnIndexes.indexOf( variable );
                 numberOfColumns = brlColumn.getChildColumns().size();
             } else {
-                sourceColumnIndex = model.getExpandedColumns().indexOf( action );
+                sourceColumnIndex = columnIndexes.indexOf( action );
                 numberOfColumns = 1;
             }
 
             if ( actionBeingMovedAfter instanceof BRLActionColumn ) {
                 BRLActionColumn brlColumn = (BRLActionColumn) actionBeingMovedAfter;
                 BRLActionVariableColumn variable = brlColumn.getChildColumns().get( brlColumn.getChildColumns().size() - 1 );
-                targetColumnIndex = model.getExpandedColumns().indexOf( variable );
+                targetColumnIndex = columnIndexes.indexOf( variable );
             } else {
-                targetColumnIndex = model.getExpandedColumns().indexOf( actionBeingMovedAfter );
+                targetColumnIndex = columnIndexes.indexOf( actionBeingMovedAfter );
             }
 
             //Update model
             model.getActionCols().remove( action );
             model.getActionCols().add( actionTargetIndex,
                                        action );
+            invalidateColumns();
 
             //Update data and UI
             MoveColumnsEvent mce = new MoveColumnsEvent( sourceColumnIndex,
@@ -2060,25 +2153,26 @@ public abstract class AbstractDecisionTableWidget extends Composite
             if ( action instanceof BRLActionColumn ) {
                 BRLActionColumn brlColumn = (BRLActionColumn) action;
                 BRLActionVariableColumn variable = brlColumn.getChildColumns().get( 0 );
-                sourceColumnIndex = model.getExpandedColumns().indexOf( variable );
+                sourceColumnIndex = columnIndexes.indexOf( variable );
                 numberOfColumns = brlColumn.getChildColumns().size();
             } else {
-                sourceColumnIndex = model.getExpandedColumns().indexOf( action );
+                sourceColumnIndex = columnIndexes.indexOf( action );
                 numberOfColumns = 1;
             }
 
             if ( actionBeingMovedBefore instanceof BRLActionColumn ) {
                 BRLActionColumn brlColumn = (BRLActionColumn) actionBeingMovedBefore;
                 BRLActionVariableColumn variable = brlColumn.getChildColumns().get( 0 );
-                targetColumnIndex = model.getExpandedColumns().indexOf( variable );
+                targetColumnIndex = columnIndexes.indexOf( variable );
             } else {
-                targetColumnIndex = model.getExpandedColumns().indexOf( actionBeingMovedBefore );
+                targetColumnIndex = columnIndexes.indexOf( actionBeingMovedBefore );
             }
 
             //Update model
             model.getActionCols().remove( action );
             model.getActionCols().add( actionTargetIndex,
                                        action );
+            invalidateColumns();
 
             //Update data and UI
             MoveColumnsEvent mce = new MoveColumnsEvent( sourceColumnIndex,
@@ -2090,11 +2184,18 @@ public abstract class AbstractDecisionTableWidget extends Composite
 
     public void onDeleteRow( DeleteRowEvent event ) {
         model.getData().remove( event.getIndex() );
-        model.getAnalysisData().remove( event.getIndex() );
+        if ( analyzer != null ) {
+            setAnalysisData( analyzer.deleteRow( event.getIndex() ) );
+        } else {
+            model.getAnalysisData().remove( event.getIndex() );
+        }
         Scheduler.get().scheduleFinally( new Command() {
 
             public void execute() {
                 updateSystemControlledColumnValues();
+                if ( analyzer != null ) {
+                    refreshAnalysisColumn();
+                }
             }
 
         } );
@@ -2108,12 +2209,20 @@ public abstract class AbstractDecisionTableWidget extends Composite
         List<DTCellValue52> data = cellValueFactory.makeRowData();
         model.getData().add( event.getIndex(),
                              data );
-        model.getAnalysisData().add( event.getIndex(),
-                                     new Analysis() );
+        if ( analyzer != null ) {
+            setAnalysisData( analyzer.insertRow( model,
+                                                 event.getIndex() ) );
+        } else {
+            model.getAnalysisData().add( event.getIndex(),
+                                         new Analysis() );
+        }
         Scheduler.get().scheduleFinally( new Command() {
 
             public void execute() {
                 updateSystemControlledColumnValues();
+                if ( analyzer != null ) {
+                    refreshAnalysisColumn();
+                }
             }
 
         } );
@@ -2183,8 +2292,13 @@ public abstract class AbstractDecisionTableWidget extends Composite
 
             model.getData().add( iRow,
                                  rowData );
-            model.getAnalysisData().add( iRow,
-                                         new Analysis() );
+            if ( analyzer != null ) {
+                setAnalysisData( analyzer.insertRow( model,
+                                                     iRow ) );
+            } else {
+                model.getAnalysisData().add( iRow,
+                                             new Analysis() );
+            }
 
             //Log insertion of row
             model.getAuditLog().add( new InsertRowAuditLogEntry( identity.getIdentifier(),
@@ -2196,6 +2310,9 @@ public abstract class AbstractDecisionTableWidget extends Composite
 
             public void execute() {
                 updateSystemControlledColumnValues();
+                if ( analyzer != null ) {
+                    refreshAnalysisColumn();
+                }
             }
 
         } );
@@ -2205,11 +2322,19 @@ public abstract class AbstractDecisionTableWidget extends Composite
     public void onAppendRow( AppendRowEvent event ) {
         List<DTCellValue52> data = cellValueFactory.makeRowData();
         model.getData().add( data );
-        model.getAnalysisData().add( new Analysis() );
+        if ( analyzer != null ) {
+            setAnalysisData( analyzer.insertRow( model,
+                                                 model.getData().size() - 1 ) );
+        } else {
+            model.getAnalysisData().add( new Analysis() );
+        }
         Scheduler.get().scheduleFinally( new Command() {
 
             public void execute() {
                 updateSystemControlledColumnValues();
+                if ( analyzer != null ) {
+                    refreshAnalysisColumn();
+                }
             }
 
         } );
@@ -2220,6 +2345,8 @@ public abstract class AbstractDecisionTableWidget extends Composite
     }
 
     public void onDeleteColumn( DeleteColumnEvent event ) {
+        invalidateAnalysis();
+        dropDownManager.invalidate();
         int firstColumnIndex = event.getFirstColumnIndex();
         for ( int iCol = 0; iCol < event.getNumberOfColumns(); iCol++ ) {
             for ( List<DTCellValue52> row : model.getData() ) {
@@ -2229,6 +2356,8 @@ public abstract class AbstractDecisionTableWidget extends Composite
     }
 
     public void onInsertColumn( InsertColumnEvent<BaseColumn, DTCellValue52> event ) {
+        invalidateAnalysis();
+        dropDownManager.invalidate();
         int index = event.getIndex();
         List<List<DTCellValue52>> columnsData = event.getColumnsData();
         for ( int iCol = 0; iCol < columnsData.size(); iCol++ ) {
@@ -2256,6 +2385,8 @@ public abstract class AbstractDecisionTableWidget extends Composite
     protected abstract void setEnableOtherwiseButton( final boolean isEnabled );
 
     public void onMoveColumns( MoveColumnsEvent event ) {
+        invalidateAnalysis();
+        dropDownManager.invalidate();
         int sourceColumnIndex = event.getSourceColumnIndex();
         int targetColumnIndex = event.getTargetColumnIndex();
         int numberOfColumns = event.getNumberOfColumns();
@@ -2286,6 +2417,7 @@ public abstract class AbstractDecisionTableWidget extends Composite
     public void onUpdateModel( UpdateModelEvent event ) {
 
         //Copy data into the underlying model
+        Set<Integer> updatedRowIndexes = new HashSet<Integer>();
         Map<Coordinate, List<List<CellValue<? extends Comparable<?>>>>> updates = event.getUpdates();
         for ( Map.Entry<Coordinate, List<List<CellValue<? extends Comparable<?>>>>> e : updates.entrySet() ) {
 
@@ -2300,6 +2432,7 @@ public abstract class AbstractDecisionTableWidget extends Composite
             for ( int iRow = 0; iRow < data.size(); iRow++ ) {
                 List<CellValue<? extends Comparable<?>>> rowData = data.get( iRow );
                 int targetRowIndex = originRowIndex + iRow;
+                updatedRowIndexes.add( targetRowIndex );
                 for ( int iCol = 0; iCol < rowData.size(); iCol++ ) {
                     int targetColumnIndex = originColumnIndex + iCol;
                     CellValue<? extends Comparable<?>> changedCell = rowData.get( iCol );
@@ -2312,11 +2445,22 @@ public abstract class AbstractDecisionTableWidget extends Composite
             }
         }
 
+        //Re-analyse changed rows
+        if ( analyzer != null ) {
+            for ( Integer updatedRowIndex : updatedRowIndexes ) {
+                setAnalysisData( analyzer.updateRow( model,
+                                                     updatedRowIndex ) );
+            }
+        }
+
         //Update system controlled columns
         Scheduler.get().scheduleFinally( new Command() {
 
             public void execute() {
                 updateSystemControlledColumnValues();
+                if ( analyzer != null ) {
+                    refreshAnalysisColumn();
+                }
             }
 
         } );
@@ -41,6 +41,7 @@ import org.drools.workbench.models.guided.dtable.shared.model.DTColumnConfig52;
 import org.drools.workbench.models.guided.dtable.shared.model.GuidedDecisionTable52;
 import org.drools.workbench.models.guided.dtable.shared.model.LimitedEntryCol;
 import org.drools.workbench.models.guided.dtable.shared.model.RowNumberCol52;
+import org.drools.workbench.screens.guided.dtable.analysis.ColumnDescriptorCache;
 import org.drools.workbench.screens.guided.dtable.client.utils.GuidedDecisionTableUtils;
 import org.drools.workbench.screens.guided.dtable.client.widget.table.cells.AnalysisCell;
 import org.drools.workbench.screens.guided.dtable.client.widget.table.cells.PopupBoundPatternDropDownEditCell;
@@ -71,6 +72,7 @@ import org.kie.workbench.common.widgets.decoratedgrid.client.widget.cells.RowNum
 public class DecisionTableCellFactory extends AbstractCellFactory<BaseColumn> {
 
     private GuidedDecisionTableUtils utils;
+    private ColumnDescriptorCache descriptors;
     private GuidedDecisionTable52 model;
 
     /**
@@ -99,6 +101,33 @@ public class DecisionTableCellFactory extends AbstractCellFactory<BaseColumn> {
         this.model = model;
         this.utils = new GuidedDecisionTableUtils( model,
                                                    oracle );
+        this.descriptors = ColumnDescriptorCache.uncached( utils );
+    }
+
+    /**
+     * Construct a Cell Factory for a specific Decision Table whose column data-types and value lists are cached
+     * @param oracle SuggestionCompletionEngine to assist with drop-downs
+     * @param model GuidedDecisionTable52 Decision table model
+     * @param descriptors Cache of the data-types and value lists of the model's columns
+     * @param dropDownManager DropDownManager for dependent cells
+     * @param isReadOnly Should cells be created for a read-only mode of operation
+     * @param eventBus An EventBus on which cells can subscribe to events
+     */
+    public DecisionTableCellFactory( final GuidedDecisionTable52 model,
+                                     final AsyncPackageDataModelOracle oracle,
+                                     final ColumnDescriptorCache descriptors,
+                                     final DecisionTableDropDownManager dropDownManager,
+                                     final boolean isReadOnly,
+                                     final EventBus eventBus ) {
+        this( model,
+              oracle,
+              dropDownManager,
+              isReadOnly,
+              eventBus );
+        if ( descriptors == null ) {
+            throw new IllegalArgumentException( "descriptors cannot be null" );
+        }
+        this.descriptors = descriptors;
     }
 
     /**
@@ -201,8 +230,8 @@ public class DecisionTableCellFactory extends AbstractCellFactory<BaseColumn> {
         //Check if the column has a "Value List" or an enumeration. Value List takes precedence
         final String factType = model.getPattern( col ).getFactType();
         final String fieldName = col.getFactField();
-        final String dataType = utils.getType( col );
-        if ( utils.hasValueList( col ) ) {
+        final String dataType = descriptors.getType( col );
+        if ( descriptors.getDescriptor( col ).hasValueList() ) {
             return makeValueListCell( col );
 
         } else if ( oracle.hasEnums( factType,
@@ -226,7 +255,7 @@ public class DecisionTableCellFactory extends AbstractCellFactory<BaseColumn> {
         //Check if the column has an enumeration
         final String factType = col.getFactType();
         final String fieldName = col.getFactField();
-        final String dataType = utils.getType( col );
+        final String dataType = descriptors.getType( col );
         if ( oracle.hasEnums( factType,
                               fieldName ) ) {
             if ( OperatorsOracle.operatorRequiresList( col.getOperator() ) ) {
@@ -249,8 +278,8 @@ public class DecisionTableCellFactory extends AbstractCellFactory<BaseColumn> {
         //Check if the column has a "Value List" or an enumeration. Value List takes precedence
         final String factType = utils.getBoundFactType( col.getBoundName() );
         final String fieldName = col.getFactField();
-        final String dataType = utils.getType( col );
-        if ( utils.hasValueList( col ) ) {
+        final String dataType = descriptors.getType( col );
+        if ( descriptors.getDescriptor( col ).hasValueList() ) {
             return makeValueListCell( col );
 
         } else if ( oracle.hasEnums( factType,
@@ -269,8 +298,8 @@ public class DecisionTableCellFactory extends AbstractCellFactory<BaseColumn> {
         //Check if the column has a "Value List" or an enumeration. Value List takes precedence
         final String factType = col.getFactType();
         final String fieldName = col.getFactField();
-        final String dataType = utils.getType( col );
-        if ( utils.hasValueList( col ) ) {
+        final String dataType = descriptors.getType( col );
+        if ( descriptors.getDescriptor( col ).hasValueList() ) {
             return makeValueListCell( col );
 
         } else if ( oracle.hasEnums( factType,
@@ -301,7 +330,7 @@ public class DecisionTableCellFactory extends AbstractCellFactory<BaseColumn> {
         //Check if the column has an enumeration
         final String factType = col.getFactType();
         final String fieldName = col.getFactField();
-        final String dataType = utils.getType( col );
+        final String dataType = descriptors.getType( col );
         if ( oracle.hasEnums( factType,
                               fieldName ) ) {
             return makeSingleSelectionEnumCell( factType,
@@ -319,7 +348,7 @@ public class DecisionTableCellFactory extends AbstractCellFactory<BaseColumn> {
         DecoratedGridCellValueAdaptor<? extends Comparable<?>> cell = makeTextCell();
 
         //Get a cell based upon the data-type
-        String type = utils.getType( col );
+        String type = descriptors.getType( col );
 
         if ( type.equals( DataType.TYPE_NUMERIC ) ) {
             cell = makeNumericCell();
@@ -383,7 +412,7 @@ public class DecisionTableCellFactory extends AbstractCellFactory<BaseColumn> {
     private DecoratedGridCellValueAdaptor<? extends Comparable<?>> makeValueListCell( final ConditionCol52 col ) {
         // Columns with "Value Lists" are always Text (for now)
         final boolean isMultipleSelect = OperatorsOracle.operatorRequiresList( col.getOperator() );
-        PopupValueListDropDownEditCell pudd = new PopupValueListDropDownEditCell( utils.getValueList( col ),
+        PopupValueListDropDownEditCell pudd = new PopupValueListDropDownEditCell( descriptors.getValueList( col ),
                                                                                   isMultipleSelect,
                                                                                   isReadOnly );
         DecoratedGridCellValueAdaptor<? extends Comparable<?>> cell = new DecoratedGridCellValueAdaptor<String>( pudd,
@@ -394,7 +423,7 @@ public class DecisionTableCellFactory extends AbstractCellFactory<BaseColumn> {
     //Get a cell for a Value List
     private DecoratedGridCellValueAdaptor<? extends Comparable<?>> makeValueListCell( final ActionCol52 col ) {
         // Columns with "Value Lists" are always Text (for now)
-        PopupValueListDropDownEditCell pudd = new PopupValueListDropDownEditCell( utils.getValueList( col ),
+        PopupValueListDropDownEditCell pudd = new PopupValueListDropDownEditCell( descriptors.getValueList( col ),
                                                                                   isReadOnly );
         DecoratedGridCellValueAdaptor<? extends Comparable<?>> cell = new DecoratedGridCellValueAdaptor<String>( pudd,
                                                                                                                  eventBus );
@@ -30,6 +30,7 @@ import org.drools.workbench.models.guided.dtable.shared.model.DTCellValue52;
 import org.drools.workbench.models.guided.dtable.shared.model.GuidedDecisionTable52;
 import org.drools.workbench.models.guided.dtable.shared.model.LimitedEntryCol;
 import org.drools.workbench.models.guided.dtable.shared.model.RowNumberCol52;
+import org.drools.workbench.screens.guided.dtable.analysis.ColumnDescriptorCache;
 import org.drools.workbench.screens.guided.dtable.client.utils.DTCellValueUtilities;
 import org.drools.workbench.screens.guided.rule.client.editor.RuleAttributeWidget;
 import org.kie.workbench.common.widgets.client.datamodel.AsyncPackageDataModelOracle;
@@ -60,6 +61,21 @@ public class DecisionTableCellValueFactory extends AbstractCellValueFactory<Base
                                                    oracle );
     }
 
+    /**
+     * Construct a Cell Value Factory for a specific Decision Table whose column data-types are cached
+     * @param oracle DataModelOracle to assist with drop-downs
+     * @param descriptors Cache of the data-types of the model's columns
+     */
+    public DecisionTableCellValueFactory( GuidedDecisionTable52 model,
+                                          AsyncPackageDataModelOracle oracle,
+                                          ColumnDescriptorCache descriptors ) {
+        super( oracle );
+        this.model = model;
+        this.utilities = new DTCellValueUtilities( model,
+                                                   oracle,
+                                                   descriptors );
+    }
+
     /**
      * Construct a new row of data for the underlying model
      * @return
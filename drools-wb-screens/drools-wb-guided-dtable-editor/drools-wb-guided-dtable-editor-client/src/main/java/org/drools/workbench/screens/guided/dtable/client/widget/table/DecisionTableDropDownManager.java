@@ -15,6 +15,7 @@
  */
 package org.drools.workbench.screens.guided.dtable.client.widget.table;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -38,6 +39,7 @@ import org.drools.workbench.models.guided.dtable.shared.model.DTCellValue52;
 import org.drools.workbench.models.guided.dtable.shared.model.GuidedDecisionTable52;
 import org.drools.workbench.models.guided.dtable.shared.model.Pattern52;
 import org.drools.workbench.screens.guided.dtable.client.utils.DTCellValueUtilities;
+import org.drools.workbench.screens.guided.dtable.model.ExpandedColumnIndexMap;
 import org.drools.workbench.screens.guided.template.client.editor.RuleModelPeerVariableVisitor;
 import org.drools.workbench.screens.guided.template.client.editor.RuleModelPeerVariableVisitor.ValueHolder;
 import org.kie.workbench.common.widgets.client.datamodel.AsyncPackageDataModelOracle;
@@ -49,7 +51,10 @@ import org.kie.workbench.common.widgets.decoratedgrid.client.widget.data.Dynamic
 /**
  * A utility class to get the values of all Constraints\Actions in the scope of
  * a Template Key to drive dependent enumerations. A value is in scope if it is
- * on a Constraint or Action on the same Pattern of the base column.
+ * on a Constraint or Action on the same Pattern of the base column. The peers and
+ * dependent columns of every column are resolved once and must be rebuilt, by
+ * calling {@link #invalidate()}, whenever columns are added, removed, moved or
+ * their definitions change.
  */
 public class DecisionTableDropDownManager
         implements
@@ -61,6 +66,9 @@ public class DecisionTableDropDownManager
     private final DTCellValueUtilities utilities;
     private DynamicData data;
 
+    //Peer values and dependent columns of each column, by index in the expanded columns; null until first used
+    private List<ColumnDependencies> dependencies;
+
     public DecisionTableDropDownManager( final GuidedDecisionTable52 model,
                                          final AsyncPackageDataModelOracle oracle ) {
         if ( model == null ) {
@@ -106,6 +114,13 @@ public class DecisionTableDropDownManager
         this.data = data;
     }
 
+    /**
+     * Discard the peers and dependent columns of each column, so they are rebuilt on next use
+     */
+    public void invalidate() {
+        dependencies = null;
+    }
+
     /**
      * Create a map of Field Values keyed on Field Names used by
      * SuggestionCompletionEngine.getEnums(String, String, Map<String, String>)
@@ -121,115 +136,16 @@ public class DecisionTableDropDownManager
         final int iBaseColIndex = context.getColumn();
         final DynamicDataRow rowData = this.data.get( iBaseRowIndex );
 
-        //Get the column for the cell being edited
-        List<BaseColumn> allColumns = this.model.getExpandedColumns();
-        BaseColumn baseColumn = allColumns.get( iBaseColIndex );
-
-        //Get values for all Constraints or Actions on the same pattern as the baseColumn
-        if ( baseColumn instanceof BRLConditionVariableColumn ) {
-            final BRLConditionVariableColumn baseBRLConditionColumn = (BRLConditionVariableColumn) baseColumn;
-            final BRLConditionColumn brl = model.getBRLColumn( baseBRLConditionColumn );
-            final RuleModel rm = new RuleModel();
-            IPattern[] lhs = new IPattern[ brl.getDefinition().size() ];
-            brl.getDefinition().toArray( lhs );
-            rm.lhs = lhs;
-
-            final RuleModelPeerVariableVisitor peerVariableVisitor = new RuleModelPeerVariableVisitor( rm,
-                                                                                                       baseBRLConditionColumn.getVarName() );
-            List<RuleModelPeerVariableVisitor.ValueHolder> peerVariables = peerVariableVisitor.getPeerVariables();
-
-            //Add other variables values
-            for ( ValueHolder valueHolder : peerVariables ) {
-                switch ( valueHolder.getType() ) {
-                    case TEMPLATE_KEY:
-                        final BRLConditionVariableColumn vc = getConditionVariableColumnIndex( brl.getChildColumns(),
-                                                                                               valueHolder.getValue() );
-                        final int iCol = model.getExpandedColumns().indexOf( vc );
-                        final CellValue<?> cv = this.data.get( iBaseRowIndex ).get( iCol );
-                        final String field = vc.getFactField();
-                        final String value = getValue( vc,
-                                                       cv );
-                        currentValueMap.put( field,
-                                             value );
-                        break;
-                    case VALUE:
-                        currentValueMap.put( valueHolder.getFieldName(),
-                                             valueHolder.getValue() );
-                }
-            }
-
-        } else if ( baseColumn instanceof BRLActionVariableColumn ) {
-            final BRLActionVariableColumn baseBRLActionColumn = (BRLActionVariableColumn) baseColumn;
-            final BRLActionColumn brl = model.getBRLColumn( baseBRLActionColumn );
-            final RuleModel rm = new RuleModel();
-            IAction[] rhs = new IAction[ brl.getDefinition().size() ];
-            brl.getDefinition().toArray( rhs );
-            rm.rhs = rhs;
-
-            final RuleModelPeerVariableVisitor peerVariableVisitor = new RuleModelPeerVariableVisitor( rm,
-                                                                                                       baseBRLActionColumn.getVarName() );
-            List<ValueHolder> peerVariables = peerVariableVisitor.getPeerVariables();
-
-            //Add other variables values
-            for ( ValueHolder valueHolder : peerVariables ) {
-                switch ( valueHolder.getType() ) {
-                    case TEMPLATE_KEY:
-                        final BRLActionVariableColumn vc = getActionVariableColumnIndex( brl.getChildColumns(),
-                                                                                         valueHolder.getValue() );
-                        final int iCol = model.getExpandedColumns().indexOf( vc );
-                        final CellValue<?> cv = this.data.get( iBaseRowIndex ).get( iCol );
-                        final String field = vc.getFactField();
-                        final String value = getValue( vc,
-                                                       cv );
-                        currentValueMap.put( field,
-                                             value );
-                        break;
-                    case VALUE:
-                        currentValueMap.put( valueHolder.getFieldName(),
-                                             valueHolder.getValue() );
-                }
-            }
-
-        } else if ( baseColumn instanceof ConditionCol52 ) {
-            final ConditionCol52 baseConditionColumn = (ConditionCol52) baseColumn;
-            final Pattern52 basePattern = this.model.getPattern( baseConditionColumn );
-            for ( ConditionCol52 cc : basePattern.getChildColumns() ) {
-                final int iCol = allColumns.indexOf( cc );
-                currentValueMap.put( cc.getFactField(),
-                                     getValue( cc,
-                                               rowData.get( iCol ) ) );
-            }
-
-        } else if ( baseColumn instanceof ActionSetFieldCol52 ) {
-            ActionSetFieldCol52 baseActionColumn = (ActionSetFieldCol52) baseColumn;
-            final String binding = baseActionColumn.getBoundName();
-            for ( ActionCol52 ac : this.model.getActionCols() ) {
-                if ( ac instanceof ActionSetFieldCol52 ) {
-                    final ActionSetFieldCol52 asf = (ActionSetFieldCol52) ac;
-                    if ( asf.getBoundName().equals( binding ) ) {
-                        final int iCol = allColumns.indexOf( asf );
-                        currentValueMap.put( asf.getFactField(),
-                                             getValue( asf,
-                                                       rowData.get( iCol ) ) );
-                    }
-                }
+        //Get values for all Constraints or Actions on the same pattern as the column for the cell being edited
+        for ( Peer peer : getDependencies( iBaseColIndex ).peers ) {
+            if ( peer.column == null ) {
+                currentValueMap.put( peer.fieldName,
+                                     peer.value );
+            } else {
+                currentValueMap.put( peer.fieldName,
+                                     getValue( peer.column,
+                                               rowData.get( peer.columnIndex ) ) );
             }
-
-        } else if ( baseColumn instanceof ActionInsertFactCol52 ) {
-            ActionInsertFactCol52 baseActionColumn = (ActionInsertFactCol52) baseColumn;
-            final String binding = baseActionColumn.getBoundName();
-            for ( ActionCol52 ac : this.model.getActionCols() ) {
-                if ( ac instanceof ActionInsertFactCol52 ) {
-                    final ActionInsertFactCol52 aif = (ActionInsertFactCol52) ac;
-                    if ( aif.getBoundName().equals( binding ) ) {
-                        final int iCol = allColumns.indexOf( aif );
-                        currentValueMap.put( aif.getFactField(),
-                                             getValue( aif,
-                                                       rowData.get( iCol ) ) );
-                    }
-                }
-            }
-
         }
         return currentValueMap;
     }
@@ -272,15 +188,32 @@ public class DecisionTableDropDownManager
 
     @Override
     public Set<Integer> getDependentColumnIndexes( final Context context ) {
+        return new HashSet<Integer>( getDependencies( context.getColumn() ).dependentColumnIndexes );
+    }
 
-        final int iBaseColIndex = context.getColumn();
-        final Set<Integer> dependentColumnIndexes = new HashSet<Integer>();
+    private ColumnDependencies getDependencies( final int iBaseColIndex ) {
+        if ( dependencies == null ) {
+            dependencies = buildDependencies();
+        }
+        return dependencies.get( iBaseColIndex );
+    }
 
-        //Get the column for the cell being edited
-        final List<BaseColumn> allColumns = this.model.getExpandedColumns();
-        final BaseColumn baseColumn = allColumns.get( iBaseColIndex );
+    private List<ColumnDependencies> buildDependencies() {
+        final List<BaseColumn> allColumns = model.getExpandedColumns();
+        final ExpandedColumnIndexMap columnIndexes = new ExpandedColumnIndexMap( model );
+        final List<ColumnDependencies> allDependencies = new ArrayList<ColumnDependencies>( allColumns.size() );
+        for ( BaseColumn column : allColumns ) {
+            allDependencies.add( buildDependencies( column,
+                                                    columnIndexes ) );
+        }
+        return allDependencies;
+    }
+
+    //Get all Constraints or Actions on the same pattern as the baseColumn, and those whose enumerations depend on it
+    private ColumnDependencies buildDependencies( final BaseColumn baseColumn,
+                                                  final ExpandedColumnIndexMap columnIndexes ) {
+        final ColumnDependencies dependencies = new ColumnDependencies();
 
-        //Get values for all Constraints or Actions on the same pattern as the baseColumn
         if ( baseColumn instanceof BRLConditionVariableColumn ) {
             final BRLConditionVariableColumn baseBRLConditionColumn = (BRLConditionVariableColumn) baseColumn;
             final BRLConditionColumn brl = model.getBRLColumn( baseBRLConditionColumn );
@@ -293,19 +226,25 @@ public class DecisionTableDropDownManager
                                                                                                        baseBRLConditionColumn.getVarName() );
             List<ValueHolder> peerVariables = peerVariableVisitor.getPeerVariables();
 
-            //Add other variables values
+            //Add other variables
             for ( ValueHolder valueHolder : peerVariables ) {
                 switch ( valueHolder.getType() ) {
                     case TEMPLATE_KEY:
+                        final BRLConditionVariableColumn vc = getConditionVariableColumnIndex( brl.getChildColumns(),
+                                                                                               valueHolder.getValue() );
+                        final int iCol = columnIndexes.indexOf( vc );
+                        dependencies.addPeer( vc.getFactField(),
+                                              vc,
+                                              iCol );
                         if ( oracle.isDependentEnum( baseBRLConditionColumn.getFactType(),
                                                      baseBRLConditionColumn.getFactField(),
                                                      valueHolder.getFieldName() ) ) {
-                            final BRLConditionVariableColumn vc = getConditionVariableColumnIndex( brl.getChildColumns(),
-                                                                                                   valueHolder.getValue() );
-                            final int iCol = model.getExpandedColumns().indexOf( vc );
-                            dependentColumnIndexes.add( iCol );
+                            dependencies.dependentColumnIndexes.add( iCol );
                         }
                         break;
+                    case VALUE:
+                        dependencies.addPeer( valueHolder.getFieldName(),
+                                              valueHolder.getValue() );
                 }
             }
 
@@ -321,19 +260,25 @@ public class DecisionTableDropDownManager
                                                                                                        baseBRLActionColumn.getVarName() );
             List<ValueHolder> peerVariables = peerVariableVisitor.getPeerVariables();
 
-            //Add other variables values
+            //Add other variables
             for ( ValueHolder valueHolder : peerVariables ) {
                 switch ( valueHolder.getType() ) {
                     case TEMPLATE_KEY:
+                        final BRLActionVariableColumn vc = getActionVariableColumnIndex( brl.getChildColumns(),
+                                                                                         valueHolder.getValue() );
+                        final int iCol = columnIndexes.indexOf( vc );
+                        dependencies.addPeer( vc.getFactField(),
+                                              vc,
+                                              iCol );
                         if ( oracle.isDependentEnum( baseBRLActionColumn.getFactType(),
                                                      baseBRLActionColumn.getFactField(),
                                                      valueHolder.getFieldName() ) ) {
-                            final BRLActionVariableColumn vc = getActionVariableColumnIndex( brl.getChildColumns(),
-                                                                                             valueHolder.getValue() );
-                            final int iCol = model.getExpandedColumns().indexOf( vc );
-                            dependentColumnIndexes.add( iCol );
+                            dependencies.dependentColumnIndexes.add( iCol );
                         }
                         break;
+                    case VALUE:
+                        dependencies.addPeer( valueHolder.getFieldName(),
+                                              valueHolder.getValue() );
                 }
             }
 
@@ -341,10 +286,14 @@ public class DecisionTableDropDownManager
             final ConditionCol52 baseConditionColumn = (ConditionCol52) baseColumn;
             final Pattern52 basePattern = this.model.getPattern( baseConditionColumn );
             for ( ConditionCol52 cc : basePattern.getChildColumns() ) {
+                final int iCol = columnIndexes.indexOf( cc );
+                dependencies.addPeer( cc.getFactField(),
+                                      cc,
+                                      iCol );
                 if ( oracle.isDependentEnum( basePattern.getFactType(),
                                              baseConditionColumn.getFactField(),
                                              cc.getFactField() ) ) {
-                    dependentColumnIndexes.add( allColumns.indexOf( cc ) );
+                    dependencies.dependentColumnIndexes.add( iCol );
                 }
             }
 
@@ -356,10 +305,15 @@ public class DecisionTableDropDownManager
                 if ( ac instanceof ActionSetFieldCol52 ) {
                     final ActionSetFieldCol52 asf = (ActionSetFieldCol52) ac;
                     if ( asf.getBoundName().equals( binding ) ) {
-                        if ( oracle.isDependentEnum( basePattern.getFactType(),
-                                                     baseActionColumn.getFactField(),
-                                                     asf.getFactField() ) ) {
-                            dependentColumnIndexes.add( allColumns.indexOf( ac ) );
+                        final int iCol = columnIndexes.indexOf( asf );
+                        dependencies.addPeer( asf.getFactField(),
+                                              asf,
+                                              iCol );
+                        //Columns bound to a Pattern that no longer exists have no dependent enumerations
+                        if ( basePattern != null && oracle.isDependentEnum( basePattern.getFactType(),
+                                                                            baseActionColumn.getFactField(),
+                                                                            asf.getFactField() ) ) {
+                            dependencies.dependentColumnIndexes.add( iCol );
                         }
                     }
                 }
@@ -372,10 +326,14 @@ public class DecisionTableDropDownManager
                 if ( ac instanceof ActionInsertFactCol52 ) {
                     final ActionInsertFactCol52 aif = (ActionInsertFactCol52) ac;
                     if ( aif.getBoundName().equals( binding ) ) {
+                        final int iCol = columnIndexes.indexOf( aif );
+                        dependencies.addPeer( aif.getFactField(),
+                                              aif,
+                                              iCol );
                         if ( oracle.isDependentEnum( baseActionColumn.getFactType(),
                                                      baseActionColumn.getFactField(),
                                                      aif.getFactField() ) ) {
-                            dependentColumnIndexes.add( allColumns.indexOf( ac ) );
+                            dependencies.dependentColumnIndexes.add( iCol );
                         }
                     }
                 }
@@ -383,7 +341,52 @@ public class DecisionTableDropDownManager
 
         }
 
-        return dependentColumnIndexes;
+        return dependencies;
+    }
+
+    //The peers of a column, whose values drive its dependent enumerations, and the columns depending upon it
+    private static class ColumnDependencies {
+
+        private final List<Peer> peers = new ArrayList<Peer>();
+        private final Set<Integer> dependentColumnIndexes = new HashSet<Integer>();
+
+        private void addPeer( final String fieldName,
+                              final BaseColumn column,
+                              final int columnIndex ) {
+            peers.add( new Peer( fieldName,
+                                 column,
+                                 columnIndex,
+                                 null ) );
+        }
+
+        private void addPeer( final String fieldName,
+                              final String value ) {
+            peers.add( new Peer( fieldName,
+                                 null,
+                                 -1,
+                                 value ) );
+        }
+
+    }
+
+    //A field whose value is either held in a column of the table or is a constant of a BRL fragment
+    private static class Peer {
+
+        private final String fieldName;
+        private final BaseColumn column;
+        private final int columnIndex;
+        private final String value;
+
+        private Peer( final String fieldName,
+                      final BaseColumn column,
+                      final int columnIndex,
+                      final String value ) {
+            this.fieldName = fieldName;
+            this.column = column;
+            this.columnIndex = columnIndex;
+            this.value = value;
+        }
+
     }
 
 }
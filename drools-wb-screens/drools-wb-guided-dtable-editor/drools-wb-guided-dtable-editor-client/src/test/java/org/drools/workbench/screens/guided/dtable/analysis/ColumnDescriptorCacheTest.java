@@ -0,0 +1,108 @@
+/*
+ * Copyright 2015 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.workbench.screens.guided.dtable.analysis;
+
+import org.drools.workbench.models.datamodel.oracle.DataType;
+import org.drools.workbench.models.guided.dtable.shared.model.ConditionCol52;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class ColumnDescriptorCacheTest {
+
+    private ColumnUtilities utils;
+    private ConditionCol52 column;
+
+    @Before
+    public void setup() {
+        column = new ConditionCol52();
+        column.setFactField( "age" );
+        column.setOperator( "in" );
+
+        utils = mock( ColumnUtilities.class );
+        when( utils.getType( column ) ).thenReturn( DataType.TYPE_NUMERIC_INTEGER );
+        when( utils.getValueList( column ) ).thenReturn( new String[]{ "1", "2" } );
+    }
+
+    @Test
+    public void testDescriptorIsResolvedOnce() {
+        final ColumnDescriptorCache cache = new ColumnDescriptorCache( utils );
+
+        final ColumnDescriptor descriptor = cache.getDescriptor( column );
+        assertSame( descriptor,
+                    cache.getDescriptor( column ) );
+        assertEquals( DataType.TYPE_NUMERIC_INTEGER,
+                      cache.getType( column ) );
+        assertEquals( 2,
+                      cache.getValueList( column ).length );
+
+        assertEquals( DataType.DataTypes.NUMERIC_INTEGER,
+                      descriptor.getTypeSafeType() );
+        assertTrue( descriptor.hasValueList() );
+        assertEquals( "in",
+                      descriptor.getOperator() );
+        assertTrue( descriptor.isOperatorRequiresList() );
+
+        verify( utils,
+                times( 1 ) ).getType( column );
+        verify( utils,
+                times( 1 ) ).getValueList( column );
+    }
+
+    @Test
+    public void testInvalidatedDescriptorIsResolvedAgain() {
+        final ColumnDescriptorCache cache = new ColumnDescriptorCache( utils );
+        cache.getDescriptor( column );
+
+        column.setOperator( "==" );
+        when( utils.getValueList( column ) ).thenReturn( new String[ 0 ] );
+        cache.invalidate( column );
+
+        final ColumnDescriptor descriptor = cache.getDescriptor( column );
+        assertEquals( "==",
+                      descriptor.getOperator() );
+        assertFalse( descriptor.isOperatorRequiresList() );
+        assertFalse( descriptor.hasValueList() );
+
+        cache.invalidate();
+        assertNotSame( descriptor,
+                       cache.getDescriptor( column ) );
+    }
+
+    @Test
+    public void testUncachedDescriptorIsAlwaysResolved() {
+        final ColumnDescriptorCache cache = ColumnDescriptorCache.uncached( utils );
+        cache.getDescriptor( column );
+        cache.getDescriptor( column );
+
+        verify( utils,
+                times( 2 ) ).getType( column );
+    }
+
+    @Test
+    public void testUnknownTypeIsString() {
+        when( utils.getType( column ) ).thenReturn( null );
+
+        final ColumnDescriptor descriptor = new ColumnDescriptorCache( utils ).getDescriptor( column );
+        assertNull( descriptor.getType() );
+        assertEquals( DataType.DataTypes.STRING,
+                      descriptor.getTypeSafeType() );
+    }
+
+}
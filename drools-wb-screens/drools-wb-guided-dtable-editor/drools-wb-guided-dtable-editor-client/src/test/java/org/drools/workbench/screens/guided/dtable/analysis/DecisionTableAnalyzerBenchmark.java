@@ -0,0 +1,229 @@
+/*
+ * Copyright 2015 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.workbench.screens.guided.dtable.analysis;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.drools.workbench.models.datamodel.oracle.DataType;
+import org.drools.workbench.models.datamodel.oracle.FieldAccessorsAndMutators;
+import org.drools.workbench.models.datamodel.oracle.ModelField;
+import org.drools.workbench.models.datamodel.oracle.ProjectDataModelOracle;
+import org.drools.workbench.models.datamodel.rule.BaseSingleFieldConstraint;
+import org.drools.workbench.models.guided.dtable.shared.model.ActionSetFieldCol52;
+import org.drools.workbench.models.guided.dtable.shared.model.Analysis;
+import org.drools.workbench.models.guided.dtable.shared.model.BaseColumn;
+import org.drools.workbench.models.guided.dtable.shared.model.ConditionCol52;
+import org.drools.workbench.models.guided.dtable.shared.model.DTCellValue52;
+import org.drools.workbench.models.guided.dtable.shared.model.GuidedDecisionTable52;
+import org.drools.workbench.models.guided.dtable.shared.model.Pattern52;
+import org.drools.workbench.screens.guided.dtable.client.utils.GuidedDecisionTableUtils;
+import org.drools.workbench.screens.guided.dtable.model.ExpandedColumnIndexMap;
+import org.kie.workbench.common.services.datamodel.backend.server.builder.projects.ProjectDataModelOracleBuilder;
+import org.kie.workbench.common.services.datamodel.backend.server.builder.projects.SimpleFactBuilder;
+import org.kie.workbench.common.widgets.client.datamodel.AsyncPackageDataModelOracle;
+import org.kie.workbench.common.widgets.client.datamodel.AsyncPackageDataModelOracleImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.uberfire.backend.vfs.Path;
+
+import static org.mockito.Mockito.*;
+
+/**
+ * JMH benchmark of how analysis and column look-ups scale with the size of a Decision Table, including the
+ * indexed analysis against the comparison of every pair of rows that it replaces. The setup of every trial checks that
+ * the data contains conflicting and duplicated matches and that both analyses give the same results. This is not run as part of the build; run {@link #main(String[])} from the test class-path.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class DecisionTableAnalyzerBenchmark {
+
+    //Condition columns: two equality columns, the second of low cardinality, and a range made of two columns
+    private static final int CONDITION_COLUMNS = 4;
+
+    @Param({ "50", "100", "250", "500" })
+    private int columns;
+
+    @Param({ "1000", "5000", "20000" })
+    private int rows;
+
+    private AsyncPackageDataModelOracle oracle;
+    private GuidedDecisionTable52 model;
+    private List<BaseColumn> modelColumns;
+    private GuidedDecisionTableUtils utils;
+    private List<RowDetector> rowDetectorList;
+
+    @Setup
+    public void setup() {
+        final SimpleFactBuilder factBuilder = ProjectDataModelOracleBuilder.newProjectOracleBuilder()
+                .addFact( "Applicant" );
+        for ( int iCol = 0; iCol < columns; iCol++ ) {
+            factBuilder.addField( new ModelField( "field" + iCol,
+                                                  Integer.class.getName(),
+                                                  ModelField.FIELD_CLASS_TYPE.REGULAR_CLASS,
+                                                  ModelField.FIELD_ORIGIN.DECLARED,
+                                                  FieldAccessorsAndMutators.BOTH,
+                                                  DataType.TYPE_NUMERIC_INTEGER ) );
+        }
+        final ProjectDataModelOracle loader = factBuilder.end().build();
+
+        oracle = new AsyncPackageDataModelOracleImpl();
+        oracle.addModelFields( loader.getProjectModelFields() );
+        oracle.init( mock( Path.class ) );
+
+        model = new GuidedDecisionTable52();
+        final Pattern52 pattern = new Pattern52();
+        pattern.setBoundName( "$a" );
+        pattern.setFactType( "Applicant" );
+        pattern.getChildColumns().add( makeConditionColumn( "field0",
+                                                            "==" ) );
+        pattern.getChildColumns().add( makeConditionColumn( "field1",
+                                                            "==" ) );
+        pattern.getChildColumns().add( makeConditionColumn( "field2",
+                                                            ">=" ) );
+        pattern.getChildColumns().add( makeConditionColumn( "field2",
+                                                            "<" ) );
+        model.getConditions().add( pattern );
+        oracle.filter( model.getImports() );
+
+        //The remaining columns are actions
+        for ( int iCol = CONDITION_COLUMNS; iCol < columns; iCol++ ) {
+            final ActionSetFieldCol52 action = new ActionSetFieldCol52();
+            action.setBoundName( "$a" );
+            action.setFactField( "field" + iCol );
+            action.setType( DataType.TYPE_NUMERIC_INTEGER );
+            model.getActionCols().add( action );
+        }
+
+        //Rows overlap when both equality values match and their ranges intersect. Every action of a row sets one
+        //of a few shared outcomes, so overlapping rows are duplicates if their outcome is the same and conflicts if not
+        final Random random = new Random( 0 );
+        for ( int iRow = 0; iRow < rows; iRow++ ) {
+            final List<DTCellValue52> row = new ArrayList<DTCellValue52>();
+            row.add( new DTCellValue52( iRow + 1 ) );
+            row.add( new DTCellValue52( "" ) );
+            row.add( new DTCellValue52( random.nextInt( 10 ) ) );
+            row.add( new DTCellValue52( random.nextInt( 3 ) ) );
+            final int from = random.nextInt( 1000 );
+            row.add( new DTCellValue52( from ) );
+            row.add( new DTCellValue52( from + 10 ) );
+            final int outcome = random.nextInt( 3 );
+            for ( int iCol = CONDITION_COLUMNS; iCol < columns; iCol++ ) {
+                row.add( new DTCellValue52( outcome ) );
+            }
+            model.getData().add( row );
+        }
+
+        modelColumns = model.getExpandedColumns();
+        utils = new GuidedDecisionTableUtils( model,
+                                              oracle );
+
+        final DecisionTableAnalyzer analyzer = new DecisionTableAnalyzer( utils );
+        final List<Analysis> analysisData = analyzer.analyze( model );
+        rowDetectorList = analyzer.getRowDetectorList();
+
+        //The data must contain both kinds of overlap, or the comparison below proves nothing
+        final List<Analysis> allPairsAnalysisData = analyzeAllPairs();
+        boolean hasConflictingMatch = false;
+        boolean hasDuplicatedMatch = false;
+        for ( Analysis analysis : allPairsAnalysisData ) {
+            final String html = analysis.toHtmlString();
+            hasConflictingMatch = hasConflictingMatch || html.contains( "Conflicting match" );
+            hasDuplicatedMatch = hasDuplicatedMatch || html.contains( "Duplicated match" );
+        }
+        if ( !( hasConflictingMatch && hasDuplicatedMatch ) ) {
+            throw new IllegalStateException( "Analysis of " + rows + " x " + columns + " found no conflicting or no duplicated matches." );
+        }
+
+        //The indexed analysis must match the analysis it replaces exactly
+        for ( int iRow = 0; iRow < rows; iRow++ ) {
+            final String expected = allPairsAnalysisData.get( iRow ).toHtmlString();
+            final String actual = analysisData.get( iRow ).toHtmlString();
+            if ( !expected.equals( actual ) ) {
+                throw new IllegalStateException( "Row " + ( iRow + 1 ) + " of " + rows + " x " + columns + ": expected '" + expected + "' but was '" + actual + "'." );
+            }
+        }
+    }
+
+    private ConditionCol52 makeConditionColumn( final String factField,
+                                                final String operator ) {
+        final ConditionCol52 column = new ConditionCol52();
+        column.setFactField( factField );
+        column.setOperator( operator );
+        column.setFieldType( DataType.TYPE_NUMERIC_INTEGER );
+        column.setConstraintValueType( BaseSingleFieldConstraint.TYPE_LITERAL );
+        return column;
+    }
+
+    @Benchmark
+    public List<Analysis> analyze() {
+        return new DecisionTableAnalyzer( utils ).analyze( model );
+    }
+
+    @Benchmark
+    public List<Analysis> analyzeAllPairs() {
+        final List<Analysis> analysisData = new ArrayList<Analysis>( rowDetectorList.size() );
+        for ( RowDetector rowDetector : rowDetectorList ) {
+            analysisData.add( rowDetector.buildAnalysis( rowDetectorList ) );
+        }
+        return analysisData;
+    }
+
+    @Benchmark
+    public int expandedColumnsIndexOf() {
+        int total = 0;
+        for ( BaseColumn column : modelColumns ) {
+            total += model.getExpandedColumns().indexOf( column );
+        }
+        return total;
+    }
+
+    @Benchmark
+    public int expandedColumnIndexMap() {
+        final ExpandedColumnIndexMap columnIndexes = new ExpandedColumnIndexMap( model );
+        int total = 0;
+        for ( BaseColumn column : modelColumns ) {
+            total += columnIndexes.indexOf( column );
+        }
+        return total;
+    }
+
+    public static void main( final String[] args ) throws RunnerException {
+        new Runner( new OptionsBuilder()
+                            .include( DecisionTableAnalyzerBenchmark.class.getSimpleName() )
+                            .build() ).run();
+    }
+
+}
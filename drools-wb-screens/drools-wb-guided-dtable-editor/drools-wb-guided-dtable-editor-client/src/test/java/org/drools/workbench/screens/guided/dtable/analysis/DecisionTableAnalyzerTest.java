@@ -0,0 +1,264 @@
+/*
+ * Copyright 2015 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.workbench.screens.guided.dtable.analysis;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.drools.workbench.models.datamodel.oracle.DataType;
+import org.drools.workbench.models.datamodel.oracle.FieldAccessorsAndMutators;
+import org.drools.workbench.models.datamodel.oracle.ModelField;
+import org.drools.workbench.models.datamodel.oracle.ProjectDataModelOracle;
+import org.drools.workbench.models.datamodel.rule.BaseSingleFieldConstraint;
+import org.drools.workbench.models.guided.dtable.shared.model.ActionSetFieldCol52;
+import org.drools.workbench.models.guided.dtable.shared.model.Analysis;
+import org.drools.workbench.models.guided.dtable.shared.model.ConditionCol52;
+import org.drools.workbench.models.guided.dtable.shared.model.DTCellValue52;
+import org.drools.workbench.models.guided.dtable.shared.model.GuidedDecisionTable52;
+import org.drools.workbench.models.guided.dtable.shared.model.Pattern52;
+import org.drools.workbench.screens.guided.dtable.client.utils.GuidedDecisionTableUtils;
+import org.junit.Before;
+import org.junit.Test;
+import org.kie.workbench.common.services.datamodel.backend.server.builder.projects.ProjectDataModelOracleBuilder;
+import org.kie.workbench.common.services.datamodel.model.PackageDataModelOracleBaselinePayload;
+import org.kie.workbench.common.widgets.client.datamodel.AsyncPackageDataModelOracle;
+import org.kie.workbench.common.widgets.client.datamodel.AsyncPackageDataModelOracleImpl;
+import org.uberfire.backend.vfs.Path;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class DecisionTableAnalyzerTest {
+
+    private AsyncPackageDataModelOracle oracle;
+
+    @Before
+    public void setup() {
+        final ProjectDataModelOracle loader = ProjectDataModelOracleBuilder.newProjectOracleBuilder()
+                .addFact( "Applicant" )
+                .addField( new ModelField( "age",
+                                           Integer.class.getName(),
+                                           ModelField.FIELD_CLASS_TYPE.REGULAR_CLASS,
+                                           ModelField.FIELD_ORIGIN.DECLARED,
+                                           FieldAccessorsAndMutators.BOTH,
+                                           DataType.TYPE_NUMERIC_INTEGER ) )
+                .addField( new ModelField( "name",
+                                           String.class.getName(),
+                                           ModelField.FIELD_CLASS_TYPE.REGULAR_CLASS,
+                                           ModelField.FIELD_ORIGIN.DECLARED,
+                                           FieldAccessorsAndMutators.BOTH,
+                                           DataType.TYPE_STRING ) )
+                .addField( new ModelField( "approved",
+                                           Boolean.class.getName(),
+                                           ModelField.FIELD_CLASS_TYPE.REGULAR_CLASS,
+                                           ModelField.FIELD_ORIGIN.DECLARED,
+                                           FieldAccessorsAndMutators.BOTH,
+                                           DataType.TYPE_BOOLEAN ) )
+                .end()
+                .build();
+
+        //Emulate server-to-client conversions
+        oracle = new AsyncPackageDataModelOracleImpl();
+        final PackageDataModelOracleBaselinePayload dataModel = new PackageDataModelOracleBaselinePayload();
+        dataModel.setModelFields( loader.getProjectModelFields() );
+        oracle.addModelFields( dataModel.getModelFields() );
+        oracle.init( mock( Path.class ) );
+        oracle.filter( new GuidedDecisionTable52().getImports() );
+    }
+
+    @Test
+    public void testConflictingAndDuplicatedRows() {
+        final GuidedDecisionTable52 model = makeModel();
+        model.getData().add( makeRow( 1, 18, 30, "Bob", true ) );
+        model.getData().add( makeRow( 2, 25, 40, "Bob", false ) );
+        model.getData().add( makeRow( 3, 25, 40, "Bob", false ) );
+        model.getData().add( makeRow( 4, 40, 50, "Bob", true ) );
+        model.getData().add( makeRow( 5, 40, 30, "Bob", true ) );
+
+        final List<Analysis> analysisData = makeAnalyzer( model ).analyze( model );
+
+        assertEquals( 5,
+                      analysisData.size() );
+        assertTrue( analysisData.get( 0 ).toHtmlString().contains( "Conflicting match with row 2" ) );
+        assertTrue( analysisData.get( 0 ).toHtmlString().contains( "Conflicting match with row 3" ) );
+        assertFalse( analysisData.get( 0 ).toHtmlString().contains( "row 4" ) );
+        assertTrue( analysisData.get( 1 ).toHtmlString().contains( "Duplicated match with row 3" ) );
+        assertFalse( analysisData.get( 3 ).toHtmlString().contains( "row 1" ) );
+        assertTrue( analysisData.get( 4 ).toHtmlString().contains( "Impossible match on age" ) );
+    }
+
+    @Test
+    public void testIndexedAnalysisMatchesAllPairsAnalysis() {
+        assertMatchesAllPairsAnalysis( 1000 );
+    }
+
+    @Test
+    public void testUpdateRowMatchesFullAnalysis() {
+        final Random random = new Random( 1 );
+        final GuidedDecisionTable52 model = makeModel( 300,
+                                                       random );
+        final DecisionTableAnalyzer analyzer = makeAnalyzer( model );
+        analyzer.analyze( model );
+
+        for ( int i = 0; i < 20; i++ ) {
+            final int rowIndex = random.nextInt( model.getData().size() );
+            model.getData().set( rowIndex,
+                                 makeRow( rowIndex + 1,
+                                          random ) );
+            assertAnalysisEquals( makeAnalyzer( model ).analyze( model ),
+                                  analyzer.updateRow( model,
+                                                      rowIndex ) );
+        }
+    }
+
+    @Test
+    public void testInsertAndDeleteRowMatchFullAnalysis() {
+        final Random random = new Random( 2 );
+        final GuidedDecisionTable52 model = makeModel( 300,
+                                                       random );
+        final DecisionTableAnalyzer analyzer = makeAnalyzer( model );
+        analyzer.analyze( model );
+
+        for ( int i = 0; i < 10; i++ ) {
+            final int insertRowIndex = random.nextInt( model.getData().size() );
+            model.getData().add( insertRowIndex,
+                                 makeRow( insertRowIndex + 1,
+                                          random ) );
+            renumberRows( model );
+            assertAnalysisEquals( makeAnalyzer( model ).analyze( model ),
+                                  analyzer.insertRow( model,
+                                                      insertRowIndex ) );
+
+            final int deleteRowIndex = random.nextInt( model.getData().size() );
+            model.getData().remove( deleteRowIndex );
+            renumberRows( model );
+            assertAnalysisEquals( makeAnalyzer( model ).analyze( model ),
+                                  analyzer.deleteRow( deleteRowIndex ) );
+        }
+    }
+
+    private DecisionTableAnalyzer makeAnalyzer( final GuidedDecisionTable52 model ) {
+        return new DecisionTableAnalyzer( new GuidedDecisionTableUtils( model,
+                                                                        oracle ) );
+    }
+
+    private void assertMatchesAllPairsAnalysis( final int rows ) {
+        final GuidedDecisionTable52 model = makeModel( rows,
+                                                       new Random( rows ) );
+        final DecisionTableAnalyzer analyzer = makeAnalyzer( model );
+
+        final List<Analysis> indexedAnalysisData = analyzer.analyze( model );
+
+        final List<RowDetector> rowDetectorList = analyzer.getRowDetectorList();
+        final List<Analysis> allPairsAnalysisData = new ArrayList<Analysis>( rows );
+        for ( RowDetector rowDetector : rowDetectorList ) {
+            allPairsAnalysisData.add( rowDetector.buildAnalysis( rowDetectorList ) );
+        }
+
+        assertAnalysisEquals( allPairsAnalysisData,
+                              indexedAnalysisData );
+    }
+
+    private void assertAnalysisEquals( final List<Analysis> expected,
+                                       final List<Analysis> actual ) {
+        assertEquals( expected.size(),
+                      actual.size() );
+        for ( int i = 0; i < expected.size(); i++ ) {
+            assertEquals( "Row " + ( i + 1 ),
+                          expected.get( i ).toHtmlString(),
+                          actual.get( i ).toHtmlString() );
+        }
+    }
+
+    private GuidedDecisionTable52 makeModel() {
+        final GuidedDecisionTable52 model = new GuidedDecisionTable52();
+        final Pattern52 pattern = new Pattern52();
+        pattern.setBoundName( "$a" );
+        pattern.setFactType( "Applicant" );
+        pattern.getChildColumns().add( makeConditionColumn( "age",
+                                                            ">=",
+                                                            DataType.TYPE_NUMERIC_INTEGER ) );
+        pattern.getChildColumns().add( makeConditionColumn( "age",
+                                                            "<",
+                                                            DataType.TYPE_NUMERIC_INTEGER ) );
+        pattern.getChildColumns().add( makeConditionColumn( "name",
+                                                            "==",
+                                                            DataType.TYPE_STRING ) );
+        model.getConditions().add( pattern );
+
+        final ActionSetFieldCol52 action = new ActionSetFieldCol52();
+        action.setBoundName( "$a" );
+        action.setFactField( "approved" );
+        action.setType( DataType.TYPE_BOOLEAN );
+        model.getActionCols().add( action );
+        return model;
+    }
+
+    private GuidedDecisionTable52 makeModel( final int rows,
+                                             final Random random ) {
+        final GuidedDecisionTable52 model = makeModel();
+        for ( int iRow = 0; iRow < rows; iRow++ ) {
+            model.getData().add( makeRow( iRow + 1,
+                                          random ) );
+        }
+        return model;
+    }
+
+    private ConditionCol52 makeConditionColumn( final String factField,
+                                                final String operator,
+                                                final String fieldType ) {
+        final ConditionCol52 column = new ConditionCol52();
+        column.setFactField( factField );
+        column.setOperator( operator );
+        column.setFieldType( fieldType );
+        column.setConstraintValueType( BaseSingleFieldConstraint.TYPE_LITERAL );
+        return column;
+    }
+
+    private List<DTCellValue52> makeRow( final int rowNumber,
+                                         final Random random ) {
+        final int minAge = random.nextInt( 100 );
+        return makeRow( rowNumber,
+                        random.nextInt( 10 ) == 0 ? null : minAge,
+                        random.nextInt( 10 ) == 0 ? null : minAge + random.nextInt( 15 ),
+                        random.nextInt( 10 ) == 0 ? null : "name" + random.nextInt( 20 ),
+                        random.nextBoolean() );
+    }
+
+    private List<DTCellValue52> makeRow( final int rowNumber,
+                                         final Integer minAge,
+                                         final Integer maxAge,
+                                         final String name,
+                                         final Boolean approved ) {
+        final List<DTCellValue52> row = new ArrayList<DTCellValue52>();
+        row.add( new DTCellValue52( rowNumber ) );
+        row.add( new DTCellValue52( "" ) );
+        row.add( new DTCellValue52( minAge ) );
+        row.add( new DTCellValue52( maxAge ) );
+        row.add( new DTCellValue52( name ) );
+        row.add( new DTCellValue52( approved ) );
+        return row;
+    }
+
+    private void renumberRows( final GuidedDecisionTable52 model ) {
+        for ( int iRow = 0; iRow < model.getData().size(); iRow++ ) {
+            model.getData().get( iRow ).get( 0 ).setNumericValue( iRow + 1 );
+        }
+    }
+
+}
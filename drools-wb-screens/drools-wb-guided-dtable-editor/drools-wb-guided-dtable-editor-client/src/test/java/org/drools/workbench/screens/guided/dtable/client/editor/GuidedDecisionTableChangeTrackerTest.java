@@ -0,0 +1,197 @@
+/*
+ * Copyright 2015 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.workbench.screens.guided.dtable.client.editor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.drools.workbench.models.guided.dtable.shared.model.ConditionCol52;
+import org.drools.workbench.models.guided.dtable.shared.model.DTCellValue52;
+import org.drools.workbench.models.guided.dtable.shared.model.GuidedDecisionTable52;
+import org.drools.workbench.models.guided.dtable.shared.model.Pattern52;
+import org.drools.workbench.screens.guided.dtable.model.GuidedDecisionTableDelta;
+import org.drools.workbench.screens.guided.dtable.model.GuidedDecisionTableRowSegment;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class GuidedDecisionTableChangeTrackerTest {
+
+    private GuidedDecisionTable52 model;
+
+    @Before
+    public void setup() {
+        model = new GuidedDecisionTable52();
+        final Pattern52 pattern = new Pattern52();
+        pattern.setFactType( "Applicant" );
+        pattern.setBoundName( "$a" );
+        final ConditionCol52 condition = new ConditionCol52();
+        condition.setFactField( "age" );
+        condition.setOperator( "==" );
+        pattern.getChildColumns().add( condition );
+        model.getConditions().add( pattern );
+        for ( int iRow = 0; iRow < 5; iRow++ ) {
+            model.getData().add( makeRow( iRow ) );
+        }
+    }
+
+    @Test
+    public void testUnchangedRowsAreCopied() {
+        final GuidedDecisionTableChangeTracker tracker = new GuidedDecisionTableChangeTracker( model,
+                                                                                              1 );
+        final GuidedDecisionTableDelta delta = tracker.getDelta();
+
+        assertFalse( delta.isModel() );
+        assertEquals( 1,
+                      delta.getBaseVersion() );
+        assertEquals( 5,
+                      delta.getBaseRowCount() );
+        assertEquals( 1,
+                      delta.getSegments().size() );
+        assertCopy( delta.getSegments().get( 0 ),
+                    0,
+                    5 );
+        assertTrue( delta.getAuditLogEntries().isEmpty() );
+    }
+
+    @Test
+    public void testChangedRowsAreSent() {
+        final GuidedDecisionTableChangeTracker tracker = new GuidedDecisionTableChangeTracker( model,
+                                                                                              1 );
+        model.getData().get( 1 ).get( 2 ).setNumericValue( 99 );
+        model.getData().remove( 3 );
+        final List<DTCellValue52> insertedRow = makeRow( 5 );
+        model.getData().add( insertedRow );
+
+        final List<GuidedDecisionTableRowSegment> segments = tracker.getDelta().getSegments();
+        assertEquals( 5,
+                      segments.size() );
+        assertCopy( segments.get( 0 ),
+                    0,
+                    1 );
+        assertEquals( 1,
+                      segments.get( 1 ).getRows().size() );
+        assertSame( model.getData().get( 1 ),
+                    segments.get( 1 ).getRows().get( 0 ) );
+        assertCopy( segments.get( 2 ),
+                    2,
+                    1 );
+        assertCopy( segments.get( 3 ),
+                    4,
+                    1 );
+        assertSame( insertedRow,
+                    segments.get( 4 ).getRows().get( 0 ) );
+    }
+
+    @Test
+    public void testMovedRowsAreSent() {
+        final GuidedDecisionTableChangeTracker tracker = new GuidedDecisionTableChangeTracker( model,
+                                                                                              1 );
+        final List<DTCellValue52> movedRow = model.getData().remove( 0 );
+        model.getData().add( movedRow );
+
+        //Copies are in the order of the base version, so the moved row is sent
+        final List<GuidedDecisionTableRowSegment> segments = tracker.getDelta().getSegments();
+        assertEquals( 2,
+                      segments.size() );
+        assertCopy( segments.get( 0 ),
+                    1,
+                    4 );
+        assertEquals( 1,
+                      segments.get( 1 ).getRows().size() );
+        assertSame( movedRow,
+                    segments.get( 1 ).getRows().get( 0 ) );
+    }
+
+    @Test
+    public void testColumnChangesSendModel() {
+        final GuidedDecisionTableChangeTracker tracker = new GuidedDecisionTableChangeTracker( model,
+                                                                                              1 );
+        final ConditionCol52 condition = new ConditionCol52();
+        condition.setFactField( "name" );
+        condition.setOperator( "==" );
+        model.getConditions().get( 0 ).getChildColumns().add( condition );
+
+        final GuidedDecisionTableDelta delta = tracker.getDelta();
+        assertTrue( delta.isModel() );
+        assertSame( model,
+                    delta.getModel() );
+        assertEquals( 1,
+                      delta.getBaseVersion() );
+    }
+
+    @Test
+    public void testParentNameChangeSendsModel() {
+        final GuidedDecisionTableChangeTracker tracker = new GuidedDecisionTableChangeTracker( model,
+                                                                                              1 );
+        model.setParentName( "parent rule" );
+
+        final GuidedDecisionTableDelta delta = tracker.getDelta();
+        assertTrue( delta.isModel() );
+        assertSame( model,
+                    delta.getModel() );
+        assertEquals( 5,
+                      model.getData().size() );
+    }
+
+    @Test
+    public void testChangesMadeWhileSavingAreKept() {
+        final GuidedDecisionTableChangeTracker tracker = new GuidedDecisionTableChangeTracker( model,
+                                                                                              1 );
+        model.getData().get( 0 ).get( 2 ).setNumericValue( 99 );
+
+        //Sent to be saved
+        tracker.getDelta();
+        final GuidedDecisionTableChangeTracker sentTracker = new GuidedDecisionTableChangeTracker( model,
+                                                                                                  tracker.getVersion() );
+
+        //Changed before the save completes
+        model.getData().get( 4 ).get( 2 ).setNumericValue( 99 );
+
+        final GuidedDecisionTableDelta delta = sentTracker.withVersion( 2 ).getDelta();
+        assertEquals( 2,
+                      delta.getBaseVersion() );
+        final List<GuidedDecisionTableRowSegment> segments = delta.getSegments();
+        assertEquals( 2,
+                      segments.size() );
+        assertCopy( segments.get( 0 ),
+                    0,
+                    4 );
+        assertSame( model.getData().get( 4 ),
+                    segments.get( 1 ).getRows().get( 0 ) );
+    }
+
+    private void assertCopy( final GuidedDecisionTableRowSegment segment,
+                             final int baseRowIndex,
+                             final int rowCount ) {
+        assertTrue( segment.isCopy() );
+        assertEquals( baseRowIndex,
+                      segment.getBaseRowIndex() );
+        assertEquals( rowCount,
+                      segment.getRowCount() );
+    }
+
+    private List<DTCellValue52> makeRow( final int iRow ) {
+        final List<DTCellValue52> row = new ArrayList<DTCellValue52>();
+        row.add( new DTCellValue52( iRow + 1 ) );
+        row.add( new DTCellValue52( "" ) );
+        row.add( new DTCellValue52( 20 + iRow ) );
+        return row;
+    }
+
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2015 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.workbench.screens.guided.dtable.client.widget.table;
+
+import java.util.Collections;
+import java.util.Set;
+
+import com.google.gwt.cell.client.Cell.Context;
+import org.drools.workbench.models.guided.dtable.shared.model.ConditionCol52;
+import org.drools.workbench.models.guided.dtable.shared.model.GuidedDecisionTable52;
+import org.drools.workbench.models.guided.dtable.shared.model.Pattern52;
+import org.junit.Before;
+import org.junit.Test;
+import org.kie.workbench.common.widgets.client.datamodel.AsyncPackageDataModelOracle;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class DecisionTableDropDownManagerTest {
+
+    private GuidedDecisionTable52 model;
+    private AsyncPackageDataModelOracle oracle;
+    private Pattern52 pattern;
+    private ConditionCol52 country;
+    private ConditionCol52 city;
+
+    @Before
+    public void setup() {
+        model = new GuidedDecisionTable52();
+        pattern = new Pattern52();
+        pattern.setFactType( "Address" );
+        pattern.setBoundName( "$a" );
+        country = makeCondition( "country" );
+        city = makeCondition( "city" );
+        pattern.getChildColumns().add( country );
+        pattern.getChildColumns().add( city );
+        model.getConditions().add( pattern );
+
+        oracle = mock( AsyncPackageDataModelOracle.class );
+        when( oracle.isDependentEnum( "Address",
+                                      "country",
+                                      "city" ) ).thenReturn( true );
+    }
+
+    @Test
+    public void testDependentColumnsAreResolvedOnce() {
+        final DecisionTableDropDownManager manager = new DecisionTableDropDownManager( model,
+                                                                                      oracle );
+        final int countryIndex = model.getExpandedColumns().indexOf( country );
+        final int cityIndex = model.getExpandedColumns().indexOf( city );
+
+        assertEquals( Collections.singleton( cityIndex ),
+                      manager.getDependentColumnIndexes( new Context( 0,
+                                                                      countryIndex,
+                                                                      null ) ) );
+        assertTrue( manager.getDependentColumnIndexes( new Context( 0,
+                                                                    cityIndex,
+                                                                    null ) ).isEmpty() );
+
+        //Each pair of columns is checked when the dependencies are first built, and not again
+        verify( oracle,
+                times( 4 ) ).isDependentEnum( anyString(),
+                                              anyString(),
+                                              anyString() );
+    }
+
+    @Test
+    public void testDependentColumnsAreRebuiltWhenInvalidated() {
+        final DecisionTableDropDownManager manager = new DecisionTableDropDownManager( model,
+                                                                                      oracle );
+        final Context context = new Context( 0,
+                                             model.getExpandedColumns().indexOf( country ),
+                                             null );
+        final Set<Integer> dependentColumnIndexes = manager.getDependentColumnIndexes( context );
+        assertEquals( 1,
+                      dependentColumnIndexes.size() );
+
+        //Callers cannot change the cached dependencies
+        dependentColumnIndexes.clear();
+        assertEquals( 1,
+                      manager.getDependentColumnIndexes( context ).size() );
+
+        pattern.getChildColumns().remove( city );
+        manager.invalidate();
+        assertTrue( manager.getDependentColumnIndexes( context ).isEmpty() );
+    }
+
+    private ConditionCol52 makeCondition( final String factField ) {
+        final ConditionCol52 condition = new ConditionCol52();
+        condition.setFactField( factField );
+        condition.setOperator( "==" );
+        return condition;
+    }
+
+}
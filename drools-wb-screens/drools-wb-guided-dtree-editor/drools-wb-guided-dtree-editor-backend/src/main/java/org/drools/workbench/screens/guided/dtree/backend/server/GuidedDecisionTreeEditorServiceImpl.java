@@ -32,6 +32,7 @@ import org.drools.workbench.models.guided.dtree.shared.model.GuidedDecisionTree;
 import org.drools.workbench.screens.guided.dtree.model.GuidedDecisionTreeEditorContent;
 import org.drools.workbench.screens.guided.dtree.service.GuidedDecisionTreeEditorService;
 import org.drools.workbench.screens.guided.dtree.type.GuidedDTreeResourceTypeDefinition;
+import org.drools.workbench.screens.guided.rule.backend.server.EditorOpenTimer;
 import org.guvnor.common.services.backend.exceptions.ExceptionUtilities;
 import org.guvnor.common.services.backend.file.JavaFileFilter;
 import org.guvnor.common.services.backend.validation.GenericValidator;
@@ -53,6 +54,8 @@ import org.kie.workbench.common.services.datamodel.backend.server.DataModelOracl
 import org.kie.workbench.common.services.datamodel.backend.server.service.DataModelService;
 import org.kie.workbench.common.services.datamodel.model.PackageDataModelOracleBaselinePayload;
 import org.kie.workbench.common.services.shared.project.KieProjectService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.uberfire.backend.server.util.Paths;
 import org.uberfire.backend.vfs.Path;
 import org.uberfire.ext.editor.commons.service.CopyService;
@@ -69,6 +72,8 @@ public class GuidedDecisionTreeEditorServiceImpl
         extends KieService<GuidedDecisionTreeEditorContent>
         implements GuidedDecisionTreeEditorService {
 
+    private static final Logger log = LoggerFactory.getLogger( GuidedDecisionTreeEditorServiceImpl.class );
+
     //Filters to include *all* applicable resources
     private static final JavaFileFilter FILTER_JAVA = new JavaFileFilter();
     private static final DRLFileFilter FILTER_DRL = new DRLFileFilter();
@@ -133,11 +138,17 @@ public class GuidedDecisionTreeEditorServiceImpl
 
     @Override
     public GuidedDecisionTree load( final Path path ) {
+        return load( path,
+                     dataModelService.getDataModel( path ) );
+    }
+
+    //Load the model using an already resolved oracle, so opening an asset only resolves the oracle once
+    private GuidedDecisionTree load( final Path path,
+                                     final PackageDataModelOracle oracle ) {
         try {
             final String drl = ioService.readAllString( Paths.convert( path ) );
             final String baseFileName = FileNameUtil.removeExtension( path,
                                                                       resourceType );
-            final PackageDataModelOracle oracle = dataModelService.getDataModel( path );
             final GuidedDecisionTree model = GuidedDecisionTreeDRLPersistence.getInstance().unmarshal( drl,
                                                                                                        baseFileName,
                                                                                                        oracle );
@@ -156,8 +167,13 @@ public class GuidedDecisionTreeEditorServiceImpl
 
     @Override
     protected GuidedDecisionTreeEditorContent constructContent(Path path, Overview overview) {
-        final GuidedDecisionTree model = load(path);
+        final EditorOpenTimer timer = new EditorOpenTimer(log,
+                                                          "Guided Decision Tree",
+                                                          path);
         final PackageDataModelOracle oracle = dataModelService.getDataModel(path);
+        timer.oracleResolved();
+        final GuidedDecisionTree model = load(path,
+                                              oracle);
         final PackageDataModelOracleBaselinePayload dataModel = new PackageDataModelOracleBaselinePayload();
 
         //Get FQCN's used by model
@@ -175,6 +191,8 @@ public class GuidedDecisionTreeEditorServiceImpl
         resourceOpenedEvent.fire(new ResourceOpenedEvent(path,
                                                          sessionInfo));
 
+        timer.opened();
+
         return new GuidedDecisionTreeEditorContent(model,
                                                    overview,
                                                    dataModel);
@@ -0,0 +1,65 @@
+/*
+* Copyright 2015 JBoss Inc
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*       http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.drools.workbench.screens.guided.rule.backend.server;
+
+import org.slf4j.Logger;
+import org.uberfire.backend.vfs.Path;
+
+/**
+ * Times the opening of an asset by an editor service and logs, at debug level, how long it took and how much
+ * of that was spent resolving the DataModelOracle. Shared by the editor services of all assets that use one.
+ */
+public class EditorOpenTimer {
+
+    private final Logger log;
+    private final String assetType;
+    private final Path path;
+    private final long start;
+    private long oracleResolved;
+
+    /**
+     * Start timing
+     * @param log Logger of the editor service
+     * @param assetType Description of the asset type, e.g. "Guided Rule"
+     * @param path Path of the asset being opened
+     */
+    public EditorOpenTimer( final Logger log,
+                            final String assetType,
+                            final Path path ) {
+        this.log = log;
+        this.assetType = assetType;
+        this.path = path;
+        this.start = System.currentTimeMillis();
+        this.oracleResolved = start;
+    }
+
+    /**
+     * Record that the DataModelOracle has been resolved
+     */
+    public void oracleResolved() {
+        oracleResolved = System.currentTimeMillis();
+    }
+
+    /**
+     * Record that the asset, including its content, has been loaded and log the timings
+     */
+    public void opened() {
+        if ( log.isDebugEnabled() ) {
+            log.debug( assetType + " '" + path.toURI() + "' opened in " + ( System.currentTimeMillis() - start ) + "ms (DataModelOracle resolved in " + ( oracleResolved - start ) + "ms)." );
+        }
+    }
+
+}
@@ -51,6 +51,8 @@ import org.kie.workbench.common.services.backend.service.KieService;
 import org.kie.workbench.common.services.datamodel.backend.server.DataModelOracleUtilities;
 import org.kie.workbench.common.services.datamodel.backend.server.service.DataModelService;
 import org.kie.workbench.common.services.datamodel.model.PackageDataModelOracleBaselinePayload;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.uberfire.backend.server.util.Paths;
 import org.uberfire.backend.vfs.Path;
 import org.uberfire.ext.editor.commons.service.CopyService;
@@ -66,6 +68,8 @@ public class GuidedRuleEditorServiceImpl
         extends KieService<GuidedEditorContent>
         implements GuidedRuleEditorService {
 
+    private static final Logger log = LoggerFactory.getLogger( GuidedRuleEditorServiceImpl.class );
+
     //Filters to include *all* applicable resources
     private static final JavaFileFilter FILTER_JAVA = new JavaFileFilter();
     private static final DRLFileFilter FILTER_DRL = new DRLFileFilter();
@@ -140,10 +144,16 @@ public class GuidedRuleEditorServiceImpl
 
     @Override
     public RuleModel load( final Path path ) {
+        return load( path,
+                     dataModelService.getDataModel( path ) );
+    }
+
+    //Load the model using an already resolved oracle, so opening an asset only resolves the oracle once
+    private RuleModel load( final Path path,
+                            final PackageDataModelOracle oracle ) {
         try {
             final String drl = ioService.readAllString( Paths.convert( path ) );
             final List<String> globals = utilities.loadGlobalsForPackage( path );
-            final PackageDataModelOracle oracle = dataModelService.getDataModel( path );
 
             RuleModel ruleModel = null;
             if ( dslrResourceType.accept( path ) ) {
@@ -172,8 +182,13 @@ public class GuidedRuleEditorServiceImpl
 
     @Override
     protected GuidedEditorContent constructContent(Path path, Overview overview) {
-        final RuleModel model = load(path);
+        final EditorOpenTimer timer = new EditorOpenTimer(log,
+                                                          "Guided Rule",
+                                                          path);
         final PackageDataModelOracle oracle = dataModelService.getDataModel(path);
+        timer.oracleResolved();
+        final RuleModel model = load(path,
+                                     oracle);
         final PackageDataModelOracleBaselinePayload dataModel = new PackageDataModelOracleBaselinePayload();
 
         //Get FQCN's used by model
@@ -191,6 +206,8 @@ public class GuidedRuleEditorServiceImpl
         resourceOpenedEvent.fire(new ResourceOpenedEvent(path,
                                                          sessionInfo));
 
+        timer.opened();
+
         return new GuidedEditorContent(model,
                                        overview,
                                        dataModel);
@@ -15,11 +15,6 @@
  */
 package org.drools.workbench.screens.guided.rule.backend.server.indexing;
 
-import java.io.IOException;
-import java.io.StringReader;
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.List;
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
 import javax.inject.Named;
@@ -27,15 +22,11 @@ import javax.inject.Named;
 import org.drools.compiler.compiler.DrlParser;
 import org.drools.compiler.lang.Expander;
 import org.drools.compiler.lang.descr.PackageDescr;
-import org.drools.compiler.lang.dsl.DSLMappingFile;
-import org.drools.compiler.lang.dsl.DSLTokenizedMappingFile;
-import org.drools.compiler.lang.dsl.DefaultExpander;
 import org.drools.workbench.models.datamodel.oracle.ProjectDataModelOracle;
+import org.drools.workbench.screens.dsltext.backend.server.DSLExpanderCache;
 import org.drools.workbench.screens.guided.rule.type.GuidedRuleDSLRResourceTypeDefinition;
-import org.guvnor.common.services.backend.file.FileDiscoveryService;
 import org.guvnor.common.services.project.model.Package;
 import org.guvnor.common.services.project.model.Project;
-import org.kie.workbench.common.services.backend.file.DSLFileFilter;
 import org.kie.workbench.common.services.datamodel.backend.server.service.DataModelService;
 import org.kie.workbench.common.services.refactoring.backend.server.indexing.DefaultIndexBuilder;
 import org.kie.workbench.common.services.refactoring.backend.server.indexing.PackageDescrIndexVisitor;
@@ -55,8 +46,6 @@ public class GuidedRuleDslrFileIndexer implements Indexer {
 
     private static final Logger logger = LoggerFactory.getLogger( GuidedRuleDslrFileIndexer.class );
 
-    private static final DSLFileFilter FILTER_DSLS = new DSLFileFilter();
-
     @Inject
     @Named("ioStrategy")
     protected IOService ioService;
@@ -68,7 +57,7 @@ public class GuidedRuleDslrFileIndexer implements Indexer {
     protected KieProjectService projectService;
 
     @Inject
-    private FileDiscoveryService fileDiscoveryService;
+    private DSLExpanderCache dslExpanderCache;
 
     @Inject
     private GuidedRuleDSLRResourceTypeDefinition dslrType;
@@ -125,35 +114,7 @@ public class GuidedRuleDslrFileIndexer implements Indexer {
      * Returns an expander for DSLs (only if there is a DSL configured for this package).
      */
     public Expander getDSLExpander( final Path path ) {
-        final Expander expander = new DefaultExpander();
-        final List<DSLMappingFile> dsls = getDSLMappingFiles( path );
-        for ( DSLMappingFile dsl : dsls ) {
-            expander.addDSLMapping( dsl.getMapping() );
-        }
-        return expander;
-    }
-
-    private List<DSLMappingFile> getDSLMappingFiles( final Path path ) {
-        final List<DSLMappingFile> dsls = new ArrayList<DSLMappingFile>();
-        final org.uberfire.backend.vfs.Path vfsPath = Paths.convert( path );
-        final org.uberfire.backend.vfs.Path packagePath = projectService.resolvePackage( vfsPath ).getPackageMainResourcesPath();
-        final Path nioPackagePath = Paths.convert( packagePath );
-        final Collection<Path> dslPaths = fileDiscoveryService.discoverFiles( nioPackagePath,
-                                                                              FILTER_DSLS );
-        for ( final Path dslPath : dslPaths ) {
-            final String dslDefinition = ioService.readAllString( dslPath );
-            final DSLTokenizedMappingFile dslFile = new DSLTokenizedMappingFile();
-            try {
-                if ( dslFile.parseAndLoad( new StringReader( dslDefinition ) ) ) {
-                    dsls.add( dslFile );
-                } else {
-                    logger.error( "Unable to parse DSL definition: " + dslDefinition );
-                }
-            } catch ( IOException ioe ) {
-                logger.error( ioe.getMessage() );
-            }
-        }
-        return dsls;
+        return dslExpanderCache.getExpander( Paths.convert( path ) );
     }
 
     //Delegate resolution of DMO to method to assist testing
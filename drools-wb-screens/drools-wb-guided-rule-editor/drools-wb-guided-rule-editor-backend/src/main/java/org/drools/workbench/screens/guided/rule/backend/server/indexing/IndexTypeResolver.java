@@ -0,0 +1,161 @@
+/*
+ * Copyright 2015 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.drools.workbench.screens.guided.rule.backend.server.indexing;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import org.drools.workbench.models.datamodel.imports.Import;
+import org.drools.workbench.models.datamodel.imports.Imports;
+import org.drools.workbench.models.datamodel.oracle.DataType;
+import org.drools.workbench.models.datamodel.oracle.ModelField;
+import org.drools.workbench.models.datamodel.oracle.ProjectDataModelOracle;
+
+/**
+ * Resolves the fully qualified class names of the types, and of the fields of types, referenced by an asset being
+ * indexed. Simple type names are resolved against the asset's imports, and then its package, by a lookup table built
+ * once per asset. Field types are resolved by a lookup table built once per {@link ProjectDataModelOracle}, shared by
+ * every asset indexed against that Data Model Oracle.
+ */
+public class IndexTypeResolver {
+
+    //Field types by fully qualified class name and field name, for each Data Model Oracle. A Data Model Oracle is not
+    //changed once built; a new one is built when its Project changes, so the stale table is released with the old one.
+    private static final Map<ProjectDataModelOracle, Map<String, Map<String, String>>> FIELD_TYPES = new WeakHashMap<ProjectDataModelOracle, Map<String, Map<String, String>>>();
+
+    private final Map<String, String> importedTypes = new HashMap<String, String>();
+    private final String packageName;
+    private final Map<String, Map<String, String>> fieldTypes;
+
+    /**
+     * Resolver for assets that only need type names resolving
+     * @param imports The asset's imports; may be null
+     * @param packageName The asset's package; may be null
+     */
+    public IndexTypeResolver( final Imports imports,
+                              final String packageName ) {
+        this( null,
+              imports,
+              packageName );
+    }
+
+    /**
+     * @param dmo The Data Model Oracle against which field types are resolved; may be null if none are resolved
+     * @param imports The asset's imports; may be null
+     * @param packageName The asset's package; may be null
+     */
+    public IndexTypeResolver( final ProjectDataModelOracle dmo,
+                              final Imports imports,
+                              final String packageName ) {
+        this.packageName = packageName;
+        this.fieldTypes = getFieldTypes( dmo );
+        if ( imports != null ) {
+            for ( Import i : imports.getImports() ) {
+                addImportedType( i.getType() );
+            }
+        }
+    }
+
+    /**
+     * Returns the fully qualified class name of a type. A type is matched to an import by its simple name, or the
+     * name of a nested class following "$". The first matching import wins. Unmatched types are in the asset's package.
+     * @param typeName Simple or fully qualified class name
+     * @return Fully qualified class name
+     */
+    public String getFullyQualifiedClassName( final String typeName ) {
+        if ( typeName.contains( "." ) ) {
+            return typeName;
+        }
+        final String importedType = importedTypes.get( typeName );
+        if ( importedType != null ) {
+            return importedType;
+        }
+        return ( !( packageName == null || packageName.isEmpty() ) ? packageName + "." + typeName : typeName );
+    }
+
+    /**
+     * Returns the fully qualified class name of a field's type
+     * @param fullyQualifiedClassName Fully qualified class name of the type declaring the field
+     * @param fieldName The field
+     * @return Fully qualified class name of the field's type, or {@link DataType#TYPE_OBJECT} if it is not known
+     */
+    public String getFieldFullyQualifiedClassName( final String fullyQualifiedClassName,
+                                                   final String fieldName ) {
+        final Map<String, String> fields = fieldTypes.get( fullyQualifiedClassName );
+        if ( fields == null ) {
+            return DataType.TYPE_OBJECT;
+        }
+        final String fieldType = fields.get( fieldName );
+        return ( fieldType == null ? DataType.TYPE_OBJECT : fieldType );
+    }
+
+    private void addImportedType( final String type ) {
+        final String simpleName = type.substring( type.lastIndexOf( '.' ) + 1 );
+        if ( !importedTypes.containsKey( simpleName ) ) {
+            importedTypes.put( simpleName,
+                               type );
+        }
+        final int nestedIndex = simpleName.lastIndexOf( '$' );
+        if ( nestedIndex >= 0 ) {
+            final String nestedName = simpleName.substring( nestedIndex + 1 );
+            if ( !importedTypes.containsKey( nestedName ) ) {
+                importedTypes.put( nestedName,
+                                   type );
+            }
+        }
+    }
+
+    private static Map<String, Map<String, String>> getFieldTypes( final ProjectDataModelOracle dmo ) {
+        if ( dmo == null ) {
+            return Collections.emptyMap();
+        }
+        synchronized ( FIELD_TYPES ) {
+            Map<String, Map<String, String>> fieldTypes = FIELD_TYPES.get( dmo );
+            if ( fieldTypes == null ) {
+                fieldTypes = buildFieldTypes( dmo );
+                FIELD_TYPES.put( dmo,
+                                 fieldTypes );
+            }
+            return fieldTypes;
+        }
+    }
+
+    private static Map<String, Map<String, String>> buildFieldTypes( final ProjectDataModelOracle dmo ) {
+        final Map<String, Map<String, String>> fieldTypes = new HashMap<String, Map<String, String>>();
+        final Map<String, ModelField[]> modelFields = dmo.getProjectModelFields();
+        if ( modelFields == null ) {
+            return fieldTypes;
+        }
+        for ( Map.Entry<String, ModelField[]> e : modelFields.entrySet() ) {
+            final Map<String, String> fields = new HashMap<String, String>();
+            if ( e.getValue() != null ) {
+                for ( ModelField mf : e.getValue() ) {
+                    //The first field of a name wins, as it did when the fields were searched in order
+                    if ( !fields.containsKey( mf.getName() ) ) {
+                        fields.put( mf.getName(),
+                                    mf.getClassName() );
+                    }
+                }
+            }
+            fieldTypes.put( e.getKey(),
+                            fields );
+        }
+        return fieldTypes;
+    }
+
+}
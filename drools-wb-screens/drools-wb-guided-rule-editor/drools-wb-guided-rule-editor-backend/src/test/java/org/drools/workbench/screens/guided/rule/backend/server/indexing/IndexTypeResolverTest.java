@@ -0,0 +1,90 @@
+/*
+ * Copyright 2015 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.drools.workbench.screens.guided.rule.backend.server.indexing;
+
+import java.util.HashMap;
+
+import org.drools.workbench.models.commons.backend.oracle.ProjectDataModelOracleImpl;
+import org.drools.workbench.models.datamodel.imports.Import;
+import org.drools.workbench.models.datamodel.imports.Imports;
+import org.drools.workbench.models.datamodel.oracle.DataType;
+import org.drools.workbench.models.datamodel.oracle.FieldAccessorsAndMutators;
+import org.drools.workbench.models.datamodel.oracle.ModelField;
+import org.drools.workbench.models.datamodel.oracle.ProjectDataModelOracle;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class IndexTypeResolverTest {
+
+    @Test
+    public void testFullyQualifiedClassNames() {
+        final Imports imports = new Imports();
+        imports.addImport( new Import( "org.test.FooBar" ) );
+        imports.addImport( new Import( "org.test.Applicant" ) );
+        imports.addImport( new Import( "org.test.Outer$Inner" ) );
+        final IndexTypeResolver resolver = new IndexTypeResolver( imports,
+                                                                  "org.mortgages" );
+
+        assertEquals( "org.test.Applicant",
+                      resolver.getFullyQualifiedClassName( "Applicant" ) );
+        assertEquals( "org.test.Outer$Inner",
+                      resolver.getFullyQualifiedClassName( "Inner" ) );
+        assertEquals( "java.util.Date",
+                      resolver.getFullyQualifiedClassName( "java.util.Date" ) );
+
+        //"Bar" is not "FooBar", so is in the package
+        assertEquals( "org.mortgages.Bar",
+                      resolver.getFullyQualifiedClassName( "Bar" ) );
+    }
+
+    @Test
+    public void testFullyQualifiedClassNamesDefaultPackage() {
+        final IndexTypeResolver resolver = new IndexTypeResolver( null,
+                                                                  null );
+
+        assertEquals( "Applicant",
+                      resolver.getFullyQualifiedClassName( "Applicant" ) );
+    }
+
+    @Test
+    public void testFieldFullyQualifiedClassNames() {
+        final ProjectDataModelOracle dmo = new ProjectDataModelOracleImpl();
+        dmo.addProjectModelFields( new HashMap<String, ModelField[]>() {{
+            put( "org.test.Applicant",
+                 new ModelField[]{ new ModelField( "age",
+                                                   "java.lang.Integer",
+                                                   ModelField.FIELD_CLASS_TYPE.REGULAR_CLASS,
+                                                   ModelField.FIELD_ORIGIN.DECLARED,
+                                                   FieldAccessorsAndMutators.ACCESSOR,
+                                                   DataType.TYPE_NUMERIC_INTEGER ) } );
+        }} );
+        final IndexTypeResolver resolver = new IndexTypeResolver( dmo,
+                                                                  null,
+                                                                  "org.test" );
+
+        assertEquals( "java.lang.Integer",
+                      resolver.getFieldFullyQualifiedClassName( "org.test.Applicant",
+                                                                "age" ) );
+        assertEquals( DataType.TYPE_OBJECT,
+                      resolver.getFieldFullyQualifiedClassName( "org.test.Applicant",
+                                                                "name" ) );
+        assertEquals( DataType.TYPE_OBJECT,
+                      resolver.getFieldFullyQualifiedClassName( "org.test.Mortgage",
+                                                                "amount" ) );
+    }
+
+}
@@ -28,6 +28,7 @@ import org.drools.workbench.models.guided.scorecard.backend.GuidedScoreCardXMLPe
 import org.drools.workbench.models.guided.scorecard.shared.Attribute;
 import org.drools.workbench.models.guided.scorecard.shared.Characteristic;
 import org.drools.workbench.models.guided.scorecard.shared.ScoreCardModel;
+import org.drools.workbench.screens.guided.rule.backend.server.EditorOpenTimer;
 import org.drools.workbench.screens.guided.scorecard.model.ScoreCardModelContent;
 import org.drools.workbench.screens.guided.scorecard.service.GuidedScoreCardEditorService;
 import org.guvnor.common.services.backend.exceptions.ExceptionUtilities;
@@ -41,6 +42,8 @@ import org.kie.workbench.common.services.shared.source.SourceGenerationFailedExc
 import org.kie.workbench.common.services.datamodel.backend.server.DataModelOracleUtilities;
 import org.kie.workbench.common.services.datamodel.backend.server.service.DataModelService;
 import org.kie.workbench.common.services.datamodel.model.PackageDataModelOracleBaselinePayload;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.uberfire.backend.server.util.Paths;
 import org.uberfire.backend.vfs.Path;
 import org.uberfire.ext.editor.commons.service.CopyService;
@@ -56,6 +59,8 @@ public class GuidedScoreCardEditorServiceImpl
         extends KieService<ScoreCardModelContent>
         implements GuidedScoreCardEditorService {
 
+    private static final Logger log = LoggerFactory.getLogger( GuidedScoreCardEditorServiceImpl.class );
+
     @Inject
     @Named("ioStrategy")
     private IOService ioService;
@@ -122,8 +127,12 @@ public class GuidedScoreCardEditorServiceImpl
 
     @Override
     protected ScoreCardModelContent constructContent(Path path, Overview overview) {
-        final ScoreCardModel model = load(path);
+        final EditorOpenTimer timer = new EditorOpenTimer(log,
+                                                          "Guided Score Card",
+                                                          path);
         final PackageDataModelOracle oracle = dataModelService.getDataModel(path);
+        timer.oracleResolved();
+        final ScoreCardModel model = load(path);
         final PackageDataModelOracleBaselinePayload dataModel = new PackageDataModelOracleBaselinePayload();
         final GuidedScoreCardModelVisitor visitor = new GuidedScoreCardModelVisitor(model);
         DataModelOracleUtilities.populateDataModel(oracle,
@@ -134,6 +143,8 @@ public class GuidedScoreCardEditorServiceImpl
         resourceOpenedEvent.fire(new ResourceOpenedEvent(path,
                                                          sessionInfo));
 
+        timer.opened();
+
         return new ScoreCardModelContent(model,
                                          overview,
                                          dataModel);
@@ -17,12 +17,10 @@ package org.drools.workbench.screens.guided.scorecard.backend.server.indexing;
 
 import java.util.Set;
 
-import org.drools.workbench.models.datamodel.imports.Import;
-import org.drools.workbench.models.datamodel.oracle.DataType;
-import org.drools.workbench.models.datamodel.oracle.ModelField;
 import org.drools.workbench.models.datamodel.oracle.ProjectDataModelOracle;
 import org.drools.workbench.models.guided.scorecard.shared.Characteristic;
 import org.drools.workbench.models.guided.scorecard.shared.ScoreCardModel;
+import org.drools.workbench.screens.guided.rule.backend.server.indexing.IndexTypeResolver;
 import org.kie.workbench.common.services.refactoring.backend.server.indexing.DefaultIndexBuilder;
 import org.kie.workbench.common.services.refactoring.model.index.Type;
 import org.kie.workbench.common.services.refactoring.model.index.TypeField;
@@ -36,19 +34,21 @@ import org.uberfire.commons.validation.PortablePreconditions;
  */
 public class GuidedScoreCardIndexVisitor {
 
-    private final ProjectDataModelOracle dmo;
     private final DefaultIndexBuilder builder;
     private final ScoreCardModel model;
+    private final IndexTypeResolver typeResolver;
 
     public GuidedScoreCardIndexVisitor( final ProjectDataModelOracle dmo,
                                         final DefaultIndexBuilder builder,
                                         final ScoreCardModel model ) {
-        this.dmo = PortablePreconditions.checkNotNull( "dmo",
-                                                       dmo );
         this.builder = PortablePreconditions.checkNotNull( "builder",
                                                            builder );
         this.model = PortablePreconditions.checkNotNull( "model",
                                                          model );
+        this.typeResolver = new IndexTypeResolver( PortablePreconditions.checkNotNull( "dmo",
+                                                                                       dmo ),
+                                                   model.getImports(),
+                                                   model.getPackageName() );
     }
 
     public Set<Pair<String, String>> visit() {
@@ -57,7 +57,7 @@ public class GuidedScoreCardIndexVisitor {
         if ( typeName == null || typeName.isEmpty() ) {
             return builder.build();
         }
-        final String fullyQualifiedClassName = getFullyQualifiedClassName( typeName );
+        final String fullyQualifiedClassName = typeResolver.getFullyQualifiedClassName( typeName );
         builder.addGenerator( new Type( new ValueTypeIndexTerm( fullyQualifiedClassName ) ) );
 
         //Add field
@@ -65,8 +65,8 @@ public class GuidedScoreCardIndexVisitor {
         if ( fieldName == null || fieldName.isEmpty() ) {
             return builder.build();
         }
-        final String fieldFullyQualifiedClassName = getFieldFullyQualifiedClassName( fullyQualifiedClassName,
-                                                                                     fieldName );
+        final String fieldFullyQualifiedClassName = typeResolver.getFieldFullyQualifiedClassName( fullyQualifiedClassName,
+                                                                                                  fieldName );
         builder.addGenerator( new TypeField( new ValueFieldIndexTerm( fieldName ),
                                              new ValueTypeIndexTerm( fieldFullyQualifiedClassName ),
                                              new ValueTypeIndexTerm( fullyQualifiedClassName ) ) );
@@ -82,41 +82,16 @@ public class GuidedScoreCardIndexVisitor {
     private void visit( final Characteristic c ) {
         //Add type
         final String typeName = c.getFact();
-        final String fullyQualifiedClassName = getFullyQualifiedClassName( typeName );
+        final String fullyQualifiedClassName = typeResolver.getFullyQualifiedClassName( typeName );
         builder.addGenerator( new Type( new ValueTypeIndexTerm( fullyQualifiedClassName ) ) );
 
         //Add field
         final String fieldName = c.getField();
-        final String fieldFullyQualifiedClassName = getFieldFullyQualifiedClassName( fullyQualifiedClassName,
-                                                                                     fieldName );
+        final String fieldFullyQualifiedClassName = typeResolver.getFieldFullyQualifiedClassName( fullyQualifiedClassName,
+                                                                                                  fieldName );
         builder.addGenerator( new TypeField( new ValueFieldIndexTerm( fieldName ),
                                              new ValueTypeIndexTerm( fieldFullyQualifiedClassName ),
                                              new ValueTypeIndexTerm( fullyQualifiedClassName ) ) );
     }
 
-    private String getFullyQualifiedClassName( final String typeName ) {
-        if ( typeName.contains( "." ) ) {
-            return typeName;
-        }
-
-        for ( Import i : model.getImports().getImports() ) {
-            if ( i.getType().endsWith( typeName ) ) {
-                return i.getType();
-            }
-        }
-        final String packageName = model.getPackageName();
-        return ( !( packageName == null || packageName.isEmpty() ) ? packageName + "." + typeName : typeName );
-    }
-
-    private String getFieldFullyQualifiedClassName( final String fullyQualifiedClassName,
-                                                    final String fieldName ) {
-        final ModelField[] mfs = dmo.getProjectModelFields().get( fullyQualifiedClassName );
-        for ( ModelField mf : mfs ) {
-            if ( mf.getName().equals( fieldName ) ) {
-                return mf.getClassName();
-            }
-        }
-        return DataType.TYPE_OBJECT;
-    }
-
 }
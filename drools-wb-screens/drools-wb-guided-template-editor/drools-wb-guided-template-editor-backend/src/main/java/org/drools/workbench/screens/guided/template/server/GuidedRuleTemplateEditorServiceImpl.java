@@ -29,6 +29,7 @@ import com.google.common.base.Charsets;
 import org.drools.workbench.models.datamodel.oracle.PackageDataModelOracle;
 import org.drools.workbench.models.guided.template.backend.RuleTemplateModelXMLPersistenceImpl;
 import org.drools.workbench.models.guided.template.shared.TemplateModel;
+import org.drools.workbench.screens.guided.rule.backend.server.EditorOpenTimer;
 import org.drools.workbench.screens.guided.rule.backend.server.GuidedRuleModelVisitor;
 import org.drools.workbench.screens.guided.template.model.GuidedTemplateEditorContent;
 import org.drools.workbench.screens.guided.template.service.GuidedRuleTemplateEditorService;
@@ -51,6 +52,8 @@ import org.kie.workbench.common.services.backend.service.KieService;
 import org.kie.workbench.common.services.datamodel.backend.server.DataModelOracleUtilities;
 import org.kie.workbench.common.services.datamodel.backend.server.service.DataModelService;
 import org.kie.workbench.common.services.datamodel.model.PackageDataModelOracleBaselinePayload;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.uberfire.backend.server.util.Paths;
 import org.uberfire.backend.vfs.Path;
 import org.uberfire.ext.editor.commons.service.CopyService;
@@ -66,6 +69,8 @@ public class GuidedRuleTemplateEditorServiceImpl
         extends KieService<GuidedTemplateEditorContent>
         implements GuidedRuleTemplateEditorService {
 
+    private static final Logger log = LoggerFactory.getLogger( GuidedRuleTemplateEditorServiceImpl.class );
+
     //Filters to include *all* applicable resources
     private static final JavaFileFilter FILTER_JAVA = new JavaFileFilter();
     private static final DRLFileFilter FILTER_DRL = new DRLFileFilter();
@@ -146,8 +151,12 @@ public class GuidedRuleTemplateEditorServiceImpl
 
     @Override
     protected GuidedTemplateEditorContent constructContent(Path path, Overview overview) {
-        final TemplateModel model = load(path);
+        final EditorOpenTimer timer = new EditorOpenTimer(log,
+                                                          "Guided Rule Template",
+                                                          path);
         final PackageDataModelOracle oracle = dataModelService.getDataModel(path);
+        timer.oracleResolved();
+        final TemplateModel model = load(path);
         final PackageDataModelOracleBaselinePayload dataModel = new PackageDataModelOracleBaselinePayload();
 
         //Get FQCN's used by model
@@ -165,6 +174,8 @@ public class GuidedRuleTemplateEditorServiceImpl
         resourceOpenedEvent.fire(new ResourceOpenedEvent(path,
                                                          sessionInfo));
 
+        timer.opened();
+
         return new GuidedTemplateEditorContent(model,
                                                overview,
                                                dataModel);
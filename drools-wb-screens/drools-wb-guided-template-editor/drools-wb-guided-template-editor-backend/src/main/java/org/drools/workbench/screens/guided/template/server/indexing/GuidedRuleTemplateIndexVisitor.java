@@ -17,7 +17,6 @@ package org.drools.workbench.screens.guided.template.server.indexing;
 
 import java.util.Set;
 
-import org.drools.workbench.models.datamodel.imports.Import;
 import org.drools.workbench.models.datamodel.rule.ActionFieldValue;
 import org.drools.workbench.models.datamodel.rule.ActionInsertFact;
 import org.drools.workbench.models.datamodel.rule.ActionSetField;
@@ -38,6 +37,7 @@ import org.drools.workbench.models.datamodel.rule.RuleAttribute;
 import org.drools.workbench.models.datamodel.rule.SingleFieldConstraint;
 import org.drools.workbench.models.datamodel.rule.SingleFieldConstraintEBLeftSide;
 import org.drools.workbench.models.guided.template.shared.TemplateModel;
+import org.drools.workbench.screens.guided.rule.backend.server.indexing.IndexTypeResolver;
 import org.kie.workbench.common.services.refactoring.backend.server.indexing.DefaultIndexBuilder;
 import org.kie.workbench.common.services.refactoring.model.index.Rule;
 import org.kie.workbench.common.services.refactoring.model.index.Type;
@@ -57,6 +57,7 @@ public class GuidedRuleTemplateIndexVisitor {
 
     private final DefaultIndexBuilder builder;
     private final TemplateModel model;
+    private final IndexTypeResolver typeResolver;
 
     public GuidedRuleTemplateIndexVisitor( final DefaultIndexBuilder builder,
                                            final TemplateModel model ) {
@@ -64,6 +65,8 @@ public class GuidedRuleTemplateIndexVisitor {
                                                            builder );
         this.model = PortablePreconditions.checkNotNull( "model",
                                                          model );
+        this.typeResolver = new IndexTypeResolver( model.getImports(),
+                                                   model.getPackageName() );
     }
 
     public Set<Pair<String, String>> visit() {
@@ -110,7 +113,7 @@ public class GuidedRuleTemplateIndexVisitor {
 
     //ActionInsertFact, ActionSetField, ActionUpdateField
     private void visitActionFieldList( final ActionInsertFact afl ) {
-        builder.addGenerator( new Type( new ValueTypeIndexTerm( getFullyQualifiedClassName( afl.getFactType() ) ) ) );
+        builder.addGenerator( new Type( new ValueTypeIndexTerm( typeResolver.getFullyQualifiedClassName( afl.getFactType() ) ) ) );
     }
 
     private void visitActionFieldList( final String fullyQualifiedClassName,
@@ -122,7 +125,7 @@ public class GuidedRuleTemplateIndexVisitor {
     }
 
     private void visitCompositeFactPattern( final CompositeFactPattern pattern ) {
-        builder.addGenerator( new Type( new ValueTypeIndexTerm( getFullyQualifiedClassName( pattern.getType() ) ) ) );
+        builder.addGenerator( new Type( new ValueTypeIndexTerm( typeResolver.getFullyQualifiedClassName( pattern.getType() ) ) ) );
         if ( pattern.getPatterns() != null ) {
             for ( IFactPattern fp : pattern.getPatterns() ) {
                 visit( fp );
@@ -144,7 +147,7 @@ public class GuidedRuleTemplateIndexVisitor {
     }
 
     private void visitFactPattern( final FactPattern pattern ) {
-        builder.addGenerator( new Type( new ValueTypeIndexTerm( getFullyQualifiedClassName( pattern.getFactType() ) ) ) );
+        builder.addGenerator( new Type( new ValueTypeIndexTerm( typeResolver.getFullyQualifiedClassName( pattern.getFactType() ) ) ) );
         for ( FieldConstraint fc : pattern.getFieldConstraints() ) {
             visit( fc );
         }
@@ -194,7 +197,7 @@ public class GuidedRuleTemplateIndexVisitor {
                     final ActionSetField asf = (ActionSetField) action;
                     final String typeName = getTypeNameForBinding( asf.getVariable() );
                     if ( typeName != null ) {
-                        final String fullyQualifiedClassName = getFullyQualifiedClassName( typeName );
+                        final String fullyQualifiedClassName = typeResolver.getFullyQualifiedClassName( typeName );
                         visitActionFieldList( fullyQualifiedClassName,
                                               asf );
                     }
@@ -224,8 +227,8 @@ public class GuidedRuleTemplateIndexVisitor {
 
     private void visitSingleFieldConstraint( final SingleFieldConstraint sfc ) {
         builder.addGenerator( new TypeField( new ValueFieldIndexTerm( sfc.getFieldName() ),
-                                             new ValueTypeIndexTerm( getFullyQualifiedClassName( sfc.getFieldType() ) ),
-                                             new ValueTypeIndexTerm( getFullyQualifiedClassName( sfc.getFactType() ) ) ) );
+                                             new ValueTypeIndexTerm( typeResolver.getFullyQualifiedClassName( sfc.getFieldType() ) ),
+                                             new ValueTypeIndexTerm( typeResolver.getFullyQualifiedClassName( sfc.getFactType() ) ) ) );
         if ( sfc.getConnectives() != null ) {
             for ( int i = 0; i < sfc.getConnectives().length; i++ ) {
                 visit( sfc.getConnectives()[ i ] );
@@ -235,8 +238,8 @@ public class GuidedRuleTemplateIndexVisitor {
 
     private void visitConnectiveConstraint( final ConnectiveConstraint cc ) {
         builder.addGenerator( new TypeField( new ValueFieldIndexTerm( cc.getFieldName() ),
-                                             new ValueTypeIndexTerm( getFullyQualifiedClassName( cc.getFieldType() ) ),
-                                             new ValueTypeIndexTerm( getFullyQualifiedClassName( cc.getFactType() ) ) ) );
+                                             new ValueTypeIndexTerm( typeResolver.getFullyQualifiedClassName( cc.getFieldType() ) ),
+                                             new ValueTypeIndexTerm( typeResolver.getFullyQualifiedClassName( cc.getFactType() ) ) ) );
     }
 
     private void visitSingleFieldConstraint( final SingleFieldConstraintEBLeftSide sfexp ) {
@@ -252,22 +255,8 @@ public class GuidedRuleTemplateIndexVisitor {
     private void visit( final String fullyQualifiedClassName,
                         final ActionFieldValue afv ) {
         builder.addGenerator( new TypeField( new ValueFieldIndexTerm( afv.getField() ),
-                                             new ValueTypeIndexTerm( getFullyQualifiedClassName( afv.getType() ) ),
+                                             new ValueTypeIndexTerm( typeResolver.getFullyQualifiedClassName( afv.getType() ) ),
                                              new ValueTypeIndexTerm( fullyQualifiedClassName ) ) );
     }
 
-    private String getFullyQualifiedClassName( final String typeName ) {
-        if ( typeName.contains( "." ) ) {
-            return typeName;
-        }
-
-        for ( Import i : model.getImports().getImports() ) {
-            if ( i.getType().endsWith( typeName ) ) {
-                return i.getType();
-            }
-        }
-        final String packageName = model.getPackageName();
-        return ( !( packageName == null || packageName.isEmpty() ) ? packageName + "." + typeName : typeName );
-    }
-
 }
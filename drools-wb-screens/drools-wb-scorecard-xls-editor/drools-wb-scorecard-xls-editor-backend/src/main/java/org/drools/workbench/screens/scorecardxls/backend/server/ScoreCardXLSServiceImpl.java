@@ -16,6 +16,10 @@
 
 package org.drools.workbench.screens.scorecardxls.backend.server;
 
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -27,6 +31,7 @@ import javax.inject.Inject;
 import javax.inject.Named;
 
 import org.apache.commons.io.IOUtils;
+import org.drools.workbench.screens.dtablexls.backend.server.XLSStreamingValidator;
 import org.drools.workbench.screens.scorecardxls.service.ScoreCardXLSContent;
 import org.drools.workbench.screens.scorecardxls.service.ScoreCardXLSService;
 import org.guvnor.common.services.backend.exceptions.ExceptionUtilities;
@@ -130,14 +135,32 @@ public class ScoreCardXLSServiceImpl
                         final String comment ) {
         log.info( "USER:" + identity.getIdentifier() + " CREATING asset [" + resource.getFileName() + "]" );
 
+        File tempFile = null;
         try {
+            //The upload is spooled to disk once, as it must be validated before being committed
+            tempFile = File.createTempFile( "testxls", null );
+            final OutputStream tempOS = new BufferedOutputStream( new FileOutputStream( tempFile ) );
+            try {
+                IOUtils.copy( content,
+                              tempOS );
+            } finally {
+                tempOS.close();
+            }
+
+            XLSStreamingValidator.validate( tempFile );
+
             final org.uberfire.java.nio.file.Path nioPath = Paths.convert( resource );
             ioService.createFile( nioPath );
             final OutputStream outputStream = ioService.newOutputStream( nioPath,
                                                                          makeCommentedOption( sessionId,
                                                                                               comment ) );
-            IOUtils.copy( content,
-                          outputStream );
+            final InputStream tempIS = new FileInputStream( tempFile );
+            try {
+                IOUtils.copy( tempIS,
+                              outputStream );
+            } finally {
+                tempIS.close();
+            }
             outputStream.flush();
             outputStream.close();
 
@@ -147,6 +170,9 @@ public class ScoreCardXLSServiceImpl
             throw ExceptionUtilities.handleException( e );
 
         } finally {
+            if ( tempFile != null ) {
+                tempFile.delete();
+            }
             try {
                 content.close();
             } catch ( IOException e ) {
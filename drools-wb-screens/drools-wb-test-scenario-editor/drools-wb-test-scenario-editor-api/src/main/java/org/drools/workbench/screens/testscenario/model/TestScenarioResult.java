@@ -19,35 +19,64 @@ package org.drools.workbench.screens.testscenario.model;
 import org.drools.workbench.models.testscenarios.shared.Scenario;
 import org.jboss.errai.common.client.api.annotations.Portable;
 
-import java.util.Set;
+import java.util.List;
 
 @Portable
 public class TestScenarioResult {
 
     private String identifier;
+    private String runId;
     private Scenario scenario;
-    private Set<String> log;
+    private List<String> log;
+    private int logSize;
 
     public TestScenarioResult() {
     }
 
     public TestScenarioResult(String identifier,
                               Scenario scenario,
-                              Set<String> log) {
+                              List<String> log) {
+        this(identifier,
+             null,
+             scenario,
+             log,
+             log.size());
+    }
+
+    /**
+     * @param runId Id of the run, with which the rest of its audit log can be loaded
+     * @param log The first events of the audit log; the others can be loaded when needed
+     * @param logSize The number of events in the whole audit log
+     */
+    public TestScenarioResult(String identifier,
+                              String runId,
+                              Scenario scenario,
+                              List<String> log,
+                              int logSize) {
         this.identifier = identifier;
+        this.runId = runId;
         this.scenario = scenario;
         this.log = log;
+        this.logSize = logSize;
     }
 
     public String getIdentifier() {
         return identifier;
     }
 
+    public String getRunId() {
+        return runId;
+    }
+
     public Scenario getScenario() {
         return scenario;
     }
 
-    public Set<String> getLog() {
+    public List<String> getLog() {
         return log;
     }
+
+    public int getLogSize() {
+        return logSize;
+    }
 }
@@ -16,6 +16,7 @@
 
 package org.drools.workbench.screens.testscenario.service;
 
+import java.util.List;
 import javax.enterprise.event.Event;
 
 import org.drools.workbench.models.testscenarios.shared.Scenario;
@@ -47,10 +48,28 @@ public interface ScenarioTestEditorService
 
     public static final String TEST_SCENARIO_EDITOR_SETTINGS = "test-scenario-editor-settings";
     public static final String TEST_SCENARIO_EDITOR_MAX_RULE_FIRINGS = "max-rule-firings";
+    public static final String TEST_SCENARIO_EDITOR_RUNNER_THREADS = "runner-threads";
+    public static final String TEST_SCENARIO_EDITOR_AUDIT_LOG_SIZE = "audit-log-size";
+    public static final String TEST_SCENARIO_EDITOR_AUDIT_LOG_AGENDA_EVENTS = "audit-log-agenda-events";
+    public static final String TEST_SCENARIO_EDITOR_AUDIT_LOG_PROCESS_EVENTS = "audit-log-process-events";
+
+    //Number of audit log events returned with a run's result, and loaded at a time thereafter
+    public static final int AUDIT_LOG_PAGE_SIZE = 100;
 
     TestScenarioModelContent loadContent( Path path );
 
     TestScenarioResult runScenario(Path path,
                                    Scenario scenario);
 
+    /**
+     * Loads a page of the audit log of one of the current user's recent scenario runs
+     * @param runId Id of the run, as given by its {@link TestScenarioResult}
+     * @param offset Index of the first event
+     * @param count Maximum number of events
+     * @return The events, formatted; none if the run's audit log has been discarded
+     */
+    List<String> loadAuditLog(String runId,
+                              int offset,
+                              int count);
+
 }
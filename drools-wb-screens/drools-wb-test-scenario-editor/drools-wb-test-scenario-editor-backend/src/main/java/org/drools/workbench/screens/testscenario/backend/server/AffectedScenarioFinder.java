@@ -0,0 +1,197 @@
+/*
+ * Copyright 2015 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.workbench.screens.testscenario.backend.server;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.inject.Any;
+import javax.enterprise.inject.Instance;
+import javax.inject.Inject;
+
+import org.drools.workbench.screens.testscenario.type.TestScenarioResourceTypeDefinition;
+import org.kie.workbench.common.services.refactoring.model.index.terms.RuleIndexTerm;
+import org.kie.workbench.common.services.refactoring.model.index.terms.TypeIndexTerm;
+import org.kie.workbench.common.services.refactoring.model.index.terms.valueterms.ValueIndexTerm;
+import org.kie.workbench.common.services.refactoring.model.index.terms.valueterms.ValueRuleIndexTerm;
+import org.kie.workbench.common.services.refactoring.model.index.terms.valueterms.ValueTypeIndexTerm;
+import org.kie.workbench.common.services.refactoring.model.query.RefactoringPageRow;
+import org.kie.workbench.common.services.refactoring.service.RefactoringQueryService;
+import org.kie.workbench.common.services.shared.project.KieProject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.uberfire.backend.server.util.Paths;
+import org.uberfire.backend.vfs.Path;
+import org.uberfire.ext.metadata.engine.Indexer;
+import org.uberfire.ext.metadata.model.KObject;
+import org.uberfire.ext.metadata.model.KProperty;
+
+/**
+ * Finds the Test Scenarios that may be affected by changes to a project's assets. The rules and types of each changed
+ * asset are read by indexing it, as the index records them; the index is then queried for the Test Scenarios of the
+ * project that reference any of them. The index does not tell a rule or type defined by an asset from one it only
+ * uses, so more scenarios than strictly necessary may be selected, but none that reference a changed rule or type
+ * are missed. A changed Test Scenario is always selected. When the rules and types of a changed asset cannot be read,
+ * as no {@link Indexer} supports it, it does not parse or it has been deleted, the affected scenarios are not known.
+ */
+@ApplicationScoped
+public class AffectedScenarioFinder {
+
+    private static final Logger logger = LoggerFactory.getLogger( AffectedScenarioFinder.class );
+
+    static final String FIND_RULES_QUERY = "FindRulesQuery";
+    static final String FIND_TYPES_QUERY = "FindTypesQuery";
+
+    private Instance<Indexer> indexers;
+    private RefactoringQueryService queryService;
+    private TestScenarioResourceTypeDefinition testScenarioType;
+
+    public AffectedScenarioFinder() {
+    }
+
+    @Inject
+    public AffectedScenarioFinder( final @Any Instance<Indexer> indexers,
+                                   final RefactoringQueryService queryService,
+                                   final TestScenarioResourceTypeDefinition testScenarioType ) {
+        this.indexers = indexers;
+        this.queryService = queryService;
+        this.testScenarioType = testScenarioType;
+    }
+
+    /**
+     * @param project The project containing the changed assets
+     * @param changedAssets Paths of the assets that have changed
+     * @return Paths of the project's Test Scenarios that reference the rules or types of the changed assets, or null if
+     * the rules and types of a changed asset other than a Test Scenario cannot be read; all scenarios should then be run
+     */
+    public List<Path> findAffectedScenarios( final KieProject project,
+                                             final Collection<Path> changedAssets ) {
+        //Keyed by URI, as the Paths returned by different queries are not necessarily equal
+        final Map<String, Path> scenarios = new LinkedHashMap<String, Path>();
+        final Set<ValueIndexTerm> ruleTerms = new HashSet<ValueIndexTerm>();
+        final Set<ValueIndexTerm> typeTerms = new HashSet<ValueIndexTerm>();
+
+        for ( Path changedAsset : changedAssets ) {
+            if ( testScenarioType.accept( changedAsset ) ) {
+                scenarios.put( changedAsset.toURI(),
+                               changedAsset );
+            } else if ( !addTerms( changedAsset,
+                                   ruleTerms,
+                                   typeTerms ) ) {
+                logger.debug( "No rules or types found for '" + changedAsset.toURI() + "'; all scenarios are affected." );
+                return null;
+            }
+        }
+
+        addScenarios( project,
+                      ruleTerms,
+                      typeTerms,
+                      scenarios );
+        return new ArrayList<Path>( scenarios.values() );
+    }
+
+    //Add the project's Test Scenarios that reference any of the rules or types
+    void addScenarios( final KieProject project,
+                       final Set<ValueIndexTerm> ruleTerms,
+                       final Set<ValueIndexTerm> typeTerms,
+                       final Map<String, Path> scenarios ) {
+        for ( ValueIndexTerm term : ruleTerms ) {
+            addScenarios( project,
+                          FIND_RULES_QUERY,
+                          term,
+                          scenarios );
+        }
+        for ( ValueIndexTerm term : typeTerms ) {
+            addScenarios( project,
+                          FIND_TYPES_QUERY,
+                          term,
+                          scenarios );
+        }
+    }
+
+    //Returns whether any rules or types of the asset were found
+    private boolean addTerms( final Path asset,
+                              final Set<ValueIndexTerm> ruleTerms,
+                              final Set<ValueIndexTerm> typeTerms ) {
+        boolean found = false;
+        final org.uberfire.java.nio.file.Path nioAsset;
+        try {
+            nioAsset = Paths.convert( asset );
+        } catch ( RuntimeException e ) {
+            logger.warn( "Unable to read the rules and types of '" + asset.toURI() + "'.",
+                         e );
+            return false;
+        }
+        for ( Indexer indexer : indexers ) {
+            try {
+                if ( !indexer.supportsPath( nioAsset ) ) {
+                    continue;
+                }
+                final KObject kObject = indexer.toKObject( nioAsset );
+                if ( kObject == null ) {
+                    continue;
+                }
+                for ( KProperty<?> property : kObject.getProperties() ) {
+                    if ( RuleIndexTerm.TERM.equals( property.getName() ) ) {
+                        ruleTerms.add( new ValueRuleIndexTerm( property.getValue().toString() ) );
+                        found = true;
+                    } else if ( TypeIndexTerm.TERM.equals( property.getName() ) ) {
+                        typeTerms.add( new ValueTypeIndexTerm( property.getValue().toString() ) );
+                        found = true;
+                    }
+                }
+            } catch ( RuntimeException e ) {
+                logger.warn( "Unable to read the rules and types of '" + asset.toURI() + "'.",
+                             e );
+            }
+        }
+        return found;
+    }
+
+    private void addScenarios( final KieProject project,
+                               final String queryName,
+                               final ValueIndexTerm term,
+                               final Map<String, Path> scenarios ) {
+        final List<RefactoringPageRow> rows = queryService.query( queryName,
+                                                                  Collections.singleton( term ),
+                                                                  false );
+        for ( RefactoringPageRow row : rows ) {
+            if ( !( row.getValue() instanceof Path ) ) {
+                continue;
+            }
+            final Path path = (Path) row.getValue();
+            if ( testScenarioType.accept( path ) && isInProject( project,
+                                                                 path ) ) {
+                scenarios.put( path.toURI(),
+                               path );
+            }
+        }
+    }
+
+    private boolean isInProject( final KieProject project,
+                                 final Path path ) {
+        final String root = project.getRootPath().toURI();
+        return path.toURI().startsWith( root.endsWith( "/" ) ? root : root + "/" );
+    }
+
+}
@@ -16,13 +16,18 @@
 
 package org.drools.workbench.screens.testscenario.backend.server;
 
-import java.util.HashSet;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
 import org.kie.api.definition.rule.Rule;
 import org.kie.api.event.process.ProcessCompletedEvent;
+import org.kie.api.event.process.ProcessEvent;
 import org.kie.api.event.process.ProcessEventListener;
+import org.kie.api.event.process.ProcessNodeEvent;
 import org.kie.api.event.process.ProcessNodeLeftEvent;
 import org.kie.api.event.process.ProcessNodeTriggeredEvent;
 import org.kie.api.event.process.ProcessStartedEvent;
@@ -41,133 +46,226 @@ import org.kie.api.event.rule.RuleFlowGroupActivatedEvent;
 import org.kie.api.event.rule.RuleFlowGroupDeactivatedEvent;
 import org.kie.api.event.rule.RuleRuntimeEventListener;
 import org.kie.api.runtime.KieSession;
-
+import org.kie.api.runtime.rule.FactHandle;
+
+/**
+ * Records the events of a scenario run, in the order in which they happen. Only the most recent events, up to the
+ * logger's capacity, are held. Each event is held as its kind, the names and ids of the rule, fact handle, process or
+ * node concerned, and the facts themselves; it is formatted, including the toString() of its facts, only when it is
+ * read. Facts are therefore shown as they are when the log is read. The logger holds no references to the KieSession,
+ * its events or its rules; KieSessions are pooled and must not be kept alive by a run's audit log.
+ */
 public class AuditLogger {
 
-    private final Set<String> logs = new HashSet<String>();
-    private final Map<String, KieSession> ksessions;
+    public static final int DEFAULT_CAPACITY = 1000;
+
+    public enum Category {
+        FACTS,
+        RULES,
+        AGENDA,
+        PROCESS
+    }
+
+    private final Event[] events;
+    private final Set<Category> categories;
+
+    //Number of events recorded, including those since overwritten
+    private long count;
 
     public AuditLogger(Map<String, KieSession> ksessions) {
+        this(ksessions, DEFAULT_CAPACITY, EnumSet.allOf(Category.class));
+    }
 
-        this.ksessions = ksessions;
+    /**
+     * @param ksessions KieSessions whose events are recorded
+     * @param capacity Maximum number of events held; the oldest is overwritten when full
+     * @param categories Categories of event recorded; listeners are not added for the others
+     */
+    public AuditLogger(Map<String, KieSession> ksessions,
+                       int capacity,
+                       Set<Category> categories) {
+
+        this.events = new Event[Math.max(1, capacity)];
+        this.categories = (categories.isEmpty() ? EnumSet.noneOf(Category.class) : EnumSet.copyOf(categories));
 
         for (KieSession ksession : ksessions.values()) {
             if (ksession != null) {
-                addRuleRuntimeEventListener(ksession);
-                addAgendaEventListener(ksession);
-                addProcessEventListener(ksession);
+                if (this.categories.contains(Category.FACTS)) {
+                    addRuleRuntimeEventListener(ksession);
+                }
+                if (this.categories.contains(Category.RULES) || this.categories.contains(Category.AGENDA)) {
+                    addAgendaEventListener(ksession);
+                }
+                if (this.categories.contains(Category.PROCESS)) {
+                    addProcessEventListener(ksession);
+                }
             }
         }
     }
 
-    public Set<String> getLog() {
-        return logs;
+    /**
+     * @return Every event held, formatted, oldest first
+     */
+    public List<String> getLog() {
+        return getLog(0, events.length);
+    }
+
+    /**
+     * @param offset Index of the first event, where 0 is the oldest held
+     * @param count Maximum number of events
+     * @return The events, formatted, oldest first
+     */
+    public synchronized List<String> getLog(int offset, int count) {
+        int size = size();
+        if (offset < 0 || offset >= size || count <= 0) {
+            return Collections.emptyList();
+        }
+        int end = Math.min(size, offset + count);
+        long first = this.count - size;
+        List<String> log = new ArrayList<String>(end - offset);
+        for (int i = offset; i < end; i++) {
+            log.add(events[(int) ((first + i) % events.length)].format());
+        }
+        return log;
+    }
+
+    /**
+     * @return The number of events held
+     */
+    public synchronized int size() {
+        return (int) Math.min(count, events.length);
+    }
+
+    /**
+     * @return The number of events recorded but no longer held, as the logger's capacity was exceeded
+     */
+    public synchronized long getDropped() {
+        return count - size();
+    }
+
+    private synchronized void add(Event event) {
+        events[(int) (count % events.length)] = event;
+        count++;
     }
 
     private void addProcessEventListener(KieSession ksession) {
+        //Only the events after each change are recorded
         ksession.addEventListener(new ProcessEventListener() {
             @Override
             public void beforeProcessStarted(ProcessStartedEvent processStartedEvent) {
-                log(processStartedEvent);
             }
 
             @Override
             public void afterProcessStarted(ProcessStartedEvent processStartedEvent) {
-                log(processStartedEvent);
+                add(processEvent(Kind.PROCESS_STARTED, processStartedEvent));
             }
 
             @Override
             public void beforeProcessCompleted(ProcessCompletedEvent processCompletedEvent) {
-                log(processCompletedEvent);
             }
 
             @Override
             public void afterProcessCompleted(ProcessCompletedEvent processCompletedEvent) {
-                log(processCompletedEvent);
+                add(processEvent(Kind.PROCESS_COMPLETED, processCompletedEvent));
             }
 
             @Override
             public void beforeNodeTriggered(ProcessNodeTriggeredEvent processNodeTriggeredEvent) {
-                log(processNodeTriggeredEvent);
             }
 
             @Override
             public void afterNodeTriggered(ProcessNodeTriggeredEvent processNodeTriggeredEvent) {
-                log(processNodeTriggeredEvent);
+                add(nodeEvent(Kind.NODE_TRIGGERED, processNodeTriggeredEvent));
             }
 
             @Override
             public void beforeNodeLeft(ProcessNodeLeftEvent processNodeLeftEvent) {
-                log(processNodeLeftEvent);
             }
 
             @Override
             public void afterNodeLeft(ProcessNodeLeftEvent processNodeLeftEvent) {
-                log(processNodeLeftEvent);
+                add(nodeEvent(Kind.NODE_LEFT, processNodeLeftEvent));
             }
 
             @Override
             public void beforeVariableChanged(ProcessVariableChangedEvent processVariableChangedEvent) {
-                log(processVariableChangedEvent);
             }
 
             @Override
             public void afterVariableChanged(ProcessVariableChangedEvent processVariableChangedEvent) {
-                log(processVariableChangedEvent);
+                add(new Event(Kind.VARIABLE_CHANGED,
+                              processVariableChangedEvent.getVariableId(),
+                              processVariableChangedEvent.getProcessInstance().getProcessId(),
+                              -1,
+                              processVariableChangedEvent.getProcessInstance().getId()));
             }
         });
     }
 
     private void addAgendaEventListener(KieSession ksession) {
+        final boolean agenda = categories.contains(Category.AGENDA);
+        final boolean rules = categories.contains(Category.RULES);
+
         ksession.addEventListener(new AgendaEventListener() {
             @Override
             public void matchCreated(MatchCreatedEvent matchCreatedEvent) {
-                log(matchCreatedEvent);
+                if (agenda) {
+                    add(new Event(Kind.MATCH_CREATED, getName(matchCreatedEvent.getMatch().getRule())));
+                }
             }
 
             @Override
             public void matchCancelled(MatchCancelledEvent matchCancelledEvent) {
-                log(matchCancelledEvent);
+                if (agenda) {
+                    add(new Event(Kind.MATCH_CANCELLED, getName(matchCancelledEvent.getMatch().getRule())));
+                }
             }
 
             @Override
             public void beforeMatchFired(BeforeMatchFiredEvent beforeMatchFiredEvent) {
-//                log(beforeMatchFiredEvent);
             }
 
             @Override
             public void afterMatchFired(AfterMatchFiredEvent afterMatchFiredEvent) {
-                logs.add("Rule " + afterMatchFiredEvent.getMatch().getRule() + " fired.");
+                if (rules) {
+                    add(new Event(Kind.RULE_FIRED, getName(afterMatchFiredEvent.getMatch().getRule())));
+                }
             }
 
             @Override
             public void agendaGroupPopped(AgendaGroupPoppedEvent agendaGroupPoppedEvent) {
-                log(agendaGroupPoppedEvent);
+                if (agenda) {
+                    add(new Event(Kind.AGENDA_GROUP_POPPED, agendaGroupPoppedEvent.getAgendaGroup().getName()));
+                }
             }
 
             @Override
             public void agendaGroupPushed(AgendaGroupPushedEvent agendaGroupPushedEvent) {
-                log(agendaGroupPushedEvent);
+                if (agenda) {
+                    add(new Event(Kind.AGENDA_GROUP_PUSHED, agendaGroupPushedEvent.getAgendaGroup().getName()));
+                }
             }
 
             @Override
             public void beforeRuleFlowGroupActivated(RuleFlowGroupActivatedEvent ruleFlowGroupActivatedEvent) {
-                log(ruleFlowGroupActivatedEvent);
             }
 
             @Override
             public void afterRuleFlowGroupActivated(RuleFlowGroupActivatedEvent ruleFlowGroupActivatedEvent) {
-                log(ruleFlowGroupActivatedEvent);
+                if (agenda) {
+                    add(new Event(Kind.RULE_FLOW_GROUP_ACTIVATED, ruleFlowGroupActivatedEvent.getRuleFlowGroup().getName()));
+                }
             }
 
             @Override
             public void beforeRuleFlowGroupDeactivated(RuleFlowGroupDeactivatedEvent ruleFlowGroupDeactivatedEvent) {
-                log(ruleFlowGroupDeactivatedEvent);
             }
 
             @Override
             public void afterRuleFlowGroupDeactivated(RuleFlowGroupDeactivatedEvent ruleFlowGroupDeactivatedEvent) {
-                log(ruleFlowGroupDeactivatedEvent);
+                if (agenda) {
+                    add(new Event(Kind.RULE_FLOW_GROUP_DEACTIVATED, ruleFlowGroupDeactivatedEvent.getRuleFlowGroup().getName()));
+                }
             }
         });
     }
@@ -176,46 +274,196 @@ public class AuditLogger {
         ksession.addEventListener(new RuleRuntimeEventListener() {
             @Override
             public void objectInserted(ObjectInsertedEvent objectInsertedEvent) {
-                Object object = objectInsertedEvent.getObject();
-                Rule rule = objectInsertedEvent.getRule();
-                if (rule == null) {
-                    logs.add("Fact " + object.getClass().getName() + " inserted.");
-                } else {
-                    logs.add("Fact " + object.getClass().getName() + " inserted in rule " + rule.getName() + ". Fact[ " + object.toString() + " ].");
-                }
+                add(new Event(Kind.FACT_INSERTED,
+                              getName(objectInsertedEvent.getRule()),
+                              objectInsertedEvent.getObject(),
+                              null,
+                              getId(objectInsertedEvent.getFactHandle())));
             }
 
             @Override
             public void objectUpdated(ObjectUpdatedEvent objectUpdatedEvent) {
-                Object object = objectUpdatedEvent.getObject();
-                Rule rule = objectUpdatedEvent.getRule();
-                Object oldObject = objectUpdatedEvent.getOldObject();
-
-                if (rule == null) {
-
-                    logs.add("Object " + object.getClass().getName() + " updated. Old fact[ " + oldObject.toString()
-                             + " ]. New fact[ " + object.toString() + " ].");
-                } else {
-                    logs.add("Object " + object.getClass().getName() + " updated in rule " + rule.getName()
-                             + ". Old fact[ " + oldObject.toString()
-                             + " ]. New fact[ " + object.toString() + " ].");
-                }
+                add(new Event(Kind.FACT_UPDATED,
+                              getName(objectUpdatedEvent.getRule()),
+                              objectUpdatedEvent.getObject(),
+                              objectUpdatedEvent.getOldObject(),
+                              getId(objectUpdatedEvent.getFactHandle())));
             }
 
             @Override
             public void objectDeleted(ObjectDeletedEvent objectDeletedEvent) {
-                Object oldObject = objectDeletedEvent.getOldObject();
-                Rule rule = objectDeletedEvent.getRule();
-                if (rule == null) {
-                    logs.add("Object " + oldObject.getClass().getName() + " deleted. Fact[ " + oldObject.toString() + " ].");
-                } else {
-                    logs.add("Object " + oldObject.getClass().getName() + " deleted in rule " + rule.getName() + ". Fact[ " + oldObject.toString() + " ].");
-                }
+                add(new Event(Kind.FACT_DELETED,
+                              getName(objectDeletedEvent.getRule()),
+                              null,
+                              objectDeletedEvent.getOldObject(),
+                              getId(objectDeletedEvent.getFactHandle())));
             }
         });
     }
 
-    private void log(Object o) {
-        logs.add(o.toString());
+    private static Event processEvent(Kind kind,
+                                      ProcessEvent processEvent) {
+        return new Event(kind,
+                         null,
+                         processEvent.getProcessInstance().getProcessId(),
+                         -1,
+                         processEvent.getProcessInstance().getId());
+    }
+
+    private static Event nodeEvent(Kind kind,
+                                   ProcessNodeEvent processNodeEvent) {
+        return new Event(kind,
+                         processNodeEvent.getNodeInstance().getNodeName(),
+                         processNodeEvent.getProcessInstance().getProcessId(),
+                         processNodeEvent.getNodeInstance().getNodeId(),
+                         processNodeEvent.getProcessInstance().getId());
+    }
+
+    private static String getName(Rule rule) {
+        return (rule == null ? null : rule.getName());
+    }
+
+    //The id of a fact handle is the second field of its external form, e.g. "0:id:identityHashCode:..."
+    private static long getId(FactHandle factHandle) {
+        if (factHandle == null) {
+            return -1;
+        }
+        String[] fields = factHandle.toExternalForm().split(":", 3);
+        try {
+            return (fields.length < 2 ? -1 : Long.parseLong(fields[1]));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private enum Kind {
+        FACT_INSERTED,
+        FACT_UPDATED,
+        FACT_DELETED,
+        RULE_FIRED,
+        MATCH_CREATED,
+        MATCH_CANCELLED,
+        AGENDA_GROUP_POPPED,
+        AGENDA_GROUP_PUSHED,
+        RULE_FLOW_GROUP_ACTIVATED,
+        RULE_FLOW_GROUP_DEACTIVATED,
+        PROCESS_STARTED,
+        PROCESS_COMPLETED,
+        NODE_TRIGGERED,
+        NODE_LEFT,
+        VARIABLE_CHANGED
+    }
+
+    private static class Event {
+
+        private final Kind kind;
+
+        //Rule, agenda group, rule flow group, node or variable name
+        private final String name;
+
+        //Process id
+        private final String type;
+
+        //Fact handle or node id
+        private final long id;
+
+        private final long processInstanceId;
+
+        //The fact inserted or updated, and the fact updated or deleted; only formatted when the event is read
+        private final Object object;
+        private final Object oldObject;
+
+        private Event(Kind kind,
+                      String name) {
+            this(kind, name, null, -1, -1);
+        }
+
+        private Event(Kind kind,
+                      String name,
+                      Object object,
+                      Object oldObject,
+                      long id) {
+            this.kind = kind;
+            this.name = name;
+            this.type = null;
+            this.id = id;
+            this.processInstanceId = -1;
+            this.object = object;
+            this.oldObject = oldObject;
+        }
+
+        private Event(Kind kind,
+                      String name,
+                      String type,
+                      long id,
+                      long processInstanceId) {
+            this.kind = kind;
+            this.name = name;
+            this.type = type;
+            this.id = id;
+            this.processInstanceId = processInstanceId;
+            this.object = null;
+            this.oldObject = null;
+        }
+
+        private String format() {
+            switch (kind) {
+                case FACT_INSERTED:
+                    return formatFact("Fact ", object, " inserted")
+                            .append(" Fact[ ").append(object).append(" ].")
+                            .append(formatFactHandle()).toString();
+                case FACT_UPDATED:
+                    return formatFact("Object ", object, " updated")
+                            .append(" Old fact[ ").append(oldObject).append(" ].")
+                            .append(" New fact[ ").append(object).append(" ].")
+                            .append(formatFactHandle()).toString();
+                case FACT_DELETED:
+                    return formatFact("Object ", oldObject, " deleted")
+                            .append(" Fact[ ").append(oldObject).append(" ].")
+                            .append(formatFactHandle()).toString();
+                case RULE_FIRED:
+                    return "Rule " + name + " fired.";
+                case MATCH_CREATED:
+                    return "Match of rule " + name + " created.";
+                case MATCH_CANCELLED:
+                    return "Match of rule " + name + " cancelled.";
+                case AGENDA_GROUP_POPPED:
+                    return "Agenda group " + name + " popped.";
+                case AGENDA_GROUP_PUSHED:
+                    return "Agenda group " + name + " pushed.";
+                case RULE_FLOW_GROUP_ACTIVATED:
+                    return "Rule flow group " + name + " activated.";
+                case RULE_FLOW_GROUP_DEACTIVATED:
+                    return "Rule flow group " + name + " deactivated.";
+                case PROCESS_STARTED:
+                    return "Process " + formatProcess() + " started.";
+                case PROCESS_COMPLETED:
+                    return "Process " + formatProcess() + " completed.";
+                case NODE_TRIGGERED:
+                    return "Node " + name + " [id=" + id + "] of process " + formatProcess() + " triggered.";
+                case NODE_LEFT:
+                    return "Node " + name + " [id=" + id + "] of process " + formatProcess() + " left.";
+                default:
+                    return "Variable " + name + " of process " + formatProcess() + " changed.";
+            }
+        }
+
+        private StringBuilder formatFact(String prefix,
+                                         Object fact,
+                                         String action) {
+            StringBuilder sb = new StringBuilder(prefix).append(fact == null ? null : fact.getClass().getName()).append(action);
+            if (name != null) {
+                sb.append(" in rule ").append(name);
+            }
+            return sb.append('.');
+        }
+
+        private String formatFactHandle() {
+            return (id < 0 ? "" : " Fact handle[ " + id + " ].");
+        }
+
+        private String formatProcess() {
+            return type + " [instance=" + processInstanceId + "]";
+        }
     }
 }
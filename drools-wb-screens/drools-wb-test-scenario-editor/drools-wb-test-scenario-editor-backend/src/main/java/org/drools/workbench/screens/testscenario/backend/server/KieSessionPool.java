@@ -0,0 +1,452 @@
+/*
+ * Copyright 2015 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.workbench.screens.testscenario.backend.server;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
+import javax.inject.Inject;
+
+import org.drools.workbench.screens.testscenario.type.TestScenarioResourceTypeDefinition;
+import org.kie.api.event.process.ProcessEventListener;
+import org.kie.api.event.rule.AgendaEventListener;
+import org.kie.api.event.rule.RuleRuntimeEventListener;
+import org.kie.api.runtime.KieSession;
+import org.kie.api.runtime.process.ProcessInstance;
+import org.kie.api.runtime.rule.EntryPoint;
+import org.kie.api.runtime.rule.FactHandle;
+import org.kie.api.time.SessionClock;
+import org.kie.api.time.SessionPseudoClock;
+import org.kie.workbench.common.services.backend.session.SessionService;
+import org.kie.workbench.common.services.shared.project.KieProject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.uberfire.backend.vfs.Path;
+import org.uberfire.workbench.events.ResourceAddedEvent;
+import org.uberfire.workbench.events.ResourceBatchChangesEvent;
+import org.uberfire.workbench.events.ResourceCopiedEvent;
+import org.uberfire.workbench.events.ResourceDeletedEvent;
+import org.uberfire.workbench.events.ResourceRenamedEvent;
+import org.uberfire.workbench.events.ResourceUpdatedEvent;
+
+/**
+ * Pool of the KieSessions used to run Test Scenarios, per project and KieSession name. Creating a KieSession for
+ * every run is expensive, so a session is returned to the pool once a run has finished and handed out again after
+ * being reset: its facts, process instances and the event listeners added during the run are removed, its globals
+ * are restored and its pseudo clock is wound back to the time at which the session was created. A session that cannot
+ * be reset, e.g. because a run set a global that the session did not have (Drools cannot unset a global), is
+ * disposed. The pooled sessions of a project are disposed when any of its resources, other than Test Scenarios,
+ * changes, as the project's KieBase is then rebuilt.
+ */
+@ApplicationScoped
+public class KieSessionPool {
+
+    private static final Logger logger = LoggerFactory.getLogger( KieSessionPool.class );
+
+    private static final String DEFAULT_KSESSION = "defaultKieSession";
+
+    //Idle sessions held per project and KieSession name; more than this are disposed when released
+    static final int MAX_IDLE_PER_KSESSION = 8;
+
+    //Keyed by the URI of the project's root path. Replaced when the project changes.
+    private final ConcurrentMap<String, ProjectSessions> projects = new ConcurrentHashMap<String, ProjectSessions>();
+
+    //Sessions handed out and not yet released
+    private final Map<KieSession, PooledSession> borrowed = new IdentityHashMap<KieSession, PooledSession>();
+
+    private final AtomicLong created = new AtomicLong();
+    private final AtomicLong reused = new AtomicLong();
+    private final AtomicLong discarded = new AtomicLong();
+
+    private SessionService sessionService;
+    private TestScenarioResourceTypeDefinition testScenarioType;
+
+    public KieSessionPool() {
+    }
+
+    @Inject
+    public KieSessionPool( final SessionService sessionService,
+                           final TestScenarioResourceTypeDefinition testScenarioType ) {
+        this.sessionService = sessionService;
+        this.testScenarioType = testScenarioType;
+    }
+
+    /**
+     * Returns a KieSession with empty working memory, taken from the pool if one is idle or newly created if not.
+     * It should be handed back with {@link #release(KieSession)} once it is no longer used.
+     * @param project The project; sessions are not pooled if it is null or has no root path
+     * @param ksessionName The KieSession name; the project's default KieSession, with a pseudo clock, if null
+     * @return The KieSession, or null if it cannot be created
+     */
+    public KieSession borrow( final KieProject project,
+                              final String ksessionName ) {
+        final String name = ( ksessionName == null ? DEFAULT_KSESSION : ksessionName );
+        final ProjectSessions projectSessions = getProjectSessions( project );
+        if ( projectSessions != null ) {
+            final PooledSession pooled = projectSessions.take( name );
+            if ( pooled != null ) {
+                reused.incrementAndGet();
+                return lend( pooled );
+            }
+        }
+
+        final KieSession ksession = newKieSession( project,
+                                                   name );
+        if ( ksession == null ) {
+            return null;
+        }
+        created.incrementAndGet();
+        if ( projectSessions == null ) {
+            return ksession;
+        }
+        return lend( new PooledSession( projectSessions,
+                                        name,
+                                        ksession ) );
+    }
+
+    /**
+     * Returns a KieSession to the pool. A session that was not pooled, or whose project has changed since it was
+     * created, is disposed.
+     * @param ksession The KieSession given by {@link #borrow(KieProject, String)}; may be null
+     */
+    public void release( final KieSession ksession ) {
+        if ( ksession == null ) {
+            return;
+        }
+        final PooledSession pooled;
+        synchronized ( borrowed ) {
+            pooled = borrowed.remove( ksession );
+        }
+        if ( pooled == null || pooled.projectSessions != projects.get( pooled.projectSessions.key ) || !pooled.reset() ) {
+            dispose( ksession );
+            return;
+        }
+        if ( !pooled.projectSessions.offer( pooled ) ) {
+            dispose( ksession );
+        }
+    }
+
+    /**
+     * @return The number of idle sessions held, across all projects
+     */
+    public int getPoolSize() {
+        int size = 0;
+        for ( ProjectSessions projectSessions : projects.values() ) {
+            size += projectSessions.size();
+        }
+        return size;
+    }
+
+    /**
+     * @return The number of sessions created, rather than taken from the pool
+     */
+    public long getCreatedCount() {
+        return created.get();
+    }
+
+    /**
+     * @return The number of sessions taken from the pool, rather than created
+     */
+    public long getReusedCount() {
+        return reused.get();
+    }
+
+    /**
+     * @return The number of sessions disposed on release, because they were stale, could not be reset or were
+     * not needed
+     */
+    public long getDiscardedCount() {
+        return discarded.get();
+    }
+
+    public void invalidate() {
+        for ( String key : new ArrayList<String>( projects.keySet() ) ) {
+            invalidateProject( key );
+        }
+    }
+
+    public void onResourceAdded( @Observes final ResourceAddedEvent event ) {
+        invalidate( event.getPath() );
+    }
+
+    public void onResourceUpdated( @Observes final ResourceUpdatedEvent event ) {
+        invalidate( event.getPath() );
+    }
+
+    public void onResourceDeleted( @Observes final ResourceDeletedEvent event ) {
+        invalidate( event.getPath() );
+    }
+
+    public void onResourceCopied( @Observes final ResourceCopiedEvent event ) {
+        invalidate( event.getDestinationPath() );
+    }
+
+    public void onResourceRenamed( @Observes final ResourceRenamedEvent event ) {
+        invalidate( event.getPath() );
+        invalidate( event.getDestinationPath() );
+    }
+
+    public void onBatchResourceChanges( @Observes final ResourceBatchChangesEvent event ) {
+        for ( Path path : event.getBatch().keySet() ) {
+            invalidate( path );
+        }
+    }
+
+    //Test Scenarios are not part of the KieBase, so editing one between runs keeps the pooled sessions
+    private void invalidate( final Path path ) {
+        if ( path == null || testScenarioType.accept( path ) ) {
+            return;
+        }
+        final String uri = path.toURI();
+        for ( String key : new ArrayList<String>( projects.keySet() ) ) {
+            if ( uri.equals( key ) || uri.startsWith( key.endsWith( "/" ) ? key : key + "/" ) ) {
+                invalidateProject( key );
+            }
+        }
+    }
+
+    private void invalidateProject( final String key ) {
+        final ProjectSessions projectSessions = projects.remove( key );
+        if ( projectSessions == null ) {
+            return;
+        }
+        for ( PooledSession pooled : projectSessions.drain() ) {
+            dispose( pooled.ksession );
+        }
+    }
+
+    private ProjectSessions getProjectSessions( final KieProject project ) {
+        if ( project == null || project.getRootPath() == null ) {
+            return null;
+        }
+        final String key = project.getRootPath().toURI();
+        ProjectSessions projectSessions = projects.get( key );
+        if ( projectSessions == null ) {
+            final ProjectSessions newProjectSessions = new ProjectSessions( key );
+            projectSessions = projects.putIfAbsent( key,
+                                                      newProjectSessions );
+            if ( projectSessions == null ) {
+                projectSessions = newProjectSessions;
+            }
+        }
+        return projectSessions;
+    }
+
+    private KieSession lend( final PooledSession pooled ) {
+        synchronized ( borrowed ) {
+            borrowed.put( pooled.ksession,
+                          pooled );
+        }
+        return pooled.ksession;
+    }
+
+    private KieSession newKieSession( final KieProject project,
+                                      final String ksessionName ) {
+        try {
+            if ( DEFAULT_KSESSION.equals( ksessionName ) ) {
+                return sessionService.newDefaultKieSessionWithPseudoClock( project );
+            } else {
+                return sessionService.newKieSession( project,
+                                                     ksessionName );
+            }
+        } catch ( Exception e ) {
+            // If for one reason or another we can not load the ksession. Return null
+            return null;
+        }
+    }
+
+    private void dispose( final KieSession ksession ) {
+        discarded.incrementAndGet();
+        try {
+            ksession.dispose();
+        } catch ( RuntimeException e ) {
+            logger.warn( "Unable to dispose KieSession.",
+                         e );
+        }
+    }
+
+    /**
+     * The idle sessions of one project, by KieSession name
+     */
+    private static class ProjectSessions {
+
+        private final String key;
+        private final Map<String, Deque<PooledSession>> idle = new HashMap<String, Deque<PooledSession>>();
+        private boolean invalidated;
+
+        private ProjectSessions( final String key ) {
+            this.key = key;
+        }
+
+        private synchronized PooledSession take( final String ksessionName ) {
+            final Deque<PooledSession> sessions = idle.get( ksessionName );
+            return ( sessions == null ? null : sessions.pollFirst() );
+        }
+
+        private synchronized boolean offer( final PooledSession pooled ) {
+            Deque<PooledSession> sessions = idle.get( pooled.ksessionName );
+            if ( sessions == null ) {
+                sessions = new ArrayDeque<PooledSession>();
+                idle.put( pooled.ksessionName,
+                          sessions );
+            }
+            if ( invalidated || sessions.size() >= MAX_IDLE_PER_KSESSION ) {
+                return false;
+            }
+            sessions.addFirst( pooled );
+            return true;
+        }
+
+        private synchronized int size() {
+            int size = 0;
+            for ( Deque<PooledSession> sessions : idle.values() ) {
+                size += sessions.size();
+            }
+            return size;
+        }
+
+        private synchronized List<PooledSession> drain() {
+            final List<PooledSession> drained = new ArrayList<PooledSession>();
+            for ( Deque<PooledSession> sessions : idle.values() ) {
+                drained.addAll( sessions );
+            }
+            idle.clear();
+            invalidated = true;
+            return drained;
+        }
+
+    }
+
+    /**
+     * A pooled session, with the state it had when created so that it can be restored
+     */
+    private static class PooledSession {
+
+        private final ProjectSessions projectSessions;
+        private final String ksessionName;
+        private final KieSession ksession;
+
+        private final List<RuleRuntimeEventListener> ruleRuntimeEventListeners;
+        private final List<AgendaEventListener> agendaEventListeners;
+        private final List<ProcessEventListener> processEventListeners;
+        private final Map<String, Object> globals;
+        private final long startTime;
+
+        private PooledSession( final ProjectSessions projectSessions,
+                               final String ksessionName,
+                               final KieSession ksession ) {
+            this.projectSessions = projectSessions;
+            this.ksessionName = ksessionName;
+            this.ksession = ksession;
+            this.ruleRuntimeEventListeners = new ArrayList<RuleRuntimeEventListener>( ksession.getRuleRuntimeEventListeners() );
+            this.agendaEventListeners = new ArrayList<AgendaEventListener>( ksession.getAgendaEventListeners() );
+            this.processEventListeners = new ArrayList<ProcessEventListener>( ksession.getProcessEventListeners() );
+            this.globals = new HashMap<String, Object>();
+            for ( String global : ksession.getGlobals().getGlobalKeys() ) {
+                globals.put( global,
+                             ksession.getGlobal( global ) );
+            }
+            final SessionClock clock = ksession.getSessionClock();
+            this.startTime = ( clock == null ? 0 : clock.getCurrentTime() );
+        }
+
+        //Restore the session to the state it had when created. False if it could not be restored.
+        private boolean reset() {
+            try {
+                removeAddedEventListeners();
+
+                for ( ProcessInstance processInstance : new ArrayList<ProcessInstance>( ksession.getProcessInstances() ) ) {
+                    ksession.abortProcessInstance( processInstance.getId() );
+                }
+                for ( EntryPoint entryPoint : ksession.getEntryPoints() ) {
+                    for ( FactHandle factHandle : new ArrayList<FactHandle>( entryPoint.getFactHandles() ) ) {
+                        entryPoint.delete( factHandle );
+                    }
+                }
+                ksession.getAgenda().clear();
+                if ( !restoreGlobals() ) {
+                    return false;
+                }
+
+                final SessionClock clock = ksession.getSessionClock();
+                if ( clock instanceof SessionPseudoClock ) {
+                    ( (SessionPseudoClock) clock ).advanceTime( startTime - clock.getCurrentTime(),
+                                                                TimeUnit.MILLISECONDS );
+                }
+                return ksession.getFactCount() == 0;
+
+            } catch ( RuntimeException e ) {
+                logger.debug( "Unable to reset KieSession '" + ksessionName + "'; it will be disposed.",
+                              e );
+                return false;
+            }
+        }
+
+        //Setting a global to null is ignored, so one that was not set when the session was created cannot be cleared
+        private boolean restoreGlobals() {
+            for ( String global : new ArrayList<String>( ksession.getGlobals().getGlobalKeys() ) ) {
+                final Object value = ksession.getGlobal( global );
+                final Object original = globals.get( global );
+                if ( value == original ) {
+                    continue;
+                }
+                if ( original == null ) {
+                    logger.debug( "Global '" + global + "' of KieSession '" + ksessionName + "' was set by a run; the session will be disposed." );
+                    return false;
+                }
+                ksession.setGlobal( global,
+                                    original );
+            }
+            return true;
+        }
+
+        private void removeAddedEventListeners() {
+            for ( RuleRuntimeEventListener listener : added( ksession.getRuleRuntimeEventListeners(),
+                                                             ruleRuntimeEventListeners ) ) {
+                ksession.removeEventListener( listener );
+            }
+            for ( AgendaEventListener listener : added( ksession.getAgendaEventListeners(),
+                                                        agendaEventListeners ) ) {
+                ksession.removeEventListener( listener );
+            }
+            for ( ProcessEventListener listener : added( ksession.getProcessEventListeners(),
+                                                         processEventListeners ) ) {
+                ksession.removeEventListener( listener );
+            }
+        }
+
+        private static <T> List<T> added( final Collection<T> current,
+                                          final List<T> original ) {
+            final List<T> added = new ArrayList<T>( current );
+            added.removeAll( original );
+            return added;
+        }
+
+    }
+
+}
@@ -27,11 +27,15 @@ import org.guvnor.common.services.backend.file.FileExtensionFilter;
 import org.guvnor.common.services.backend.file.LinkedDotFileFilter;
 import org.guvnor.common.services.backend.file.LinkedFilter;
 import org.guvnor.common.services.backend.file.LinkedMetaInfFolderFilter;
+import org.kie.workbench.common.services.shared.project.KieProject;
 import org.uberfire.backend.server.util.Paths;
 import org.uberfire.backend.vfs.Path;
 import org.uberfire.io.IOService;
 import org.uberfire.java.nio.file.DirectoryStream;
+import org.uberfire.java.nio.file.FileVisitResult;
 import org.uberfire.java.nio.file.Files;
+import org.uberfire.java.nio.file.SimpleFileVisitor;
+import org.uberfire.java.nio.file.attribute.BasicFileAttributes;
 
 public class ScenarioLoader {
 
@@ -51,6 +55,49 @@ public class ScenarioLoader {
         return scenarios;
     }
 
+    public List<Scenario> loadScenarios(List<Path> scenarioPaths) {
+        List<Scenario> scenarios = new ArrayList<Scenario>();
+
+        for (Path path : scenarioPaths) {
+            scenarios.add(scenarioTestEditorService.load(path));
+        }
+        return scenarios;
+    }
+
+    /**
+     * Loads every Test Scenario of a project, from all of its test resource packages
+     */
+    public List<Scenario> loadProjectScenarios(KieProject project) {
+        final List<Path> scenarioPaths = new ArrayList<Path>();
+        final org.uberfire.java.nio.file.Path testResources = Paths.convert(project.getRootPath()).resolve("src/test/resources");
+        if (!Files.exists(testResources)) {
+            return new ArrayList<Scenario>();
+        }
+
+        Files.walkFileTree(testResources,
+                           new SimpleFileVisitor<org.uberfire.java.nio.file.Path>() {
+                               @Override
+                               public FileVisitResult preVisitDirectory(org.uberfire.java.nio.file.Path dir,
+                                                                        BasicFileAttributes attrs) {
+                                   if (dir.getFileName() != null && dir.getFileName().toString().startsWith(".")) {
+                                       return FileVisitResult.SKIP_SUBTREE;
+                                   }
+                                   return FileVisitResult.CONTINUE;
+                               }
+
+                               @Override
+                               public FileVisitResult visitFile(org.uberfire.java.nio.file.Path file,
+                                                                BasicFileAttributes attrs) {
+                                   if (file.getFileName().toString().endsWith(".scenario")) {
+                                       scenarioPaths.add(Paths.convert(file));
+                                   }
+                                   return FileVisitResult.CONTINUE;
+                               }
+                           });
+
+        return loadScenarios(scenarioPaths);
+    }
+
     private List<Path> loadScenarioPaths(final Path path) {
         // Check Path exists
         final List<Path> items = new ArrayList<Path>();
@@ -1,9 +1,19 @@
 package org.drools.workbench.screens.testscenario.backend.server;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import javax.enterprise.context.ApplicationScoped;
 import javax.enterprise.event.Event;
 import javax.inject.Inject;
@@ -28,7 +38,6 @@ import org.junit.runner.notification.Failure;
 import org.junit.runner.notification.RunListener;
 import org.junit.runners.model.InitializationError;
 import org.kie.api.runtime.KieSession;
-import org.kie.workbench.common.services.backend.session.SessionService;
 import org.kie.workbench.common.services.shared.project.KieProject;
 import org.kie.workbench.common.services.shared.project.KieProjectService;
 import org.uberfire.backend.vfs.Path;
@@ -42,38 +51,52 @@ public class ScenarioRunnerService
 
     protected KieProjectService        projectService;
     private   ScenarioLoader           scenarioLoader;
-    private   SessionService           sessionService;
+    private   KieSessionPool           kieSessionPool;
+    private   AffectedScenarioFinder   affectedScenarioFinder;
     private   Event<TestResultMessage> defaultTestResultMessageEvent;
     private   ConfigurationService     configurationService;
     protected User                     identity;
 
+    //Audit logs held for the most recent scenario runs; beyond this the least recently used is discarded
+    static final int MAX_AUDIT_LOGS = 50;
+
+    //Audit logs of recent scenario runs, keyed by run id
+    final Map<String, RunAuditLog> auditLogs = new LinkedHashMap<String, RunAuditLog>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, RunAuditLog> eldest) {
+            return size() > MAX_AUDIT_LOGS;
+        }
+    };
+
     public ScenarioRunnerService() {
     }
 
     @Inject
     public ScenarioRunnerService(final ConfigurationService configurationService,
                                  final Event<TestResultMessage> defaultTestResultMessageEvent,
-                                 final SessionService sessionService,
+                                 final KieSessionPool kieSessionPool,
                                  final KieProjectService projectService,
                                  final ScenarioLoader scenarioLoader,
+                                 final AffectedScenarioFinder affectedScenarioFinder,
                                  final User identity) {
         this.configurationService = configurationService;
         this.defaultTestResultMessageEvent = defaultTestResultMessageEvent;
-        this.sessionService = sessionService;
+        this.kieSessionPool = kieSessionPool;
         this.projectService = projectService;
         this.scenarioLoader = scenarioLoader;
+        this.affectedScenarioFinder = affectedScenarioFinder;
         this.identity = identity;
     }
 
     public TestScenarioResult run(final Scenario scenario,
                                   final KieProject project) {
+        HashMap<String, KieSession> ksessions = new HashMap<String, KieSession>();
         try {
 
-            HashMap<String, KieSession> ksessions = new HashMap<String, KieSession>();
             String ksessionName = getKSessionName(scenario.getKSessions());
-            ksessions.put(ksessionName, loadKSession(project, ksessionName));
+            ksessions.put(ksessionName, kieSessionPool.borrow(project, ksessionName));
 
-            AuditLogger auditLogger = new AuditLogger(ksessions);
+            AuditLogger auditLogger = newAuditLogger(ksessions);
 
             ScenarioRunner4JUnit scenarioRunner = new ScenarioRunner4JUnit(
                     scenario,
@@ -82,11 +105,40 @@ public class ScenarioRunnerService
 
             run(scenarioRunner, defaultTestResultMessageEvent);
 
-            return new TestScenarioResult(identity.getIdentifier(), scenario, auditLogger.getLog());
+            String runId = UUID.randomUUID().toString();
+            synchronized (auditLogs) {
+                auditLogs.put(runId, new RunAuditLog(identity.getIdentifier(), auditLogger));
+            }
+
+            return new TestScenarioResult(identity.getIdentifier(),
+                                          runId,
+                                          scenario,
+                                          auditLogger.getLog(0, ScenarioTestEditorService.AUDIT_LOG_PAGE_SIZE),
+                                          auditLogger.size());
 
         } catch (InitializationError initializationError) {
             throw new GenericPortableException(initializationError.getMessage());
+        } finally {
+            release(ksessions);
+        }
+    }
+
+    /**
+     * Returns a page of the audit log of one of the current user's recent scenario runs
+     * @param runId Id of the run, as given by its {@link TestScenarioResult}
+     * @return The events, or none if the run's audit log has been discarded
+     */
+    public List<String> getAuditLog(final String runId,
+                                    final int offset,
+                                    final int count) {
+        RunAuditLog auditLog;
+        synchronized (auditLogs) {
+            auditLog = auditLogs.get(runId);
+        }
+        if (auditLog == null || !auditLog.userId.equals(identity.getIdentifier())) {
+            return Collections.emptyList();
         }
+        return auditLog.auditLogger.getLog(offset, count);
     }
 
     @Override
@@ -97,17 +149,79 @@ public class ScenarioRunnerService
     @Override
     public void runAllTests(Path path, Event<TestResultMessage> customTestResultEvent) {
         try {
-            List<Scenario> scenarios = scenarioLoader.loadScenarios(path);
+            runScenarios(projectService.resolveProject(path),
+                         scenarioLoader.loadScenarios(path),
+                         customTestResultEvent);
+
+        } catch (Exception e) {
+            throw ExceptionUtilities.handleException(e);
+        }
+    }
+
+    /**
+     * Runs only the scenarios of a project that reference the rules or types of changed assets, rather than all of
+     * them. The scenarios are selected with the index; see {@link AffectedScenarioFinder}. All of the project's
+     * scenarios are run when the rules and types of a changed asset cannot be read.
+     * @param changedAssets Paths of the changed assets, all in the same project
+     * @param customTestResultEvent Event fired with the results
+     */
+    public void runAffectedTests(final Collection<Path> changedAssets,
+                                 final Event<TestResultMessage> customTestResultEvent) {
+        try {
+            KieProject project = (changedAssets.isEmpty() ? null : projectService.resolveProject(changedAssets.iterator().next()));
+            List<Path> scenarioPaths = (project == null ? Collections.<Path>emptyList() : affectedScenarioFinder.findAffectedScenarios(project, changedAssets));
+
+            if (scenarioPaths == null) {
+                runScenarios(project,
+                             scenarioLoader.loadProjectScenarios(project),
+                             customTestResultEvent);
+                return;
+            }
+
+            if (scenarioPaths.isEmpty()) {
+                customTestResultEvent.fire(
+                        new TestResultMessage(
+                                identity.getIdentifier(),
+                                0,
+                                0,
+                                new ArrayList<org.guvnor.common.services.shared.test.Failure>()));
+                return;
+            }
+
+            runScenarios(project,
+                         scenarioLoader.loadScenarios(scenarioPaths),
+                         customTestResultEvent);
+
+        } catch (Exception e) {
+            throw ExceptionUtilities.handleException(e);
+        }
+    }
+
+    private void runScenarios(final KieProject project,
+                              final List<Scenario> scenarios,
+                              final Event<TestResultMessage> testResultMessageEvent) throws Exception {
+        int runnerThreads = getRunnerThreads();
+        if (runnerThreads > 1 && scenarios.size() > 1) {
+            runInParallel(project,
+                          scenarios,
+                          runnerThreads,
+                          testResultMessageEvent);
+            return;
+        }
+
+        Map<String, KieSession> ksessions = new HashMap<String, KieSession>();
+        try {
+            loadKSessions(project, scenarios, ksessions);
 
             ScenarioRunner4JUnit scenarioRunner = new ScenarioRunner4JUnit(
                     scenarios,
-                    getKSessions(path, scenarios),
+                    ksessions,
                     getMaxRuleFirings());
 
-            run(scenarioRunner, customTestResultEvent);
+            run(scenarioRunner, testResultMessageEvent);
 
-        } catch (Exception e) {
-            throw ExceptionUtilities.handleException(e);
+        } finally {
+            release(ksessions);
         }
     }
 
@@ -116,6 +230,19 @@ public class ScenarioRunnerService
 
         final List<org.guvnor.common.services.shared.test.Failure> failures = new ArrayList<org.guvnor.common.services.shared.test.Failure>();
 
+        Result result = run(scenarioRunner, failures);
+
+        testResultMessageEvent.fire(
+                new TestResultMessage(
+                        identity.getIdentifier(),
+                        result.getRunCount(),
+                        result.getRunTime(),
+                        failures));
+    }
+
+    private Result run(final ScenarioRunner4JUnit scenarioRunner,
+                       final List<org.guvnor.common.services.shared.test.Failure> failures) {
+
         JUnitCore jUnitCore = new JUnitCore();
 
         jUnitCore.addListener(new RunListener() {
@@ -129,52 +256,166 @@ public class ScenarioRunnerService
 
         failures.addAll(failuresToFailures(result.getFailures()));
 
-        testResultMessageEvent.fire(
-                new TestResultMessage(
-                        identity.getIdentifier(),
-                        result.getRunCount(),
-                        result.getRunTime(),
-                        failures));
+        return result;
+    }
+
+    /**
+     * Runs the scenarios in batches on a pool of threads. Each batch holds scenarios using the same KieSession
+     * and is run against its own instance of that KieSession, so the batches do not share any state.
+     * A single TestResultMessage combining the results of every batch is fired.
+     */
+    private void runInParallel(final KieProject project,
+                               final List<Scenario> scenarios,
+                               final int runnerThreads,
+                               final Event<TestResultMessage> testResultMessageEvent) throws Exception {
+
+        final int maxRuleFirings = getMaxRuleFirings();
+
+        //KieSessions are created up front on this thread, as the project's KieContainer is built on first use
+        final List<ScenarioRunner4JUnit> scenarioRunners = new ArrayList<ScenarioRunner4JUnit>();
+        final List<KieSession> batchKSessions = new ArrayList<KieSession>();
+        ExecutorService executor = null;
+        try {
+            for (List<Scenario> batch : partition(scenarios, runnerThreads)) {
+                String ksessionName = getKSessionName(batch.get(0).getKSessions());
+                KieSession ksession = kieSessionPool.borrow(project, ksessionName);
+                batchKSessions.add(ksession);
+
+                Map<String, KieSession> ksessions = new HashMap<String, KieSession>();
+                ksessions.put(ksessionName, ksession);
+                scenarioRunners.add(new ScenarioRunner4JUnit(
+                        batch,
+                        ksessions,
+                        maxRuleFirings));
+            }
+
+            final long startTime = System.currentTimeMillis();
+            executor = Executors.newFixedThreadPool(Math.min(runnerThreads, scenarioRunners.size()));
+
+            List<Future<Result>> results = new ArrayList<Future<Result>>();
+            List<List<org.guvnor.common.services.shared.test.Failure>> batchFailures = new ArrayList<List<org.guvnor.common.services.shared.test.Failure>>();
+            for (final ScenarioRunner4JUnit scenarioRunner : scenarioRunners) {
+                final List<org.guvnor.common.services.shared.test.Failure> failures = new ArrayList<org.guvnor.common.services.shared.test.Failure>();
+                batchFailures.add(failures);
+                results.add(executor.submit(new Callable<Result>() {
+                    @Override
+                    public Result call() {
+                        return run(scenarioRunner, failures);
+                    }
+                }));
+            }
+
+            int runCount = 0;
+            for (Future<Result> result : results) {
+                runCount += result.get().getRunCount();
+            }
+            final List<org.guvnor.common.services.shared.test.Failure> failures = new ArrayList<org.guvnor.common.services.shared.test.Failure>();
+            for (List<org.guvnor.common.services.shared.test.Failure> batch : batchFailures) {
+                failures.addAll(batch);
+            }
+
+            testResultMessageEvent.fire(
+                    new TestResultMessage(
+                            identity.getIdentifier(),
+                            runCount,
+                            System.currentTimeMillis() - startTime,
+                            failures));
+
+        } finally {
+            if (executor != null) {
+                executor.shutdownNow();
+            }
+            //If borrowing or creating a runner failed part way, only the KieSessions borrowed so far are released
+            for (KieSession ksession : batchKSessions) {
+                kieSessionPool.release(ksession);
+            }
+        }
+    }
+
+    //Scenarios grouped by KieSession name, with each group split into batches of at most an equal share of all scenarios
+    static List<List<Scenario>> partition(final List<Scenario> scenarios,
+                                          final int runnerThreads) {
+        Map<String, List<Scenario>> groups = new LinkedHashMap<String, List<Scenario>>();
+        for (Scenario scenario : scenarios) {
+            String ksessionName = getKSessionName(scenario.getKSessions());
+            if (!groups.containsKey(ksessionName)) {
+                groups.put(ksessionName, new ArrayList<Scenario>());
+            }
+            groups.get(ksessionName).add(scenario);
+        }
+
+        int batchSize = (scenarios.size() + runnerThreads - 1) / runnerThreads;
+        List<List<Scenario>> batches = new ArrayList<List<Scenario>>();
+        for (List<Scenario> group : groups.values()) {
+            for (int i = 0; i < group.size(); i += batchSize) {
+                batches.add(new ArrayList<Scenario>(group.subList(i, Math.min(i + batchSize, group.size()))));
+            }
+        }
+        return batches;
+    }
+
+    private AuditLogger newAuditLogger(final Map<String, KieSession> ksessions) {
+        Set<AuditLogger.Category> categories = EnumSet.of(AuditLogger.Category.FACTS, AuditLogger.Category.RULES);
+        if ((Boolean) getConfigValue(ScenarioTestEditorService.TEST_SCENARIO_EDITOR_AUDIT_LOG_AGENDA_EVENTS, true)) {
+            categories.add(AuditLogger.Category.AGENDA);
+        }
+        if ((Boolean) getConfigValue(ScenarioTestEditorService.TEST_SCENARIO_EDITOR_AUDIT_LOG_PROCESS_EVENTS, true)) {
+            categories.add(AuditLogger.Category.PROCESS);
+        }
+        return new AuditLogger(ksessions,
+                               (Integer) getConfigValue(ScenarioTestEditorService.TEST_SCENARIO_EDITOR_AUDIT_LOG_SIZE, AuditLogger.DEFAULT_CAPACITY),
+                               categories);
+    }
+
+    private int getRunnerThreads() {
+        return (Integer) getConfigValue(ScenarioTestEditorService.TEST_SCENARIO_EDITOR_RUNNER_THREADS, 1);
     }
 
     private int getMaxRuleFirings() {
+        return (Integer) getConfigValue(ScenarioTestEditorService.TEST_SCENARIO_EDITOR_MAX_RULE_FIRINGS, 0);
+    }
+
+    private Object getConfigValue(final String name,
+                                  final Object defaultValue) {
         for (ConfigGroup editorConfigGroup : configurationService.getConfiguration(ConfigType.EDITOR)) {
             if (ScenarioTestEditorService.TEST_SCENARIO_EDITOR_SETTINGS.equals(editorConfigGroup.getName())) {
                 for (ConfigItem item : editorConfigGroup.getItems()) {
                     String itemName = item.getName();
-                    if (itemName.equals(ScenarioTestEditorService.TEST_SCENARIO_EDITOR_MAX_RULE_FIRINGS)) {
-                        return (Integer) item.getValue();
+                    if (itemName.equals(name)) {
+                        return item.getValue();
                     }
                 }
             }
         }
-        return 0;
+        return defaultValue;
     }
 
-    private Map<String, KieSession> getKSessions(Path path, List<Scenario> scenarios) {
-        Map<String, KieSession> ksessions = new HashMap<String, KieSession>();
+    //A KieSession is borrowed for each name used by the scenarios; the scenarios sharing a name share the KieSession
+    private void loadKSessions(KieProject project, List<Scenario> scenarios, Map<String, KieSession> ksessions) {
         for (Scenario scenario : scenarios) {
             String ksessionName = getKSessionName(scenario.getKSessions());
-            ksessions.put(ksessionName, loadKSession(projectService.resolveProject(path), ksessionName));
+            if (!ksessions.containsKey(ksessionName)) {
+                ksessions.put(ksessionName, kieSessionPool.borrow(project, ksessionName));
+            }
         }
-        return ksessions;
     }
 
-    private KieSession loadKSession(KieProject project, String ksessionName) {
-        KieSession ksession = null;
-        try {
-            if (ksessionName == null || ksessionName.equals("defaultKieSession")) {
-                ksession = sessionService.newDefaultKieSessionWithPseudoClock(project);
-            } else {
-                ksession = sessionService.newKieSession(project, ksessionName);
-            }
-        } catch (Exception e) {
-            // If for one reason or another we can not load the ksession. Return null
-            return null;
+    private void release(Map<String, KieSession> ksessions) {
+        for (KieSession ksession : ksessions.values()) {
+            kieSessionPool.release(ksession);
         }
+    }
 
-        return ksession;
+    static class RunAuditLog {
 
+        private final String userId;
+        private final AuditLogger auditLogger;
+
+        private RunAuditLog(String userId,
+                            AuditLogger auditLogger) {
+            this.userId = userId;
+            this.auditLogger = auditLogger;
+        }
     }
 
 }
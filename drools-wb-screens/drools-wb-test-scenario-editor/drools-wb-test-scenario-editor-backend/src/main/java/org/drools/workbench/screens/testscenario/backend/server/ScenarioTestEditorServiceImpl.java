@@ -16,6 +16,7 @@
 
 package org.drools.workbench.screens.testscenario.backend.server;
 
+import java.util.List;
 import java.util.Set;
 import javax.enterprise.context.ApplicationScoped;
 import javax.enterprise.event.Event;
@@ -25,6 +26,7 @@ import javax.inject.Named;
 import org.drools.workbench.models.datamodel.oracle.PackageDataModelOracle;
 import org.drools.workbench.models.testscenarios.backend.util.ScenarioXMLPersistence;
 import org.drools.workbench.models.testscenarios.shared.Scenario;
+import org.drools.workbench.screens.guided.rule.backend.server.EditorOpenTimer;
 import org.drools.workbench.screens.testscenario.model.TestScenarioModelContent;
 import org.drools.workbench.screens.testscenario.model.TestScenarioResult;
 import org.drools.workbench.screens.testscenario.service.ScenarioTestEditorService;
@@ -185,9 +187,13 @@ public class ScenarioTestEditorServiceImpl
 
     @Override
     protected TestScenarioModelContent constructContent(Path path, Overview overview) {
+        final EditorOpenTimer timer = new EditorOpenTimer(LOGGER,
+                                                          "Test Scenario",
+                                                          path);
+        final PackageDataModelOracle oracle = dataModelService.getDataModel(path);
+        timer.oracleResolved();
         final Scenario scenario = load(path);
         final String packageName = projectService.resolvePackage(path).getPackageName();
-        final PackageDataModelOracle oracle = dataModelService.getDataModel(path);
         final PackageDataModelOracleBaselinePayload dataModel = new PackageDataModelOracleBaselinePayload();
 
         //Get FQCN's used by model
@@ -205,6 +211,8 @@ public class ScenarioTestEditorServiceImpl
         resourceOpenedEvent.fire(new ResourceOpenedEvent(path,
                                                          sessionInfo));
 
+        timer.opened();
+
         return new TestScenarioModelContent(scenario,
                                             overview,
                                             packageName,
@@ -224,4 +232,18 @@ public class ScenarioTestEditorServiceImpl
         }
     }
 
+    @Override
+    public List<String> loadAuditLog(final String runId,
+                                     final int offset,
+                                     final int count) {
+        try {
+            return scenarioRunner.getAuditLog(runId,
+                                              offset,
+                                              count);
+
+        } catch (Exception e) {
+            throw ExceptionUtilities.handleException(e);
+        }
+    }
+
 }
@@ -20,9 +20,6 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
-import org.drools.workbench.models.datamodel.imports.Import;
-import org.drools.workbench.models.datamodel.oracle.DataType;
-import org.drools.workbench.models.datamodel.oracle.ModelField;
 import org.drools.workbench.models.datamodel.oracle.ProjectDataModelOracle;
 import org.drools.workbench.models.testscenarios.shared.FactData;
 import org.drools.workbench.models.testscenarios.shared.Field;
@@ -33,6 +30,7 @@ import org.drools.workbench.models.testscenarios.shared.Scenario;
 import org.drools.workbench.models.testscenarios.shared.VerifyFact;
 import org.drools.workbench.models.testscenarios.shared.VerifyField;
 import org.drools.workbench.models.testscenarios.shared.VerifyRuleFired;
+import org.drools.workbench.screens.guided.rule.backend.server.indexing.IndexTypeResolver;
 import org.kie.workbench.common.services.refactoring.backend.server.indexing.DefaultIndexBuilder;
 import org.kie.workbench.common.services.refactoring.model.index.Rule;
 import org.kie.workbench.common.services.refactoring.model.index.Type;
@@ -48,20 +46,22 @@ import org.uberfire.commons.validation.PortablePreconditions;
  */
 public class TestScenarioIndexVisitor {
 
-    private final ProjectDataModelOracle dmo;
     private final DefaultIndexBuilder builder;
     private final Scenario model;
+    private final IndexTypeResolver typeResolver;
     private final Map<String, String> factDataToFullyQualifiedClassNameMap = new HashMap<String, String>();
 
     public TestScenarioIndexVisitor( final ProjectDataModelOracle dmo,
                                      final DefaultIndexBuilder builder,
                                      final Scenario model ) {
-        this.dmo = PortablePreconditions.checkNotNull( "dmo",
-                                                       dmo );
         this.builder = PortablePreconditions.checkNotNull( "builder",
                                                            builder );
         this.model = PortablePreconditions.checkNotNull( "model",
                                                          model );
+        this.typeResolver = new IndexTypeResolver( PortablePreconditions.checkNotNull( "dmo",
+                                                                                       dmo ),
+                                                   model.getImports(),
+                                                   model.getPackageName() );
     }
 
     public Set<Pair<String, String>> visit() {
@@ -94,7 +94,7 @@ public class TestScenarioIndexVisitor {
         } else if ( fixture instanceof FactData ) {
             final FactData factData = (FactData) fixture;
             final String typeName = factData.getType();
-            final String fullyQualifiedClassName = getFullyQualifiedClassName( typeName );
+            final String fullyQualifiedClassName = typeResolver.getFullyQualifiedClassName( typeName );
             builder.addGenerator( new Type( new ValueTypeIndexTerm( fullyQualifiedClassName ) ) );
 
             factDataToFullyQualifiedClassNameMap.put( factData.getName(),
@@ -102,8 +102,8 @@ public class TestScenarioIndexVisitor {
 
             for ( Field field : factData.getFieldData() ) {
                 final String fieldName = field.getName();
-                final String fieldFullyQualifiedClassName = getFieldFullyQualifiedClassName( fullyQualifiedClassName,
-                                                                                             fieldName );
+                final String fieldFullyQualifiedClassName = typeResolver.getFieldFullyQualifiedClassName( fullyQualifiedClassName,
+                                                                                                          fieldName );
                 builder.addGenerator( new TypeField( new ValueFieldIndexTerm( fieldName ),
                                                      new ValueTypeIndexTerm( fieldFullyQualifiedClassName ),
                                                      new ValueTypeIndexTerm( fullyQualifiedClassName ) ) );
@@ -118,7 +118,7 @@ public class TestScenarioIndexVisitor {
             if ( !verifyFact.anonymous ) {
                 fullyQualifiedClassName = factDataToFullyQualifiedClassNameMap.get( verifyFact.getName() );
             } else {
-                fullyQualifiedClassName = getFullyQualifiedClassName( typeName );
+                fullyQualifiedClassName = typeResolver.getFullyQualifiedClassName( typeName );
             }
             if ( fullyQualifiedClassName != null ) {
                 builder.addGenerator( new Type( new ValueTypeIndexTerm( fullyQualifiedClassName ) ) );
@@ -126,8 +126,8 @@ public class TestScenarioIndexVisitor {
 
             for ( VerifyField field : verifyFact.getFieldValues() ) {
                 final String fieldName = field.getFieldName();
-                final String fieldFullyQualifiedClassName = getFieldFullyQualifiedClassName( fullyQualifiedClassName,
-                                                                                             fieldName );
+                final String fieldFullyQualifiedClassName = typeResolver.getFieldFullyQualifiedClassName( fullyQualifiedClassName,
+                                                                                                          fieldName );
                 builder.addGenerator( new TypeField( new ValueFieldIndexTerm( fieldName ),
                                                      new ValueTypeIndexTerm( fieldFullyQualifiedClassName ),
                                                      new ValueTypeIndexTerm( fullyQualifiedClassName ) ) );
@@ -138,29 +138,4 @@ public class TestScenarioIndexVisitor {
         }
     }
 
-    private String getFullyQualifiedClassName( final String typeName ) {
-        if ( typeName.contains( "." ) ) {
-            return typeName;
-        }
-
-        for ( Import i : model.getImports().getImports() ) {
-            if ( i.getType().endsWith( typeName ) ) {
-                return i.getType();
-            }
-        }
-        final String packageName = model.getPackageName();
-        return ( !( packageName == null || packageName.isEmpty() ) ? packageName + "." + typeName : typeName );
-    }
-
-    private String getFieldFullyQualifiedClassName( final String fullyQualifiedClassName,
-                                                    final String fieldName ) {
-        final ModelField[] mfs = dmo.getProjectModelFields().get( fullyQualifiedClassName );
-        for ( ModelField mf : mfs ) {
-            if ( mf.getName().equals( fieldName ) ) {
-                return mf.getClassName();
-            }
-        }
-        return DataType.TYPE_OBJECT;
-    }
-
 }
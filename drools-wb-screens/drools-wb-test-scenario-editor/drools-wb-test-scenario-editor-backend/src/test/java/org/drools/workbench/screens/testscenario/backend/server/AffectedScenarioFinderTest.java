@@ -0,0 +1,116 @@
+/*
+ * Copyright 2015 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.workbench.screens.testscenario.backend.server;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.enterprise.inject.Instance;
+
+import org.drools.workbench.screens.testscenario.type.TestScenarioResourceTypeDefinition;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.kie.workbench.common.services.refactoring.model.index.terms.valueterms.ValueIndexTerm;
+import org.kie.workbench.common.services.refactoring.model.index.terms.valueterms.ValueRuleIndexTerm;
+import org.kie.workbench.common.services.refactoring.model.query.RefactoringPageRow;
+import org.kie.workbench.common.services.refactoring.service.RefactoringQueryService;
+import org.kie.workbench.common.services.shared.project.KieProject;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.uberfire.backend.vfs.Path;
+import org.uberfire.ext.metadata.engine.Indexer;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class AffectedScenarioFinderTest {
+
+    @Mock
+    private RefactoringQueryService queryService;
+
+    @Mock
+    private KieProject project;
+
+    @Mock
+    private Instance<Indexer> indexers;
+
+    private AffectedScenarioFinder finder;
+
+    @Before
+    public void setUp() throws Exception {
+        Path projectRoot = makePath("default://master@repo/project", "project");
+        when(project.getRootPath()).thenReturn(projectRoot);
+        when(queryService.query(anyString(), anySetOf(ValueIndexTerm.class), anyBoolean())).thenReturn(new ArrayList<RefactoringPageRow>());
+
+        finder = new AffectedScenarioFinder(null, queryService, new TestScenarioResourceTypeDefinition());
+    }
+
+    @Test
+    public void testChangedScenariosAreSelected() throws Exception {
+        Path scenario = makePath("default://master@repo/project/src/test/resources/org/test/test.scenario", "test.scenario");
+
+        List<Path> affected = finder.findAffectedScenarios(project, Arrays.asList(scenario));
+
+        assertEquals(Arrays.asList(scenario), affected);
+        verify(queryService, never()).query(anyString(), anySetOf(ValueIndexTerm.class), anyBoolean());
+    }
+
+    @Test
+    public void testAllScenariosAreAffectedWhenAssetHasNoRulesOrTypes() throws Exception {
+        Path pom = makePath("default://master@repo/project/pom.xml", "pom.xml");
+        Path scenario = makePath("default://master@repo/project/src/test/resources/org/test/test.scenario", "test.scenario");
+        when(indexers.iterator()).thenReturn(Collections.<Indexer>emptyList().iterator());
+        finder = new AffectedScenarioFinder(indexers, queryService, new TestScenarioResourceTypeDefinition());
+
+        assertNull(finder.findAffectedScenarios(project, Arrays.asList(scenario, pom)));
+        verify(queryService, never()).query(anyString(), anySetOf(ValueIndexTerm.class), anyBoolean());
+    }
+
+    @Test
+    public void testOnlyScenariosOfProjectAreSelected() throws Exception {
+        Path scenario1 = makePath("default://master@repo/project/src/test/resources/org/test/test1.scenario", "test1.scenario");
+        Path scenario2 = makePath("default://master@repo/project2/src/test/resources/org/test/test2.scenario", "test2.scenario");
+        Path rule = makePath("default://master@repo/project/src/main/resources/org/test/rule.drl", "rule.drl");
+        Set<ValueIndexTerm> terms = Collections.<ValueIndexTerm>singleton(new ValueRuleIndexTerm("my rule"));
+        when(queryService.query(AffectedScenarioFinder.FIND_RULES_QUERY, terms, false)).thenReturn(Arrays.asList(makeRow(scenario1), makeRow(scenario2), makeRow(rule)));
+
+        Map<String, Path> affected = new LinkedHashMap<String, Path>();
+        finder.addScenarios(project, terms, Collections.<ValueIndexTerm>emptySet(), affected);
+
+        assertEquals(Arrays.asList(scenario1), new ArrayList<Path>(affected.values()));
+    }
+
+    private RefactoringPageRow makeRow(Path path) {
+        RefactoringPageRow row = mock(RefactoringPageRow.class);
+        when(row.getValue()).thenReturn(path);
+        return row;
+    }
+
+    private Path makePath(String uri, String fileName) {
+        Path path = mock(Path.class);
+        when(path.toURI()).thenReturn(uri);
+        when(path.getFileName()).thenReturn(fileName);
+        return path;
+    }
+
+}
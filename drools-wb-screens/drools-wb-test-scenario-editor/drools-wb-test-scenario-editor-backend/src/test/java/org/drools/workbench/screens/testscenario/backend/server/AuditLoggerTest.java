@@ -16,12 +16,26 @@
 
 package org.drools.workbench.screens.testscenario.backend.server;
 
+import java.util.Arrays;
+import java.util.EnumSet;
 import java.util.HashMap;
 
 import org.junit.Test;
+import org.kie.api.definition.rule.Rule;
+import org.kie.api.event.process.ProcessEventListener;
+import org.kie.api.event.rule.AfterMatchFiredEvent;
+import org.kie.api.event.rule.AgendaEventListener;
+import org.kie.api.event.rule.ObjectDeletedEvent;
+import org.kie.api.event.rule.ObjectInsertedEvent;
+import org.kie.api.event.rule.ObjectUpdatedEvent;
+import org.kie.api.event.rule.RuleRuntimeEventListener;
 import org.kie.api.runtime.KieSession;
+import org.kie.api.runtime.rule.FactHandle;
+import org.kie.api.runtime.rule.Match;
+import org.mockito.ArgumentCaptor;
 
 import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
 
 public class AuditLoggerTest {
 
@@ -35,4 +49,138 @@ public class AuditLoggerTest {
 
         assertNotNull(auditLogger.getLog());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testKeepsMostRecentEventsInOrder() throws Exception {
+        KieSession ksession = mock(KieSession.class);
+        HashMap<String, KieSession> ksessions = new HashMap<String, KieSession>();
+        ksessions.put("ksession", ksession);
+
+        AuditLogger auditLogger = new AuditLogger(ksessions, 3, EnumSet.of(AuditLogger.Category.FACTS));
+
+        ArgumentCaptor<RuleRuntimeEventListener> listener = ArgumentCaptor.forClass(RuleRuntimeEventListener.class);
+        verify(ksession).addEventListener(listener.capture());
+
+        for (Object fact : Arrays.asList("a", 1, "b", "c")) {
+            ObjectInsertedEvent event = mock(ObjectInsertedEvent.class);
+            when(event.getObject()).thenReturn(fact);
+            listener.getValue().objectInserted(event);
+        }
+
+        //The oldest event is dropped; duplicate lines are kept
+        assertEquals(3, auditLogger.size());
+        assertEquals(1, auditLogger.getDropped());
+        assertEquals(Arrays.asList("Fact java.lang.Integer inserted. Fact[ 1 ].",
+                                   "Fact java.lang.String inserted. Fact[ b ].",
+                                   "Fact java.lang.String inserted. Fact[ c ]."),
+                     auditLogger.getLog());
+        assertEquals(Arrays.asList("Fact java.lang.String inserted. Fact[ c ]."),
+                     auditLogger.getLog(2, 10));
+        assertTrue(auditLogger.getLog(3, 10).isEmpty());
+    }
+
+    @Test
+    public void testFactsFormattedWhenRead() throws Exception {
+        KieSession ksession = mock(KieSession.class);
+        HashMap<String, KieSession> ksessions = new HashMap<String, KieSession>();
+        ksessions.put("ksession", ksession);
+
+        AuditLogger auditLogger = new AuditLogger(ksessions, 10, EnumSet.of(AuditLogger.Category.FACTS));
+
+        ArgumentCaptor<RuleRuntimeEventListener> listener = ArgumentCaptor.forClass(RuleRuntimeEventListener.class);
+        verify(ksession).addEventListener(listener.capture());
+
+        Rule rule = mock(Rule.class);
+        when(rule.getName()).thenReturn("rule");
+        FactHandle factHandle = mock(FactHandle.class);
+        when(factHandle.toExternalForm()).thenReturn("0:7:12345:12345:7:DEFAULT:NON_TRAIT:" + Fact.class.getName() + "");
+        Fact fact = new Fact("v1");
+        Fact oldFact = new Fact("v0");
+
+        ObjectInsertedEvent inserted = mock(ObjectInsertedEvent.class);
+        when(inserted.getRule()).thenReturn(rule);
+        when(inserted.getObject()).thenReturn(fact);
+        when(inserted.getFactHandle()).thenReturn(factHandle);
+        listener.getValue().objectInserted(inserted);
+
+        ObjectUpdatedEvent updated = mock(ObjectUpdatedEvent.class);
+        when(updated.getObject()).thenReturn(fact);
+        when(updated.getOldObject()).thenReturn(oldFact);
+        when(updated.getFactHandle()).thenReturn(factHandle);
+        listener.getValue().objectUpdated(updated);
+
+        ObjectDeletedEvent deleted = mock(ObjectDeletedEvent.class);
+        when(deleted.getRule()).thenReturn(rule);
+        when(deleted.getOldObject()).thenReturn(fact);
+        listener.getValue().objectDeleted(deleted);
+
+        //Facts are not formatted when the events happen
+        assertEquals(0, fact.formatted);
+        assertEquals(0, oldFact.formatted);
+
+        //Only the events read are formatted
+        assertEquals(Arrays.asList("Object " + Fact.class.getName() + " updated. Old fact[ v0 ]. New fact[ v1 ]. Fact handle[ 7 ]."),
+                     auditLogger.getLog(1, 1));
+        assertEquals(1, fact.formatted);
+        assertEquals(1, oldFact.formatted);
+
+        assertEquals(Arrays.asList("Fact " + Fact.class.getName() + " inserted in rule rule. Fact[ v1 ]. Fact handle[ 7 ].",
+                                   "Object " + Fact.class.getName() + " updated. Old fact[ v0 ]. New fact[ v1 ]. Fact handle[ 7 ].",
+                                   "Object " + Fact.class.getName() + " deleted in rule rule. Fact[ v1 ]."),
+                     auditLogger.getLog());
+    }
+
+    @Test
+    public void testRuleFired() throws Exception {
+        KieSession ksession = mock(KieSession.class);
+        HashMap<String, KieSession> ksessions = new HashMap<String, KieSession>();
+        ksessions.put("ksession", ksession);
+
+        AuditLogger auditLogger = new AuditLogger(ksessions, 10, EnumSet.of(AuditLogger.Category.RULES));
+
+        ArgumentCaptor<AgendaEventListener> listener = ArgumentCaptor.forClass(AgendaEventListener.class);
+        verify(ksession).addEventListener(listener.capture());
+
+        Rule rule = mock(Rule.class);
+        when(rule.getName()).thenReturn("rule");
+        Match match = mock(Match.class);
+        doReturn(rule).when(match).getRule();
+        AfterMatchFiredEvent event = mock(AfterMatchFiredEvent.class);
+        when(event.getMatch()).thenReturn(match);
+        listener.getValue().afterMatchFired(event);
+
+        assertEquals(Arrays.asList("Rule rule fired."),
+                     auditLogger.getLog());
+    }
+
+    @Test
+    public void testListenersOnlyAddedForCategories() throws Exception {
+        KieSession ksession = mock(KieSession.class);
+        HashMap<String, KieSession> ksessions = new HashMap<String, KieSession>();
+        ksessions.put("ksession", ksession);
+
+        new AuditLogger(ksessions, 10, EnumSet.of(AuditLogger.Category.FACTS, AuditLogger.Category.RULES));
+
+        verify(ksession).addEventListener(any(RuleRuntimeEventListener.class));
+        verify(ksession).addEventListener(any(AgendaEventListener.class));
+        verify(ksession, never()).addEventListener(any(ProcessEventListener.class));
+    }
+
+    private static class Fact {
+
+        private final String value;
+
+        //Number of times the fact has been formatted
+        private int formatted;
+
+        private Fact(String value) {
+            this.value = value;
+        }
+
+        @Override
+        public String toString() {
+            formatted++;
+            return value;
+        }
+    }
+}
@@ -0,0 +1,228 @@
+/*
+ * Copyright 2015 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.workbench.screens.testscenario.backend.server;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.drools.workbench.screens.testscenario.type.TestScenarioResourceTypeDefinition;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.kie.api.event.rule.AgendaEventListener;
+import org.kie.api.runtime.Globals;
+import org.kie.api.runtime.KieSession;
+import org.kie.api.runtime.rule.Agenda;
+import org.kie.api.time.SessionPseudoClock;
+import org.kie.workbench.common.services.backend.session.SessionService;
+import org.kie.workbench.common.services.shared.project.KieProject;
+import org.mockito.Mock;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.mockito.stubbing.Answer;
+import org.uberfire.backend.vfs.Path;
+import org.uberfire.workbench.events.ResourceUpdatedEvent;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class KieSessionPoolTest {
+
+    @Mock
+    private SessionService sessionService;
+
+    @Mock
+    private KieSession ksession;
+
+    @Mock
+    private SessionPseudoClock clock;
+
+    @Mock
+    private KieProject project;
+
+    private KieSessionPool pool;
+
+    @Before
+    public void setUp() throws Exception {
+        Path projectRoot = makePath("default://master@repo/project", "project");
+        when(project.getRootPath()).thenReturn(projectRoot);
+
+        when(ksession.getAgenda()).thenReturn(mock(Agenda.class));
+        when(ksession.getGlobals()).thenReturn(mock(Globals.class));
+        when(ksession.getSessionClock()).thenReturn(clock);
+        when(sessionService.newDefaultKieSessionWithPseudoClock(project)).thenReturn(ksession);
+
+        pool = new KieSessionPool(sessionService, new TestScenarioResourceTypeDefinition());
+    }
+
+    @Test
+    public void testReleasedSessionIsReused() throws Exception {
+        assertSame(ksession, pool.borrow(project, null));
+        pool.release(ksession);
+
+        assertEquals(1, pool.getPoolSize());
+        assertSame(ksession, pool.borrow(project, "defaultKieSession"));
+        assertEquals(0, pool.getPoolSize());
+
+        verify(sessionService, times(1)).newDefaultKieSessionWithPseudoClock(project);
+        verify(ksession, never()).dispose();
+        assertEquals(1, pool.getCreatedCount());
+        assertEquals(1, pool.getReusedCount());
+    }
+
+    @Test
+    public void testReleasedSessionIsReset() throws Exception {
+        AgendaEventListener auditListener = mock(AgendaEventListener.class);
+        when(ksession.getAgendaEventListeners()).thenReturn(Collections.<AgendaEventListener>emptyList(),
+                                                            Arrays.asList(auditListener));
+        when(clock.getCurrentTime()).thenReturn(0L, 5000L);
+
+        pool.borrow(project, null);
+        pool.release(ksession);
+
+        //Listeners added during the run are removed and the pseudo clock is wound back
+        verify(ksession).removeEventListener(auditListener);
+        verify(clock).advanceTime(-5000L, TimeUnit.MILLISECONDS);
+        assertEquals(1, pool.getPoolSize());
+    }
+
+    @Test
+    public void testSessionThatCannotBeResetIsDisposed() throws Exception {
+        when(ksession.getFactCount()).thenReturn(1L);
+
+        pool.borrow(project, null);
+        pool.release(ksession);
+
+        verify(ksession).dispose();
+        assertEquals(0, pool.getPoolSize());
+        assertEquals(1, pool.getDiscardedCount());
+    }
+
+    @Test
+    public void testGlobalSetByRunIsRestored() throws Exception {
+        final Map<String, Object> globals = mockGlobals();
+        Object original = new Object();
+        globals.put("list", original);
+
+        pool.borrow(project, null).setGlobal("list", new Object());
+        pool.release(ksession);
+
+        //The session is reused with the global it had when created
+        assertEquals(1, pool.getPoolSize());
+        assertSame(original, pool.borrow(project, null).getGlobal("list"));
+    }
+
+    @Test
+    public void testSessionWhoseGlobalCannotBeClearedIsDisposed() throws Exception {
+        mockGlobals();
+
+        pool.borrow(project, null).setGlobal("service", new Object());
+        pool.release(ksession);
+
+        //Drools ignores null globals, so the session would keep the run's global
+        verify(ksession).dispose();
+        assertEquals(0, pool.getPoolSize());
+    }
+
+    @Test
+    public void testProjectChangeInvalidatesPool() throws Exception {
+        pool.borrow(project, null);
+        pool.release(ksession);
+
+        //Editing a Test Scenario does not change the project's KieBase
+        pool.onResourceUpdated(updated(makePath("default://master@repo/project/src/test/resources/test.scenario", "test.scenario")));
+        assertEquals(1, pool.getPoolSize());
+
+        //Resources of other projects do not affect this project
+        pool.onResourceUpdated(updated(makePath("default://master@repo/project2/src/main/resources/rule.drl", "rule.drl")));
+        assertEquals(1, pool.getPoolSize());
+
+        pool.onResourceUpdated(updated(makePath("default://master@repo/project/src/main/resources/rule.drl", "rule.drl")));
+        assertEquals(0, pool.getPoolSize());
+        verify(ksession).dispose();
+    }
+
+    @Test
+    public void testSessionBorrowedBeforeProjectChangeIsDisposed() throws Exception {
+        pool.borrow(project, null);
+        pool.onResourceUpdated(updated(makePath("default://master@repo/project/pom.xml", "pom.xml")));
+        pool.release(ksession);
+
+        verify(ksession).dispose();
+        assertEquals(0, pool.getPoolSize());
+    }
+
+    @Test
+    public void testSessionsWithoutProjectAreNotPooled() throws Exception {
+        when(sessionService.newDefaultKieSessionWithPseudoClock(null)).thenReturn(ksession);
+
+        pool.borrow(null, null);
+        pool.release(ksession);
+
+        verify(ksession).dispose();
+        assertEquals(0, pool.getPoolSize());
+    }
+
+    //Globals of the KieSession, of which null values are ignored as Drools does
+    private Map<String, Object> mockGlobals() {
+        final Map<String, Object> globals = new HashMap<String, Object>();
+        Globals kieGlobals = mock(Globals.class);
+        when(kieGlobals.getGlobalKeys()).thenAnswer(new Answer<Collection<String>>() {
+            @Override
+            public Collection<String> answer(InvocationOnMock invocation) {
+                return new ArrayList<String>(globals.keySet());
+            }
+        });
+        when(ksession.getGlobals()).thenReturn(kieGlobals);
+        when(ksession.getGlobal(anyString())).thenAnswer(new Answer<Object>() {
+            @Override
+            public Object answer(InvocationOnMock invocation) {
+                return globals.get(invocation.getArguments()[0]);
+            }
+        });
+        doAnswer(new Answer<Void>() {
+            @Override
+            public Void answer(InvocationOnMock invocation) {
+                if (invocation.getArguments()[1] != null) {
+                    globals.put((String) invocation.getArguments()[0], invocation.getArguments()[1]);
+                }
+                return null;
+            }
+        }).when(ksession).setGlobal(anyString(), any());
+        return globals;
+    }
+
+    private ResourceUpdatedEvent updated(Path path) {
+        ResourceUpdatedEvent event = mock(ResourceUpdatedEvent.class);
+        when(event.getPath()).thenReturn(path);
+        return event;
+    }
+
+    private Path makePath(String uri, String fileName) {
+        Path path = mock(Path.class);
+        when(path.toURI()).thenReturn(uri);
+        when(path.getFileName()).thenReturn(fileName);
+        return path;
+    }
+
+}
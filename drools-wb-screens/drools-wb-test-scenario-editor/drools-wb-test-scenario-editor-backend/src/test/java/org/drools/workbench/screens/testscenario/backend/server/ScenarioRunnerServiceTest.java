@@ -18,11 +18,18 @@ package org.drools.workbench.screens.testscenario.backend.server;
 
 import java.lang.annotation.Annotation;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import javax.enterprise.event.Event;
 
 import org.drools.workbench.models.testscenarios.shared.Scenario;
 import org.drools.workbench.screens.testscenario.model.TestScenarioResult;
+import org.drools.workbench.screens.testscenario.service.ScenarioTestEditorService;
+import org.drools.workbench.screens.testscenario.type.TestScenarioResourceTypeDefinition;
 import org.guvnor.common.services.shared.test.TestResultMessage;
+import org.guvnor.structure.server.config.ConfigGroup;
+import org.guvnor.structure.server.config.ConfigItem;
+import org.guvnor.structure.server.config.ConfigType;
 import org.guvnor.structure.server.config.ConfigurationService;
 import org.jboss.errai.security.shared.api.identity.User;
 import org.junit.Before;
@@ -54,21 +61,29 @@ public class ScenarioRunnerServiceTest {
     @Mock
     ScenarioLoader scenarioLoader;
 
+    @Mock
+    AffectedScenarioFinder affectedScenarioFinder;
+
+    private KieProjectService projectService;
+
     private TestResultMessageEventMock defaultTestResultMessageEvent;
 
+    private ConfigurationService configurationService;
+
     @Before
     public void setUp() throws Exception {
-        ConfigurationService configurationService = mock(ConfigurationService.class);
-        KieProjectService projectService = mock(KieProjectService.class);
+        configurationService = mock(ConfigurationService.class);
+        projectService = mock(KieProjectService.class);
         User identity = mock(User.class);
 
         defaultTestResultMessageEvent = spy(new TestResultMessageEventMock());
 
         service = new ScenarioRunnerService(configurationService,
                                             defaultTestResultMessageEvent,
-                                            sessionService,
+                                            new KieSessionPool(sessionService, new TestScenarioResourceTypeDefinition()),
                                             projectService,
                                             scenarioLoader,
+                                            affectedScenarioFinder,
                                             identity);
 
         when(sessionService.newDefaultKieSessionWithPseudoClock(any(KieProject.class))).thenReturn(defaultPseudoClockKieSession);
@@ -89,6 +104,29 @@ public class ScenarioRunnerServiceTest {
         assertEquals("testUser", argumentCaptor.getValue().getIdentifier());
     }
 
+    @Test
+    public void testAuditLogIsKeptForEachRun() throws Exception {
+        TestScenarioResult first = service.run(makeScenario("test1.scenario"), new KieProject());
+        TestScenarioResult second = service.run(makeScenario("test2.scenario"), new KieProject());
+
+        assertNotNull(first.getRunId());
+        assertFalse(first.getRunId().equals(second.getRunId()));
+        assertTrue(service.auditLogs.containsKey(first.getRunId()));
+        assertTrue(service.auditLogs.containsKey(second.getRunId()));
+    }
+
+    @Test
+    public void testLeastRecentlyUsedAuditLogIsDiscarded() throws Exception {
+        TestScenarioResult first = service.run(makeScenario("test.scenario"), new KieProject());
+        for (int i = 0; i < ScenarioRunnerService.MAX_AUDIT_LOGS; i++) {
+            service.run(makeScenario("test.scenario"), new KieProject());
+        }
+
+        assertEquals(ScenarioRunnerService.MAX_AUDIT_LOGS, service.auditLogs.size());
+        assertFalse(service.auditLogs.containsKey(first.getRunId()));
+        assertTrue(service.getAuditLog(first.getRunId(), 0, 10).isEmpty());
+    }
+
     @Test
     public void testRunSeveralScenarios() throws Exception {
 
@@ -107,6 +145,132 @@ public class ScenarioRunnerServiceTest {
         assertEquals("testUser", argumentCaptor.getValue().getIdentifier());
     }
 
+    @Test
+    public void testRunSeveralScenariosInParallel() throws Exception {
+        setRunnerThreads(2);
+
+        Path path = mock(Path.class);
+
+        ArrayList<Scenario> scenarios = new ArrayList<Scenario>();
+        scenarios.add(makeScenario("test1.scenario"));
+        scenarios.add(makeScenario("test2.scenario"));
+        scenarios.add(makeScenario("test3.scenario"));
+        when(scenarioLoader.loadScenarios(path)).thenReturn(scenarios);
+
+        service.runAllTests(path);
+
+        //One TestResultMessage for all batches, each batch having its own KieSession
+        ArgumentCaptor<TestResultMessage> argumentCaptor = ArgumentCaptor.forClass(TestResultMessage.class);
+        verify(defaultTestResultMessageEvent).fire(argumentCaptor.capture());
+        assertEquals("testUser", argumentCaptor.getValue().getIdentifier());
+        assertEquals(3, argumentCaptor.getValue().getRunCount());
+        verify(sessionService, times(2)).newDefaultKieSessionWithPseudoClock(any(KieProject.class));
+        verify(defaultPseudoClockKieSession, times(2)).dispose();
+    }
+
+    @Test
+    public void testBorrowedKieSessionsAreReleasedWhenBorrowingFails() throws Exception {
+        setRunnerThreads(2);
+        KieSession ksession = mock(KieSession.class);
+        KieSessionPool kieSessionPool = spy(new KieSessionPool(sessionService, new TestScenarioResourceTypeDefinition()));
+        doReturn(ksession).doThrow(new RuntimeException("borrow failed")).when(kieSessionPool).borrow(any(KieProject.class), anyString());
+        service = new ScenarioRunnerService(configurationService,
+                                            defaultTestResultMessageEvent,
+                                            kieSessionPool,
+                                            projectService,
+                                            scenarioLoader,
+                                            affectedScenarioFinder,
+                                            mock(User.class));
+
+        Path path = mock(Path.class);
+        when(scenarioLoader.loadScenarios(path)).thenReturn(Arrays.asList(makeScenario("test1.scenario"), makeScenario("test2.scenario")));
+
+        try {
+            service.runAllTests(path);
+            fail("Borrowing the second KieSession should have failed.");
+        } catch (RuntimeException e) {
+            //Expected
+        }
+
+        //Only the KieSession that was borrowed is released
+        verify(kieSessionPool).release(ksession);
+        verify(kieSessionPool, times(1)).release(any(KieSession.class));
+        verify(defaultTestResultMessageEvent, never()).fire(any(TestResultMessage.class));
+    }
+
+    @Test
+    public void testRunAffectedScenarios() throws Exception {
+        Path rule = mock(Path.class);
+        Path scenarioPath = mock(Path.class);
+        KieProject project = new KieProject();
+        when(projectService.resolveProject(rule)).thenReturn(project);
+        when(affectedScenarioFinder.findAffectedScenarios(project, Arrays.asList(rule))).thenReturn(Arrays.asList(scenarioPath));
+        when(scenarioLoader.loadScenarios(Arrays.asList(scenarioPath))).thenReturn(Arrays.asList(makeScenario("test1.scenario")));
+
+        service.runAffectedTests(Arrays.asList(rule), defaultTestResultMessageEvent);
+
+        ArgumentCaptor<TestResultMessage> argumentCaptor = ArgumentCaptor.forClass(TestResultMessage.class);
+        verify(defaultTestResultMessageEvent).fire(argumentCaptor.capture());
+        assertEquals(1, argumentCaptor.getValue().getRunCount());
+        verify(scenarioLoader, never()).loadScenarios(any(Path.class));
+    }
+
+    @Test
+    public void testRunAffectedScenariosWhenNoneAreAffected() throws Exception {
+        Path rule = mock(Path.class);
+        KieProject project = new KieProject();
+        when(projectService.resolveProject(rule)).thenReturn(project);
+        when(affectedScenarioFinder.findAffectedScenarios(project, Arrays.asList(rule))).thenReturn(new ArrayList<Path>());
+
+        service.runAffectedTests(Arrays.asList(rule), defaultTestResultMessageEvent);
+
+        ArgumentCaptor<TestResultMessage> argumentCaptor = ArgumentCaptor.forClass(TestResultMessage.class);
+        verify(defaultTestResultMessageEvent).fire(argumentCaptor.capture());
+        assertEquals(0, argumentCaptor.getValue().getRunCount());
+        verify(sessionService, never()).newDefaultKieSessionWithPseudoClock(any(KieProject.class));
+    }
+
+    @Test
+    public void testRunAllScenariosWhenAffectedScenariosAreUnknown() throws Exception {
+        Path pom = mock(Path.class);
+        KieProject project = new KieProject();
+        when(projectService.resolveProject(pom)).thenReturn(project);
+        when(affectedScenarioFinder.findAffectedScenarios(project, Arrays.asList(pom))).thenReturn(null);
+        when(scenarioLoader.loadProjectScenarios(project)).thenReturn(Arrays.asList(makeScenario("test1.scenario"), makeScenario("test2.scenario")));
+
+        service.runAffectedTests(Arrays.asList(pom), defaultTestResultMessageEvent);
+
+        ArgumentCaptor<TestResultMessage> argumentCaptor = ArgumentCaptor.forClass(TestResultMessage.class);
+        verify(defaultTestResultMessageEvent).fire(argumentCaptor.capture());
+        assertEquals(2, argumentCaptor.getValue().getRunCount());
+    }
+
+    @Test
+    public void testPartitionByKSession() throws Exception {
+        Scenario scenario1 = makeScenario("test1.scenario");
+        Scenario scenario2 = makeScenario("test2.scenario");
+        scenario2.getKSessions().add("ksession2");
+        Scenario scenario3 = makeScenario("test3.scenario");
+        Scenario scenario4 = makeScenario("test4.scenario");
+
+        List<List<Scenario>> batches = ScenarioRunnerService.partition(Arrays.asList(scenario1, scenario2, scenario3, scenario4), 2);
+
+        assertEquals(3, batches.size());
+        assertEquals(Arrays.asList(scenario1, scenario3), batches.get(0));
+        assertEquals(Arrays.asList(scenario4), batches.get(1));
+        assertEquals(Arrays.asList(scenario2), batches.get(2));
+    }
+
+    private void setRunnerThreads(int threads) {
+        ConfigGroup group = new ConfigGroup();
+        group.setName(ScenarioTestEditorService.TEST_SCENARIO_EDITOR_SETTINGS);
+        ConfigItem<Integer> runnerThreads = new ConfigItem<Integer>();
+        runnerThreads.setName(ScenarioTestEditorService.TEST_SCENARIO_EDITOR_RUNNER_THREADS);
+        runnerThreads.setValue(threads);
+        group.addConfigItem(runnerThreads);
+        when(configurationService.getConfiguration(ConfigType.EDITOR)).thenReturn(Arrays.asList(group));
+    }
+
     private Scenario makeScenario(String name) {
         Scenario scenario = new Scenario();
         scenario.setName(name);
@@ -16,18 +16,27 @@
 
 package org.drools.workbench.screens.testscenario.client;
 
-import java.util.Set;
+import java.util.List;
 
 import com.github.gwtbootstrap.client.ui.AccordionGroup;
+import com.github.gwtbootstrap.client.ui.Button;
 import com.github.gwtbootstrap.client.ui.constants.IconType;
 import com.google.gwt.dom.client.Style;
+import com.google.gwt.event.dom.client.ClickEvent;
+import com.google.gwt.event.dom.client.ClickHandler;
 import com.google.gwt.user.client.ui.ScrollPanel;
 import com.google.gwt.user.client.ui.VerticalPanel;
 import org.drools.workbench.screens.testscenario.client.resources.i18n.TestScenarioConstants;
+import org.uberfire.mvp.ParameterizedCommand;
 
 public class AuditLog
         extends AccordionGroup {
 
+    private VerticalPanel list;
+    private Button showMore;
+    private int shown;
+    private int logSize;
+
     public AuditLog() {
 
         setIcon(IconType.CERTIFICATE);
@@ -38,18 +47,49 @@ public class AuditLog
 
     }
 
-    public void fill(Set<String> log) {
+    /**
+     * @param log The first events of the log
+     * @param logSize The number of events in the whole log
+     * @param onShowMore Called with the index of the next event when more events are wanted
+     */
+    public void fill(List<String> log,
+                     int logSize,
+                     final ParameterizedCommand<Integer> onShowMore) {
         clear();
         setVisible(true);
-        VerticalPanel list = new VerticalPanel();
+        list = new VerticalPanel();
+        shown = 0;
+        this.logSize = logSize;
+
+        VerticalPanel panel = new VerticalPanel();
+        panel.add(list);
+
+        showMore = new Button();
+        showMore.addClickHandler(new ClickHandler() {
+            @Override
+            public void onClick(ClickEvent event) {
+                showMore.setEnabled(false);
+                onShowMore.execute(shown);
+            }
+        });
+        panel.add(showMore);
+
+        addLines(log);
+
+        ScrollPanel scrollPanel = new ScrollPanel(panel);
+        scrollPanel.setHeight("300px");
+        add(scrollPanel);
+    }
 
+    public void addLines(List<String> log) {
         for (String line : log) {
             list.add(new Line(line));
         }
+        shown += log.size();
 
-        ScrollPanel scrollPanel = new ScrollPanel(list);
-        scrollPanel.setHeight("300px");
-        add(scrollPanel);
+        showMore.setText(TestScenarioConstants.INSTANCE.ShowMoreEvents(shown, logSize));
+        showMore.setVisible(shown < logSize && !log.isEmpty());
+        showMore.setEnabled(true);
     }
 
 }
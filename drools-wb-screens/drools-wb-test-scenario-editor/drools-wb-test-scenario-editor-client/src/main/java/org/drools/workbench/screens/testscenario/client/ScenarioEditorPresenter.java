@@ -16,6 +16,7 @@
 
 package org.drools.workbench.screens.testscenario.client;
 
+import java.util.List;
 import javax.inject.Inject;
 
 import com.google.gwt.user.client.ui.IsWidget;
@@ -63,6 +64,8 @@ public class ScenarioEditorPresenter
 
     private Scenario                    scenario;
     private AsyncPackageDataModelOracle dmo;
+    //Run whose audit log is shown
+    private String                      auditLogRunId;
 
     @Inject
     public ScenarioEditorPresenter(final ScenarioEditorView view,
@@ -135,18 +138,32 @@ public class ScenarioEditorPresenter
             public void callback(TestScenarioResult result) {
 
                 scenario = result.getScenario();
+                auditLogRunId = result.getRunId();
 
                 redraw();
 
                 view.showResults();
 
-                view.showAuditView(result.getLog());
+                view.showAuditView(result.getLog(),
+                                   result.getLogSize());
 
             }
         }, new HasBusyIndicatorDefaultErrorCallback(view)).runScenario(versionRecordManager.getCurrentPath(),
                                                                        scenario);
     }
 
+    @Override
+    public void onLoadAuditLog(final int offset) {
+        service.call(new RemoteCallback<List<String>>() {
+            @Override
+            public void callback(List<String> log) {
+                view.addAuditLog(log);
+            }
+        }, new HasBusyIndicatorDefaultErrorCallback(view)).loadAuditLog(auditLogRunId,
+                                                                        offset,
+                                                                        ScenarioTestEditorService.AUDIT_LOG_PAGE_SIZE);
+    }
+
     private void redraw() {
         renderFixtures();
         view.initKSessionSelector(versionRecordManager.getCurrentPath(),
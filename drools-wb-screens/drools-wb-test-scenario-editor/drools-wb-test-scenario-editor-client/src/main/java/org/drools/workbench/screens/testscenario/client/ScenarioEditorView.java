@@ -1,6 +1,6 @@
 package org.drools.workbench.screens.testscenario.client;
 
-import java.util.Set;
+import java.util.List;
 
 import com.google.gwt.user.client.ui.IsWidget;
 import org.drools.workbench.models.testscenarios.shared.Scenario;
@@ -22,6 +22,8 @@ public interface ScenarioEditorView
 
         void onRunAllScenarios();
 
+        void onLoadAuditLog(int offset);
+
     }
 
     void setPresenter(Presenter presenter);
@@ -33,7 +35,10 @@ public interface ScenarioEditorView
     void initKSessionSelector(final ObservablePath path,
                               final Scenario scenario);
 
-    void showAuditView(Set<String> log);
+    void showAuditView(List<String> log,
+                       int logSize);
+
+    void addAuditLog(List<String> log);
 
     void showResults();
 
@@ -16,7 +16,7 @@
 
 package org.drools.workbench.screens.testscenario.client;
 
-import java.util.Set;
+import java.util.List;
 import javax.enterprise.context.Dependent;
 import javax.inject.Inject;
 
@@ -31,6 +31,7 @@ import org.kie.workbench.common.widgets.client.datamodel.AsyncPackageDataModelOr
 import org.kie.workbench.common.widgets.metadata.client.KieEditorViewImpl;
 import org.uberfire.backend.vfs.ObservablePath;
 import org.uberfire.backend.vfs.Path;
+import org.uberfire.mvp.ParameterizedCommand;
 import org.uberfire.workbench.model.menu.MenuItem;
 
 @Dependent
@@ -125,9 +126,22 @@ public class ScenarioEditorViewImpl
     }
 
     @Override
-    public void showAuditView(Set<String> log) {
+    public void showAuditView(List<String> log,
+                              int logSize) {
         auditLog.setVisible(true);
-        auditLog.fill(log);
+        auditLog.fill(log,
+                      logSize,
+                      new ParameterizedCommand<Integer>() {
+                          @Override
+                          public void execute(Integer offset) {
+                              presenter.onLoadAuditLog(offset);
+                          }
+                      });
+    }
+
+    @Override
+    public void addAuditLog(List<String> log) {
+        auditLog.addLines(log);
     }
 
     @Override
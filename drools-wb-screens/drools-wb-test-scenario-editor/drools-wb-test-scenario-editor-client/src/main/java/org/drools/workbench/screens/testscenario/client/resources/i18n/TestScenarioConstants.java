@@ -205,6 +205,8 @@ public interface
 
     String ShowEventsButton();
 
+    String ShowMoreEvents(int shown, int total);
+
     String MaxRuleFiringsReachedWarning(int number);
 
     String packageConfigurationProblem1();
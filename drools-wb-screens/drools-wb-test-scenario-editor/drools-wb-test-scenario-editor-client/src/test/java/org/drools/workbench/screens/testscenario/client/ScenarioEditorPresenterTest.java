@@ -16,7 +16,8 @@
 
 package org.drools.workbench.screens.testscenario.client;
 
-import java.util.HashSet;
+import java.util.ArrayList;
+import java.util.List;
 import javax.enterprise.event.Event;
 
 import org.drools.workbench.models.datamodel.imports.HasImports;
@@ -169,7 +170,7 @@ public class ScenarioEditorPresenterTest {
         presenter.onRunScenario();
 
         verify(view).initKSessionSelector(eq(path), any(Scenario.class));
-        verify(view).showAuditView(anySet());
+        verify(view).showAuditView(anyList(), anyInt());
     }
 
     class ScenarioTestEditorServiceCallerMock
@@ -205,11 +206,15 @@ public class ScenarioEditorPresenterTest {
             @Override public TestScenarioResult runScenario(Path path, Scenario scenario) {
                 TestScenarioResult result = new TestScenarioResult("user",
                                                                    scenarioRunResult,
-                                                                   new HashSet<String>());
+                                                                   new ArrayList<String>());
                 remoteCallback.callback(result);
                 return null;
             }
 
+            @Override public List<String> loadAuditLog(String runId, int offset, int count) {
+                return null;
+            }
+
             @Override public Path copy(Path path, String s, String s1) {
                 return null;
             }
@@ -38,15 +38,26 @@ public class ConfigWorkDefinitionsLoader {
     private ConfigurationService configurationService;
 
     public Map<String, WorkDefinition> loadWorkDefinitions() {
-        //Find all configured WIDs
+        //Parse MVEL expressions into model
         final Map<String, WorkDefinition> workDefinitions = new HashMap<String, WorkDefinition>();
+        workDefinitions.putAll( WorkDefinitionsParser.parse( loadDefinitions() ) );
+
+        return workDefinitions;
+    }
+
+    /**
+     * Load the content of all WIDs held in the editor configuration, without parsing it
+     * @return The content of each configured WID
+     */
+    public List<String> loadDefinitions() {
+        //Find all configured WIDs
+        final List<String> definitions = new ArrayList<String>();
         final List<ConfigGroup> configGroups = configurationService.getConfiguration( ConfigType.EDITOR );
         if ( configGroups == null || configGroups.isEmpty() ) {
-            return workDefinitions;
+            return definitions;
         }
 
         //Load configured WIDs
-        final List<String> definitions = new ArrayList<String>();
         for ( ConfigGroup configGroup : configGroups ) {
             if ( WorkItemsEditorService.WORK_ITEM_DEFINITION.equals( configGroup.getName() ) ) {
                 for ( ConfigItem configItem : configGroup.getItems() ) {
@@ -55,10 +66,7 @@ public class ConfigWorkDefinitionsLoader {
             }
         }
 
-        //Parse MVEL expressions into model
-        workDefinitions.putAll( WorkDefinitionsParser.parse( definitions ) );
-
-        return workDefinitions;
+        return definitions;
     }
 
 }
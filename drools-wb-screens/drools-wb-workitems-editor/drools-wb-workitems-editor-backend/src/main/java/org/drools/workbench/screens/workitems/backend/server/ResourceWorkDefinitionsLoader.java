@@ -46,27 +46,36 @@ public class ResourceWorkDefinitionsLoader {
     private FileExtensionFilter widFilter = new FileExtensionFilter( ".wid" );
 
     public Map<String, WorkDefinition> loadWorkDefinitions( final Path projectRoot ) {
-        //Find all WID files in the project
+        //Parse MVEL expressions into model
         final Map<String, WorkDefinition> workDefinitions = new HashMap<String, WorkDefinition>();
+        workDefinitions.putAll( WorkDefinitionsParser.parse( loadDefinitions( projectRoot ) ) );
+
+        return workDefinitions;
+    }
+
+    /**
+     * Load the content of all WID files in the project, without parsing it
+     * @param projectRoot Root Path of the project
+     * @return The content of each WID file
+     */
+    public List<String> loadDefinitions( final Path projectRoot ) {
+        //Find all WID files in the project
+        final List<String> definitions = new ArrayList<String>();
         final org.uberfire.java.nio.file.Path nioProjectRoot = Paths.convert( projectRoot );
         final Collection<org.uberfire.java.nio.file.Path> widPaths = fileDiscoveryService.discoverFiles( nioProjectRoot,
                                                                                                             widFilter,
                                                                                                             true );
         if ( widPaths == null || widPaths.isEmpty() ) {
-            return workDefinitions;
+            return definitions;
         }
 
         //Load WID files
-        final List<String> definitions = new ArrayList<String>();
         for ( org.uberfire.java.nio.file.Path widPath : widPaths ) {
             final String definition = ioService.readAllString( widPath );
             definitions.add( definition );
         }
 
-        //Parse MVEL expressions into model
-        workDefinitions.putAll( WorkDefinitionsParser.parse( definitions ) );
-
-        return workDefinitions;
+        return definitions;
     }
 
 }
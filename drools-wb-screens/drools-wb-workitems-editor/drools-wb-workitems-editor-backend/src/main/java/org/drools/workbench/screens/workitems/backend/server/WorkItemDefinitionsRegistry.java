@@ -0,0 +1,287 @@
+/*
+ * Copyright 2015 JBoss, by Red Hat, Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.drools.workbench.screens.workitems.backend.server;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
+import javax.inject.Inject;
+
+import org.drools.core.process.core.ParameterDefinition;
+import org.drools.core.process.core.WorkDefinition;
+import org.drools.core.process.core.datatype.DataType;
+import org.drools.core.process.core.datatype.impl.type.BooleanDataType;
+import org.drools.core.process.core.datatype.impl.type.FloatDataType;
+import org.drools.core.process.core.datatype.impl.type.IntegerDataType;
+import org.drools.core.process.core.datatype.impl.type.ObjectDataType;
+import org.drools.core.process.core.datatype.impl.type.StringDataType;
+import org.drools.workbench.models.datamodel.workitems.PortableBooleanParameterDefinition;
+import org.drools.workbench.models.datamodel.workitems.PortableFloatParameterDefinition;
+import org.drools.workbench.models.datamodel.workitems.PortableIntegerParameterDefinition;
+import org.drools.workbench.models.datamodel.workitems.PortableObjectParameterDefinition;
+import org.drools.workbench.models.datamodel.workitems.PortableParameterDefinition;
+import org.drools.workbench.models.datamodel.workitems.PortableStringParameterDefinition;
+import org.drools.workbench.models.datamodel.workitems.PortableWorkDefinition;
+import org.drools.workbench.screens.workitems.type.WorkItemsTypeDefinition;
+import org.jbpm.process.workitem.WorkDefinitionImpl;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.uberfire.backend.server.util.Paths;
+import org.uberfire.backend.vfs.Path;
+import org.uberfire.workbench.events.ResourceAddedEvent;
+import org.uberfire.workbench.events.ResourceBatchChangesEvent;
+import org.uberfire.workbench.events.ResourceCopiedEvent;
+import org.uberfire.workbench.events.ResourceDeletedEvent;
+import org.uberfire.workbench.events.ResourceRenamedEvent;
+import org.uberfire.workbench.events.ResourceUpdatedEvent;
+
+/**
+ * Registry of the Work Item Definitions available to each project. Discovering, reading and compiling
+ * every WID with MVEL is expensive, so the parsed definitions and their portable equivalents are held
+ * per project until a WID in the project changes. WIDs held in the editor configuration are shared by
+ * all projects; they are re-parsed only when their content changes.
+ */
+@ApplicationScoped
+public class WorkItemDefinitionsRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger( WorkItemDefinitionsRegistry.class );
+
+    //Keyed by the project's root path
+    private final Map<org.uberfire.java.nio.file.Path, ProjectWorkDefinitions> cache = new ConcurrentHashMap<org.uberfire.java.nio.file.Path, ProjectWorkDefinitions>();
+
+    //Incremented on each invalidation so that entries loaded concurrently with an invalidation are not cached
+    private final AtomicLong invalidations = new AtomicLong();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong compileTime = new AtomicLong();
+
+    private volatile ConfiguredWorkDefinitions configuredWorkDefinitions;
+
+    @Inject
+    private ResourceWorkDefinitionsLoader resourceWorkDefinitionsLoader;
+
+    @Inject
+    private ConfigWorkDefinitionsLoader configWorkDefinitionsLoader;
+
+    @Inject
+    private WorkItemsTypeDefinition widType;
+
+    /**
+     * Returns the Work Item Definitions in the given project and those held in the editor configuration
+     * @param projectRoot Root Path of the project
+     * @return Work Item Definitions suitable for GWT
+     */
+    public Set<PortableWorkDefinition> getWorkItemDefinitions( final Path projectRoot ) {
+        final ConfiguredWorkDefinitions configured = getConfiguredWorkDefinitions();
+        final org.uberfire.java.nio.file.Path nioProjectRoot = Paths.convert( projectRoot );
+        ProjectWorkDefinitions project = cache.get( nioProjectRoot );
+        if ( project != null && project.configured == configured ) {
+            hits.incrementAndGet();
+            return new HashSet<PortableWorkDefinition>( project.portableWorkDefinitions );
+        }
+        misses.incrementAndGet();
+        final long invalidationsBeforeLoad = invalidations.get();
+
+        //WIDs in the project are only re-parsed if they have changed; not if only the configuration has changed
+        final Map<String, WorkDefinition> resourceWorkDefinitions = ( project == null ? parse( resourceWorkDefinitionsLoader.loadDefinitions( projectRoot ) ) : project.resourceWorkDefinitions );
+        final Map<String, WorkDefinition> workDefinitions = new HashMap<String, WorkDefinition>( resourceWorkDefinitions );
+        workDefinitions.putAll( configured.workDefinitions );
+
+        project = new ProjectWorkDefinitions( resourceWorkDefinitions,
+                                              configured,
+                                              convertWorkDefinitions( workDefinitions ) );
+        if ( invalidations.get() == invalidationsBeforeLoad ) {
+            cache.put( nioProjectRoot,
+                       project );
+        }
+        if ( logger.isDebugEnabled() ) {
+            logger.debug( "Work Item Definitions compiled in " + getCompileTime() + "ms in total. Cache hit ratio " + getHitRatio() + "." );
+        }
+        return new HashSet<PortableWorkDefinition>( project.portableWorkDefinitions );
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    /**
+     * @return The proportion of look-ups served from the cache, between 0 and 1
+     */
+    public double getHitRatio() {
+        final long hitCount = hits.get();
+        final long total = hitCount + misses.get();
+        return total == 0 ? 0 : (double) hitCount / total;
+    }
+
+    /**
+     * @return Total time spent compiling Work Item Definitions with MVEL, in milliseconds
+     */
+    public long getCompileTime() {
+        return TimeUnit.NANOSECONDS.toMillis( compileTime.get() );
+    }
+
+    public void invalidateCache() {
+        invalidations.incrementAndGet();
+        cache.clear();
+        configuredWorkDefinitions = null;
+    }
+
+    public void onResourceAdded( @Observes final ResourceAddedEvent event ) {
+        invalidateCache( event.getPath() );
+    }
+
+    public void onResourceUpdated( @Observes final ResourceUpdatedEvent event ) {
+        invalidateCache( event.getPath() );
+    }
+
+    public void onResourceDeleted( @Observes final ResourceDeletedEvent event ) {
+        invalidateCache( event.getPath() );
+    }
+
+    public void onResourceCopied( @Observes final ResourceCopiedEvent event ) {
+        invalidateCache( event.getDestinationPath() );
+    }
+
+    public void onResourceRenamed( @Observes final ResourceRenamedEvent event ) {
+        invalidateCache( event.getPath() );
+        invalidateCache( event.getDestinationPath() );
+    }
+
+    public void onBatchResourceChanges( @Observes final ResourceBatchChangesEvent event ) {
+        for ( Path path : event.getBatch().keySet() ) {
+            invalidateCache( path );
+        }
+    }
+
+    private void invalidateCache( final Path path ) {
+        if ( path == null || !widType.accept( path ) ) {
+            return;
+        }
+        invalidations.incrementAndGet();
+        final org.uberfire.java.nio.file.Path nioPath = Paths.convert( path );
+        for ( org.uberfire.java.nio.file.Path projectRoot : cache.keySet() ) {
+            if ( nioPath.startsWith( projectRoot ) ) {
+                cache.remove( projectRoot );
+            }
+        }
+    }
+
+    //Reading the configuration is cheap; compiling it is not. Only re-parse it when its content has changed.
+    private ConfiguredWorkDefinitions getConfiguredWorkDefinitions() {
+        final List<String> definitions = configWorkDefinitionsLoader.loadDefinitions();
+        final ConfiguredWorkDefinitions configured = configuredWorkDefinitions;
+        if ( configured != null && configured.definitions.equals( definitions ) ) {
+            return configured;
+        }
+        final ConfiguredWorkDefinitions loaded = new ConfiguredWorkDefinitions( definitions,
+                                                                                parse( definitions ) );
+        configuredWorkDefinitions = loaded;
+        return loaded;
+    }
+
+    private Map<String, WorkDefinition> parse( final List<String> definitions ) {
+        final long start = System.nanoTime();
+        try {
+            return WorkDefinitionsParser.parse( definitions );
+        } finally {
+            compileTime.addAndGet( System.nanoTime() - start );
+        }
+    }
+
+    //Copy the Work Items into Structures suitable for GWT
+    private Set<PortableWorkDefinition> convertWorkDefinitions( final Map<String, WorkDefinition> workDefinitions ) {
+        final Set<PortableWorkDefinition> workItems = new HashSet<PortableWorkDefinition>();
+        for ( Map.Entry<String, WorkDefinition> entry : workDefinitions.entrySet() ) {
+            final PortableWorkDefinition wid = new PortableWorkDefinition();
+            final WorkDefinitionImpl wd = (WorkDefinitionImpl) entry.getValue();
+            wid.setName( wd.getName() );
+            wid.setDisplayName( wd.getDisplayName() );
+            wid.setParameters( convertWorkItemParameters( entry.getValue().getParameters() ) );
+            wid.setResults( convertWorkItemParameters( entry.getValue().getResults() ) );
+            workItems.add( wid );
+        }
+        return workItems;
+    }
+
+    private Set<PortableParameterDefinition> convertWorkItemParameters( final Set<ParameterDefinition> parameters ) {
+        final Set<PortableParameterDefinition> pps = new HashSet<PortableParameterDefinition>();
+        for ( ParameterDefinition pd : parameters ) {
+            final DataType pdt = pd.getType();
+            PortableParameterDefinition ppd = null;
+            if ( pdt instanceof BooleanDataType ) {
+                ppd = new PortableBooleanParameterDefinition();
+            } else if ( pdt instanceof FloatDataType ) {
+                ppd = new PortableFloatParameterDefinition();
+            } else if ( pdt instanceof IntegerDataType ) {
+                ppd = new PortableIntegerParameterDefinition();
+            } else if ( pdt instanceof ObjectDataType ) {
+                ppd = new PortableObjectParameterDefinition();
+                final PortableObjectParameterDefinition oppd = (PortableObjectParameterDefinition) ppd;
+                final ObjectDataType odt = (ObjectDataType) pdt;
+                oppd.setClassName( odt.getClassName() );
+            } else if ( pd.getType() instanceof StringDataType ) {
+                ppd = new PortableStringParameterDefinition();
+            }
+            if ( ppd != null ) {
+                ppd.setName( pd.getName() );
+                pps.add( ppd );
+            }
+        }
+        return pps;
+    }
+
+    private static class ConfiguredWorkDefinitions {
+
+        private final List<String> definitions;
+        private final Map<String, WorkDefinition> workDefinitions;
+
+        private ConfiguredWorkDefinitions( final List<String> definitions,
+                                           final Map<String, WorkDefinition> workDefinitions ) {
+            this.definitions = definitions;
+            this.workDefinitions = workDefinitions;
+        }
+
+    }
+
+    private static class ProjectWorkDefinitions {
+
+        private final Map<String, WorkDefinition> resourceWorkDefinitions;
+        private final ConfiguredWorkDefinitions configured;
+        private final Set<PortableWorkDefinition> portableWorkDefinitions;
+
+        private ProjectWorkDefinitions( final Map<String, WorkDefinition> resourceWorkDefinitions,
+                                        final ConfiguredWorkDefinitions configured,
+                                        final Set<PortableWorkDefinition> portableWorkDefinitions ) {
+            this.resourceWorkDefinitions = resourceWorkDefinitions;
+            this.configured = configured;
+            this.portableWorkDefinitions = portableWorkDefinitions;
+        }
+
+    }
+
+}
@@ -19,7 +19,6 @@ package org.drools.workbench.screens.workitems.backend.server;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -29,20 +28,6 @@ import javax.enterprise.event.Event;
 import javax.inject.Inject;
 import javax.inject.Named;
 
-import org.drools.core.process.core.ParameterDefinition;
-import org.drools.core.process.core.WorkDefinition;
-import org.drools.core.process.core.datatype.DataType;
-import org.drools.core.process.core.datatype.impl.type.BooleanDataType;
-import org.drools.core.process.core.datatype.impl.type.FloatDataType;
-import org.drools.core.process.core.datatype.impl.type.IntegerDataType;
-import org.drools.core.process.core.datatype.impl.type.ObjectDataType;
-import org.drools.core.process.core.datatype.impl.type.StringDataType;
-import org.drools.workbench.models.datamodel.workitems.PortableBooleanParameterDefinition;
-import org.drools.workbench.models.datamodel.workitems.PortableFloatParameterDefinition;
-import org.drools.workbench.models.datamodel.workitems.PortableIntegerParameterDefinition;
-import org.drools.workbench.models.datamodel.workitems.PortableObjectParameterDefinition;
-import org.drools.workbench.models.datamodel.workitems.PortableParameterDefinition;
-import org.drools.workbench.models.datamodel.workitems.PortableStringParameterDefinition;
 import org.drools.workbench.models.datamodel.workitems.PortableWorkDefinition;
 import org.drools.workbench.screens.workitems.model.WorkItemDefinitionElements;
 import org.drools.workbench.screens.workitems.model.WorkItemsModelContent;
@@ -59,7 +44,6 @@ import org.guvnor.structure.server.config.ConfigItem;
 import org.guvnor.structure.server.config.ConfigType;
 import org.guvnor.structure.server.config.ConfigurationService;
 import org.jboss.errai.bus.server.annotations.Service;
-import org.jbpm.process.workitem.WorkDefinitionImpl;
 import org.kie.workbench.common.services.backend.service.KieService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -103,10 +87,7 @@ public class WorkItemsEditorServiceImpl
     private FileDiscoveryService fileDiscoveryService;
 
     @Inject
-    private ResourceWorkDefinitionsLoader resourceWorkDefinitionsLoader;
-
-    @Inject
-    private ConfigWorkDefinitionsLoader configWorkDefinitionsLoader;
+    private WorkItemDefinitionsRegistry workItemDefinitionsRegistry;
 
     @Inject
     private WorkItemsTypeDefinition resourceTypeDefinition;
@@ -326,59 +307,13 @@ public class WorkItemsEditorServiceImpl
 
     @Override
     public Set<PortableWorkDefinition> loadWorkItemDefinitions( final Path path ) {
-        final Map<String, WorkDefinition> workDefinitions = new HashMap<String, WorkDefinition>();
-
         try {
-            //Load WorkItemDefinitions from VFS
             final Path projectRoot = projectService.resolveProject( path ).getRootPath();
-            workDefinitions.putAll( resourceWorkDefinitionsLoader.loadWorkDefinitions( projectRoot ) );
-
-            //Load WorkItemDefinitions from ConfigurationService
-            workDefinitions.putAll( configWorkDefinitionsLoader.loadWorkDefinitions() );
-
-            //Copy the Work Items into Structures suitable for GWT
-            final Set<PortableWorkDefinition> workItems = new HashSet<PortableWorkDefinition>();
-            for ( Map.Entry<String, WorkDefinition> entry : workDefinitions.entrySet() ) {
-                final PortableWorkDefinition wid = new PortableWorkDefinition();
-                final WorkDefinitionImpl wd = (WorkDefinitionImpl) entry.getValue();
-                wid.setName( wd.getName() );
-                wid.setDisplayName( wd.getDisplayName() );
-                wid.setParameters( convertWorkItemParameters( entry.getValue().getParameters() ) );
-                wid.setResults( convertWorkItemParameters( entry.getValue().getResults() ) );
-                workItems.add( wid );
-            }
-            return workItems;
+            return workItemDefinitionsRegistry.getWorkItemDefinitions( projectRoot );
 
         } catch ( Exception e ) {
             throw ExceptionUtilities.handleException( e );
         }
     }
 
-    private Set<PortableParameterDefinition> convertWorkItemParameters( final Set<ParameterDefinition> parameters ) {
-        final Set<PortableParameterDefinition> pps = new HashSet<PortableParameterDefinition>();
-        for ( ParameterDefinition pd : parameters ) {
-            final DataType pdt = pd.getType();
-            PortableParameterDefinition ppd = null;
-            if ( pdt instanceof BooleanDataType ) {
-                ppd = new PortableBooleanParameterDefinition();
-            } else if ( pdt instanceof FloatDataType ) {
-                ppd = new PortableFloatParameterDefinition();
-            } else if ( pdt instanceof IntegerDataType ) {
-                ppd = new PortableIntegerParameterDefinition();
-            } else if ( pdt instanceof ObjectDataType ) {
-                ppd = new PortableObjectParameterDefinition();
-                final PortableObjectParameterDefinition oppd = (PortableObjectParameterDefinition) ppd;
-                final ObjectDataType odt = (ObjectDataType) pdt;
-                oppd.setClassName( odt.getClassName() );
-            } else if ( pd.getType() instanceof StringDataType ) {
-                ppd = new PortableStringParameterDefinition();
-            }
-            if ( ppd != null ) {
-                ppd.setName( pd.getName() );
-                pps.add( ppd );
-            }
-        }
-        return pps;
-    }
-
 }
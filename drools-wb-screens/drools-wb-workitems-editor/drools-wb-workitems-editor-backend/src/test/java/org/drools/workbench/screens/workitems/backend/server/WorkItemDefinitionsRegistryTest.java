@@ -0,0 +1,178 @@
+/*
+ * Copyright 2015 JBoss, by Red Hat, Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.drools.workbench.screens.workitems.backend.server;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.drools.workbench.models.datamodel.workitems.PortableWorkDefinition;
+import org.drools.workbench.screens.workitems.type.WorkItemsTypeDefinition;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.uberfire.backend.server.util.Paths;
+import org.uberfire.backend.vfs.Path;
+import org.uberfire.workbench.events.ResourceUpdatedEvent;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class WorkItemDefinitionsRegistryTest {
+
+    @Mock
+    private ResourceWorkDefinitionsLoader resourceWorkDefinitionsLoader;
+
+    @Mock
+    private ConfigWorkDefinitionsLoader configWorkDefinitionsLoader;
+
+    @Spy
+    private WorkItemsTypeDefinition widType = new WorkItemsTypeDefinition();
+
+    @InjectMocks
+    private WorkItemDefinitionsRegistry registry;
+
+    private File folder;
+
+    private Path projectRoot1;
+    private Path projectRoot2;
+
+    @Before
+    public void setup() {
+        folder = new File( System.getProperty( "java.io.tmpdir" ),
+                           "workItemDefinitionsRegistry" );
+        projectRoot1 = makePath( "project1" );
+        projectRoot2 = makePath( "project2" );
+
+        when( configWorkDefinitionsLoader.loadDefinitions() ).thenReturn( Arrays.asList( makeDefinition( "Email" ) ) );
+        setDefinitions( projectRoot1,
+                        "Project1Task" );
+        setDefinitions( projectRoot2,
+                        "Project2Task" );
+    }
+
+    @Test
+    public void testDefinitionsLoadedOncePerProject() {
+        assertEquals( names( "Email",
+                             "Project1Task" ),
+                      getNames( registry.getWorkItemDefinitions( projectRoot1 ) ) );
+        assertEquals( names( "Email",
+                             "Project1Task" ),
+                      getNames( registry.getWorkItemDefinitions( projectRoot1 ) ) );
+        assertEquals( names( "Email",
+                             "Project2Task" ),
+                      getNames( registry.getWorkItemDefinitions( projectRoot2 ) ) );
+
+        verify( resourceWorkDefinitionsLoader,
+                times( 1 ) ).loadDefinitions( projectRoot1 );
+        verify( resourceWorkDefinitionsLoader,
+                times( 1 ) ).loadDefinitions( projectRoot2 );
+        assertEquals( 1,
+                      registry.getHitCount() );
+        assertEquals( 2,
+                      registry.getMissCount() );
+    }
+
+    @Test
+    public void testChangedWIDReloadsItsProject() {
+        registry.getWorkItemDefinitions( projectRoot1 );
+        registry.getWorkItemDefinitions( projectRoot2 );
+
+        setDefinitions( projectRoot1,
+                        "ChangedTask" );
+        registry.onResourceUpdated( updated( makePath( "project1/src/main/resources/WorkDefinitions.wid" ) ) );
+
+        assertEquals( names( "Email",
+                             "ChangedTask" ),
+                      getNames( registry.getWorkItemDefinitions( projectRoot1 ) ) );
+        assertEquals( names( "Email",
+                             "Project2Task" ),
+                      getNames( registry.getWorkItemDefinitions( projectRoot2 ) ) );
+
+        verify( resourceWorkDefinitionsLoader,
+                times( 2 ) ).loadDefinitions( projectRoot1 );
+        verify( resourceWorkDefinitionsLoader,
+                times( 1 ) ).loadDefinitions( projectRoot2 );
+    }
+
+    @Test
+    public void testChangedResourceDoesNotReloadProject() {
+        registry.getWorkItemDefinitions( projectRoot1 );
+
+        registry.onResourceUpdated( updated( makePath( "project1/src/main/resources/rule.drl" ) ) );
+        registry.getWorkItemDefinitions( projectRoot1 );
+
+        verify( resourceWorkDefinitionsLoader,
+                times( 1 ) ).loadDefinitions( projectRoot1 );
+        assertEquals( 1,
+                      registry.getHitCount() );
+    }
+
+    @Test
+    public void testChangedConfigurationKeepsProjectDefinitions() {
+        registry.getWorkItemDefinitions( projectRoot1 );
+
+        when( configWorkDefinitionsLoader.loadDefinitions() ).thenReturn( Arrays.asList( makeDefinition( "Log" ) ) );
+
+        assertEquals( names( "Log",
+                             "Project1Task" ),
+                      getNames( registry.getWorkItemDefinitions( projectRoot1 ) ) );
+        verify( resourceWorkDefinitionsLoader,
+                times( 1 ) ).loadDefinitions( projectRoot1 );
+    }
+
+    private Path makePath( final String relativePath ) {
+        return Paths.convert( org.uberfire.java.nio.file.Paths.get( new File( folder,
+                                                                              relativePath ).toURI() ) );
+    }
+
+    private void setDefinitions( final Path projectRoot,
+                                 final String name ) {
+        when( resourceWorkDefinitionsLoader.loadDefinitions( projectRoot ) ).thenReturn( Collections.singletonList( makeDefinition( name ) ) );
+    }
+
+    private String makeDefinition( final String name ) {
+        return "[ [ \"name\" : \"" + name + "\", " +
+                "\"parameters\" : [ \"Subject\" : new StringDataType() ], " +
+                "\"displayName\" : \"" + name + "\" ] ]";
+    }
+
+    private ResourceUpdatedEvent updated( final Path path ) {
+        final ResourceUpdatedEvent event = mock( ResourceUpdatedEvent.class );
+        when( event.getPath() ).thenReturn( path );
+        return event;
+    }
+
+    private Set<String> names( final String... names ) {
+        return new HashSet<String>( Arrays.asList( names ) );
+    }
+
+    private Set<String> getNames( final Set<PortableWorkDefinition> workDefinitions ) {
+        final Set<String> names = new HashSet<String>();
+        for ( PortableWorkDefinition workDefinition : workDefinitions ) {
+            names.add( workDefinition.getName() );
+        }
+        return names;
+    }
+
+}
@@ -273,6 +273,29 @@ public class AppSetup {
         configItem.setValue( 10000 );
         group.addConfigItem( configItem );
 
+        //Number of threads on which all of a folder's scenarios are run; 1 runs them in sequence
+        ConfigItem<Integer> runnerThreadsItem = new ConfigItem<Integer>();
+        runnerThreadsItem.setName( ScenarioTestEditorService.TEST_SCENARIO_EDITOR_RUNNER_THREADS );
+        runnerThreadsItem.setValue( 1 );
+        group.addConfigItem( runnerThreadsItem );
+
+        //Number of the most recent events held in a scenario run's audit log
+        ConfigItem<Integer> auditLogSizeItem = new ConfigItem<Integer>();
+        auditLogSizeItem.setName( ScenarioTestEditorService.TEST_SCENARIO_EDITOR_AUDIT_LOG_SIZE );
+        auditLogSizeItem.setValue( 1000 );
+        group.addConfigItem( auditLogSizeItem );
+
+        //Agenda and process events can be left out of the audit log
+        ConfigItem<Boolean> auditLogAgendaEventsItem = new ConfigItem<Boolean>();
+        auditLogAgendaEventsItem.setName( ScenarioTestEditorService.TEST_SCENARIO_EDITOR_AUDIT_LOG_AGENDA_EVENTS );
+        auditLogAgendaEventsItem.setValue( true );
+        group.addConfigItem( auditLogAgendaEventsItem );
+
+        ConfigItem<Boolean> auditLogProcessEventsItem = new ConfigItem<Boolean>();
+        auditLogProcessEventsItem.setName( ScenarioTestEditorService.TEST_SCENARIO_EDITOR_AUDIT_LOG_PROCESS_EVENTS );
+        auditLogProcessEventsItem.setValue( true );
+        group.addConfigItem( auditLogProcessEventsItem );
+
         return group;
     }
 
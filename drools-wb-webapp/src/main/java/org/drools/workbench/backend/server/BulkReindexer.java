@@ -0,0 +1,409 @@
+/*
+ * Copyright 2015 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.drools.workbench.backend.server;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.PostConstruct;
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.inject.Any;
+import javax.enterprise.inject.Instance;
+import javax.inject.Inject;
+import javax.inject.Named;
+
+import org.guvnor.common.services.project.model.Project;
+import org.guvnor.structure.repositories.Repository;
+import org.guvnor.structure.repositories.RepositoryService;
+import org.kie.workbench.common.services.datamodel.backend.server.service.DataModelService;
+import org.kie.workbench.common.services.shared.project.KieProjectService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.uberfire.backend.server.util.Paths;
+import org.uberfire.commons.services.cdi.Startup;
+import org.uberfire.commons.services.cdi.StartupType;
+import org.uberfire.ext.metadata.backend.lucene.LuceneConfig;
+import org.uberfire.ext.metadata.engine.Indexer;
+import org.uberfire.ext.metadata.engine.MetaIndexEngine;
+import org.uberfire.ext.metadata.io.KObjectUtil;
+import org.uberfire.ext.metadata.model.KCluster;
+import org.uberfire.ext.metadata.model.KObject;
+import org.uberfire.java.nio.file.FileSystem;
+import org.uberfire.java.nio.file.FileVisitResult;
+import org.uberfire.java.nio.file.Files;
+import org.uberfire.java.nio.file.Path;
+import org.uberfire.java.nio.file.SimpleFileVisitor;
+import org.uberfire.java.nio.file.attribute.BasicFileAttributes;
+
+/**
+ * Rebuilds the index of every asset in a repository with the registered {@link Indexer}s. Indexing a file reads and
+ * parses it, then resolves its project, package and Data Model Oracle; performed one file at a time a large
+ * repository takes a long time to index. Here the files of each package are indexed by one of a pool of workers,
+ * whilst a single writer adds the resulting {@link KObject}s to the index in one batch, committed at the end.
+ * The workers of a project share the building of its Data Model Oracle, rather than each building it. A repository
+ * is never reindexed twice at once, nor while the IOService builds its fresh index.
+ * <p/>
+ * Every repository is reindexed on startup when the system property {@value #BULK_REINDEX_PROPERTY} is "true".
+ * The number of workers can be set with {@value #WORKERS_PROPERTY}; it defaults to the number of processors.
+ */
+@Startup(StartupType.EAGER)
+@ApplicationScoped
+public class BulkReindexer {
+
+    public static final String BULK_REINDEX_PROPERTY = "org.drools.workbench.bulkReindex";
+    public static final String WORKERS_PROPERTY = "org.drools.workbench.bulkReindex.workers";
+
+    //KObjects held for the writer per worker, bounding memory should the writer fall behind
+    private static final int QUEUE_CAPACITY_PER_WORKER = 64;
+
+    private static final Logger logger = LoggerFactory.getLogger( BulkReindexer.class );
+
+    @Inject
+    @Any
+    private Instance<Indexer> indexers;
+
+    @Inject
+    @Named("luceneConfig")
+    private LuceneConfig config;
+
+    @Inject
+    private RepositoryService repositoryService;
+
+    @Inject
+    private KieProjectService projectService;
+
+    @Inject
+    private DataModelService dataModelService;
+
+    //Ids of the clusters being reindexed
+    private final Set<String> reindexing = Collections.newSetFromMap( new ConcurrentHashMap<String, Boolean>() );
+
+    @PostConstruct
+    public void setup() {
+        if ( !Boolean.getBoolean( BULK_REINDEX_PROPERTY ) ) {
+            return;
+        }
+        //Do not hold up the deployment of the application
+        final Thread thread = new Thread( new Runnable() {
+            @Override
+            public void run() {
+                reindexAll();
+            }
+        }, "bulk-reindex" );
+        thread.setDaemon( true );
+        thread.start();
+    }
+
+    /**
+     * Reindex every repository
+     */
+    public void reindexAll() {
+        for ( Repository repository : repositoryService.getRepositories() ) {
+            try {
+                reindex( Paths.convert( repository.getRoot() ).getFileSystem() );
+            } catch ( Exception e ) {
+                logger.error( "Unable to reindex repository '" + repository.getAlias() + "'.",
+                              e );
+            }
+        }
+    }
+
+    /**
+     * Reindex every asset in a FileSystem. A FileSystem with a fresh index is skipped, as the IOService indexes it
+     * when the FileSystem is loaded; as is a FileSystem that is already being reindexed.
+     * @param fs The FileSystem
+     */
+    public void reindex( final FileSystem fs ) {
+        final KCluster cluster = KObjectUtil.toKCluster( fs );
+        final MetaIndexEngine indexEngine = config.getIndexEngine();
+        if ( indexEngine.freshIndex( cluster ) ) {
+            logger.info( "Bulk reindex of '" + fs.toString() + "' skipped: its index is being built by the IOService." );
+            return;
+        }
+        reindex( cluster,
+                 indexEngine,
+                 findFiles( fs ),
+                 getIndexers(),
+                 getWorkers() );
+    }
+
+    /**
+     * Reindex files with a pool of workers and a single writer
+     * @param cluster The cluster of the files' FileSystem
+     * @param indexEngine The index
+     * @param packages Files grouped by their folder
+     * @param indexers Indexers of the files
+     * @param workers Number of workers
+     * @return Statistics of the reindex, or null if the cluster is already being reindexed
+     */
+    Statistics reindex( final KCluster cluster,
+                        final MetaIndexEngine indexEngine,
+                        final Map<Path, List<Path>> packages,
+                        final List<Indexer> indexers,
+                        final int workers ) {
+        if ( !reindexing.add( cluster.getClusterId() ) ) {
+            logger.warn( "Bulk reindex of '" + cluster.getClusterId() + "' skipped: it is already being reindexed." );
+            return null;
+        }
+        try {
+            return reindexPackages( cluster,
+                                    indexEngine,
+                                    packages,
+                                    indexers,
+                                    workers );
+        } finally {
+            reindexing.remove( cluster.getClusterId() );
+        }
+    }
+
+    private Statistics reindexPackages( final KCluster cluster,
+                                        final MetaIndexEngine indexEngine,
+                                        final Map<Path, List<Path>> packages,
+                                        final List<Indexer> indexers,
+                                        final int workers ) {
+        final long start = System.currentTimeMillis();
+        final BlockingQueue<KObject> queue = new ArrayBlockingQueue<KObject>( workers * QUEUE_CAPACITY_PER_WORKER );
+        final CountDownLatch remainingPackages = new CountDownLatch( packages.size() );
+        final ConcurrentMap<Path, ProjectOracle> projectOracles = new ConcurrentHashMap<Path, ProjectOracle>();
+        final Statistics statistics = new Statistics();
+        final AtomicLong indexingTime = new AtomicLong();
+
+        logger.info( "Bulk reindex of '" + cluster.getClusterId() + "' started: " + packages.size() + " folders, " + workers + " workers." );
+
+        final ExecutorService executor = newExecutor( workers );
+        try {
+            for ( final Map.Entry<Path, List<Path>> e : packages.entrySet() ) {
+                executor.execute( new Runnable() {
+                    @Override
+                    public void run() {
+                        try {
+                            final long packageStart = System.currentTimeMillis();
+                            buildProjectDataModelOracle( e.getKey(),
+                                                         projectOracles );
+                            for ( Path file : e.getValue() ) {
+                                if ( !indexFile( file,
+                                                 indexers,
+                                                 queue ) ) {
+                                    statistics.failures.incrementAndGet();
+                                }
+                                statistics.files.incrementAndGet();
+                            }
+                            indexingTime.addAndGet( System.currentTimeMillis() - packageStart );
+                        } catch ( InterruptedException ie ) {
+                            Thread.currentThread().interrupt();
+                        } finally {
+                            remainingPackages.countDown();
+                        }
+                    }
+                } );
+            }
+
+            //Single writer; a worker's KObjects are queued before it counts down, so once all have
+            //counted down and the queue is empty every KObject has been written
+            final long writeTime = write( indexEngine,
+                                          cluster,
+                                          queue,
+                                          remainingPackages );
+
+            final long elapsed = Math.max( 1,
+                                           System.currentTimeMillis() - start );
+            logger.info( "Bulk reindex of '" + cluster.getClusterId() + "' completed in " + elapsed + "ms: " +
+                                 statistics.getFiles() + " files (" + ( statistics.getFiles() * 1000 / elapsed ) + " per second), " +
+                                 statistics.getFailures() + " failed, " +
+                                 indexingTime.get() + "ms reading and parsing across workers, " +
+                                 writeTime + "ms writing." );
+
+        } catch ( InterruptedException ie ) {
+            Thread.currentThread().interrupt();
+            logger.error( "Bulk reindex of '" + cluster.getClusterId() + "' interrupted." );
+        } finally {
+            executor.shutdownNow();
+        }
+        return statistics;
+    }
+
+    ExecutorService newExecutor( final int workers ) {
+        return Executors.newFixedThreadPool( workers );
+    }
+
+    private long write( final MetaIndexEngine indexEngine,
+                        final KCluster cluster,
+                        final BlockingQueue<KObject> queue,
+                        final CountDownLatch remainingPackages ) throws InterruptedException {
+        long writeTime = 0;
+        indexEngine.startBatch( cluster );
+        try {
+            while ( true ) {
+                final KObject kObject = queue.poll( 100,
+                                                    TimeUnit.MILLISECONDS );
+                if ( kObject != null ) {
+                    final long writeStart = System.currentTimeMillis();
+                    indexEngine.index( kObject );
+                    writeTime += System.currentTimeMillis() - writeStart;
+                } else if ( remainingPackages.getCount() == 0 && queue.isEmpty() ) {
+                    break;
+                }
+            }
+        } finally {
+            final long commitStart = System.currentTimeMillis();
+            indexEngine.commit( cluster );
+            writeTime += System.currentTimeMillis() - commitStart;
+        }
+        return writeTime;
+    }
+
+    //Build the Data Model Oracle of a folder's Project once, before the indexers of its files each look it up
+    private void buildProjectDataModelOracle( final Path folder,
+                                              final ConcurrentMap<Path, ProjectOracle> projectOracles ) {
+        final Project project;
+        try {
+            project = resolveProject( folder );
+        } catch ( Exception e ) {
+            logger.error( "Unable to resolve Project for '" + folder.toUri().toString() + "'.",
+                          e );
+            return;
+        }
+        if ( project == null ) {
+            return;
+        }
+        final Path projectRoot = Paths.convert( project.getRootPath() );
+        projectOracles.putIfAbsent( projectRoot,
+                                    new ProjectOracle() );
+        final ProjectOracle oracle = projectOracles.get( projectRoot );
+        synchronized ( oracle ) {
+            if ( oracle.built ) {
+                return;
+            }
+            try {
+                dataModelService.getProjectDataModel( Paths.convert( folder ) );
+            } catch ( Exception e ) {
+                logger.error( "Unable to build Data Model Oracle for '" + projectRoot.toUri().toString() + "'.",
+                              e );
+            }
+            oracle.built = true;
+        }
+    }
+
+    Project resolveProject( final Path folder ) {
+        return projectService.resolveProject( Paths.convert( folder ) );
+    }
+
+    private boolean indexFile( final Path file,
+                               final List<Indexer> indexers,
+                               final BlockingQueue<KObject> queue ) throws InterruptedException {
+        boolean indexed = true;
+        for ( Indexer indexer : indexers ) {
+            try {
+                if ( indexer.supportsPath( file ) ) {
+                    final KObject kObject = indexer.toKObject( file );
+                    if ( kObject == null ) {
+                        indexed = false;
+                    } else {
+                        queue.put( kObject );
+                    }
+                }
+            } catch ( RuntimeException e ) {
+                logger.error( "Unable to index '" + file.toUri().toString() + "'.",
+                              e );
+                indexed = false;
+            }
+        }
+        return indexed;
+    }
+
+    //Files grouped by their folder, which is their package. Folders beginning with "." hold metadata, not assets.
+    private Map<Path, List<Path>> findFiles( final FileSystem fs ) {
+        final Map<Path, List<Path>> packages = new LinkedHashMap<Path, List<Path>>();
+        for ( Path root : fs.getRootDirectories() ) {
+            Files.walkFileTree( root,
+                                new SimpleFileVisitor<Path>() {
+                                    @Override
+                                    public FileVisitResult preVisitDirectory( final Path dir,
+                                                                              final BasicFileAttributes attrs ) {
+                                        if ( dir.getFileName() != null && dir.getFileName().toString().startsWith( "." ) ) {
+                                            return FileVisitResult.SKIP_SUBTREE;
+                                        }
+                                        return FileVisitResult.CONTINUE;
+                                    }
+
+                                    @Override
+                                    public FileVisitResult visitFile( final Path file,
+                                                                      final BasicFileAttributes attrs ) {
+                                        if ( file.getFileName().toString().startsWith( "." ) ) {
+                                            return FileVisitResult.CONTINUE;
+                                        }
+                                        List<Path> files = packages.get( file.getParent() );
+                                        if ( files == null ) {
+                                            files = new ArrayList<Path>();
+                                            packages.put( file.getParent(),
+                                                          files );
+                                        }
+                                        files.add( file );
+                                        return FileVisitResult.CONTINUE;
+                                    }
+                                } );
+        }
+        return packages;
+    }
+
+    private List<Indexer> getIndexers() {
+        final List<Indexer> result = new ArrayList<Indexer>();
+        for ( Indexer indexer : indexers ) {
+            result.add( indexer );
+        }
+        return result;
+    }
+
+    private int getWorkers() {
+        return Math.max( 1,
+                         Integer.getInteger( WORKERS_PROPERTY,
+                                             Runtime.getRuntime().availableProcessors() ) );
+    }
+
+    private static class ProjectOracle {
+
+        private boolean built;
+
+    }
+
+    static class Statistics {
+
+        private final AtomicLong files = new AtomicLong();
+        private final AtomicLong failures = new AtomicLong();
+
+        long getFiles() {
+            return files.get();
+        }
+
+        long getFailures() {
+            return failures.get();
+        }
+
+    }
+
+}
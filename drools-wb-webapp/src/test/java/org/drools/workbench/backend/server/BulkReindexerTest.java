@@ -0,0 +1,220 @@
+/*
+ * Copyright 2015 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.drools.workbench.backend.server;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.guvnor.common.services.project.model.Project;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InOrder;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.uberfire.ext.metadata.engine.Indexer;
+import org.uberfire.ext.metadata.engine.MetaIndexEngine;
+import org.uberfire.ext.metadata.model.KCluster;
+import org.uberfire.ext.metadata.model.KObject;
+import org.uberfire.java.nio.file.Path;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class BulkReindexerTest {
+
+    private KCluster cluster;
+    private MetaIndexEngine indexEngine;
+    private Indexer indexer;
+    private final List<ExecutorService> executors = new ArrayList<ExecutorService>();
+
+    private BulkReindexer reindexer = new BulkReindexer() {
+        @Override
+        Project resolveProject( final Path folder ) {
+            //No Projects in these tests
+            return null;
+        }
+
+        @Override
+        ExecutorService newExecutor( final int workers ) {
+            final ExecutorService executor = super.newExecutor( workers );
+            executors.add( executor );
+            return executor;
+        }
+    };
+
+    @Before
+    public void setup() {
+        cluster = mock( KCluster.class );
+        when( cluster.getClusterId() ).thenReturn( "repository" );
+        indexEngine = mock( MetaIndexEngine.class );
+        indexer = mock( Indexer.class );
+        when( indexer.supportsPath( any( Path.class ) ) ).thenReturn( true );
+    }
+
+    @Test
+    public void testEveryKObjectIsWrittenInOneBatch() {
+        //More files than the writer's queue holds, so workers wait on the writer
+        final Map<Path, List<Path>> packages = makePackages( 4,
+                                                             100 );
+        final List<KObject> kObjects = new ArrayList<KObject>();
+        for ( List<Path> files : packages.values() ) {
+            for ( Path file : files ) {
+                final KObject kObject = mock( KObject.class );
+                when( indexer.toKObject( file ) ).thenReturn( kObject );
+                kObjects.add( kObject );
+            }
+        }
+
+        final BulkReindexer.Statistics statistics = reindex( packages,
+                                                             2 );
+
+        assertEquals( 400,
+                      statistics.getFiles() );
+        assertEquals( 0,
+                      statistics.getFailures() );
+        final InOrder inOrder = inOrder( indexEngine );
+        inOrder.verify( indexEngine ).startBatch( cluster );
+        inOrder.verify( indexEngine,
+                        times( 400 ) ).index( any( KObject.class ) );
+        inOrder.verify( indexEngine ).commit( cluster );
+        for ( KObject kObject : kObjects ) {
+            verify( indexEngine ).index( kObject );
+        }
+    }
+
+    @Test
+    public void testFailuresAreCounted() {
+        final Map<Path, List<Path>> packages = makePackages( 1,
+                                                             4 );
+        final List<Path> files = packages.values().iterator().next();
+        when( indexer.toKObject( files.get( 0 ) ) ).thenReturn( mock( KObject.class ) );
+        when( indexer.toKObject( files.get( 1 ) ) ).thenReturn( null );
+        when( indexer.toKObject( files.get( 2 ) ) ).thenThrow( new IllegalStateException( "Unparseable" ) );
+        when( indexer.supportsPath( files.get( 3 ) ) ).thenReturn( false );
+
+        final BulkReindexer.Statistics statistics = reindex( packages,
+                                                             1 );
+
+        assertEquals( 4,
+                      statistics.getFiles() );
+        assertEquals( 2,
+                      statistics.getFailures() );
+        verify( indexEngine ).index( any( KObject.class ) );
+        verify( indexEngine ).commit( cluster );
+    }
+
+    @Test
+    public void testWorkersAreShutDown() {
+        reindex( makePackages( 2,
+                               2 ),
+                 2 );
+
+        assertEquals( 1,
+                      executors.size() );
+        assertTrue( executors.get( 0 ).isShutdown() );
+    }
+
+    @Test
+    public void testInterruptedReindexIsCommittedAndShutDown() {
+        Thread.currentThread().interrupt();
+        reindex( makePackages( 2,
+                               2 ),
+                 2 );
+
+        //The interrupt is kept for the caller
+        assertTrue( Thread.interrupted() );
+        verify( indexEngine ).commit( cluster );
+        assertTrue( executors.get( 0 ).isShutdown() );
+    }
+
+    @Test
+    public void testClusterIsNotReindexedConcurrently() throws Exception {
+        final Map<Path, List<Path>> packages = makePackages( 1,
+                                                             1 );
+        final CountDownLatch started = new CountDownLatch( 1 );
+        final CountDownLatch release = new CountDownLatch( 1 );
+        when( indexer.toKObject( any( Path.class ) ) ).thenAnswer( new Answer<KObject>() {
+            @Override
+            public KObject answer( final InvocationOnMock invocation ) throws Throwable {
+                started.countDown();
+                release.await();
+                return mock( KObject.class );
+            }
+        } );
+
+        final BulkReindexer.Statistics[] first = new BulkReindexer.Statistics[ 1 ];
+        final Thread thread = new Thread( new Runnable() {
+            @Override
+            public void run() {
+                first[ 0 ] = reindex( packages,
+                                      1 );
+            }
+        } );
+        thread.start();
+        try {
+            assertTrue( started.await( 10,
+                                       TimeUnit.SECONDS ) );
+
+            assertNull( reindex( packages,
+                                 1 ) );
+        } finally {
+            release.countDown();
+            thread.join( TimeUnit.SECONDS.toMillis( 10 ) );
+        }
+        assertNotNull( first[ 0 ] );
+
+        //Once finished the cluster can be reindexed again
+        assertNotNull( reindex( packages,
+                                1 ) );
+    }
+
+    private BulkReindexer.Statistics reindex( final Map<Path, List<Path>> packages,
+                                              final int workers ) {
+        return reindexer.reindex( cluster,
+                                  indexEngine,
+                                  packages,
+                                  Collections.singletonList( indexer ),
+                                  workers );
+    }
+
+    private Map<Path, List<Path>> makePackages( final int packageCount,
+                                                final int filesPerPackage ) {
+        final Map<Path, List<Path>> packages = new LinkedHashMap<Path, List<Path>>();
+        for ( int iPackage = 0; iPackage < packageCount; iPackage++ ) {
+            final List<Path> files = new ArrayList<Path>();
+            for ( int iFile = 0; iFile < filesPerPackage; iFile++ ) {
+                files.add( makePath( "default://repository/package" + iPackage + "/file" + iFile + ".drl" ) );
+            }
+            packages.put( makePath( "default://repository/package" + iPackage ),
+                          files );
+        }
+        return packages;
+    }
+
+    private Path makePath( final String uri ) {
+        final Path path = mock( Path.class );
+        when( path.toUri() ).thenReturn( URI.create( uri ) );
+        return path;
+    }
+
+}